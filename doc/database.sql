@@ -121,6 +121,7 @@ drop table if exists `sys_crontab`;
 create table `sys_crontab`(
     `title` varchar(64),
     `cron` varchar(64),
+    `handler` varchar(64),
     `delay` int(11),
     `fixed` int(11),
     `execute` int(11),
@@ -128,6 +129,20 @@ create table `sys_crontab`(
     `note` varchar(64)
 );
 
+drop table if exists `sys_crontab_log`;
+
+create table `sys_crontab_log`(
+    `crontab_id` int(11),
+    `title` varchar(64),
+    `schedule_time` timestamp,
+    `start_time` timestamp,
+    `lag_millis` int(11),
+    `duration` int(11),
+    `status` int(11),
+    `error_msg` varchar(2000),
+    `create_time` timestamp
+);
+
 drop table if exists `sys_dep`;
 
 create table `sys_dep`(
@@ -0,0 +1,40 @@
+package com.kestrelcjx.admin.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.kestrelcjx.common.tree.Hierarchy;
+import com.kestrelcjx.admin.entity.ProductCategory;
+import com.kestrelcjx.admin.mapper.ProductCategoryMapper;
+import com.kestrelcjx.system.cache.HierarchyCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 商品分类层级缓存
+ * 含已删除商品分类，历史数据仍可显示名称路径
+ */
+@Component
+public class ProductCategoryCache extends HierarchyCache<ProductCategory> {
+    @Autowired
+    private ProductCategoryMapper productCategoryMapper;
+
+    @Override
+    protected String getCacheName() {
+        return "productCategory";
+    }
+
+    @Override
+    protected List<ProductCategory> loadList() {
+        QueryWrapper<ProductCategory> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("id", "pid", "name");
+        queryWrapper.orderByDesc("sort");
+        queryWrapper.orderByAsc("id");
+        return productCategoryMapper.selectList(queryWrapper);
+    }
+
+    @Override
+    protected Hierarchy build(List<ProductCategory> list) {
+        return Hierarchy.of(list, ProductCategory::getId, item -> item.getPid() != null ? item.getPid() : 0, ProductCategory::getName);
+    }
+}
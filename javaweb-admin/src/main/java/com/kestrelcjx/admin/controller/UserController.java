@@ -6,12 +6,16 @@ import com.kestrelcjx.admin.service.IUserService;
 import com.kestrelcjx.common.annotation.Log;
 import com.kestrelcjx.common.common.BaseController;
 import com.kestrelcjx.common.enums.BusinessType;
+import com.kestrelcjx.common.utils.ExcelImporter;
 import com.kestrelcjx.common.utils.JsonResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -124,4 +128,24 @@ public class UserController extends BaseController {
     public JsonResult setStatus(@RequestBody User entity) {
         return userService.setStatus(entity);
     }
+
+    /**
+     * 导入Excel
+     *
+     * @param file Excel文件（第一行为表头）
+     * @return 导入结果（含逐行错误信息）
+     */
+//    @RequiresPermissions("sys:user:import")
+    @Log(title = "会员用户", businessType = BusinessType.IMPORT)
+    @ResponseBody
+    @PostMapping("/import")
+    public JsonResult importExcel(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            return JsonResult.error("请选择导入文件");
+        }
+        try (InputStream is = file.getInputStream()) {
+            ExcelImporter.Result result = userService.importExcel(is, null);
+            return JsonResult.success(String.format("导入完成，成功%d行，失败%d行", result.getSuccess(), result.getFail()), result);
+        }
+    }
 }
@@ -30,6 +30,10 @@ public class ProductSkuListDto {
      * 库存
      */
     private Integer stock;
+    /**
+     * 加载时的库存（已有SKU按与库存的差额调整库存，为空时不调整库存）
+     */
+    private Integer originStock;
     /**
      * SKU编码
      */
@@ -74,6 +78,10 @@ public class ProductSkuListDto {
         return this.stock;
     }
 
+    public Integer getOriginStock() {
+        return this.originStock;
+    }
+
     public String getSkuCode() {
         return this.skuCode;
     }
@@ -114,6 +122,10 @@ public class ProductSkuListDto {
         this.stock = stock;
     }
 
+    public void setOriginStock(Integer originStock) {
+        this.originStock = originStock;
+    }
+
     public void setSkuCode(String skuCode) {
         this.skuCode = skuCode;
     }
@@ -156,6 +168,10 @@ public class ProductSkuListDto {
         final Object this$stock = this.getStock();
         final Object other$stock = other.getStock();
         if (this$stock == null ? other$stock != null : !this$stock.equals(other$stock)) return false;
+        final Object this$originStock = this.getOriginStock();
+        final Object other$originStock = other.getOriginStock();
+        if (this$originStock == null ? other$originStock != null : !this$originStock.equals(other$originStock))
+            return false;
         final Object this$skuCode = this.getSkuCode();
         final Object other$skuCode = other.getSkuCode();
         if (this$skuCode == null ? other$skuCode != null : !this$skuCode.equals(other$skuCode)) return false;
@@ -190,6 +206,8 @@ public class ProductSkuListDto {
         result = result * PRIME + ($originalPrice == null ? 43 : $originalPrice.hashCode());
         final Object $stock = this.getStock();
         result = result * PRIME + ($stock == null ? 43 : $stock.hashCode());
+        final Object $originStock = this.getOriginStock();
+        result = result * PRIME + ($originStock == null ? 43 : $originStock.hashCode());
         final Object $skuCode = this.getSkuCode();
         result = result * PRIME + ($skuCode == null ? 43 : $skuCode.hashCode());
         final Object $volume = this.getVolume();
@@ -202,6 +220,6 @@ public class ProductSkuListDto {
     }
 
     public String toString() {
-        return "ProductSkuListDto(attributeValue=" + this.getAttributeValue() + ", productPic=" + this.getProductPic() + ", price=" + this.getPrice() + ", costPrice=" + this.getCostPrice() + ", originalPrice=" + this.getOriginalPrice() + ", stock=" + this.getStock() + ", skuCode=" + this.getSkuCode() + ", volume=" + this.getVolume() + ", weight=" + this.getWeight() + ", status=" + this.getStatus() + ")";
+        return "ProductSkuListDto(attributeValue=" + this.getAttributeValue() + ", productPic=" + this.getProductPic() + ", price=" + this.getPrice() + ", costPrice=" + this.getCostPrice() + ", originalPrice=" + this.getOriginalPrice() + ", stock=" + this.getStock() + ", originStock=" + this.getOriginStock() + ", skuCode=" + this.getSkuCode() + ", volume=" + this.getVolume() + ", weight=" + this.getWeight() + ", status=" + this.getStatus() + ")";
     }
 }
@@ -1,5 +1,6 @@
 package com.kestrelcjx.admin.entity;
 
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.kestrelcjx.common.common.BaseEntity;
 
@@ -31,6 +32,11 @@ public class ProductSku extends BaseEntity {
      * 属性对应的库存
      */
     private Integer stock;
+    /**
+     * 表单加载时的库存（编辑时与提交的库存相减得到调整量）
+     */
+    @TableField(exist = false)
+    private Integer originStock;
     /**
      * 销量
      */
@@ -107,6 +113,10 @@ public class ProductSku extends BaseEntity {
         return this.stock;
     }
 
+    public Integer getOriginStock() {
+        return this.originStock;
+    }
+
     public Integer getSales() {
         return this.sales;
     }
@@ -184,6 +194,11 @@ public class ProductSku extends BaseEntity {
         return this;
     }
 
+    public ProductSku setOriginStock(Integer originStock) {
+        this.originStock = originStock;
+        return this;
+    }
+
     public ProductSku setSales(Integer sales) {
         this.sales = sales;
         return this;
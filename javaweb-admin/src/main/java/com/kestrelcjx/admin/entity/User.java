@@ -2,6 +2,7 @@ package com.kestrelcjx.admin.entity;
 
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.kestrelcjx.common.annotation.Excel;
 import com.kestrelcjx.common.common.BaseEntity;
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -16,14 +17,17 @@ public class User extends BaseEntity {
     /**
      * 真实姓名
      */
+    @Excel(name = "真实姓名")
     private String realname;
     /**
      * 用户昵称
      */
+    @Excel(name = "用户昵称")
     private String nickname;
     /**
      * 性别：1男 2女 3未知
      */
+    @Excel(name = "性别", readConverterExp = "1=男,2=女,3=未知")
     private Integer gender;
     /**
      * 用户头像
@@ -32,16 +36,19 @@ public class User extends BaseEntity {
     /**
      * 手机号
      */
+    @Excel(name = "手机号")
     private String mobile;
     /**
      * 出生日期
      */
+    @Excel(name = "出生日期", dateFormat = "yyyy-MM-dd")
     @DateTimeFormat(pattern = "yyyy-MM-dd")
     @JsonFormat(pattern = "yyyy-MM-dd", timezone = "GMT+8")
     private Date birthday;
     /**
      * 密码
      */
+    @Excel(name = "密码", type = Excel.Type.IMPORT)
     private String password;
     /**
      * 户籍省份编号
@@ -90,6 +97,7 @@ public class User extends BaseEntity {
     /**
      * 是否启用：1启用  2停用
      */
+    @Excel(name = "状态", readConverterExp = "1=启用,2=停用")
     private Integer status;
     /**
      * 客户端版本号
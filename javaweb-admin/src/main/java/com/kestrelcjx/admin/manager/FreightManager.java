@@ -0,0 +1,159 @@
+package com.kestrelcjx.admin.manager;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.kestrelcjx.admin.entity.FeightTemplate;
+import com.kestrelcjx.admin.mapper.FeightTemplateMapper;
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.freight.FreightCalculator;
+import com.kestrelcjx.common.freight.FreightRule;
+import com.kestrelcjx.common.utils.LazySnapshot;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.common.utils.TransactionUtils;
+import com.kestrelcjx.system.entity.City;
+import com.kestrelcjx.system.mapper.CityMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 运费计算管理
+ * 一次加载全部运费模板，目的地（以逗号分隔的城市ID，可为省、市、区县）展开下级城市后编译为位图，计价时不再查询和解析模板
+ * 运费模板变更提交后清空编译结果并通过Redis发布/订阅通知其他节点
+ */
+@Component
+public class FreightManager implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(FreightManager.class);
+
+    @Autowired
+    private FeightTemplateMapper feightTemplateMapper;
+    @Autowired
+    private CityMapper cityMapper;
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 运费模板ID与编译后规则的对应关系（失效后下次访问重新编译）
+     */
+    private final LazySnapshot<Map<Integer, FreightRule>> ruleMap = new LazySnapshot<>(this::compile);
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(RedisConstant.REDIS_CHANNEL_FREIGHT_EVICT));
+    }
+
+    /**
+     * 计算订单运费
+     *
+     * @param cityId 收货城市ID（区县、市或省）
+     * @param items  订单商品（可跨店铺）
+     * @return
+     */
+    public FreightCalculator.Quote quote(int cityId, List<FreightCalculator.Item> items) {
+        Map<Integer, FreightRule> rules = ruleMap.get();
+        return FreightCalculator.quote(cityId, items, rules::get);
+    }
+
+    /**
+     * 获取编译后的运费规则
+     *
+     * @param templateId 运费模板ID
+     * @return 模板不存在时返回null
+     */
+    public FreightRule getRule(Integer templateId) {
+        return ruleMap.get().get(templateId);
+    }
+
+    /**
+     * 清空编译结果，并通知其他节点（在事务中调用时于提交后执行）
+     */
+    public void evictAll() {
+        TransactionUtils.afterCommit(() -> {
+            ruleMap.invalidate();
+            try {
+                redisUtils.publish(RedisConstant.REDIS_CHANNEL_FREIGHT_EVICT, "*");
+            } catch (Exception e) {
+                logger.error("运费模板失效通知发布失败：{}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 接收其他节点的失效通知
+     *
+     * @param message 消息
+     * @param pattern 频道
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        ruleMap.invalidate();
+    }
+
+    /**
+     * 加载全部运费模板及城市，编译运费规则
+     *
+     * @return
+     */
+    private Map<Integer, FreightRule> compile() {
+        QueryWrapper<FeightTemplate> templateQueryWrapper = new QueryWrapper<>();
+        templateQueryWrapper.eq("mark", 1);
+        List<FeightTemplate> templateList = feightTemplateMapper.selectList(templateQueryWrapper);
+        // 城市ID与下级城市ID的对应关系
+        QueryWrapper<City> cityQueryWrapper = new QueryWrapper<>();
+        cityQueryWrapper.select("id", "pid");
+        cityQueryWrapper.eq("mark", 1);
+        Map<Integer, List<Integer>> childrenMap = new HashMap<>();
+        int maxCityId = 0;
+        for (City city : cityMapper.selectList(cityQueryWrapper)) {
+            childrenMap.computeIfAbsent(city.getPid(), k -> new ArrayList<>()).add(city.getId());
+            maxCityId = Math.max(maxCityId, city.getId());
+        }
+        Map<Integer, FreightRule> rules = new HashMap<>(templateList.size() * 2);
+        for (FeightTemplate template : templateList) {
+            BitSet regions = null;
+            if (!StringUtils.isEmpty(template.getDest())) {
+                regions = new BitSet(maxCityId + 1);
+                Deque<Integer> stack = new ArrayDeque<>();
+                for (String dest : template.getDest().split(",")) {
+                    if (!StringUtils.isEmpty(dest.trim())) {
+                        stack.push(Integer.valueOf(dest.trim()));
+                    }
+                }
+                // 展开下级城市
+                while (!stack.isEmpty()) {
+                    int cityId = stack.pop();
+                    if (cityId < 0 || regions.get(cityId)) {
+                        continue;
+                    }
+                    regions.set(cityId);
+                    List<Integer> children = childrenMap.get(cityId);
+                    if (children != null) {
+                        children.forEach(stack::push);
+                    }
+                }
+            }
+            int chargeType = template.getChargeType() != null ? template.getChargeType() : FreightRule.CHARGE_WEIGHT;
+            rules.put(template.getId(), new FreightRule(template.getId(), chargeType, template.getFirstWeight(),
+                    template.getFirstFee(), template.getContinueWeight(), template.getContinueFee(), regions));
+        }
+        logger.info("编译运费模板完成，模板数：{}", rules.size());
+        return rules;
+    }
+}
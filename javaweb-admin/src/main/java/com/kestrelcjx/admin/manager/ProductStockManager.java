@@ -0,0 +1,476 @@
+package com.kestrelcjx.admin.manager;
+
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.kestrelcjx.admin.entity.ProductSku;
+import com.kestrelcjx.admin.mapper.ProductSkuMapper;
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.stock.StockLedger;
+import com.kestrelcjx.common.utils.RedisUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 商品SKU库存管理
+ * 提供库存预占、确认、释放，预占到期未确认自动释放，库存低于预警库存时发布通知
+ * 单节点模式下库存保存在内存台账中；集群模式下库存与预占保存在Redis中，由Lua脚本原子扣减
+ * 两种模式下库存、锁定库存、销量的变化均在本地按SKU合并，定时以增量方式写入数据库
+ */
+@Component
+public class ProductStockManager {
+    private static final Logger logger = LoggerFactory.getLogger(ProductStockManager.class);
+    /**
+     * SKU库存KEY前缀（集群模式）
+     */
+    private static final String SKU_KEY = "stock:sku:";
+    /**
+     * 预占记录KEY（集群模式）
+     */
+    private static final String RESERVATION_KEY = "stock:reservation";
+    /**
+     * 预占到期时间KEY（集群模式）
+     */
+    private static final String EXPIRE_KEY = "stock:reservation:expire";
+    /**
+     * 预占ID序列KEY（集群模式）
+     */
+    private static final String SEQUENCE_KEY = "stock:reservation:seq";
+    /**
+     * 每次清理的到期预占数（集群模式）
+     */
+    private static final int EXPIRE_BATCH_SIZE = 500;
+    /**
+     * 加载库存：未加载时写入可用库存及预警库存
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then return 0 end " +
+                    "redis.call('hset', KEYS[1], 'available', ARGV[1]) " +
+                    "redis.call('hset', KEYS[1], 'low', ARGV[2]) " +
+                    "return 1", Long.class);
+    /**
+     * 预占：返回{预占ID, 剩余可用库存, 预警库存}，库存不足时预占ID为0，未加载时为-1
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RESERVE_SCRIPT = new DefaultRedisScript<>(
+            "local available = redis.call('hget', KEYS[1], 'available') " +
+                    "if not available then return {-1, 0, 0} end " +
+                    "local quantity = tonumber(ARGV[2]) " +
+                    "if tonumber(available) < quantity then return {0, tonumber(available), 0} end " +
+                    "available = redis.call('hincrby', KEYS[1], 'available', -quantity) " +
+                    "local id = redis.call('incr', KEYS[4]) " +
+                    "redis.call('hset', KEYS[2], id, ARGV[1] .. ':' .. quantity) " +
+                    "redis.call('zadd', KEYS[3], ARGV[3], id) " +
+                    "return {id, available, tonumber(redis.call('hget', KEYS[1], 'low') or '0')}", List.class);
+    /**
+     * 确认或释放：移除预占记录，释放时恢复可用库存，返回“SKU ID:数量”，预占不存在时返回空
+     */
+    private static final RedisScript<String> FINISH_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('hget', KEYS[1], ARGV[1]) " +
+                    "if not value then return false end " +
+                    "redis.call('hdel', KEYS[1], ARGV[1]) " +
+                    "redis.call('zrem', KEYS[2], ARGV[1]) " +
+                    "if ARGV[3] == '1' then " +
+                    "  local index = string.find(value, ':', 1, true) " +
+                    "  local key = ARGV[2] .. string.sub(value, 1, index - 1) " +
+                    "  if redis.call('exists', key) == 1 then " +
+                    "    redis.call('hincrby', key, 'available', tonumber(string.sub(value, index + 1))) " +
+                    "  end " +
+                    "end " +
+                    "return value", String.class);
+    /**
+     * 释放到期预占：返回已释放的“SKU ID:数量”列表
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "local ids = redis.call('zrangebyscore', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) " +
+                    "local result = {} " +
+                    "for i, id in ipairs(ids) do " +
+                    "  redis.call('zrem', KEYS[2], id) " +
+                    "  local value = redis.call('hget', KEYS[1], id) " +
+                    "  if value then " +
+                    "    redis.call('hdel', KEYS[1], id) " +
+                    "    local index = string.find(value, ':', 1, true) " +
+                    "    local key = ARGV[3] .. string.sub(value, 1, index - 1) " +
+                    "    if redis.call('exists', key) == 1 then " +
+                    "      redis.call('hincrby', key, 'available', tonumber(string.sub(value, index + 1))) " +
+                    "    end " +
+                    "    table.insert(result, value) " +
+                    "  end " +
+                    "end " +
+                    "return result", List.class);
+    /**
+     * 调整库存及预警库存（已加载时）
+     */
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return 0 end " +
+                    "if ARGV[1] ~= '0' then redis.call('hincrby', KEYS[1], 'available', ARGV[1]) end " +
+                    "if ARGV[2] ~= '' then redis.call('hset', KEYS[1], 'low', ARGV[2]) end " +
+                    "return 1", Long.class);
+
+    @Autowired
+    private ProductSkuMapper productSkuMapper;
+    @Autowired
+    private RedisUtils redisUtils;
+    /**
+     * 是否集群模式（库存与预占保存在Redis中）
+     */
+    @Value("${stock.cluster:false}")
+    private Boolean cluster;
+    /**
+     * 预占默认有效期（秒）
+     */
+    @Value("${stock.reserveSeconds:900}")
+    private Integer reserveSeconds;
+    /**
+     * 到期预占清理间隔（毫秒）
+     */
+    @Value("${stock.expireMillis:1000}")
+    private Long expireMillis;
+    /**
+     * 库存增量写入间隔（毫秒）
+     */
+    @Value("${stock.flushMillis:1000}")
+    private Long flushMillis;
+
+    /**
+     * 库存台账（单节点模式保存库存及预占，集群模式只合并增量）
+     */
+    private final StockLedger ledger = new StockLedger(this::onLowStock);
+    /**
+     * 到期清理及增量写入线程
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * 预占成功次数（集群模式）
+     */
+    private final AtomicLong reserveCount = new AtomicLong();
+    /**
+     * 库存不足次数（集群模式）
+     */
+    private final AtomicLong insufficientCount = new AtomicLong();
+    /**
+     * 到期释放次数（集群模式）
+     */
+    private final AtomicLong expireCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-stock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::expire, expireMillis, expireMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 预占库存（默认有效期）
+     *
+     * @param skuId    SKU ID
+     * @param quantity 数量
+     * @return 预占ID，库存不足或SKU不存在时返回0
+     */
+    public long reserve(Integer skuId, int quantity) {
+        return reserve(skuId, quantity, reserveSeconds * 1000L);
+    }
+
+    /**
+     * 预占库存
+     *
+     * @param skuId     SKU ID
+     * @param quantity  数量
+     * @param ttlMillis 有效期（毫秒），到期未确认自动释放
+     * @return 预占ID，库存不足或SKU不存在时返回0
+     */
+    public long reserve(Integer skuId, int quantity, long ttlMillis) {
+        if (skuId == null || quantity <= 0) {
+            return StockLedger.INSUFFICIENT;
+        }
+        long now = System.currentTimeMillis();
+        if (cluster) {
+            long id = reserveRemote(skuId, quantity, now + ttlMillis);
+            if (id == StockLedger.NOT_LOADED && load(skuId)) {
+                id = reserveRemote(skuId, quantity, now + ttlMillis);
+            }
+            return Math.max(id, StockLedger.INSUFFICIENT);
+        }
+        long id = ledger.reserve(skuId, quantity, ttlMillis, now);
+        if (id == StockLedger.NOT_LOADED && load(skuId)) {
+            id = ledger.reserve(skuId, quantity, ttlMillis, now);
+        }
+        return Math.max(id, StockLedger.INSUFFICIENT);
+    }
+
+    /**
+     * 确认预占（订单支付后调用，扣减库存并增加销量）
+     *
+     * @param reservationId 预占ID
+     * @return 预占不存在（已确认、已释放或已到期）时返回false
+     */
+    public boolean confirm(long reservationId) {
+        if (!cluster) {
+            return ledger.confirm(reservationId);
+        }
+        int[] reservation = finishRemote(reservationId, false);
+        if (reservation == null) {
+            return false;
+        }
+        ledger.record(reservation[0], -reservation[1], -reservation[1], reservation[1]);
+        return true;
+    }
+
+    /**
+     * 释放预占（订单取消后调用）
+     *
+     * @param reservationId 预占ID
+     * @return 预占不存在（已确认、已释放或已到期）时返回false
+     */
+    public boolean release(long reservationId) {
+        if (!cluster) {
+            return ledger.release(reservationId);
+        }
+        int[] reservation = finishRemote(reservationId, true);
+        if (reservation == null) {
+            return false;
+        }
+        ledger.record(reservation[0], 0, -reservation[1], 0);
+        return true;
+    }
+
+    /**
+     * 调整库存及预警库存（后台编辑SKU后调用）
+     *
+     * @param skuId    SKU ID
+     * @param delta    库存增量
+     * @param lowStock 预警库存，为null时不修改
+     */
+    public void adjust(Integer skuId, int delta, Integer lowStock) {
+        if (cluster) {
+            redisUtils.eval(ADJUST_SCRIPT, Collections.singletonList(SKU_KEY + skuId),
+                    String.valueOf(delta), lowStock != null ? String.valueOf(lowStock) : "");
+            if (delta != 0) {
+                ledger.record(skuId, delta, 0, 0);
+            }
+            return;
+        }
+        if (delta != 0) {
+            ledger.adjustStock(skuId, delta);
+        }
+        if (lowStock != null) {
+            ledger.setLowStock(skuId, lowStock);
+        }
+    }
+
+    /**
+     * 卸载SKU库存（SKU删除后调用）
+     *
+     * @param skuId SKU ID
+     */
+    public void unload(Integer skuId) {
+        if (cluster) {
+            redisUtils.del(SKU_KEY + skuId);
+        } else {
+            ledger.unload(skuId);
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cluster", cluster);
+        stats.putAll(ledger.getStats());
+        if (cluster) {
+            stats.put("reserved", reserveCount.get());
+            stats.put("insufficient", insufficientCount.get());
+            stats.put("expired", expireCount.get());
+        }
+        return stats;
+    }
+
+    /**
+     * 停止清理并写入剩余增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        flush();
+        logger.info("库存管理统计：{}", getStats());
+    }
+
+    /**
+     * 从数据库加载SKU库存
+     *
+     * @param skuId SKU ID
+     * @return SKU不存在时返回false
+     */
+    private boolean load(Integer skuId) {
+        ProductSku productSku = productSkuMapper.selectById(skuId);
+        if (productSku == null || !Integer.valueOf(1).equals(productSku.getMark())) {
+            return false;
+        }
+        int stock = productSku.getStock() != null ? productSku.getStock() : 0;
+        int lockStock = productSku.getLockStock() != null ? productSku.getLockStock() : 0;
+        int lowStock = productSku.getLowStock() != null ? productSku.getLowStock() : 0;
+        if (cluster) {
+            // 预占保存在Redis中，数据库中的锁定库存为未完成的预占
+            redisUtils.eval(LOAD_SCRIPT, Collections.singletonList(SKU_KEY + skuId),
+                    String.valueOf(stock - lockStock), String.valueOf(lowStock));
+        } else {
+            ledger.load(skuId, stock, lockStock, lowStock);
+        }
+        return true;
+    }
+
+    /**
+     * 在Redis中预占库存
+     *
+     * @param skuId    SKU ID
+     * @param quantity 数量
+     * @param expireAt 到期时间（毫秒）
+     * @return 预占ID，库存不足返回0，未加载返回-1
+     */
+    private long reserveRemote(Integer skuId, int quantity, long expireAt) {
+        List<?> result = redisUtils.eval(RESERVE_SCRIPT,
+                Arrays.asList(SKU_KEY + skuId, RESERVATION_KEY, EXPIRE_KEY, SEQUENCE_KEY),
+                String.valueOf(skuId), String.valueOf(quantity), String.valueOf(expireAt));
+        if (result == null || result.size() < 3) {
+            return StockLedger.INSUFFICIENT;
+        }
+        long id = ((Number) result.get(0)).longValue();
+        if (id == StockLedger.NOT_LOADED) {
+            return id;
+        }
+        if (id == StockLedger.INSUFFICIENT) {
+            insufficientCount.incrementAndGet();
+            return id;
+        }
+        reserveCount.incrementAndGet();
+        ledger.record(skuId, 0, quantity, 0);
+        long available = ((Number) result.get(1)).longValue();
+        int lowStock = ((Number) result.get(2)).intValue();
+        if (lowStock > 0 && available + quantity >= lowStock && available < lowStock) {
+            onLowStock(skuId, available, lowStock);
+        }
+        return id;
+    }
+
+    /**
+     * 在Redis中确认或释放预占
+     *
+     * @param reservationId 预占ID
+     * @param restore       是否恢复可用库存
+     * @return SKU ID及数量，预占不存在时返回null
+     */
+    private int[] finishRemote(long reservationId, boolean restore) {
+        String value = redisUtils.eval(FINISH_SCRIPT, Arrays.asList(RESERVATION_KEY, EXPIRE_KEY),
+                String.valueOf(reservationId), SKU_KEY, restore ? "1" : "0");
+        return parse(value);
+    }
+
+    /**
+     * 解析预占记录
+     *
+     * @param value SKU ID:数量
+     * @return
+     */
+    private int[] parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        int index = value.indexOf(':');
+        return new int[]{Integer.parseInt(value.substring(0, index)), Integer.parseInt(value.substring(index + 1))};
+    }
+
+    /**
+     * 释放到期的预占
+     */
+    private void expire() {
+        try {
+            long now = System.currentTimeMillis();
+            if (!cluster) {
+                ledger.expire(now);
+                return;
+            }
+            List<?> result;
+            do {
+                result = redisUtils.eval(EXPIRE_SCRIPT, Arrays.asList(RESERVATION_KEY, EXPIRE_KEY),
+                        String.valueOf(now), String.valueOf(EXPIRE_BATCH_SIZE), SKU_KEY);
+                if (result == null) {
+                    return;
+                }
+                for (Object value : result) {
+                    int[] reservation = parse(value.toString());
+                    ledger.record(reservation[0], 0, -reservation[1], 0);
+                }
+                expireCount.addAndGet(result.size());
+            } while (result.size() >= EXPIRE_BATCH_SIZE);
+        } catch (Exception e) {
+            logger.error("释放到期库存预占失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按SKU合并写入库存增量，写入失败的增量放回待下次写入
+     */
+    private void flush() {
+        List<int[]> deltaList = ledger.drain();
+        for (int i = 0; i < deltaList.size(); i++) {
+            int[] delta = deltaList.get(i);
+            try {
+                UpdateWrapper<ProductSku> updateWrapper = new UpdateWrapper<>();
+                updateWrapper.setSql("stock = ifnull(stock, 0) + " + delta[1]
+                        + ", lock_stock = ifnull(lock_stock, 0) + " + delta[2]
+                        + ", sales = ifnull(sales, 0) + " + delta[3]);
+                updateWrapper.eq("id", delta[0]);
+                productSkuMapper.update(null, updateWrapper);
+            } catch (Exception e) {
+                logger.error("写入库存增量失败：{}", e.getMessage());
+                for (int j = i; j < deltaList.size(); j++) {
+                    int[] rest = deltaList.get(j);
+                    ledger.record(rest[0], rest[1], rest[2], rest[3]);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 可用库存低于预警库存
+     *
+     * @param skuId     SKU ID
+     * @param available 可用库存
+     * @param lowStock  预警库存
+     */
+    private void onLowStock(int skuId, long available, int lowStock) {
+        logger.warn("SKU[{}]库存不足，可用库存：{}，预警库存：{}", skuId, available, lowStock);
+        try {
+            redisUtils.publish(RedisConstant.REDIS_CHANNEL_STOCK_LOW, skuId + ":" + available);
+        } catch (Exception e) {
+            logger.error("库存预警通知发布失败：{}", e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.kestrelcjx.admin.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.kestrelcjx.admin.entity.Product;
+import com.kestrelcjx.admin.query.ProductQuery;
+import com.kestrelcjx.admin.vo.ProductListVo;
+import org.apache.ibatis.annotations.Param;
 
 /**
  * 商品 Mapper 接口
  */
 public interface ProductMapper extends BaseMapper<Product> {
-
+    /**
+     * 获取商品列表（一次查询关联商品分类名称、品牌名称）
+     *
+     * @param page  分页参数
+     * @param param 查询条件
+     * @return
+     */
+    IPage<ProductListVo> getProductList(IPage<ProductListVo> page, @Param("param") ProductQuery param);
 }
@@ -2,6 +2,8 @@ package com.kestrelcjx.admin.query;
 
 import com.kestrelcjx.common.common.BaseQuery;
 
+import java.util.List;
+
 /**
  * 商品查询条件
  */
@@ -38,6 +40,14 @@ public class ProductQuery extends BaseQuery {
      * 是否包邮：1是 2否
      */
     private Integer isPostage;
+    /**
+     * 商品分类ID（含下级分类）
+     */
+    private Integer productCategoryId;
+    /**
+     * 商品分类ID及全部下级分类ID（由服务层根据productCategoryId展开）
+     */
+    private List<Integer> productCategoryIds;
 
     public ProductQuery() {
     }
@@ -74,6 +84,14 @@ public class ProductQuery extends BaseQuery {
         return this.isPostage;
     }
 
+    public Integer getProductCategoryId() {
+        return this.productCategoryId;
+    }
+
+    public List<Integer> getProductCategoryIds() {
+        return this.productCategoryIds;
+    }
+
     public void setIsHot(Integer isHot) {
         this.isHot = isHot;
     }
@@ -106,6 +124,14 @@ public class ProductQuery extends BaseQuery {
         this.isPostage = isPostage;
     }
 
+    public void setProductCategoryId(Integer productCategoryId) {
+        this.productCategoryId = productCategoryId;
+    }
+
+    public void setProductCategoryIds(List<Integer> productCategoryIds) {
+        this.productCategoryIds = productCategoryIds;
+    }
+
     public boolean equals(final Object o) {
         if (o == this) return true;
         if (!(o instanceof ProductQuery)) return false;
@@ -138,6 +164,10 @@ public class ProductQuery extends BaseQuery {
         final Object this$isPostage = this.getIsPostage();
         final Object other$isPostage = other.getIsPostage();
         if (this$isPostage == null ? other$isPostage != null : !this$isPostage.equals(other$isPostage)) return false;
+        final Object this$productCategoryId = this.getProductCategoryId();
+        final Object other$productCategoryId = other.getProductCategoryId();
+        if (this$productCategoryId == null ? other$productCategoryId != null : !this$productCategoryId.equals(other$productCategoryId))
+            return false;
         return true;
     }
 
@@ -164,10 +194,12 @@ public class ProductQuery extends BaseQuery {
         result = result * PRIME + ($promotionType == null ? 43 : $promotionType.hashCode());
         final Object $isPostage = this.getIsPostage();
         result = result * PRIME + ($isPostage == null ? 43 : $isPostage.hashCode());
+        final Object $productCategoryId = this.getProductCategoryId();
+        result = result * PRIME + ($productCategoryId == null ? 43 : $productCategoryId.hashCode());
         return result;
     }
 
     public String toString() {
-        return "ProductQuery(isHot=" + this.getIsHot() + ", isRecommand=" + this.getIsRecommand() + ", isNew=" + this.getIsNew() + ", verifyStatus=" + this.getVerifyStatus() + ", status=" + this.getStatus() + ", service=" + this.getService() + ", promotionType=" + this.getPromotionType() + ", isPostage=" + this.getIsPostage() + ")";
+        return "ProductQuery(isHot=" + this.getIsHot() + ", isRecommand=" + this.getIsRecommand() + ", isNew=" + this.getIsNew() + ", verifyStatus=" + this.getVerifyStatus() + ", status=" + this.getStatus() + ", service=" + this.getService() + ", promotionType=" + this.getPromotionType() + ", isPostage=" + this.getIsPostage() + ", productCategoryId=" + this.getProductCategoryId() + ")";
     }
 }
@@ -2,10 +2,20 @@ package com.kestrelcjx.admin.service;
 
 import com.kestrelcjx.admin.entity.FeightTemplate;
 import com.kestrelcjx.common.common.IBaseService;
+import com.kestrelcjx.common.freight.FreightCalculator;
+
+import java.util.List;
 
 /**
  * 运费模版 服务类
  */
 public interface IFeightTemplateService extends IBaseService<FeightTemplate> {
-
-}
\ No newline at end of file
+    /**
+     * 计算订单运费
+     *
+     * @param cityId 收货城市ID（区县、市或省）
+     * @param items  订单商品（可跨店铺）
+     * @return
+     */
+    FreightCalculator.Quote quote(int cityId, List<FreightCalculator.Item> items);
+}
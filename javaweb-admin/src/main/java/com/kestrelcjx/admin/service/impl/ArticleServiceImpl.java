@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.constant.ArticleConstant;
 import com.kestrelcjx.admin.entity.Article;
 import com.kestrelcjx.admin.mapper.ArticleMapper;
@@ -16,7 +15,6 @@ import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.service.IItemCateService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -59,11 +57,9 @@ public class ArticleServiceImpl extends BaseServiceImpl<ArticleMapper, Article>
             queryWrapper.eq("status", articleQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<Article> page = new Page<>(articleQuery.getPage(), articleQuery.getLimit());
-        IPage<Article> data = articleMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Article> data = this.selectPage(articleQuery, queryWrapper, false);
         List<Article> articleList = data.getRecords();
         List<ArticleListVo> articleListVoList = new ArrayList<>();
         if (!articleList.isEmpty()) {
@@ -87,17 +83,11 @@ public class ArticleServiceImpl extends BaseServiceImpl<ArticleMapper, Article>
                 if (articleListVo.getStatus() != null && articleListVo.getStatus() > 0) {
                     articleListVo.setStatusName(ArticleConstant.ARTICLE_STATUS_LIST.get(articleListVo.getStatus()));
                 }
-                // 添加人名称
-                if (articleListVo.getCreateUser() != null && articleListVo.getCreateUser() > 0) {
-                    articleListVo.setCreateUserName(AdminUtils.getName((articleListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (articleListVo.getUpdateUser() != null && articleListVo.getUpdateUser() > 0) {
-                    articleListVo.setUpdateUserName(AdminUtils.getName((articleListVo.getUpdateUser())));
-                }
                 articleListVoList.add(articleListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(articleListVoList);
         return JsonResult.success("操作成功", articleListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.entity.BrandCompany;
 import com.kestrelcjx.admin.mapper.BrandCompanyMapper;
 import com.kestrelcjx.admin.query.BrandCompanyQuery;
@@ -14,7 +13,6 @@ import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -49,11 +47,9 @@ public class BrandCompanyServiceImpl extends BaseServiceImpl<BrandCompanyMapper,
             queryWrapper.like("name", brandCompanyQuery.getName());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<BrandCompany> page = new Page<>(brandCompanyQuery.getPage(), brandCompanyQuery.getLimit());
-        IPage<BrandCompany> data = brandCompanyMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<BrandCompany> data = this.selectPage(brandCompanyQuery, queryWrapper, false);
         List<BrandCompany> brandCompanyList = data.getRecords();
         List<BrandCompanyListVo> brandCompanyListVoList = new ArrayList<>();
         if (!brandCompanyList.isEmpty()) {
@@ -65,17 +61,11 @@ public class BrandCompanyServiceImpl extends BaseServiceImpl<BrandCompanyMapper,
                 if (!StringUtils.isEmpty(brandCompanyListVo.getImage())) {
                     brandCompanyListVo.setImageUrl(CommonUtils.getImageURL(brandCompanyListVo.getImage()));
                 }
-                // 添加人名称
-                if (brandCompanyListVo.getCreateUser() != null && brandCompanyListVo.getCreateUser() > 0) {
-                    brandCompanyListVo.setCreateUserName(AdminUtils.getName((brandCompanyListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (brandCompanyListVo.getUpdateUser() != null && brandCompanyListVo.getUpdateUser() > 0) {
-                    brandCompanyListVo.setUpdateUserName(AdminUtils.getName((brandCompanyListVo.getUpdateUser())));
-                }
                 brandCompanyListVoList.add(brandCompanyListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(brandCompanyListVoList);
         return JsonResult.success("操作成功", brandCompanyListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.constant.BrandConstant;
 import com.kestrelcjx.admin.entity.Brand;
 import com.kestrelcjx.admin.mapper.BrandMapper;
@@ -15,7 +14,6 @@ import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -48,11 +46,9 @@ public class BrandServiceImpl extends BaseServiceImpl<BrandMapper, Brand> implem
             queryWrapper.eq("status", brandQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<Brand> page = new Page<>(brandQuery.getPage(), brandQuery.getLimit());
-        IPage<Brand> data = brandMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Brand> data = this.selectPage(brandQuery, queryWrapper, false);
         List<Brand> brandList = data.getRecords();
         List<BrandListVo> brandListVoList = new ArrayList<>();
         if (!brandList.isEmpty()) {
@@ -72,17 +68,11 @@ public class BrandServiceImpl extends BaseServiceImpl<BrandMapper, Brand> implem
                 if (brandListVo.getStatus() != null && brandListVo.getStatus() > 0) {
                     brandListVo.setStatusName(BrandConstant.BRAND_STATUS_LIST.get(brandListVo.getStatus()));
                 }
-                // 添加人名称
-                if (brandListVo.getCreateUser() != null && brandListVo.getCreateUser() > 0) {
-                    brandListVo.setCreateUserName(AdminUtils.getName((brandListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (brandListVo.getUpdateUser() != null && brandListVo.getUpdateUser() > 0) {
-                    brandListVo.setUpdateUserName(AdminUtils.getName((brandListVo.getUpdateUser())));
-                }
                 brandListVoList.add(brandListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(brandListVoList);
         return JsonResult.success("操作成功", brandListVoList, data.getTotal());
     }
 
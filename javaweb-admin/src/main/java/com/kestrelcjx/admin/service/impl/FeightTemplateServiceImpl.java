@@ -2,18 +2,18 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.constant.FeightTemplateConstant;
 import com.kestrelcjx.admin.entity.FeightTemplate;
+import com.kestrelcjx.admin.manager.FreightManager;
 import com.kestrelcjx.admin.mapper.FeightTemplateMapper;
 import com.kestrelcjx.admin.query.FeightTemplateQuery;
 import com.kestrelcjx.admin.service.IFeightTemplateService;
 import com.kestrelcjx.admin.vo.FeightTemplateListVo;
 import com.kestrelcjx.common.common.BaseQuery;
+import com.kestrelcjx.common.freight.FreightCalculator;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -30,6 +30,8 @@ public class FeightTemplateServiceImpl extends BaseServiceImpl<FeightTemplateMap
         implements IFeightTemplateService {
     @Autowired
     private FeightTemplateMapper feightTemplateMapper;
+    @Autowired
+    private FreightManager freightManager;
 
     /**
      * 获取数据列表
@@ -51,11 +53,9 @@ public class FeightTemplateServiceImpl extends BaseServiceImpl<FeightTemplateMap
             queryWrapper.eq("charge_type", feightTemplateQuery.getChargeType());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<FeightTemplate> page = new Page<>(feightTemplateQuery.getPage(), feightTemplateQuery.getLimit());
-        IPage<FeightTemplate> data = feightTemplateMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<FeightTemplate> data = this.selectPage(feightTemplateQuery, queryWrapper, false);
         List<FeightTemplate> feightTemplateList = data.getRecords();
         List<FeightTemplateListVo> feightTemplateListVoList = new ArrayList<>();
         if (!feightTemplateList.isEmpty()) {
@@ -67,17 +67,11 @@ public class FeightTemplateServiceImpl extends BaseServiceImpl<FeightTemplateMap
                 if (feightTemplateListVo.getChargeType() != null && feightTemplateListVo.getChargeType() > 0) {
                     feightTemplateListVo.setChargeTypeName(FeightTemplateConstant.FEIGHTTEMPLATE_CHARGETYPE_LIST.get(feightTemplateListVo.getChargeType()));
                 }
-                // 添加人名称
-                if (feightTemplateListVo.getCreateUser() != null && feightTemplateListVo.getCreateUser() > 0) {
-                    feightTemplateListVo.setCreateUserName(AdminUtils.getName((feightTemplateListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (feightTemplateListVo.getUpdateUser() != null && feightTemplateListVo.getUpdateUser() > 0) {
-                    feightTemplateListVo.setUpdateUserName(AdminUtils.getName((feightTemplateListVo.getUpdateUser())));
-                }
                 feightTemplateListVoList.add(feightTemplateListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(feightTemplateListVoList);
         return JsonResult.success("操作成功", feightTemplateListVoList, data.getTotal());
     }
 
@@ -101,7 +95,10 @@ public class FeightTemplateServiceImpl extends BaseServiceImpl<FeightTemplateMap
      */
     @Override
     public JsonResult edit(FeightTemplate entity) {
-        return super.edit(entity);
+        JsonResult result = super.edit(entity);
+        // 重新编译运费规则
+        freightManager.evictAll();
+        return result;
     }
 
     /**
@@ -119,6 +116,33 @@ public class FeightTemplateServiceImpl extends BaseServiceImpl<FeightTemplateMap
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        freightManager.evictAll();
+        return result;
+    }
+
+    /**
+     * 批量删除记录
+     *
+     * @param ids 记录ID（多个以逗号分隔）
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        freightManager.evictAll();
+        return result;
+    }
+
+    /**
+     * 计算订单运费
+     *
+     * @param cityId 收货城市ID（区县、市或省）
+     * @param items  订单商品（可跨店铺）
+     * @return
+     */
+    @Override
+    public FreightCalculator.Quote quote(int cityId, List<FreightCalculator.Item> items) {
+        return freightManager.quote(cityId, items);
     }
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.entity.ProductAttributeCategory;
 import com.kestrelcjx.admin.mapper.ProductAttributeCategoryMapper;
 import com.kestrelcjx.admin.query.ProductAttributeCategoryQuery;
@@ -14,7 +13,6 @@ import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -49,11 +47,9 @@ public class ProductAttributeCategoryServiceImpl
             queryWrapper.like("name", productAttributeCategoryQuery.getName());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<ProductAttributeCategory> page = new Page<>(productAttributeCategoryQuery.getPage(), productAttributeCategoryQuery.getLimit());
-        IPage<ProductAttributeCategory> data = productAttributeCategoryMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<ProductAttributeCategory> data = this.selectPage(productAttributeCategoryQuery, queryWrapper, false);
         List<ProductAttributeCategory> productAttributeCategoryList = data.getRecords();
         List<ProductAttributeCategoryListVo> productAttributeCategoryListVoList = new ArrayList<>();
         if (!productAttributeCategoryList.isEmpty()) {
@@ -65,17 +61,11 @@ public class ProductAttributeCategoryServiceImpl
                 if (!StringUtils.isEmpty(productAttributeCategoryListVo.getImage())) {
                     productAttributeCategoryListVo.setImageUrl(CommonUtils.getImageURL(productAttributeCategoryListVo.getImage()));
                 }
-                // 添加人名称
-                if (productAttributeCategoryListVo.getCreateUser() != null && productAttributeCategoryListVo.getCreateUser() > 0) {
-                    productAttributeCategoryListVo.setCreateUserName(AdminUtils.getName((productAttributeCategoryListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (productAttributeCategoryListVo.getUpdateUser() != null && productAttributeCategoryListVo.getUpdateUser() > 0) {
-                    productAttributeCategoryListVo.setUpdateUserName(AdminUtils.getName((productAttributeCategoryListVo.getUpdateUser())));
-                }
                 productAttributeCategoryListVoList.add(productAttributeCategoryListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(productAttributeCategoryListVoList);
         return JsonResult.success("操作成功", productAttributeCategoryListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.constant.ProductAttributeConstant;
 import com.kestrelcjx.admin.entity.ProductAttribute;
 import com.kestrelcjx.admin.entity.ProductAttributeCategory;
@@ -15,7 +14,6 @@ import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -55,11 +53,9 @@ public class ProductAttributeServiceImpl extends BaseServiceImpl<ProductAttribut
             queryWrapper.eq("type", productAttributeQuery.getType());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<ProductAttribute> page = new Page<>(productAttributeQuery.getPage(), productAttributeQuery.getLimit());
-        IPage<ProductAttribute> data = productAttributeMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<ProductAttribute> data = this.selectPage(productAttributeQuery, queryWrapper, false);
         List<ProductAttribute> productAttributeList = data.getRecords();
         List<ProductAttributeListVo> productAttributeListVoList = new ArrayList<>();
         if (!productAttributeList.isEmpty()) {
@@ -78,17 +74,11 @@ public class ProductAttributeServiceImpl extends BaseServiceImpl<ProductAttribut
                         productAttributeListVo.setProductAttributeCategoryName(productAttributeCategory.getName());
                     }
                 }
-                // 添加人名称
-                if (productAttributeListVo.getCreateUser() != null && productAttributeListVo.getCreateUser() > 0) {
-                    productAttributeListVo.setCreateUserName(AdminUtils.getName((productAttributeListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (productAttributeListVo.getUpdateUser() != null && productAttributeListVo.getUpdateUser() > 0) {
-                    productAttributeListVo.setUpdateUserName(AdminUtils.getName((productAttributeListVo.getUpdateUser())));
-                }
                 productAttributeListVoList.add(productAttributeListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(productAttributeListVoList);
         return JsonResult.success("操作成功", productAttributeListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.entity.ProductAttributeValue;
 import com.kestrelcjx.admin.mapper.ProductAttributeValueMapper;
 import com.kestrelcjx.admin.query.ProductAttributeValueQuery;
@@ -11,7 +10,6 @@ import com.kestrelcjx.admin.vo.ProductAttributeValueListVo;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -42,12 +40,9 @@ public class ProductAttributeValueServiceImpl
         // 查询条件
         QueryWrapper<ProductAttributeValue> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<ProductAttributeValue> page = new Page<>(productAttributeValueQuery.getPage(),
-                productAttributeValueQuery.getLimit());
-        IPage<ProductAttributeValue> data = productAttributeValueMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<ProductAttributeValue> data = this.selectPage(productAttributeValueQuery, queryWrapper, false);
         List<ProductAttributeValue> productAttributeValueList = data.getRecords();
         List<ProductAttributeValueListVo> productAttributeValueListVoList = new ArrayList<>();
         if (!productAttributeValueList.isEmpty()) {
@@ -55,17 +50,11 @@ public class ProductAttributeValueServiceImpl
                 ProductAttributeValueListVo productAttributeValueListVo = new ProductAttributeValueListVo();
                 // 拷贝属性
                 BeanUtils.copyProperties(item, productAttributeValueListVo);
-                // 添加人名称
-                if (productAttributeValueListVo.getCreateUser() != null && productAttributeValueListVo.getCreateUser() > 0) {
-                    productAttributeValueListVo.setCreateUserName(AdminUtils.getName((productAttributeValueListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (productAttributeValueListVo.getUpdateUser() != null && productAttributeValueListVo.getUpdateUser() > 0) {
-                    productAttributeValueListVo.setUpdateUserName(AdminUtils.getName((productAttributeValueListVo.getUpdateUser())));
-                }
                 productAttributeValueListVoList.add(productAttributeValueListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(productAttributeValueListVoList);
         return JsonResult.success("操作成功", productAttributeValueListVoList, data.getTotal());
     }
 
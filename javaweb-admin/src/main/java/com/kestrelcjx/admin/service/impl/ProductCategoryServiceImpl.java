@@ -3,6 +3,7 @@ package com.kestrelcjx.admin.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.kestrelcjx.admin.cache.ProductCategoryCache;
 import com.kestrelcjx.admin.constant.ProductCategoryConstant;
 import com.kestrelcjx.admin.entity.ProductCategory;
 import com.kestrelcjx.admin.mapper.ProductCategoryMapper;
@@ -15,7 +16,6 @@ import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -32,6 +32,8 @@ public class ProductCategoryServiceImpl extends BaseServiceImpl<ProductCategoryM
         implements IProductCategoryService {
     @Autowired
     private ProductCategoryMapper productCategoryMapper;
+    @Autowired
+    private ProductCategoryCache productCategoryCache;
 
     /**
      * 获取数据列表
@@ -73,17 +75,11 @@ public class ProductCategoryServiceImpl extends BaseServiceImpl<ProductCategoryM
                 if (productCategoryListVo.getStatus() != null && productCategoryListVo.getStatus() > 0) {
                     productCategoryListVo.setStatusName(ProductCategoryConstant.PRODUCTCATEGORY_STATUS_LIST.get(productCategoryListVo.getStatus()));
                 }
-                // 添加人名称
-                if (productCategoryListVo.getCreateUser() != null && productCategoryListVo.getCreateUser() > 0) {
-                    productCategoryListVo.setCreateUserName(AdminUtils.getName((productCategoryListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (productCategoryListVo.getUpdateUser() != null && productCategoryListVo.getUpdateUser() > 0) {
-                    productCategoryListVo.setUpdateUserName(AdminUtils.getName((productCategoryListVo.getUpdateUser())));
-                }
                 productCategoryListVoList.add(productCategoryListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(productCategoryListVoList);
         return JsonResult.success("操作成功", productCategoryListVoList, data.getTotal());
     }
 
@@ -122,7 +118,11 @@ public class ProductCategoryServiceImpl extends BaseServiceImpl<ProductCategoryM
                 entity.setLevel(productCategory.getLevel() + 1);
             }
         }
-        return super.edit(entity);
+        JsonResult result = super.edit(entity);
+        if (result.getCode() == 0) {
+            productCategoryCache.evictAll();
+        }
+        return result;
     }
 
     /**
@@ -140,7 +140,26 @@ public class ProductCategoryServiceImpl extends BaseServiceImpl<ProductCategoryM
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        if (result.getCode() == 0) {
+            productCategoryCache.evictAll();
+        }
+        return result;
+    }
+
+    /**
+     * 批量删除记录
+     *
+     * @param ids 记录ID
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        if (result.getCode() == 0) {
+            productCategoryCache.evictAll();
+        }
+        return result;
     }
 
     /**
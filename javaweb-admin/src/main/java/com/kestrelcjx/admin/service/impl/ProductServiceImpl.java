@@ -1,15 +1,18 @@
 package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.kestrelcjx.admin.cache.ProductCategoryCache;
 import com.kestrelcjx.admin.constant.ProductConstant;
 import com.kestrelcjx.admin.dto.DeleteSkuDto;
 import com.kestrelcjx.admin.dto.GenerateSkuDto;
+import com.kestrelcjx.admin.dto.ProductSkuListDto;
 import com.kestrelcjx.admin.dto.UpdateSkuDto;
-import com.kestrelcjx.admin.entity.Brand;
 import com.kestrelcjx.admin.entity.Product;
-import com.kestrelcjx.admin.entity.ProductCategory;
+import com.kestrelcjx.admin.entity.ProductAttributeValue;
+import com.kestrelcjx.admin.entity.ProductSku;
+import com.kestrelcjx.admin.manager.ProductStockManager;
 import com.kestrelcjx.admin.mapper.*;
 import com.kestrelcjx.admin.query.ProductQuery;
 import com.kestrelcjx.admin.service.IProductAttributeValueService;
@@ -18,26 +21,41 @@ import com.kestrelcjx.admin.service.IProductSkuService;
 import com.kestrelcjx.admin.vo.ProductListVo;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.config.CommonConfig;
+import com.kestrelcjx.common.utils.CartesianIterator;
 import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.DateUtils;
 import com.kestrelcjx.common.utils.JsonResult;
+import com.kestrelcjx.common.utils.PageUtils;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.common.utils.TransactionUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.utils.ShiroUtils;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 商品 服务实现类
  */
 @Service
 public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product> implements IProductService {
+    /**
+     * SKU每批写入条数
+     */
+    private static final int BATCH_SIZE = 500;
+    /**
+     * 单个商品的SKU组合数上限
+     */
+    private static final int MAX_SKU_COUNT = 50000;
+
     @Autowired
     private ProductMapper productMapper;
     @Autowired
@@ -49,9 +67,9 @@ public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product>
     @Autowired
     private IProductSkuService productSkuService;
     @Autowired
-    private ProductCategoryMapper productCategoryMapper;
+    private ProductStockManager productStockManager;
     @Autowired
-    private BrandMapper brandMapper;
+    private ProductCategoryCache productCategoryCache;
 
     /**
      * 获取数据列表
@@ -62,102 +80,63 @@ public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product>
     @Override
     public JsonResult getList(BaseQuery query) {
         ProductQuery productQuery = (ProductQuery) query;
-        // 查询条件
-        QueryWrapper<Product> queryWrapper = new QueryWrapper<>();
-        // 是否热卖：1是 2否
-        if (productQuery.getIsHot() != null && productQuery.getIsHot() > 0) {
-            queryWrapper.eq("is_hot", productQuery.getIsHot());
-        }
-        // 是否推荐：1是 2否
-        if (productQuery.getIsRecommand() != null && productQuery.getIsRecommand() > 0) {
-            queryWrapper.eq("is_recommand", productQuery.getIsRecommand());
-        }
-        // 是否新品：1是 2否
-        if (productQuery.getIsNew() != null && productQuery.getIsNew() > 0) {
-            queryWrapper.eq("is_new", productQuery.getIsNew());
-        }
-        // 审核状态：1已审核 2待审核
-        if (productQuery.getVerifyStatus() != null && productQuery.getVerifyStatus() > 0) {
-            queryWrapper.eq("verify_status", productQuery.getVerifyStatus());
+        // 商品分类（含下级分类）
+        productQuery.setProductCategoryIds(null);
+        if (productQuery.getProductCategoryId() != null && productQuery.getProductCategoryId() > 0) {
+            List<Integer> categoryIdList = productCategoryCache.getSubtreeIds(productQuery.getProductCategoryId());
+            if (categoryIdList.isEmpty()) {
+                categoryIdList.add(productQuery.getProductCategoryId());
+            }
+            productQuery.setProductCategoryIds(categoryIdList);
         }
-        // 上架状态：1已上架 2已下架
-        if (productQuery.getStatus() != null && productQuery.getStatus() > 0) {
-            queryWrapper.eq("status", productQuery.getStatus());
-        }
-        queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-
-        // 查询数据
-        IPage<Product> page = new Page<>(productQuery.getPage(), productQuery.getLimit());
-        IPage<Product> data = productMapper.selectPage(page, queryWrapper);
-        List<Product> productList = data.getRecords();
-        List<ProductListVo> productListVoList = new ArrayList<>();
-        if (!productList.isEmpty()) {
-            productList.forEach(item -> {
-                ProductListVo productListVo = new ProductListVo();
-                // 拷贝属性
-                BeanUtils.copyProperties(item, productListVo);
-                // 商品封面地址
-                if (!StringUtils.isEmpty(productListVo.getCover())) {
-                    productListVo.setCoverUrl(CommonUtils.getImageURL(productListVo.getCover()));
-                }
-                // 商品图片,连产品图片限制为5张，以逗号分割地址
-                if (!StringUtils.isEmpty(productListVo.getImage())) {
-                    productListVo.setImageUrl(CommonUtils.getImageURL(productListVo.getImage()));
-                }
-                // 是否热卖描述
-                if (productListVo.getIsHot() != null && productListVo.getIsHot() > 0) {
-                    productListVo.setIsHotName(ProductConstant.PRODUCT_ISHOT_LIST.get(productListVo.getIsHot()));
-                }
-                // 是否推荐描述
-                if (productListVo.getIsRecommand() != null && productListVo.getIsRecommand() > 0) {
-                    productListVo.setIsRecommandName(ProductConstant.PRODUCT_ISRECOMMAND_LIST.get(productListVo.getIsRecommand()));
-                }
-                // 是否新品描述
-                if (productListVo.getIsNew() != null && productListVo.getIsNew() > 0) {
-                    productListVo.setIsNewName(ProductConstant.PRODUCT_ISNEW_LIST.get(productListVo.getIsNew()));
-                }
-                // 审核状态描述
-                if (productListVo.getVerifyStatus() != null && productListVo.getVerifyStatus() > 0) {
-                    productListVo.setVerifyStatusName(ProductConstant.PRODUCT_VERIFYSTATUS_LIST.get(productListVo.getVerifyStatus()));
-                }
-                // 上架状态描述
-                if (productListVo.getStatus() != null && productListVo.getStatus() > 0) {
-                    productListVo.setStatusName(ProductConstant.PRODUCT_STATUS_LIST.get(productListVo.getStatus()));
-                }
-                // 促销类型描述
-                if (productListVo.getPromotionType() != null && productListVo.getPromotionType() > 0) {
-                    productListVo.setPromotionTypeName(ProductConstant.PRODUCT_PROMOTIONTYPE_LIST.get(productListVo.getPromotionType()));
-                }
-                // 是否包邮描述
-                if (productListVo.getIsPostage() != null && productListVo.getIsPostage() > 0) {
-                    productListVo.setIsPostageName(ProductConstant.PRODUCT_ISPOSTAGE_LIST.get(productListVo.getIsPostage()));
-                }
-                // 商品分类
-                if (productListVo.getProductCategoryId() != null && productListVo.getProductCategoryId() > 0) {
-                    ProductCategory productCategory = productCategoryMapper.selectById(productListVo.getProductCategoryId());
-                    if (productCategory != null) {
-                        productListVo.setProductCategoryName(productCategory.getName());
-                    }
-                }
-                // 品牌
-                if (productListVo.getBrandId() != null && productListVo.getBrandId() > 0) {
-                    Brand brand = brandMapper.selectById(productListVo.getBrandId());
-                    if (brand != null) {
-                        productListVo.setBrandName(brand.getBrandName());
-                    }
-                }
-                // 添加人名称
-                if (productListVo.getCreateUser() != null && productListVo.getCreateUser() > 0) {
-                    productListVo.setCreateUserName(AdminUtils.getName((productListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (productListVo.getUpdateUser() != null && productListVo.getUpdateUser() > 0) {
-                    productListVo.setUpdateUserName(AdminUtils.getName((productListVo.getUpdateUser())));
-                }
-                productListVoList.add(productListVo);
-            });
+        // 查询数据（关联商品分类名称、品牌名称，传入afterId/beforeId时按ID游标分页）
+        IPage<ProductListVo> data = productMapper.getProductList(PageUtils.getPage(productQuery), productQuery);
+        List<ProductListVo> productListVoList = data.getRecords();
+        if ((productQuery.getAfterId() == null || productQuery.getAfterId() <= 0)
+                && productQuery.getBeforeId() != null && productQuery.getBeforeId() > 0) {
+            // 上一页按ID升序查询，翻转为倒序
+            Collections.reverse(productListVoList);
         }
+        productListVoList.forEach(productListVo -> {
+            // 商品封面地址
+            if (!StringUtils.isEmpty(productListVo.getCover())) {
+                productListVo.setCoverUrl(CommonUtils.getImageURL(productListVo.getCover()));
+            }
+            // 商品图片,连产品图片限制为5张，以逗号分割地址
+            if (!StringUtils.isEmpty(productListVo.getImage())) {
+                productListVo.setImageUrl(CommonUtils.getImageURL(productListVo.getImage()));
+            }
+            // 是否热卖描述
+            if (productListVo.getIsHot() != null && productListVo.getIsHot() > 0) {
+                productListVo.setIsHotName(ProductConstant.PRODUCT_ISHOT_LIST.get(productListVo.getIsHot()));
+            }
+            // 是否推荐描述
+            if (productListVo.getIsRecommand() != null && productListVo.getIsRecommand() > 0) {
+                productListVo.setIsRecommandName(ProductConstant.PRODUCT_ISRECOMMAND_LIST.get(productListVo.getIsRecommand()));
+            }
+            // 是否新品描述
+            if (productListVo.getIsNew() != null && productListVo.getIsNew() > 0) {
+                productListVo.setIsNewName(ProductConstant.PRODUCT_ISNEW_LIST.get(productListVo.getIsNew()));
+            }
+            // 审核状态描述
+            if (productListVo.getVerifyStatus() != null && productListVo.getVerifyStatus() > 0) {
+                productListVo.setVerifyStatusName(ProductConstant.PRODUCT_VERIFYSTATUS_LIST.get(productListVo.getVerifyStatus()));
+            }
+            // 上架状态描述
+            if (productListVo.getStatus() != null && productListVo.getStatus() > 0) {
+                productListVo.setStatusName(ProductConstant.PRODUCT_STATUS_LIST.get(productListVo.getStatus()));
+            }
+            // 促销类型描述
+            if (productListVo.getPromotionType() != null && productListVo.getPromotionType() > 0) {
+                productListVo.setPromotionTypeName(ProductConstant.PRODUCT_PROMOTIONTYPE_LIST.get(productListVo.getPromotionType()));
+            }
+            // 是否包邮描述
+            if (productListVo.getIsPostage() != null && productListVo.getIsPostage() > 0) {
+                productListVo.setIsPostageName(ProductConstant.PRODUCT_ISPOSTAGE_LIST.get(productListVo.getIsPostage()));
+            }
+        });
+        // 添加人、更新人名称
+        this.setUserName(productListVoList);
         return JsonResult.success("操作成功", productListVoList, data.getTotal());
     }
 
@@ -263,85 +242,103 @@ public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product>
 
     /**
      * 设置SKU
+     * 按规格属性值的笛卡尔积逐个生成SKU组合，与已有SKU按属性值比对，新增、更新、删除分批批量执行
      *
      * @param productSkuDto 参数
      * @return
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public JsonResult generateSku(GenerateSkuDto productSkuDto) {
-//        // 商品ID验证
-//        if (productSkuDto.getProductId() == null || productSkuDto.getProductId() == 0) {
-//            return JsonResult.error("商品ID不能为空");
-//        }
-//        // 验证规格是否为空
-//        if (productSkuDto.getSpecs().size() == 0) {
-//            return JsonResult.error("规格不存在");
-//        }
-//        // 验证规格属性是否为空
-//        if (productSkuDto.getAttrs().size() == 0) {
-//            return JsonResult.error("规格属性不存在");
-//        }
-//        // 判断规格和规格属性数组大小是否对等
-//        if (productSkuDto.getSpecs().size() != productSkuDto.getAttrs().size()) {
-//            return JsonResult.error("规格信息异常");
-//        }
-//        // 验证SKU列表是否为空
-//        if (productSkuDto.getSkuList().size() == 0) {
-//            return JsonResult.error("SKU信息不存在");
-//        }
-//
-//        // 删除已存在的规格属性
-//        productAttributeValueService.deleteProductAttributeValueByProductId(productSkuDto.getProductId());
-//
-//        // 创建商品规格属性值信息
-//        for (int i = 0; i < productSkuDto.getSpecs().size(); i++) {
-//            // 判断规格是否存在
-//            ProductAttributeValue attributeValue = productAttributeValueMapper.selectOne(new LambdaQueryWrapper<ProductAttributeValue>()
-//                    .eq(ProductAttributeValue::getProductId, productSkuDto.getProductId())
-//                    .eq(ProductAttributeValue::getProductAttributeId, i + 1));
-//            // 创建或更新规格信息
-//            ProductAttributeValue productAttributeValue = new ProductAttributeValue();
-//            productAttributeValue.setProductId(productSkuDto.getProductId());
-//            productAttributeValue.setProductAttributeId(i + 1);
-//            productAttributeValue.setProductAttributeName(productSkuDto.getSpecs().get(i));
-//            productAttributeValue.setProductAttributeType(1);
-//            productAttributeValue.setProductAttributeValue(org.apache.commons.lang3.StringUtils.join(productSkuDto.getAttrs().get(i), ","));
-//            productAttributeValue.setSort(i);
-//            if (attributeValue != null) {
-//                // 恢复并更新
-//                productAttributeValue.setId(attributeValue.getId());
-//                productAttributeValue.setMark(1);
-//                productAttributeValue.setUpdateUser(ShiroUtils.getAdminId());
-//                productAttributeValue.setUpdateTime(DateUtils.now());
-//                productAttributeValueMapper.updateById(productAttributeValue);
-//            } else {
-//                // 插入记录
-//                productAttributeValue.setCreateUser(ShiroUtils.getAdminId());
-//                productAttributeValue.setCreateTime(DateUtils.now());
-//                productAttributeValueMapper.insert(productAttributeValue);
-//            }
-//        }
-//
-//        // 删除已存在SKU列表
-//        productSkuService.deleteProductSkuByProductId(productSkuDto.getProductId());
-//
-//        // 创建SKU列表
-//        for (ProductSkuListDto productSkuListDto : productSkuDto.getSkuList()) {
-//            ProductSku productSku = new ProductSku();
-//            productSku.setProductId(productSkuDto.getProductId());
-//            productSku.setPrice(productSkuListDto.getPrice());
-//            productSku.setCostPrice(productSkuListDto.getCostPrice());
-//            productSku.setOriginalPrice(productSkuListDto.getOriginalPrice());
-//            productSku.setStock(productSkuListDto.getStock());
-//            productSku.setSkuCode(productSkuListDto.getSkuCode());
-//            productSku.setVolume(productSkuListDto.getVolume());
-//            productSku.setWeight(productSkuListDto.getWeight());
-//            productSku.setAttributeValue(productSkuListDto.getAttributeValue());
-//            productSku.setCreateUser(ShiroUtils.getAdminId());
-//            productSku.setCreateTime(DateUtils.now());
-//            productSkuMapper.insert(productSku);
-//        }
-        return JsonResult.success();
+        // 商品ID验证
+        if (productSkuDto.getProductId() == null || productSkuDto.getProductId() == 0) {
+            return JsonResult.error("商品ID不能为空");
+        }
+        // 验证规格是否为空
+        if (productSkuDto.getSpecs() == null || productSkuDto.getSpecs().isEmpty()) {
+            return JsonResult.error("规格不存在");
+        }
+        // 验证规格属性是否为空
+        if (productSkuDto.getAttrs() == null || productSkuDto.getAttrs().isEmpty()) {
+            return JsonResult.error("规格属性不存在");
+        }
+        // 判断规格和规格属性数组大小是否对等
+        if (productSkuDto.getSpecs().size() != productSkuDto.getAttrs().size()) {
+            return JsonResult.error("规格信息异常");
+        }
+        // 验证SKU组合数
+        long total = CartesianIterator.count(productSkuDto.getAttrs());
+        if (total == 0) {
+            return JsonResult.error("规格属性不存在");
+        }
+        if (total > MAX_SKU_COUNT) {
+            return JsonResult.error(String.format("SKU组合数不能超过%s", MAX_SKU_COUNT));
+        }
+        Integer productId = productSkuDto.getProductId();
+
+        // 保存规格属性值
+        saveProductAttributeValue(productSkuDto);
+        // 按排序号读取规格属性值作为组合的各维度
+        List<List<String>> dimensions = new ArrayList<>();
+        for (ProductAttributeValue productAttributeValue : productAttributeValueService.getProductAttributeValueByProductId(productId)) {
+            dimensions.add(Arrays.asList(productAttributeValue.getProductAttributeValue().split(",")));
+        }
+        // 提交的SKU信息
+        Map<String, ProductSkuListDto> skuDtoMap = new HashMap<>();
+        if (productSkuDto.getSkuList() != null) {
+            productSkuDto.getSkuList().forEach(item -> skuDtoMap.put(item.getAttributeValue(), item));
+        }
+        // 已有SKU
+        Map<String, ProductSku> productSkuMap = getProductSkuMap(productId);
+
+        List<ProductSku> insertList = new ArrayList<>(BATCH_SIZE);
+        List<ProductSku> updateList = new ArrayList<>(BATCH_SIZE);
+        Map<Integer, Integer> stockDeltaMap = new HashMap<>();
+        int insertNum = 0;
+        int updateNum = 0;
+        CartesianIterator<String> iterator = new CartesianIterator<>(dimensions);
+        while (iterator.hasNext()) {
+            String attributeValue = String.join(",", iterator.next());
+            ProductSkuListDto productSkuListDto = skuDtoMap.get(attributeValue);
+            ProductSku productSkuInfo = productSkuMap.remove(attributeValue);
+            if (productSkuInfo == null) {
+                // 新增组合
+                ProductSku productSku = buildProductSku(productSkuListDto);
+                productSku.setProductId(productId);
+                productSku.setAttributeValue(attributeValue);
+                if (productSku.getStock() == null) {
+                    productSku.setStock(0);
+                }
+                if (productSku.getStatus() == null) {
+                    productSku.setStatus(1);
+                }
+                productSku.setCreateUser(ShiroUtils.getAdminId());
+                productSku.setCreateTime(DateUtils.now());
+                productSku.setMark(1);
+                insertList.add(productSku);
+                if (insertList.size() >= BATCH_SIZE) {
+                    insertNum += insertProductSku(insertList);
+                }
+            } else if (productSkuListDto != null) {
+                // 已有组合
+                updateList.add(buildUpdateProductSku(productSkuInfo, productSkuListDto, stockDeltaMap));
+                if (updateList.size() >= BATCH_SIZE) {
+                    updateNum += updateProductSku(updateList);
+                }
+            }
+        }
+        insertNum += insertProductSku(insertList);
+        updateNum += updateProductSku(updateList);
+        // 删除不再存在的组合
+        List<Integer> deleteIdList = new ArrayList<>(productSkuMap.size());
+        productSkuMap.values().forEach(item -> deleteIdList.add(item.getId()));
+        deleteProductSku(deleteIdList);
+        TransactionUtils.afterCommit(() -> {
+            stockDeltaMap.forEach((id, delta) -> productStockManager.adjust(id, delta, null));
+            deleteIdList.forEach(productStockManager::unload);
+        });
+        return JsonResult.success(String.format("本次共新增【%s】条、更新【%s】条、删除【%s】条SKU记录",
+                insertNum, updateNum, deleteIdList.size()));
     }
 
     /**
@@ -351,52 +348,33 @@ public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product>
      * @return
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public JsonResult updateSku(UpdateSkuDto updateSkuDto) {
-        return JsonResult.success();
-//        // 商品ID验证
-//        if (updateSkuDto.getProductId() == null || updateSkuDto.getProductId() == 0) {
-//            return JsonResult.error("商品ID不能为空");
-//        }
-//        // 验证SKU列表是否为空
-//        if (updateSkuDto.getSkuList().size() == 0) {
-//            return JsonResult.error("SKU信息不存在");
-//        }
-//
-//        // 遍历SKU信息
-//        Integer totalNum = 0;
-//        for (ProductSkuListDto productSkuListDto : updateSkuDto.getSkuList()) {
-//            QueryWrapper<ProductSku> queryWrapper = new QueryWrapper<>();
-//            queryWrapper.eq("product_id", updateSkuDto.getProductId());
-//            queryWrapper.eq("attribute_value", productSkuListDto.getAttributeValue());
-//            queryWrapper.eq("mark", 1);
-//            ProductSku productSkuInfo = productSkuMapper.selectOne(queryWrapper);
-//            if (productSkuInfo == null) {
-//                continue;
-//            }
-//            ProductSku productSku = new ProductSku();
-//            productSku.setId(productSkuInfo.getId());
-//            if (!StringUtils.isEmpty(productSkuListDto.getProductPic()) && productSkuListDto.getProductPic().contains(CommonConfig.imageURL)) {
-//                productSku.setProductPic(productSkuListDto.getProductPic().replaceAll(CommonConfig.imageURL, ""));
-//            } else {
-//                productSku.setProductPic(productSkuListDto.getProductPic());
-//            }
-//            productSku.setPrice(productSkuListDto.getPrice());
-//            productSku.setAttributeValue(productSkuListDto.getAttributeValue());
-//            productSku.setCostPrice(productSkuListDto.getCostPrice());
-//            productSku.setOriginalPrice(productSkuListDto.getOriginalPrice());
-//            productSku.setStock(productSkuListDto.getStock());
-//            productSku.setSkuCode(productSkuListDto.getSkuCode());
-//            productSku.setVolume(productSkuListDto.getVolume());
-//            productSku.setWeight(productSkuListDto.getWeight());
-//            productSku.setStatus(productSkuListDto.getStatus());
-//            productSku.setUpdateUser(ShiroUtils.getAdminId());
-//            productSku.setUpdateTime(DateUtils.now());
-//            Integer result = productSkuMapper.updateById(productSku);
-//            if (result == 1) {
-//                totalNum++;
-//            }
-//        }
-//        return JsonResult.success(String.format("本地共更新【%s】条SKU记录", totalNum));
+        // 商品ID验证
+        if (updateSkuDto.getProductId() == null || updateSkuDto.getProductId() == 0) {
+            return JsonResult.error("商品ID不能为空");
+        }
+        // 验证SKU列表是否为空
+        if (updateSkuDto.getSkuList() == null || updateSkuDto.getSkuList().isEmpty()) {
+            return JsonResult.error("SKU信息不存在");
+        }
+        Map<String, ProductSku> productSkuMap = getProductSkuMap(updateSkuDto.getProductId());
+        List<ProductSku> updateList = new ArrayList<>(BATCH_SIZE);
+        Map<Integer, Integer> stockDeltaMap = new HashMap<>();
+        int totalNum = 0;
+        for (ProductSkuListDto productSkuListDto : updateSkuDto.getSkuList()) {
+            ProductSku productSkuInfo = productSkuMap.get(productSkuListDto.getAttributeValue());
+            if (productSkuInfo == null) {
+                continue;
+            }
+            updateList.add(buildUpdateProductSku(productSkuInfo, productSkuListDto, stockDeltaMap));
+            if (updateList.size() >= BATCH_SIZE) {
+                totalNum += updateProductSku(updateList);
+            }
+        }
+        totalNum += updateProductSku(updateList);
+        TransactionUtils.afterCommit(() -> stockDeltaMap.forEach((id, delta) -> productStockManager.adjust(id, delta, null)));
+        return JsonResult.success(String.format("本次共更新【%s】条SKU记录", totalNum));
     }
 
     /**
@@ -407,18 +385,172 @@ public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product>
      */
     @Override
     public JsonResult deleteSku(DeleteSkuDto deleteSkuDto) {
-//        QueryWrapper<ProductSku> queryWrapper = new QueryWrapper<>();
-//        queryWrapper.eq("product_id", deleteSkuDto.getProductId());
-//        queryWrapper.eq("attribute_value", deleteSkuDto.getAttributeValue());
-//        queryWrapper.eq("mark", 1);
-//        ProductSku productSkuInfo = productSkuMapper.selectOne(queryWrapper);
-//        if (productSkuInfo == null) {
-//            return JsonResult.error("SKU信息不存在");
-//        }
-//        Integer result = productSkuMapper.deleteById(productSkuInfo.getId());
-//        if (result == 0) {
-//            return JsonResult.error("删除失败");
-//        }
+        QueryWrapper<ProductSku> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("product_id", deleteSkuDto.getProductId());
+        queryWrapper.eq("attribute_value", deleteSkuDto.getAttributeValue());
+        queryWrapper.eq("mark", 1);
+        queryWrapper.last("limit 1");
+        ProductSku productSkuInfo = productSkuMapper.selectOne(queryWrapper);
+        if (productSkuInfo == null) {
+            return JsonResult.error("SKU信息不存在");
+        }
+        JsonResult result = productSkuService.deleteById(productSkuInfo.getId());
+        if (result.getCode() != 0) {
+            return JsonResult.error("删除失败");
+        }
         return JsonResult.success("删除成功");
     }
-}
\ No newline at end of file
+
+    /**
+     * 保存规格属性值（按规格顺序恢复或创建，其余标记删除）
+     *
+     * @param productSkuDto 参数
+     */
+    private void saveProductAttributeValue(GenerateSkuDto productSkuDto) {
+        // 删除已存在的规格属性
+        productAttributeValueService.deleteProductAttributeValueByProductId(productSkuDto.getProductId());
+        for (int i = 0; i < productSkuDto.getSpecs().size(); i++) {
+            // 判断规格是否存在
+            QueryWrapper<ProductAttributeValue> queryWrapper = new QueryWrapper<>();
+            queryWrapper.eq("product_id", productSkuDto.getProductId());
+            queryWrapper.eq("product_attribute_id", i + 1);
+            queryWrapper.last("limit 1");
+            ProductAttributeValue attributeValue = productAttributeValueMapper.selectOne(queryWrapper);
+            // 创建或更新规格信息
+            ProductAttributeValue productAttributeValue = new ProductAttributeValue();
+            productAttributeValue.setProductId(productSkuDto.getProductId());
+            productAttributeValue.setProductAttributeId(i + 1);
+            productAttributeValue.setProductAttributeName(productSkuDto.getSpecs().get(i));
+            productAttributeValue.setProductAttributeType(1);
+            productAttributeValue.setProductAttributeValue(org.apache.commons.lang3.StringUtils.join(productSkuDto.getAttrs().get(i), ","));
+            productAttributeValue.setSort(i);
+            productAttributeValue.setMark(1);
+            if (attributeValue != null) {
+                // 恢复并更新
+                productAttributeValue.setId(attributeValue.getId());
+                productAttributeValue.setUpdateUser(ShiroUtils.getAdminId());
+                productAttributeValue.setUpdateTime(DateUtils.now());
+                productAttributeValueMapper.updateById(productAttributeValue);
+            } else {
+                // 插入记录
+                productAttributeValue.setCreateUser(ShiroUtils.getAdminId());
+                productAttributeValue.setCreateTime(DateUtils.now());
+                productAttributeValueMapper.insert(productAttributeValue);
+            }
+        }
+    }
+
+    /**
+     * 获取商品已有SKU（只查询比对所需字段）
+     *
+     * @param productId 商品ID
+     * @return 属性值与SKU的对应关系
+     */
+    private Map<String, ProductSku> getProductSkuMap(Integer productId) {
+        QueryWrapper<ProductSku> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("id", "attribute_value");
+        queryWrapper.eq("product_id", productId);
+        queryWrapper.eq("mark", 1);
+        Map<String, ProductSku> productSkuMap = new HashMap<>();
+        productSkuMapper.selectList(queryWrapper).forEach(item -> productSkuMap.put(item.getAttributeValue(), item));
+        return productSkuMap;
+    }
+
+    /**
+     * 根据提交的SKU信息创建实体
+     *
+     * @param productSkuListDto SKU信息，可为null
+     * @return
+     */
+    private ProductSku buildProductSku(ProductSkuListDto productSkuListDto) {
+        ProductSku productSku = new ProductSku();
+        if (productSkuListDto == null) {
+            return productSku;
+        }
+        if (!StringUtils.isEmpty(productSkuListDto.getProductPic()) && productSkuListDto.getProductPic().contains(CommonConfig.imageURL)) {
+            productSku.setProductPic(productSkuListDto.getProductPic().replaceAll(CommonConfig.imageURL, ""));
+        } else {
+            productSku.setProductPic(productSkuListDto.getProductPic());
+        }
+        productSku.setPrice(productSkuListDto.getPrice())
+                .setCostPrice(productSkuListDto.getCostPrice())
+                .setOriginalPrice(productSkuListDto.getOriginalPrice())
+                .setStock(productSkuListDto.getStock())
+                .setSkuCode(productSkuListDto.getSkuCode())
+                .setVolume(productSkuListDto.getVolume())
+                .setWeight(productSkuListDto.getWeight())
+                .setStatus(productSkuListDto.getStatus());
+        return productSku;
+    }
+
+    /**
+     * 创建已有SKU的更新实体，库存由库存管理按差额调整
+     * 差额按提交的加载时库存计算，表单打开期间的销售不会被补回；未提交加载时库存时不调整库存
+     *
+     * @param productSkuInfo    已有SKU
+     * @param productSkuListDto SKU信息
+     * @param stockDeltaMap     SKU ID与库存差额的对应关系
+     * @return
+     */
+    private ProductSku buildUpdateProductSku(ProductSku productSkuInfo, ProductSkuListDto productSkuListDto,
+                                             Map<Integer, Integer> stockDeltaMap) {
+        ProductSku productSku = buildProductSku(productSkuListDto);
+        productSku.setId(productSkuInfo.getId());
+        if (productSku.getStock() != null && productSkuListDto.getOriginStock() != null) {
+            int delta = productSku.getStock() - productSkuListDto.getOriginStock();
+            if (delta != 0) {
+                stockDeltaMap.put(productSkuInfo.getId(), delta);
+            }
+        }
+        productSku.setStock(null);
+        productSku.setUpdateUser(ShiroUtils.getAdminId());
+        productSku.setUpdateTime(DateUtils.now());
+        return productSku;
+    }
+
+    /**
+     * 批量插入SKU并清空列表
+     *
+     * @param insertList SKU列表
+     * @return 插入条数
+     */
+    private int insertProductSku(List<ProductSku> insertList) {
+        int size = insertList.size();
+        if (size > 0) {
+            productSkuService.saveBatch(insertList, BATCH_SIZE);
+            insertList.clear();
+        }
+        return size;
+    }
+
+    /**
+     * 批量更新SKU并清空列表
+     *
+     * @param updateList SKU列表
+     * @return 更新条数
+     */
+    private int updateProductSku(List<ProductSku> updateList) {
+        int size = updateList.size();
+        if (size > 0) {
+            productSkuService.updateBatchById(updateList, BATCH_SIZE);
+            updateList.clear();
+        }
+        return size;
+    }
+
+    /**
+     * 分批标记删除SKU
+     *
+     * @param idList SKU ID列表
+     */
+    private void deleteProductSku(List<Integer> idList) {
+        for (int i = 0; i < idList.size(); i += BATCH_SIZE) {
+            UpdateWrapper<ProductSku> updateWrapper = new UpdateWrapper<>();
+            updateWrapper.set("mark", 0);
+            updateWrapper.set("update_user", ShiroUtils.getAdminId());
+            updateWrapper.set("update_time", DateUtils.now());
+            updateWrapper.in("id", idList.subList(i, Math.min(i + BATCH_SIZE, idList.size())));
+            productSkuMapper.update(null, updateWrapper);
+        }
+    }
+}
@@ -2,9 +2,9 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.constant.ProductSkuConstant;
 import com.kestrelcjx.admin.entity.ProductSku;
+import com.kestrelcjx.admin.manager.ProductStockManager;
 import com.kestrelcjx.admin.mapper.ProductSkuMapper;
 import com.kestrelcjx.admin.query.ProductSkuQuery;
 import com.kestrelcjx.admin.service.IProductSkuService;
@@ -15,7 +15,6 @@ import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -34,6 +33,8 @@ public class ProductSkuServiceImpl extends BaseServiceImpl<ProductSkuMapper, Pro
 
     @Autowired
     private ProductSkuMapper productSkuMapper;
+    @Autowired
+    private ProductStockManager productStockManager;
 
     /**
      * 获取数据列表
@@ -51,11 +52,9 @@ public class ProductSkuServiceImpl extends BaseServiceImpl<ProductSkuMapper, Pro
             queryWrapper.eq("type", productSkuQuery.getType());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<ProductSku> page = new Page<>(productSkuQuery.getPage(), productSkuQuery.getLimit());
-        IPage<ProductSku> data = productSkuMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<ProductSku> data = this.selectPage(productSkuQuery, queryWrapper, false);
         List<ProductSku> productSkuList = data.getRecords();
         List<ProductSkuListVo> productSkuListVoList = new ArrayList<>();
         if (!productSkuList.isEmpty()) {
@@ -71,17 +70,11 @@ public class ProductSkuServiceImpl extends BaseServiceImpl<ProductSkuMapper, Pro
                 if (productSkuListVo.getType() != null && productSkuListVo.getType() > 0) {
                     productSkuListVo.setTypeName(ProductSkuConstant.PRODUCTSKU_TYPE_LIST.get(productSkuListVo.getType()));
                 }
-                // 添加人名称
-                if (productSkuListVo.getCreateUser() != null && productSkuListVo.getCreateUser() > 0) {
-                    productSkuListVo.setCreateUserName(AdminUtils.getName((productSkuListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (productSkuListVo.getUpdateUser() != null && productSkuListVo.getUpdateUser() > 0) {
-                    productSkuListVo.setUpdateUserName(AdminUtils.getName((productSkuListVo.getUpdateUser())));
-                }
                 productSkuListVoList.add(productSkuListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(productSkuListVoList);
         return JsonResult.success("操作成功", productSkuListVoList, data.getTotal());
     }
 
@@ -98,6 +91,8 @@ public class ProductSkuServiceImpl extends BaseServiceImpl<ProductSkuMapper, Pro
         if (!StringUtils.isEmpty(entity.getImage())) {
             entity.setImage(CommonUtils.getImageURL(entity.getImage()));
         }
+        // 编辑表单原样提交，用于计算库存调整量
+        entity.setOriginStock(entity.getStock());
         return entity;
     }
 
@@ -113,7 +108,23 @@ public class ProductSkuServiceImpl extends BaseServiceImpl<ProductSkuMapper, Pro
         if (entity.getImage().contains(CommonConfig.imageURL)) {
             entity.setImage(entity.getImage().replaceAll(CommonConfig.imageURL, ""));
         }
-        return super.edit(entity);
+        if (entity.getId() == null || entity.getId() == 0) {
+            return super.edit(entity);
+        }
+        // 库存、锁定库存、销量由库存管理以增量方式写入，编辑时只调整库存差额；
+        // 差额按表单加载时的库存（getInfo返回的originStock，表单原样提交）计算，期间的销售不会被覆盖
+        if (entity.getStock() != null && entity.getOriginStock() == null) {
+            return JsonResult.error("缺少加载时库存，请刷新后重新编辑");
+        }
+        int delta = entity.getStock() != null ? entity.getStock() - entity.getOriginStock() : 0;
+        entity.setStock(null);
+        entity.setLockStock(null);
+        entity.setSales(null);
+        JsonResult result = super.edit(entity);
+        if (result.getCode() == 0) {
+            productStockManager.adjust(entity.getId(), delta, entity.getLowStock());
+        }
+        return result;
     }
 
     /**
@@ -131,7 +142,28 @@ public class ProductSkuServiceImpl extends BaseServiceImpl<ProductSkuMapper, Pro
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        if (result.getCode() == 0) {
+            productStockManager.unload(id);
+        }
+        return result;
+    }
+
+    /**
+     * 批量删除
+     *
+     * @param ids 记录ID（多个使用逗号分隔）
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        if (result.getCode() == 0) {
+            for (String id : ids.split(",")) {
+                productStockManager.unload(Integer.valueOf(id.trim()));
+            }
+        }
+        return result;
     }
 
     /**
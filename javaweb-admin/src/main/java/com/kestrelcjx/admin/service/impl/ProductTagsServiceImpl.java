@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.constant.ProductTagsConstant;
 import com.kestrelcjx.admin.entity.ProductTags;
 import com.kestrelcjx.admin.mapper.ProductTagsMapper;
@@ -13,7 +12,6 @@ import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -51,11 +49,9 @@ public class ProductTagsServiceImpl extends BaseServiceImpl<ProductTagsMapper, P
             queryWrapper.eq("status", productTagsQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<ProductTags> page = new Page<>(productTagsQuery.getPage(), productTagsQuery.getLimit());
-        IPage<ProductTags> data = productTagsMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<ProductTags> data = this.selectPage(productTagsQuery, queryWrapper, false);
         List<ProductTags> productTagsList = data.getRecords();
         List<ProductTagsListVo> productTagsListVoList = new ArrayList<>();
         if (!productTagsList.isEmpty()) {
@@ -67,17 +63,11 @@ public class ProductTagsServiceImpl extends BaseServiceImpl<ProductTagsMapper, P
                 if (productTagsListVo.getStatus() != null && productTagsListVo.getStatus() > 0) {
                     productTagsListVo.setStatusName(ProductTagsConstant.PRODUCTTAGS_STATUS_LIST.get(productTagsListVo.getStatus()));
                 }
-                // 添加人名称
-                if (productTagsListVo.getCreateUser() != null && productTagsListVo.getCreateUser() > 0) {
-                    productTagsListVo.setCreateUserName(AdminUtils.getName((productTagsListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (productTagsListVo.getUpdateUser() != null && productTagsListVo.getUpdateUser() > 0) {
-                    productTagsListVo.setUpdateUserName(AdminUtils.getName((productTagsListVo.getUpdateUser())));
-                }
                 productTagsListVoList.add(productTagsListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(productTagsListVoList);
         return JsonResult.success("操作成功", productTagsListVoList, data.getTotal());
     }
 
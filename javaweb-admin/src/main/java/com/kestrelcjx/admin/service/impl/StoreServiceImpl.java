@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.constant.StoreConstant;
 import com.kestrelcjx.admin.entity.Store;
 import com.kestrelcjx.admin.mapper.StoreMapper;
@@ -15,7 +14,6 @@ import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -64,11 +62,9 @@ public class StoreServiceImpl extends BaseServiceImpl<StoreMapper, Store> implem
             queryWrapper.eq("status", storeQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<Store> page = new Page<>(storeQuery.getPage(), storeQuery.getLimit());
-        IPage<Store> data = storeMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Store> data = this.selectPage(storeQuery, queryWrapper, false);
         List<Store> storeList = data.getRecords();
         List<StoreListVo> storeListVoList = new ArrayList<>();
         if (!storeList.isEmpty()) {
@@ -104,17 +100,11 @@ public class StoreServiceImpl extends BaseServiceImpl<StoreMapper, Store> implem
                 if (storeListVo.getStatus() != null && storeListVo.getStatus() > 0) {
                     storeListVo.setStatusName(StoreConstant.STORE_STATUS_LIST.get(storeListVo.getStatus()));
                 }
-                // 添加人名称
-                if (storeListVo.getCreateUser() != null && storeListVo.getCreateUser() > 0) {
-                    storeListVo.setCreateUserName(AdminUtils.getName((storeListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (storeListVo.getUpdateUser() != null && storeListVo.getUpdateUser() > 0) {
-                    storeListVo.setUpdateUserName(AdminUtils.getName((storeListVo.getUpdateUser())));
-                }
                 storeListVoList.add(storeListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(storeListVoList);
         return JsonResult.success("操作成功", storeListVoList, data.getTotal());
     }
 
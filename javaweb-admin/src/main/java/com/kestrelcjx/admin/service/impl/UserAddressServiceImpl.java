@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.constant.UserAddressConstant;
 import com.kestrelcjx.admin.entity.UserAddress;
 import com.kestrelcjx.admin.mapper.UserAddressMapper;
@@ -13,7 +12,6 @@ import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -51,11 +49,9 @@ public class UserAddressServiceImpl extends BaseServiceImpl<UserAddressMapper, U
             queryWrapper.eq("is_default", userAddressQuery.getIsDefault());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<UserAddress> page = new Page<>(userAddressQuery.getPage(), userAddressQuery.getLimit());
-        IPage<UserAddress> data = userAddressMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<UserAddress> data = this.selectPage(userAddressQuery, queryWrapper, false);
         List<UserAddress> userAddressList = data.getRecords();
         List<UserAddressListVo> userAddressListVoList = new ArrayList<>();
         if (!userAddressList.isEmpty()) {
@@ -67,17 +63,11 @@ public class UserAddressServiceImpl extends BaseServiceImpl<UserAddressMapper, U
                 if (userAddressListVo.getIsDefault() != null && userAddressListVo.getIsDefault() > 0) {
                     userAddressListVo.setIsDefaultName(UserAddressConstant.USERADDRESS_ISDEFAULT_LIST.get(userAddressListVo.getIsDefault()));
                 }
-                // 创建人名称
-                if (userAddressListVo.getCreateUser() != null && userAddressListVo.getCreateUser() > 0) {
-                    userAddressListVo.setCreateUserName(AdminUtils.getName((userAddressListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (userAddressListVo.getUpdateUser() != null && userAddressListVo.getUpdateUser() > 0) {
-                    userAddressListVo.setUpdateUserName(AdminUtils.getName((userAddressListVo.getUpdateUser())));
-                }
                 userAddressListVoList.add(userAddressListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(userAddressListVoList);
         return JsonResult.success("操作成功", userAddressListVoList, data.getTotal());
     }
 
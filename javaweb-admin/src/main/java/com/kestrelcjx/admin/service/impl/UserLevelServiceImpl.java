@@ -2,7 +2,6 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.admin.entity.UserLevel;
 import com.kestrelcjx.admin.mapper.UserLevelMapper;
 import com.kestrelcjx.admin.query.UserLevelQuery;
@@ -12,7 +11,6 @@ import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
-import com.kestrelcjx.system.utils.AdminUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -45,11 +43,9 @@ public class UserLevelServiceImpl extends BaseServiceImpl<UserLevelMapper, UserL
             queryWrapper.like("name", userLevelQuery.getName());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<UserLevel> page = new Page<>(userLevelQuery.getPage(), userLevelQuery.getLimit());
-        IPage<UserLevel> data = userLevelMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<UserLevel> data = this.selectPage(userLevelQuery, queryWrapper, false);
         List<UserLevel> userLevelList = data.getRecords();
         List<UserLevelListVo> userLevelListVoList = new ArrayList<>();
         if (!userLevelList.isEmpty()) {
@@ -57,17 +53,11 @@ public class UserLevelServiceImpl extends BaseServiceImpl<UserLevelMapper, UserL
                 UserLevelListVo userLevelListVo = new UserLevelListVo();
                 // 拷贝属性
                 BeanUtils.copyProperties(item, userLevelListVo);
-                // 添加人名称
-                if (userLevelListVo.getCreateUser() > 0) {
-                    userLevelListVo.setCreateUserName(AdminUtils.getName((userLevelListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (userLevelListVo.getUpdateUser() > 0) {
-                    userLevelListVo.setUpdateUserName(AdminUtils.getName((userLevelListVo.getUpdateUser())));
-                }
                 userLevelListVoList.add(userLevelListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(userLevelListVoList);
         return JsonResult.success("操作成功", userLevelListVoList, data.getTotal());
     }
 
@@ -2,12 +2,12 @@ package com.kestrelcjx.admin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.config.UploadFileConfig;
 import com.kestrelcjx.common.utils.QRCodeUtils;
 import com.kestrelcjx.common.config.CommonConfig;
 import com.kestrelcjx.common.utils.CommonUtils;
+import com.kestrelcjx.common.utils.ExcelImporter;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.admin.constant.UserConstant;
@@ -17,7 +17,6 @@ import com.kestrelcjx.admin.query.UserQuery;
 import com.kestrelcjx.admin.service.IUserService;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.service.ICityService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.admin.vo.UserListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -69,11 +68,9 @@ public class UserServiceImpl extends BaseServiceImpl<UserMapper, User> implement
             queryWrapper.eq("status", userQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
 
-        // 查询数据
-        IPage<User> page = new Page<>(userQuery.getPage(), userQuery.getLimit());
-        IPage<User> data = userMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<User> data = this.selectPage(userQuery, queryWrapper, false);
         List<User> userList = data.getRecords();
         List<UserListVo> userListVoList = new ArrayList<>();
         if (!userList.isEmpty()) {
@@ -109,17 +106,11 @@ public class UserServiceImpl extends BaseServiceImpl<UserMapper, User> implement
                 if (userListVo.getStatus() != null && userListVo.getStatus() > 0) {
                     userListVo.setStatusName(UserConstant.USER_STATUS_LIST.get(userListVo.getStatus()));
                 }
-                // 添加人名称
-                if (userListVo.getCreateUser() != null && userListVo.getCreateUser() > 0) {
-                    userListVo.setCreateUserName(AdminUtils.getName((userListVo.getCreateUser())));
-                }
-                // 修改人名称
-                if (userListVo.getUpdateUser() != null && userListVo.getUpdateUser() > 0) {
-                    userListVo.setUpdateUserName(AdminUtils.getName((userListVo.getUpdateUser())));
-                }
                 userListVoList.add(userListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(userListVoList);
         return JsonResult.success("操作成功", userListVoList, data.getTotal());
     }
 
@@ -226,4 +217,42 @@ public class UserServiceImpl extends BaseServiceImpl<UserMapper, User> implement
         }
         return super.setStatus(entity);
     }
-}
\ No newline at end of file
+
+    /**
+     * 创建Excel导入器
+     *
+     * @return
+     */
+    @Override
+    protected ExcelImporter<User> createImporter() {
+        return super.createImporter().setValidator(entity -> {
+            if (StringUtils.isEmpty(entity.getMobile())) {
+                return "[手机号]不能为空";
+            }
+            if (StringUtils.isEmpty(entity.getNickname()) && StringUtils.isEmpty(entity.getRealname())) {
+                return "[用户昵称]、[真实姓名]不能同时为空";
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 导入的会员写入前处理
+     * 推广码及二维码不在导入时生成（逐行生成图片过慢），编辑保存时补充
+     *
+     * @param entity 实体对象
+     */
+    @Override
+    protected void prepareImport(User entity) {
+        if (!StringUtils.isEmpty(entity.getPassword())) {
+            entity.setPassword(CommonUtils.password(entity.getPassword()));
+        }
+        if (entity.getStatus() == null) {
+            entity.setStatus(1);
+        }
+        // 马甲会员
+        entity.setSource(2);
+        // 设备类型
+        entity.setDevice(6);
+    }
+}
@@ -0,0 +1,219 @@
+package com.kestrelcjx.common.captcha;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 验证码预渲染池
+ * 后台线程定时调用refill预先渲染验证码放入环形缓冲，请求线程以O(1)取出；池空时在请求线程同步渲染。
+ * 保有量按请求速率自适应：目标数量 = 请求速率 × 预留秒数（不低于最低保有量，不超过容量），每次补充的数量有上限，限制后台渲染占用的CPU
+ */
+public class CaptchaPool {
+    private static final Logger logger = LoggerFactory.getLogger(CaptchaPool.class);
+    /**
+     * 请求速率的衰减系数（速率上升时立即跟随，下降时逐步衰减）
+     */
+    private static final double RATE_DECAY = 0.8;
+
+    private final RingBuffer<Captcha> buffer;
+    private final Supplier<Captcha> renderer;
+    /**
+     * 最低保有量
+     */
+    private final int minSize;
+    /**
+     * 预留秒数
+     */
+    private final double reserveSeconds;
+    /**
+     * 每次补充的最大数量
+     */
+    private final int maxRenderPerRefill;
+
+    /**
+     * 请求速率（次/秒）
+     */
+    private volatile double rate;
+    /**
+     * 当前目标数量
+     */
+    private volatile int target;
+    private long lastRefillNanos = System.nanoTime();
+    private long lastRequestCount;
+
+    /**
+     * 请求次数
+     */
+    private final AtomicLong requestCount = new AtomicLong();
+    /**
+     * 从池中取得的次数
+     */
+    private final AtomicLong hitCount = new AtomicLong();
+    /**
+     * 后台渲染数量
+     */
+    private final AtomicLong renderCount = new AtomicLong();
+    /**
+     * 后台渲染耗时合计（微秒）
+     */
+    private final AtomicLong renderMicros = new AtomicLong();
+    /**
+     * 同步渲染耗时合计（微秒）
+     */
+    private final AtomicLong fallbackMicros = new AtomicLong();
+    /**
+     * 渲染失败次数
+     */
+    private final AtomicLong errorCount = new AtomicLong();
+
+    /**
+     * @param capacity           容量
+     * @param minSize            最低保有量
+     * @param reserveSeconds     预留秒数
+     * @param maxRenderPerRefill 每次补充的最大数量
+     * @param renderer           渲染
+     */
+    public CaptchaPool(int capacity, int minSize, double reserveSeconds, int maxRenderPerRefill, Supplier<Captcha> renderer) {
+        this.buffer = new RingBuffer<>(capacity);
+        this.minSize = Math.min(Math.max(minSize, 0), buffer.capacity());
+        this.reserveSeconds = reserveSeconds;
+        this.maxRenderPerRefill = Math.max(maxRenderPerRefill, 1);
+        this.renderer = renderer;
+        this.target = this.minSize;
+    }
+
+    /**
+     * 取一个验证码，池空时同步渲染
+     *
+     * @return
+     */
+    public Captcha take() {
+        requestCount.incrementAndGet();
+        Captcha captcha = buffer.poll();
+        if (captcha != null) {
+            hitCount.incrementAndGet();
+            return captcha;
+        }
+        long begin = System.nanoTime();
+        captcha = renderer.get();
+        fallbackMicros.addAndGet((System.nanoTime() - begin) / 1000);
+        return captcha;
+    }
+
+    /**
+     * 按请求速率补充验证码（只能在一个线程中定时调用）
+     *
+     * @return 本次渲染数量
+     */
+    public int refill() {
+        long now = System.nanoTime();
+        long requests = requestCount.get();
+        double seconds = (now - lastRefillNanos) / 1e9;
+        if (seconds > 0) {
+            double current = (requests - lastRequestCount) / seconds;
+            rate = Math.max(current, rate * RATE_DECAY + current * (1 - RATE_DECAY));
+        }
+        lastRefillNanos = now;
+        lastRequestCount = requests;
+        target = (int) Math.min(buffer.capacity(), Math.max(minSize, Math.ceil(rate * reserveSeconds)));
+        int count = Math.min(target - buffer.size(), maxRenderPerRefill);
+        int rendered = 0;
+        for (int i = 0; i < count; i++) {
+            Captcha captcha;
+            long begin = System.nanoTime();
+            try {
+                captcha = renderer.get();
+            } catch (RuntimeException e) {
+                errorCount.incrementAndGet();
+                logger.error("验证码渲染失败：{}", e.getMessage());
+                break;
+            }
+            renderMicros.addAndGet((System.nanoTime() - begin) / 1000);
+            renderCount.incrementAndGet();
+            if (!buffer.offer(captcha)) {
+                break;
+            }
+            rendered++;
+        }
+        return rendered;
+    }
+
+    public int size() {
+        return buffer.size();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 命中率（从池中取得的比例）
+     *
+     * @return
+     */
+    public double getHitRate() {
+        long requests = requestCount.get();
+        return requests == 0 ? 0 : (double) hitCount.get() / requests;
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        long requests = requestCount.get();
+        long hits = hitCount.get();
+        long renders = renderCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("target", target);
+        stats.put("requestRate", Math.round(rate * 100) / 100.0);
+        stats.put("requestCount", requests);
+        stats.put("hitCount", hits);
+        stats.put("hitRate", getHitRate());
+        stats.put("renderCount", renders);
+        stats.put("avgRenderMicros", renders == 0 ? 0 : renderMicros.get() / renders);
+        stats.put("fallbackCount", requests - hits);
+        stats.put("avgFallbackMicros", requests == hits ? 0 : fallbackMicros.get() / (requests - hits));
+        stats.put("errorCount", errorCount.get());
+        return stats;
+    }
+
+    /**
+     * 验证码
+     */
+    public static class Captcha {
+        /**
+         * 答案
+         */
+        private final String answer;
+        /**
+         * 图片（data URL）
+         */
+        private final String url;
+
+        public Captcha(String answer, String url) {
+            this.answer = answer;
+            this.url = url;
+        }
+
+        public String getAnswer() {
+            return answer;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+    }
+}
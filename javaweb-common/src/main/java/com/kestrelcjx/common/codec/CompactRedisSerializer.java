@@ -0,0 +1,603 @@
+package com.kestrelcjx.common.codec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis值的紧凑二进制序列化
+ * 首字节为格式标记：字符串直接写UTF-8；其他值按类型标签编码，整数为变长编码，注册过的类只写类ID和字段值（不写类名、字段名），
+ * 超过压缩阈值时整体LZ4压缩。未注册的类整体或嵌套地按JSON编码；首字节不是格式标记的数据按JSON解码，兼容JSON格式的旧数据。
+ * 类ID一经使用不能更改（common：1-99，system：100-199，admin：200以上）；类的字段变化后旧数据按缓存未命中处理（返回null）
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+    private static final Logger logger = LoggerFactory.getLogger(CompactRedisSerializer.class);
+    private static final byte[] EMPTY = new byte[0];
+    /**
+     * 格式标记（JSON的首字节不可能是这些值）
+     */
+    private static final byte MAGIC = (byte) 0xC1;
+    private static final byte MAGIC_LZ4 = (byte) 0xC2;
+    private static final byte MAGIC_STRING = (byte) 0xC3;
+    /**
+     * 类型标签
+     */
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int FLOAT = 6;
+    private static final int SHORT = 7;
+    private static final int BYTE = 8;
+    private static final int STRING = 9;
+    private static final int DATE = 10;
+    private static final int DECIMAL = 11;
+    private static final int BYTES = 12;
+    private static final int LIST = 13;
+    private static final int SET = 14;
+    private static final int MAP = 15;
+    /**
+     * 注册类的对象（同一数据中首次出现时附带结构指纹，之后只写类ID）
+     */
+    private static final int OBJECT_SCHEMA = 16;
+    private static final int OBJECT = 17;
+    private static final int JSON = 18;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private final RedisSerializer<Object> jsonSerializer;
+    private final Map<Class<?>, Schema> schemaByClass = new ConcurrentHashMap<>();
+    private final Map<Integer, Schema> schemaById = new ConcurrentHashMap<>();
+    /**
+     * 是否写入紧凑格式（false时只写JSON，用于滚动升级期间兼容旧节点；读取始终支持两种格式）
+     */
+    private volatile boolean writeCompact = true;
+    /**
+     * 压缩阈值（字节），小于等于0时不压缩
+     */
+    private volatile int compressThreshold = 1024;
+
+    /**
+     * @param jsonSerializer JSON序列化（未注册的类及旧数据）
+     */
+    public CompactRedisSerializer(RedisSerializer<Object> jsonSerializer) {
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    public CompactRedisSerializer setWriteCompact(boolean writeCompact) {
+        this.writeCompact = writeCompact;
+        return this;
+    }
+
+    public CompactRedisSerializer setCompressThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+        return this;
+    }
+
+    /**
+     * 注册类
+     *
+     * @param id    类ID（大于0，各节点一致）
+     * @param clazz 类（需有无参构造方法，不能有final实例字段）
+     * @return
+     */
+    public synchronized CompactRedisSerializer register(int id, Class<?> clazz) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("类ID必须大于0：" + clazz.getName());
+        }
+        Schema existing = schemaById.get(id);
+        if (existing != null) {
+            if (existing.clazz == clazz) {
+                return this;
+            }
+            throw new IllegalArgumentException("类ID重复：" + id + "=" + existing.clazz.getName() + "," + clazz.getName());
+        }
+        if (schemaByClass.containsKey(clazz)) {
+            throw new IllegalArgumentException("类已注册：" + clazz.getName());
+        }
+        Schema schema = new Schema(id, clazz);
+        schemaById.put(id, schema);
+        schemaByClass.put(clazz, schema);
+        return this;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        if (!writeCompact) {
+            return jsonSerializer.serialize(value);
+        }
+        if (value instanceof String) {
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            byte[] result = new byte[bytes.length + 1];
+            result[0] = MAGIC_STRING;
+            System.arraycopy(bytes, 0, result, 1, bytes.length);
+            return result;
+        }
+        if (!isCompact(value)) {
+            // 未注册的类保持JSON格式，旧节点也能读取
+            return jsonSerializer.serialize(value);
+        }
+        Output out = new Output(64);
+        out.write(MAGIC);
+        writeValue(out, value);
+        int length = out.size - 1;
+        if (compressThreshold > 0 && length > compressThreshold) {
+            byte[] compressed = Lz4.compress(out.buffer, 1, length);
+            if (compressed.length + 6 < length) {
+                Output lz4 = new Output(compressed.length + 6);
+                lz4.write(MAGIC_LZ4);
+                lz4.writeVarint(length);
+                lz4.write(compressed, 0, compressed.length);
+                return lz4.toByteArray();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        byte magic = bytes[0];
+        if (magic != MAGIC && magic != MAGIC_LZ4 && magic != MAGIC_STRING) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        try {
+            if (magic == MAGIC_STRING) {
+                return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            }
+            Input in = new Input(bytes, 1);
+            if (magic == MAGIC_LZ4) {
+                int length = in.readVarint();
+                in = new Input(Lz4.decompress(bytes, in.pos, bytes.length - in.pos, length), 0);
+            }
+            return readValue(in);
+        } catch (SchemaMismatchException e) {
+            logger.warn("Redis值的类结构已变化，按缓存未命中处理：{}", e.getMessage());
+            return null;
+        } catch (SerializationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Redis值解码失败：" + e.getMessage(), e);
+        }
+    }
+
+    private boolean isCompact(Object value) {
+        return value instanceof Number || value instanceof Boolean || value instanceof Date
+                || value instanceof byte[] || value instanceof Collection || value instanceof Map
+                || schemaByClass.containsKey(value.getClass());
+    }
+
+    private void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.write(NULL);
+            return;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            out.write(STRING);
+            out.writeString((String) value);
+        } else if (type == Integer.class) {
+            out.write(INT);
+            out.writeVarlong(zigzag((Integer) value));
+        } else if (type == Long.class) {
+            out.write(LONG);
+            out.writeVarlong(zigzag((Long) value));
+        } else if (type == Boolean.class) {
+            out.write((Boolean) value ? TRUE : FALSE);
+        } else if (type == Date.class) {
+            out.write(DATE);
+            out.writeVarlong(zigzag(((Date) value).getTime()));
+        } else if (type == Double.class) {
+            out.write(DOUBLE);
+            out.writeFixed(Double.doubleToLongBits((Double) value), 8);
+        } else if (type == Float.class) {
+            out.write(FLOAT);
+            out.writeFixed(Float.floatToIntBits((Float) value), 4);
+        } else if (type == Short.class) {
+            out.write(SHORT);
+            out.writeVarlong(zigzag((Short) value));
+        } else if (type == Byte.class) {
+            out.write(BYTE);
+            out.write((Byte) value);
+        } else if (type == BigDecimal.class) {
+            out.write(DECIMAL);
+            out.writeString(value.toString());
+        } else if (type == byte[].class) {
+            byte[] bytes = (byte[]) value;
+            out.write(BYTES);
+            out.writeVarint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        } else {
+            Schema schema = schemaByClass.get(type);
+            if (schema != null) {
+                writeObject(out, schema, value);
+            } else if (value instanceof List || value instanceof Set) {
+                Collection<?> collection = (Collection<?>) value;
+                out.write(value instanceof List ? LIST : SET);
+                out.writeVarint(collection.size());
+                for (Object item : collection) {
+                    writeValue(out, item);
+                }
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.write(MAP);
+                out.writeVarint(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(out, entry.getKey());
+                    writeValue(out, entry.getValue());
+                }
+            } else {
+                byte[] json = jsonSerializer.serialize(value);
+                out.write(JSON);
+                out.writeVarint(json.length);
+                out.write(json, 0, json.length);
+            }
+        }
+    }
+
+    private void writeObject(Output out, Schema schema, Object value) {
+        if (out.markWritten(schema)) {
+            out.write(OBJECT_SCHEMA);
+            out.writeVarint(schema.id);
+            out.writeFixed(schema.fingerprint, 4);
+        } else {
+            out.write(OBJECT);
+            out.writeVarint(schema.id);
+        }
+        try {
+            for (MethodHandle getter : schema.getters) {
+                writeValue(out, (Object) getter.invokeExact(value));
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SerializationException("Redis值编码失败：" + schema.clazz.getName(), e);
+        }
+    }
+
+    private Object readValue(Input in) {
+        int tag = in.read();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return (int) unzigzag(in.readVarlong());
+            case LONG:
+                return unzigzag(in.readVarlong());
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readFixed(8));
+            case FLOAT:
+                return Float.intBitsToFloat((int) in.readFixed(4));
+            case SHORT:
+                return (short) unzigzag(in.readVarlong());
+            case BYTE:
+                return (byte) in.read();
+            case STRING:
+                return in.readString();
+            case DATE:
+                return new Date(unzigzag(in.readVarlong()));
+            case DECIMAL:
+                return new BigDecimal(in.readString());
+            case BYTES:
+                return in.readBytes(in.readLength());
+            case LIST: {
+                int size = in.readLength();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case SET: {
+                int size = in.readLength();
+                Set<Object> set = new LinkedHashSet<>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++) {
+                    set.add(readValue(in));
+                }
+                return set;
+            }
+            case MAP: {
+                int size = in.readLength();
+                Map<Object, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(in), readValue(in));
+                }
+                return map;
+            }
+            case OBJECT_SCHEMA:
+            case OBJECT:
+                return readObject(in, tag == OBJECT_SCHEMA);
+            case JSON:
+                return jsonSerializer.deserialize(in.readBytes(in.readLength()));
+            default:
+                throw new SerializationException("Redis值解码失败：未知类型" + tag);
+        }
+    }
+
+    private Object readObject(Input in, boolean withFingerprint) {
+        int id = in.readVarint();
+        Schema schema = schemaById.get(id);
+        if (schema == null) {
+            throw new SchemaMismatchException("未注册的类ID：" + id);
+        }
+        if (withFingerprint) {
+            if ((int) in.readFixed(4) != schema.fingerprint) {
+                throw new SchemaMismatchException(schema.clazz.getName());
+            }
+            in.markVerified(schema);
+        } else if (!in.isVerified(schema)) {
+            throw new SerializationException("Redis值解码失败：缺少类结构" + schema.clazz.getName());
+        }
+        try {
+            Object bean = (Object) schema.constructor.invokeExact();
+            for (int i = 0; i < schema.setters.length; i++) {
+                Object value = readValue(in);
+                // 基本类型字段遇到null时保持默认值
+                if (value != null || !schema.primitive[i]) {
+                    schema.setters[i].invokeExact(bean, value);
+                }
+            }
+            return bean;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SerializationException("Redis值解码失败：" + schema.clazz.getName(), e);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 类结构：父类字段在前，同一类的字段按名称排序；指纹由字段名和字段类型计算
+     */
+    private static final class Schema {
+        private final int id;
+        private final Class<?> clazz;
+        private final int fingerprint;
+        private final MethodHandle constructor;
+        private final MethodHandle[] getters;
+        private final MethodHandle[] setters;
+        private final boolean[] primitive;
+
+        private Schema(int id, Class<?> clazz) {
+            this.id = id;
+            this.clazz = clazz;
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+                hierarchy.add(0, c);
+            }
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c : hierarchy) {
+                Field[] declared = c.getDeclaredFields();
+                Arrays.sort(declared, Comparator.comparing(Field::getName));
+                for (Field field : declared) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    if (Modifier.isFinal(modifiers)) {
+                        throw new IllegalArgumentException("不支持final字段：" + clazz.getName() + "." + field.getName());
+                    }
+                    fields.add(field);
+                }
+            }
+            this.getters = new MethodHandle[fields.size()];
+            this.setters = new MethodHandle[fields.size()];
+            this.primitive = new boolean[fields.size()];
+            StringBuilder signature = new StringBuilder();
+            try {
+                Constructor<?> ctor = clazz.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                this.constructor = LOOKUP.unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    field.setAccessible(true);
+                    getters[i] = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+                    setters[i] = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+                    primitive[i] = field.getType().isPrimitive();
+                    signature.append(field.getName()).append(':').append(field.getType().getName()).append(';');
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("类无法注册：" + clazz.getName(), e);
+            }
+            this.fingerprint = signature.toString().hashCode();
+        }
+    }
+
+    /**
+     * 类结构不一致（字段变化或未注册）
+     */
+    private static final class SchemaMismatchException extends RuntimeException {
+        private SchemaMismatchException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+        /**
+         * 已写入结构指纹的类（数量很少，线性查找）
+         */
+        private List<Schema> written;
+
+        private Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void write(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        private void write(byte[] bytes, int off, int len) {
+            ensure(len);
+            System.arraycopy(bytes, off, buffer, size, len);
+            size += len;
+        }
+
+        private void writeVarint(int value) {
+            writeVarlong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarlong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeFixed(long value, int bytes) {
+            ensure(bytes);
+            for (int i = bytes - 1; i >= 0; i--) {
+                buffer[size++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        private boolean markWritten(Schema schema) {
+            if (written == null) {
+                written = new ArrayList<>(4);
+            } else if (written.contains(schema)) {
+                return false;
+            }
+            written.add(schema);
+            return true;
+        }
+
+        private void ensure(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buffer;
+        private int pos;
+        private List<Schema> verified;
+
+        private Input(byte[] buffer, int pos) {
+            this.buffer = buffer;
+            this.pos = pos;
+        }
+
+        private int read() {
+            if (pos >= buffer.length) {
+                throw new SerializationException("Redis值解码失败：数据不完整");
+            }
+            return buffer[pos++] & 0xFF;
+        }
+
+        private int readVarint() {
+            return (int) readVarlong();
+        }
+
+        private long readVarlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Redis值解码失败：变长整数无效");
+        }
+
+        private long readFixed(int bytes) {
+            long value = 0;
+            for (int i = 0; i < bytes; i++) {
+                value = (value << 8) | read();
+            }
+            return value;
+        }
+
+        /**
+         * 读取长度（不超过剩余字节数，防止损坏数据导致分配过大的数组）
+         */
+        private int readLength() {
+            int length = readVarint();
+            if (length < 0 || length > buffer.length - pos) {
+                throw new SerializationException("Redis值解码失败：长度无效" + length);
+            }
+            return length;
+        }
+
+        private byte[] readBytes(int length) {
+            byte[] bytes = Arrays.copyOfRange(buffer, pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        private String readString() {
+            int length = readLength();
+            String value = new String(buffer, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private void markVerified(Schema schema) {
+            if (verified == null) {
+                verified = new ArrayList<>(4);
+            }
+            verified.add(schema);
+        }
+
+        private boolean isVerified(Schema schema) {
+            return verified != null && verified.contains(schema);
+        }
+    }
+}
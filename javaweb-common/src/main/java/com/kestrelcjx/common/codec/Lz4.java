@@ -0,0 +1,165 @@
+package com.kestrelcjx.common.codec;
+
+/**
+ * LZ4块格式压缩（纯Java实现，单趟贪心匹配）
+ * 输出为标准LZ4 block，不含帧头，解压时需要原始长度
+ */
+public final class Lz4 {
+    private static final int MIN_MATCH = 4;
+    /**
+     * 块末尾至少保留的字面量字节数
+     */
+    private static final int LAST_LITERALS = 5;
+    /**
+     * 最后一个匹配的起点距块末尾的最小距离
+     */
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_OFFSET = 65535;
+    private static final int HASH_LOG = 12;
+
+    private Lz4() {
+    }
+
+    /**
+     * 压缩
+     *
+     * @param src 数据
+     * @param off 起始位置
+     * @param len 长度
+     * @return 压缩结果
+     */
+    public static byte[] compress(byte[] src, int off, int len) {
+        byte[] dst = new byte[len + len / 255 + 16];
+        int end = off + len;
+        int matchLimit = end - LAST_LITERALS;
+        int mfLimit = end - MF_LIMIT;
+        // 哈希表保存位置+1，0表示空
+        int[] table = new int[1 << HASH_LOG];
+        int anchor = off;
+        int ip = off;
+        int dp = 0;
+        while (ip <= mfLimit) {
+            int sequence = readInt(src, ip);
+            int hash = (sequence * -1640531535) >>> (32 - HASH_LOG);
+            int ref = table[hash] - 1;
+            table[hash] = ip + 1;
+            if (ref < off || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                ip++;
+                continue;
+            }
+            int matchLen = MIN_MATCH;
+            while (ip + matchLen < matchLimit && src[ref + matchLen] == src[ip + matchLen]) {
+                matchLen++;
+            }
+            dp = writeSequence(src, anchor, ip - anchor, dst, dp, ip - ref, matchLen);
+            ip += matchLen;
+            anchor = ip;
+        }
+        dp = writeSequence(src, anchor, end - anchor, dst, dp, 0, 0);
+        byte[] result = new byte[dp];
+        System.arraycopy(dst, 0, result, 0, dp);
+        return result;
+    }
+
+    /**
+     * 解压
+     *
+     * @param src            压缩数据
+     * @param off            起始位置
+     * @param len            长度
+     * @param originalLength 原始长度
+     * @return 原始数据
+     * @throws IllegalArgumentException 数据损坏
+     */
+    public static byte[] decompress(byte[] src, int off, int len, int originalLength) {
+        byte[] dst = new byte[originalLength];
+        int end = off + len;
+        int sp = off;
+        int dp = 0;
+        try {
+            while (true) {
+                int token = src[sp++] & 0xFF;
+                int literalLen = token >>> 4;
+                if (literalLen == 15) {
+                    int b;
+                    do {
+                        b = src[sp++] & 0xFF;
+                        literalLen += b;
+                    } while (b == 255);
+                }
+                if (sp + literalLen > end || dp + literalLen > originalLength) {
+                    throw new IllegalArgumentException("LZ4数据损坏：字面量越界");
+                }
+                System.arraycopy(src, sp, dst, dp, literalLen);
+                sp += literalLen;
+                dp += literalLen;
+                if (sp >= end) {
+                    break;
+                }
+                int offset = (src[sp++] & 0xFF) | (src[sp++] & 0xFF) << 8;
+                if (offset == 0 || offset > dp) {
+                    throw new IllegalArgumentException("LZ4数据损坏：偏移量无效");
+                }
+                int matchLen = token & 0x0F;
+                if (matchLen == 15) {
+                    int b;
+                    do {
+                        b = src[sp++] & 0xFF;
+                        matchLen += b;
+                    } while (b == 255);
+                }
+                matchLen += MIN_MATCH;
+                if (dp + matchLen > originalLength) {
+                    throw new IllegalArgumentException("LZ4数据损坏：匹配越界");
+                }
+                // 匹配区可能与输出重叠，逐字节复制
+                for (int from = dp - offset, to = dp + matchLen; dp < to; ) {
+                    dst[dp++] = dst[from++];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("LZ4数据损坏：数据不完整");
+        }
+        if (dp != originalLength) {
+            throw new IllegalArgumentException("LZ4数据损坏：长度不一致");
+        }
+        return dst;
+    }
+
+    /**
+     * 写入一个序列：字面量 + 匹配（matchLen为0时为最后一个序列，只有字面量）
+     */
+    private static int writeSequence(byte[] src, int literalOff, int literalLen, byte[] dst, int dp, int offset, int matchLen) {
+        int tokenPos = dp++;
+        int token = Math.min(literalLen, 15) << 4;
+        if (literalLen >= 15) {
+            dp = writeLength(dst, dp, literalLen - 15);
+        }
+        System.arraycopy(src, literalOff, dst, dp, literalLen);
+        dp += literalLen;
+        if (matchLen > 0) {
+            dst[dp++] = (byte) offset;
+            dst[dp++] = (byte) (offset >>> 8);
+            int length = matchLen - MIN_MATCH;
+            token |= Math.min(length, 15);
+            if (length >= 15) {
+                dp = writeLength(dst, dp, length - 15);
+            }
+        }
+        dst[tokenPos] = (byte) token;
+        return dp;
+    }
+
+    private static int writeLength(byte[] dst, int dp, int length) {
+        while (length >= 255) {
+            dst[dp++] = (byte) 255;
+            length -= 255;
+        }
+        dst[dp++] = (byte) length;
+        return dp;
+    }
+
+    private static int readInt(byte[] src, int i) {
+        return (src[i] & 0xFF) | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF) << 16 | (src[i + 3] & 0xFF) << 24;
+    }
+}
@@ -12,6 +12,14 @@ public class BaseQuery {
      * 每页数（默认为20）
      */
     private Integer limit = 20;
+    /**
+     * 游标分页：当前页最后一条记录ID（获取下一页，不统计总数）
+     */
+    private Integer afterId;
+    /**
+     * 游标分页：当前页第一条记录ID（获取上一页，不统计总数）
+     */
+    private Integer beforeId;
 
     public Integer getPage() {
         return page;
@@ -28,4 +36,29 @@ public class BaseQuery {
     public void setLimit(Integer limit) {
         this.limit = limit;
     }
+
+    public Integer getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(Integer afterId) {
+        this.afterId = afterId;
+    }
+
+    public Integer getBeforeId() {
+        return beforeId;
+    }
+
+    public void setBeforeId(Integer beforeId) {
+        this.beforeId = beforeId;
+    }
+
+    /**
+     * 是否游标分页
+     *
+     * @return
+     */
+    public boolean isCursor() {
+        return (afterId != null && afterId > 0) || (beforeId != null && beforeId > 0);
+    }
 }
@@ -1,11 +1,15 @@
 package com.kestrelcjx.common.common;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.kestrelcjx.common.utils.ExcelImporter;
 import com.kestrelcjx.common.utils.JsonResult;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface IBaseService<T> extends IService<T> {
     /**
@@ -94,4 +98,22 @@ public interface IBaseService<T> extends IService<T> {
      * @return
      */
     List<T> exportExcel();
+
+    /**
+     * 按查询条件流式导出Excel，直接写入响应
+     *
+     * @param query     查询条件
+     * @param sheetName 工作表名称（同时作为下载文件名）
+     * @param response  网络响应
+     */
+    void exportExcel(BaseQuery query, String sheetName, HttpServletResponse response);
+
+    /**
+     * 流式导入Excel，分批写入数据库
+     *
+     * @param inputStream      输入流
+     * @param progressListener 进度通知（可为null）
+     * @return 导入结果（含逐行错误信息）
+     */
+    ExcelImporter.Result importExcel(InputStream inputStream, Consumer<ExcelImporter.Progress> progressListener);
 }
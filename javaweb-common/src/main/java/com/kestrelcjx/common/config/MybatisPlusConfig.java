@@ -1,6 +1,9 @@
 package com.kestrelcjx.common.config;
 
 import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
+import com.kestrelcjx.common.interceptor.CountCachePaginationInterceptor;
+import com.kestrelcjx.common.interceptor.SqlCountInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -12,12 +15,38 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @Configuration
 public class MybatisPlusConfig {
     /**
-     * 分页插件
+     * 分页总数缓存条数
+     */
+    @Value("${page.count.cacheSize:1000}")
+    private Integer countCacheSize;
+    /**
+     * 分页总数缓存秒数（0为不缓存）
+     */
+    @Value("${page.count.cacheSeconds:30}")
+    private Long countCacheSeconds;
+    /**
+     * 无筛选条件时使用表统计估算行数的阈值（0为不估算）
+     */
+    @Value("${page.count.estimateThreshold:100000}")
+    private Long countEstimateThreshold;
+
+    /**
+     * 分页插件（总数缓存、大表估算）
      *
      * @return
      */
     @Bean
     public PaginationInterceptor paginationInterceptor() {
-        return new PaginationInterceptor();
+        return new CountCachePaginationInterceptor(countCacheSize, countCacheSeconds, countEstimateThreshold);
+    }
+
+    /**
+     * SQL执行次数统计插件
+     *
+     * @return
+     */
+    @Bean
+    public SqlCountInterceptor sqlCountInterceptor() {
+        return new SqlCountInterceptor();
     }
 }
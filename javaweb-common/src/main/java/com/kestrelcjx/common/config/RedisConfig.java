@@ -1,5 +1,7 @@
 package com.kestrelcjx.common.config;
 
+import com.kestrelcjx.common.codec.CompactRedisSerializer;
+import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.RedisUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -8,6 +10,7 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -22,6 +25,10 @@ public class RedisConfig {
     private String password;
     @Value("${redis.timeout}")
     private Integer timeout;
+    @Value("${redis.codec:compact}")
+    private String codec;
+    @Value("${redis.codec.compressThreshold:1024}")
+    private Integer compressThreshold;
 
     /**
      * lettuce实现redis方式
@@ -32,26 +39,41 @@ public class RedisConfig {
     @Bean
     public RedisTemplate<String, Object> redisCacheTemplate(LettuceConnectionFactory redisConnectFactory) {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
-        initDomainRedisTemplate(redisTemplate, redisConnectFactory);
+        initDomainRedisTemplate(redisTemplate, redisConnectFactory, true);
         return redisTemplate;
     }
 
+    /**
+     * Redis值序列化：紧凑二进制格式，可读取JSON格式的旧数据
+     * 各模块在此注册需要紧凑编码的类，未注册的类仍按JSON编码
+     *
+     * @return
+     */
+    @Bean
+    public CompactRedisSerializer redisValueSerializer() {
+        return new CompactRedisSerializer(new GenericJackson2JsonRedisSerializer())
+                .setWriteCompact(!"json".equalsIgnoreCase(codec))
+                .setCompressThreshold(compressThreshold)
+                .register(1, JsonResult.class);
+    }
+
     /**
      * 设置数据注入redis的序列化方式，并开启事务
      *
      * @param redisTemplate
      * @param factory
+     * @param enableTransactionSupport 是否开启事务
      */
     private void initDomainRedisTemplate(RedisTemplate<String, Object> redisTemplate,
-                                         RedisConnectionFactory factory) {
+                                         RedisConnectionFactory factory, boolean enableTransactionSupport) {
         // 如果不配置Serializer，那么存储时缺省使用String
         // 如果用User，那么会提示错误：User can't cast to String!
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         redisTemplate.setHashKeySerializer(new StringRedisSerializer());
-        redisTemplate.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
-        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisTemplate.setHashValueSerializer(redisValueSerializer());
+        redisTemplate.setValueSerializer(redisValueSerializer());
         // 开启事务
-        redisTemplate.setEnableTransactionSupport(true);
+        redisTemplate.setEnableTransactionSupport(enableTransactionSupport);
         redisTemplate.setConnectionFactory(factory);
     }
 
@@ -65,6 +87,24 @@ public class RedisConfig {
     public RedisUtils redisUtils(RedisTemplate<String, Object> redisTemplate) {
         RedisUtils redisUtils = new RedisUtils();
         redisUtils.setRedisTemplate(redisTemplate);
+        // 非事务模板：连接不绑定线程，用于SCAN、管道及脚本（不注册为Bean，避免按类型注入时冲突）
+        RedisTemplate<String, Object> fastTemplate = new RedisTemplate<>();
+        initDomainRedisTemplate(fastTemplate, redisTemplate.getConnectionFactory(), false);
+        fastTemplate.afterPropertiesSet();
+        redisUtils.setFastTemplate(fastTemplate);
         return redisUtils;
     }
+
+    /**
+     * Redis消息监听容器（发布/订阅）
+     *
+     * @param redisConnectFactory
+     * @return
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(LettuceConnectionFactory redisConnectFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectFactory);
+        return container;
+    }
 }
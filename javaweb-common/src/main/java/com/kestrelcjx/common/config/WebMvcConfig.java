@@ -1,7 +1,9 @@
 package com.kestrelcjx.common.config;
 
+import com.kestrelcjx.common.interceptor.SqlCountHandlerInterceptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -23,6 +25,11 @@ public class WebMvcConfig implements WebMvcConfigurer {
      */
     @Value("${shiro.user.indexUrl}")
     private String indexUrl;
+    /**
+     * 单个请求SQL条数告警阈值
+     */
+    @Value("${sql.count.warnThreshold:20}")
+    private Integer sqlCountWarnThreshold;
 
     /**
      * 默认首页的设置
@@ -49,4 +56,16 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addResourceHandler(staticAccessPath)
                 .addResourceLocations("file:" + uploadFolder);
     }
+
+    /**
+     * 注册拦截器
+     *
+     * @param registry
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 统计每个请求执行的SQL条数
+        registry.addInterceptor(new SqlCountHandlerInterceptor(sqlCountWarnThreshold))
+                .excludePathPatterns("/static/**", staticAccessPath);
+    }
 }
@@ -5,6 +5,14 @@ public class RedisConstant {
      * TOKEN前缀
      */
     public static String REDIS_PREFIX_LOGIN = "login_token_%s";
+    /**
+     * 人员会话索引前缀（集合，保存人员的全部会话ID）
+     */
+    public static String REDIS_PREFIX_SESSION_INDEX = "shiro:principal:%s";
+    /**
+     * 登录限流计数前缀
+     */
+    public static String REDIS_PREFIX_RATE_LIMIT = "ratelimit:";
     /**
      * 过期时间2小时
      */
@@ -21,4 +29,36 @@ public class RedisConstant {
      * 暂无过期时间
      */
     public static Integer REDIS_EXPIRE_NULL = -1;
+    /**
+     * 人员缓存失效通知频道
+     */
+    public static String REDIS_CHANNEL_ADMIN_EVICT = "channel:admin:evict";
+    /**
+     * 菜单缓存失效通知频道
+     */
+    public static String REDIS_CHANNEL_MENU_EVICT = "channel:menu:evict";
+    /**
+     * 权限变更通知频道
+     */
+    public static String REDIS_CHANNEL_PERMISSION_EVICT = "channel:permission:evict";
+    /**
+     * 定时任务变更通知频道
+     */
+    public static String REDIS_CHANNEL_CRONTAB_RELOAD = "channel:crontab:reload";
+    /**
+     * 库存预警通知频道
+     */
+    public static String REDIS_CHANNEL_STOCK_LOW = "channel:stock:low";
+    /**
+     * 运费模板失效通知频道
+     */
+    public static String REDIS_CHANNEL_FREIGHT_EVICT = "channel:freight:evict";
+    /**
+     * 城市数据变更通知频道
+     */
+    public static String REDIS_CHANNEL_CITY_RELOAD = "channel:city:reload";
+    /**
+     * 层级数据（部门、栏目、商品分类）失效通知频道
+     */
+    public static String REDIS_CHANNEL_HIERARCHY_EVICT = "channel:hierarchy:evict";
 }
@@ -0,0 +1,171 @@
+package com.kestrelcjx.common.freight;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * 运费计算
+ * 同一店铺使用同一运费模板的商品合并计费（重量或件数累加后按首重续重计算），店铺运费为各模板运费之和
+ */
+public class FreightCalculator {
+
+    private FreightCalculator() {
+    }
+
+    /**
+     * 计算订单运费
+     *
+     * @param cityId 收货城市ID（区县、市或省）
+     * @param items  订单商品
+     * @param rules  按运费模板ID获取编译后的运费规则，不存在时返回null
+     * @return
+     */
+    public static Quote quote(int cityId, List<Item> items, IntFunction<FreightRule> rules) {
+        // 店铺ID、模板ID与计费量的对应关系
+        Map<Long, long[]> amountMap = new LinkedHashMap<>();
+        Map<Long, FreightRule> ruleMap = new HashMap<>();
+        List<Item> undeliverableList = new ArrayList<>();
+        for (Item item : items) {
+            long key = ((long) item.storeId << 32) | (item.templateId & 0xFFFFFFFFL);
+            FreightRule rule = ruleMap.get(key);
+            if (rule == null) {
+                rule = rules.apply(item.templateId);
+                if (rule == null || !rule.covers(cityId)) {
+                    undeliverableList.add(item);
+                    continue;
+                }
+                ruleMap.put(key, rule);
+            }
+            amountMap.computeIfAbsent(key, k -> new long[1])[0] += rule.amountOf(item.quantity, item.weightInGram);
+        }
+        Map<Integer, Long> storeFeeMap = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Long, long[]> entry : amountMap.entrySet()) {
+            long fee = ruleMap.get(entry.getKey()).fee(entry.getValue()[0]);
+            storeFeeMap.merge((int) (entry.getKey() >>> 32), fee, Long::sum);
+            total += fee;
+        }
+        return new Quote(total, storeFeeMap, undeliverableList);
+    }
+
+    /**
+     * 订单商品
+     */
+    public static final class Item {
+        /**
+         * 店铺ID
+         */
+        private final int storeId;
+        /**
+         * 运费模板ID
+         */
+        private final int templateId;
+        /**
+         * 件数
+         */
+        private final int quantity;
+        /**
+         * 单件重量（克）
+         */
+        private final long weightInGram;
+
+        /**
+         * 构造函数
+         *
+         * @param storeId    店铺ID
+         * @param templateId 运费模板ID
+         * @param quantity   件数
+         * @param weight     单件重量（千克）
+         */
+        public Item(int storeId, int templateId, int quantity, BigDecimal weight) {
+            this.storeId = storeId;
+            this.templateId = templateId;
+            this.quantity = quantity;
+            this.weightInGram = FreightRule.toGram(weight);
+        }
+
+        public int getStoreId() {
+            return storeId;
+        }
+
+        public int getTemplateId() {
+            return templateId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+
+    /**
+     * 运费计算结果
+     */
+    public static final class Quote {
+        /**
+         * 总运费（分）
+         */
+        private final long total;
+        /**
+         * 店铺ID与运费（分）的对应关系
+         */
+        private final Map<Integer, Long> storeFeeMap;
+        /**
+         * 不配送的商品
+         */
+        private final List<Item> undeliverableList;
+
+        private Quote(long total, Map<Integer, Long> storeFeeMap, List<Item> undeliverableList) {
+            this.total = total;
+            this.storeFeeMap = Collections.unmodifiableMap(storeFeeMap);
+            this.undeliverableList = Collections.unmodifiableList(undeliverableList);
+        }
+
+        /**
+         * 总运费（元）
+         *
+         * @return
+         */
+        public BigDecimal getTotal() {
+            return BigDecimal.valueOf(total, 2);
+        }
+
+        /**
+         * 店铺运费（元）
+         *
+         * @param storeId 店铺ID
+         * @return 店铺没有可配送商品时返回0
+         */
+        public BigDecimal getStoreFee(int storeId) {
+            Long fee = storeFeeMap.get(storeId);
+            return BigDecimal.valueOf(fee != null ? fee : 0, 2);
+        }
+
+        /**
+         * 店铺ID与运费（分）的对应关系
+         *
+         * @return
+         */
+        public Map<Integer, Long> getStoreFeeMap() {
+            return storeFeeMap;
+        }
+
+        public List<Item> getUndeliverableList() {
+            return undeliverableList;
+        }
+
+        /**
+         * 是否全部商品可配送
+         *
+         * @return
+         */
+        public boolean isDeliverable() {
+            return undeliverableList.isEmpty();
+        }
+    }
+}
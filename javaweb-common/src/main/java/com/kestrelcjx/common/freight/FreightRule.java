@@ -0,0 +1,151 @@
+package com.kestrelcjx.common.freight;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.BitSet;
+
+/**
+ * 编译后的运费规则
+ * 目的地编译为城市ID位图（含下级城市），金额以分、重量以克计算，计价时不再解析模板
+ */
+public class FreightRule {
+    /**
+     * 计费类型：按重量
+     */
+    public static final int CHARGE_WEIGHT = 1;
+    /**
+     * 计费类型：按件数
+     */
+    public static final int CHARGE_PIECE = 2;
+
+    /**
+     * 运费模板ID
+     */
+    private final int id;
+    /**
+     * 计费类型
+     */
+    private final int chargeType;
+    /**
+     * 首重（克）或首件数
+     */
+    private final long firstAmount;
+    /**
+     * 首费（分）
+     */
+    private final long firstFee;
+    /**
+     * 续重（克）或续件数
+     */
+    private final long continueAmount;
+    /**
+     * 续费（分）
+     */
+    private final long continueFee;
+    /**
+     * 配送城市ID位图，为null时全国配送
+     */
+    private final BitSet regions;
+
+    /**
+     * 构造函数
+     *
+     * @param id             运费模板ID
+     * @param chargeType     计费类型：1按重量 2按件数
+     * @param firstWeight    首重（千克）或首件数
+     * @param firstFee       首费（元）
+     * @param continueWeight 续重（千克）或续件数
+     * @param continueFee    续费（元）
+     * @param regions        配送城市ID位图（含下级城市），为null时全国配送
+     */
+    public FreightRule(int id, int chargeType, BigDecimal firstWeight, BigDecimal firstFee,
+                       BigDecimal continueWeight, BigDecimal continueFee, BitSet regions) {
+        this.id = id;
+        this.chargeType = chargeType == CHARGE_PIECE ? CHARGE_PIECE : CHARGE_WEIGHT;
+        this.firstAmount = toAmount(firstWeight);
+        this.firstFee = toCent(firstFee);
+        this.continueAmount = toAmount(continueWeight);
+        this.continueFee = toCent(continueFee);
+        this.regions = regions;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getChargeType() {
+        return chargeType;
+    }
+
+    /**
+     * 是否配送到指定城市
+     *
+     * @param cityId 城市ID（区县、市或省）
+     * @return
+     */
+    public boolean covers(int cityId) {
+        return regions == null || (cityId >= 0 && regions.get(cityId));
+    }
+
+    /**
+     * 计算运费
+     * 不超过首重（首件）收取首费，超出部分按续重（续件）向上取整计费
+     *
+     * @param amount 总重量（克）或总件数
+     * @return 运费（分）
+     */
+    public long fee(long amount) {
+        if (amount <= firstAmount || continueAmount <= 0) {
+            return firstFee;
+        }
+        long units = (amount - firstAmount + continueAmount - 1) / continueAmount;
+        return firstFee + units * continueFee;
+    }
+
+    /**
+     * 计算计费量
+     *
+     * @param quantity     件数
+     * @param weightInGram 单件重量（克）
+     * @return 总重量（克）或总件数
+     */
+    public long amountOf(int quantity, long weightInGram) {
+        return chargeType == CHARGE_PIECE ? quantity : quantity * weightInGram;
+    }
+
+    /**
+     * 重量或件数转为计费单位（按重量时为克）
+     *
+     * @param value 千克或件数
+     * @return
+     */
+    private long toAmount(BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        if (chargeType == CHARGE_PIECE) {
+            return value.setScale(0, RoundingMode.UP).longValue();
+        }
+        return toGram(value);
+    }
+
+    /**
+     * 千克转为克（向上取整）
+     *
+     * @param kilogram 千克
+     * @return
+     */
+    public static long toGram(BigDecimal kilogram) {
+        return kilogram == null ? 0 : kilogram.movePointRight(3).setScale(0, RoundingMode.UP).longValue();
+    }
+
+    /**
+     * 元转为分（四舍五入）
+     *
+     * @param yuan 元
+     * @return
+     */
+    public static long toCent(BigDecimal yuan) {
+        return yuan == null ? 0 : yuan.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
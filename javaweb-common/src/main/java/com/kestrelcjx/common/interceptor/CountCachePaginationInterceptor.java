@@ -0,0 +1,287 @@
+package com.kestrelcjx.common.interceptor;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
+import com.kestrelcjx.common.utils.LocalCache;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分页插件（总数缓存）
+ * 1、相同Mapper、相同COUNT语句及参数（筛选条件签名）的精确总数缓存指定秒数，Mapper执行增删改后失效
+ * 2、无筛选条件（单表且仅有mark条件）且表统计行数超过阈值时，直接返回表统计信息中的估算行数
+ * 使用缓存或估算值时标记为近似总数，由JsonResult返回给前端显示“约N条”
+ */
+@Intercepts({@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})})
+public class CountCachePaginationInterceptor extends PaginationInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(CountCachePaginationInterceptor.class);
+    /**
+     * 估算行数查询语句（MySQL表统计信息）
+     */
+    private static final String ESTIMATE_SQL = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+    /**
+     * 当前线程最近一次分页总数是否为近似值
+     */
+    private static final ThreadLocal<Boolean> APPROXIMATE = new ThreadLocal<>();
+    /**
+     * 总数缓存
+     */
+    private final LocalCache<String, Long> countCache;
+    /**
+     * 使用估算行数的阈值（小于等于0时不估算）
+     */
+    private final long estimateThreshold;
+    /**
+     * Mapper数据版本（执行增删改后递增，使该Mapper的总数缓存失效）
+     */
+    private final Map<String, AtomicLong> versionMap = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param cacheSize         缓存条数
+     * @param cacheSeconds      缓存秒数（小于等于0时不缓存）
+     * @param estimateThreshold 使用估算行数的阈值（小于等于0时不估算）
+     */
+    public CountCachePaginationInterceptor(int cacheSize, long cacheSeconds, long estimateThreshold) {
+        this.countCache = cacheSeconds > 0 ? new LocalCache<>(cacheSize, cacheSeconds, TimeUnit.SECONDS) : null;
+        this.estimateThreshold = estimateThreshold;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementHandler statementHandler = PluginUtils.realTarget(invocation.getTarget());
+        MetaObject metaObject = SystemMetaObject.forObject(statementHandler);
+        MappedStatement mappedStatement = (MappedStatement) metaObject.getValue("delegate.mappedStatement");
+        SqlCommandType commandType = mappedStatement.getSqlCommandType();
+        if (SqlCommandType.INSERT == commandType || SqlCommandType.UPDATE == commandType
+                || SqlCommandType.DELETE == commandType) {
+            // 数据变更，使该Mapper的总数缓存失效
+            getVersion(getNamespace(mappedStatement)).incrementAndGet();
+        }
+        return super.intercept(invocation);
+    }
+
+    @Override
+    protected void queryTotal(boolean overflowCurrent, String sql, MappedStatement mappedStatement, BoundSql boundSql,
+                              IPage<?> page, Connection connection) {
+        String namespace = getNamespace(mappedStatement);
+        String key = null;
+        if (countCache != null) {
+            key = namespace + "#" + getVersion(namespace).get() + "#" + sql + "#" + getParameterValues(mappedStatement, boundSql);
+            Long total = countCache.get(key);
+            if (total != null) {
+                setTotal(overflowCurrent, page, total, true);
+                return;
+            }
+        }
+        // 无筛选条件时使用表统计信息估算行数
+        if (estimateThreshold > 0) {
+            String tableName = getUnfilteredTable(sql);
+            if (tableName != null) {
+                long estimate = queryEstimate(tableName, connection);
+                if (estimate > estimateThreshold) {
+                    if (key != null) {
+                        countCache.put(key, estimate);
+                    }
+                    setTotal(overflowCurrent, page, estimate, true);
+                    return;
+                }
+            }
+        }
+        // 精确统计
+        super.queryTotal(overflowCurrent, sql, mappedStatement, boundSql, page, connection);
+        APPROXIMATE.set(false);
+        if (key != null && page.getTotal() > 0) {
+            countCache.put(key, page.getTotal());
+        }
+    }
+
+    /**
+     * 设置总数（页码超出总页数时按溢出策略处理）
+     *
+     * @param overflowCurrent 溢出时是否回到第一页
+     * @param page            分页对象
+     * @param total           总数
+     * @param approximate     是否近似值
+     */
+    private void setTotal(boolean overflowCurrent, IPage<?> page, long total, boolean approximate) {
+        page.setTotal(total);
+        long pages = page.getPages();
+        if (overflowCurrent && page.getCurrent() > pages) {
+            page.setCurrent(1);
+        }
+        APPROXIMATE.set(approximate);
+    }
+
+    /**
+     * 获取单表无筛选条件（仅mark条件）COUNT语句的表名
+     *
+     * @param sql COUNT语句
+     * @return 表名，不满足条件时返回null
+     */
+    private String getUnfilteredTable(String sql) {
+        try {
+            Statement statement = CCJSqlParserUtil.parse(sql);
+            if (!(statement instanceof Select) || !(((Select) statement).getSelectBody() instanceof PlainSelect)) {
+                return null;
+            }
+            PlainSelect plainSelect = (PlainSelect) ((Select) statement).getSelectBody();
+            if (!(plainSelect.getFromItem() instanceof Table)
+                    || (plainSelect.getJoins() != null && !plainSelect.getJoins().isEmpty())
+                    || plainSelect.getGroupBy() != null) {
+                return null;
+            }
+            Expression where = plainSelect.getWhere();
+            // 条件构造器生成的条件带括号：WHERE (mark = ?)
+            while (where instanceof Parenthesis) {
+                where = ((Parenthesis) where).getExpression();
+            }
+            if (where != null) {
+                if (!(where instanceof EqualsTo) || !(((EqualsTo) where).getLeftExpression() instanceof Column)
+                        || !"mark".equalsIgnoreCase(((Column) ((EqualsTo) where).getLeftExpression()).getColumnName())) {
+                    return null;
+                }
+            }
+            return ((Table) plainSelect.getFromItem()).getName().replace("`", "");
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 查询表统计信息中的估算行数
+     *
+     * @param tableName  表名
+     * @param connection 数据库连接
+     * @return 估算行数，查询失败时返回-1
+     */
+    private long queryEstimate(String tableName, Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(ESTIMATE_SQL)) {
+            statement.setString(1, tableName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getLong(1);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("查询表[{}]估算行数失败：{}", tableName, e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * 获取SQL参数值（筛选条件签名）
+     *
+     * @param mappedStatement MappedStatement对象
+     * @param boundSql        BoundSql对象
+     * @return
+     */
+    private String getParameterValues(MappedStatement mappedStatement, BoundSql boundSql) {
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        if (parameterMappings == null || parameterMappings.isEmpty()) {
+            return "";
+        }
+        Object parameterObject = boundSql.getParameterObject();
+        Configuration configuration = mappedStatement.getConfiguration();
+        MetaObject metaObject = null;
+        StringBuilder sb = new StringBuilder();
+        for (ParameterMapping parameterMapping : parameterMappings) {
+            String property = parameterMapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+            sb.append(value).append(',');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 获取Mapper命名空间
+     *
+     * @param mappedStatement MappedStatement对象
+     * @return
+     */
+    private String getNamespace(MappedStatement mappedStatement) {
+        String id = mappedStatement.getId();
+        int index = id.lastIndexOf('.');
+        return index > 0 ? id.substring(0, index) : id;
+    }
+
+    /**
+     * 获取Mapper数据版本
+     *
+     * @param namespace Mapper命名空间
+     * @return
+     */
+    private AtomicLong getVersion(String namespace) {
+        return versionMap.computeIfAbsent(namespace, k -> new AtomicLong());
+    }
+
+    /**
+     * 获取并清除当前线程最近一次分页总数是否为近似值
+     *
+     * @return 未执行分页统计时返回null
+     */
+    public static Boolean pollApproximate() {
+        Boolean approximate = APPROXIMATE.get();
+        APPROXIMATE.remove();
+        return approximate;
+    }
+
+    /**
+     * 清除当前线程的近似值标记
+     */
+    public static void clear() {
+        APPROXIMATE.remove();
+    }
+
+    /**
+     * 获取总数缓存
+     *
+     * @return
+     */
+    public LocalCache<String, Long> getCountCache() {
+        return countCache;
+    }
+}
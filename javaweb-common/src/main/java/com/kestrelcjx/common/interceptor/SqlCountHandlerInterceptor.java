@@ -0,0 +1,75 @@
+package com.kestrelcjx.common.interceptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求SQL条数统计拦截器
+ * 请求开始时重置计数，请求结束时输出本次请求执行的SQL条数
+ */
+public class SqlCountHandlerInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(SqlCountHandlerInterceptor.class);
+    /**
+     * 单个请求SQL条数告警阈值
+     */
+    private final int warnThreshold;
+    /**
+     * 已统计的请求数
+     */
+    private static final AtomicLong REQUEST_COUNT = new AtomicLong();
+    /**
+     * 单个请求执行SQL条数的最大值
+     */
+    private static final AtomicInteger MAX_COUNT = new AtomicInteger();
+
+    public SqlCountHandlerInterceptor(int warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlCountInterceptor.reset();
+        CountCachePaginationInterceptor.clear();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int count = SqlCountInterceptor.getCount();
+        SqlCountInterceptor.clear();
+        CountCachePaginationInterceptor.clear();
+        REQUEST_COUNT.incrementAndGet();
+        MAX_COUNT.accumulateAndGet(count, Math::max);
+        if (count > warnThreshold) {
+            logger.warn("请求[{} {}]执行SQL {} 条，超过阈值 {}", request.getMethod(), request.getRequestURI(), count,
+                    warnThreshold);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("请求[{} {}]执行SQL {} 条", request.getMethod(), request.getRequestURI(), count);
+        }
+    }
+
+    /**
+     * 获取已统计的请求数
+     *
+     * @return
+     */
+    public static long getRequestCount() {
+        return REQUEST_COUNT.get();
+    }
+
+    /**
+     * 获取单个请求执行SQL条数的最大值
+     *
+     * @return
+     */
+    public static int getMaxCount() {
+        return MAX_COUNT.get();
+    }
+}
@@ -0,0 +1,73 @@
+package com.kestrelcjx.common.interceptor;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.*;
+
+import java.sql.Connection;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL执行次数统计插件
+ * 按线程（即按请求）统计MyBatis实际执行的SQL条数，用于观察列表接口是否存在N+1查询
+ */
+@Intercepts({@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})})
+public class SqlCountInterceptor implements Interceptor {
+    /**
+     * 当前线程执行的SQL条数
+     */
+    private static final ThreadLocal<int[]> COUNTER = ThreadLocal.withInitial(() -> new int[1]);
+    /**
+     * 累计执行的SQL条数
+     */
+    private static final AtomicLong TOTAL_COUNT = new AtomicLong();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        COUNTER.get()[0]++;
+        TOTAL_COUNT.incrementAndGet();
+        return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+
+    }
+
+    /**
+     * 重置当前线程的统计
+     */
+    public static void reset() {
+        COUNTER.get()[0] = 0;
+    }
+
+    /**
+     * 获取当前线程执行的SQL条数
+     *
+     * @return
+     */
+    public static int getCount() {
+        return COUNTER.get()[0];
+    }
+
+    /**
+     * 清除当前线程的统计
+     */
+    public static void clear() {
+        COUNTER.remove();
+    }
+
+    /**
+     * 获取累计执行的SQL条数
+     *
+     * @return
+     */
+    public static long getTotalCount() {
+        return TOTAL_COUNT.get();
+    }
+}
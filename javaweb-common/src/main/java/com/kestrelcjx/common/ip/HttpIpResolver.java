@@ -0,0 +1,38 @@
+package com.kestrelcjx.common.ip;
+
+import com.alibaba.fastjson.JSONObject;
+import com.kestrelcjx.common.utils.HttpUtils;
+import com.kestrelcjx.common.utils.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 远程IP地址解析（需要联网，调用淘宝的IP库）
+ */
+public class HttpIpResolver implements IpResolver {
+    private static final Logger logger = LoggerFactory.getLogger(HttpIpResolver.class);
+    /**
+     * 淘宝IP库接口地址
+     */
+    private static final String IP_URL = "http://ip.taobao.com/service/getIpInfo.php";
+
+    @Override
+    public String resolve(String ip) {
+        String rspStr = HttpUtils.sendPost(IP_URL, "ip=" + ip);
+        if (StringUtils.isEmpty(rspStr)) {
+            logger.error("获取地理位置异常 {}", ip);
+            return null;
+        }
+        try {
+            JSONObject object = JSONObject.parseObject(rspStr);
+            JSONObject data = object.getObject("data", JSONObject.class);
+            if (data == null) {
+                return null;
+            }
+            return data.getString("region") + " " + data.getString("city");
+        } catch (Exception e) {
+            logger.error("解析地理位置异常 {}：{}", ip, e.getMessage());
+            return null;
+        }
+    }
+}
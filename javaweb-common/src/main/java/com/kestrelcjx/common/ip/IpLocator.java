@@ -0,0 +1,157 @@
+package com.kestrelcjx.common.ip;
+
+import com.kestrelcjx.common.utils.IpUtils;
+import com.kestrelcjx.common.utils.LocalCache;
+import com.kestrelcjx.common.utils.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IP地址定位
+ * 优先查询本地IP段数据库，未收录时可选调用远程IP库，查询结果LRU缓存
+ */
+@Component
+public class IpLocator {
+    private static final Logger logger = LoggerFactory.getLogger(IpLocator.class);
+    /**
+     * 未知地区
+     */
+    public static final String UNKNOWN = "XX XX";
+    /**
+     * 内网地区
+     */
+    public static final String INTERNAL = "内网IP";
+
+    /**
+     * 本地IP段数据文件路径
+     */
+    @Value("${ip.db.path:}")
+    private String dbPath;
+    /**
+     * 是否启用远程IP库
+     */
+    @Value("${ip.http.enabled:false}")
+    private Boolean httpEnabled;
+    /**
+     * 缓存条数
+     */
+    @Value("${ip.cache.maxSize:10000}")
+    private Integer cacheMaxSize;
+    /**
+     * 缓存秒数
+     */
+    @Value("${ip.cache.expireSeconds:86400}")
+    private Long cacheExpireSeconds;
+
+    /**
+     * 本地IP段数据库
+     */
+    private volatile IpRangeDatabase database;
+    /**
+     * 远程IP库
+     */
+    private IpResolver httpResolver;
+    /**
+     * 查询结果缓存
+     */
+    private LocalCache<String, String> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new LocalCache<>(cacheMaxSize, cacheExpireSeconds, TimeUnit.SECONDS);
+        if (httpEnabled) {
+            httpResolver = new HttpIpResolver();
+        }
+        reload();
+    }
+
+    /**
+     * 重新加载本地IP段数据库
+     *
+     * @return 是否加载成功
+     */
+    public boolean reload() {
+        if (StringUtils.isEmpty(dbPath)) {
+            logger.warn("未配置本地IP库（ip.db.path），远程IP库：{}", httpEnabled ? "启用" : "未启用");
+            return false;
+        }
+        Path path = Paths.get(dbPath);
+        if (!Files.isRegularFile(path)) {
+            logger.warn("本地IP库文件不存在：{}", dbPath);
+            return false;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            database = IpRangeDatabase.load(path);
+            cache.clear();
+            logger.info("加载本地IP库完成，IP段数：{}，耗时：{}ms", database.size(), System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            logger.error("加载本地IP库失败：{}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 根据IP查询地区
+     *
+     * @param ip IP地址
+     * @return
+     */
+    public String getAddress(String ip) {
+        // 本机地址（含IPv6）不查询
+        if ("127.0.0.1".equals(ip) || "0:0:0:0:0:0:0:1".equals(ip) || "::1".equals(ip)) {
+            return INTERNAL;
+        }
+        if (IpRangeDatabase.toLong(ip) < 0) {
+            return UNKNOWN;
+        }
+        // 内网不查询
+        if (IpUtils.internalIp(ip)) {
+            return INTERNAL;
+        }
+        return cache.get(ip, this::resolve);
+    }
+
+    /**
+     * 依次查询本地IP库、远程IP库
+     *
+     * @param ip IP地址
+     * @return
+     */
+    private String resolve(String ip) {
+        IpRangeDatabase db = database;
+        String address = db != null ? db.resolve(ip) : null;
+        if (address == null && httpResolver != null) {
+            address = httpResolver.resolve(ip);
+        }
+        return address != null ? address : UNKNOWN;
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        IpRangeDatabase db = database;
+        stats.put("ranges", db != null ? db.size() : 0);
+        stats.put("httpEnabled", httpEnabled);
+        stats.put("cacheSize", cache.size());
+        stats.put("hitCount", cache.getHitCount());
+        stats.put("missCount", cache.getMissCount());
+        stats.put("hitRate", cache.getHitRate());
+        return stats;
+    }
+}
@@ -0,0 +1,204 @@
+package com.kestrelcjx.common.ip;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地IP段数据库
+ * 数据文件每行一个IP段：起始IP|结束IP|国家|区域|省份|城市|运营商（ip2region原始数据格式，值为0的字段忽略），#开头为注释
+ * 加载时内存映射读取文件，IP段按起始IP排序存放在int数组中，查询时二分查找
+ */
+public class IpRangeDatabase implements IpResolver {
+    /**
+     * IP段起始地址（无符号int，升序）
+     */
+    private final int[] starts;
+    /**
+     * IP段结束地址（无符号int）
+     */
+    private final int[] ends;
+    /**
+     * IP段对应的地区下标
+     */
+    private final int[] regionIndexes;
+    /**
+     * 地区（去重）
+     */
+    private final String[] regions;
+
+    private IpRangeDatabase(int[] starts, int[] ends, int[] regionIndexes, String[] regions) {
+        this.starts = starts;
+        this.ends = ends;
+        this.regionIndexes = regionIndexes;
+        this.regions = regions;
+    }
+
+    /**
+     * 从文件加载
+     *
+     * @param path 数据文件路径
+     * @return
+     * @throws IOException
+     */
+    public static IpRangeDatabase load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return parse(StandardCharsets.UTF_8.decode(buffer));
+        }
+    }
+
+    /**
+     * 解析数据
+     *
+     * @param content 数据内容
+     * @return
+     */
+    public static IpRangeDatabase parse(CharSequence content) {
+        List<long[]> ranges = new ArrayList<>();
+        Map<String, Integer> regionMap = new HashMap<>();
+        List<String> regionList = new ArrayList<>();
+        int length = content.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && content.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            String line = content.subSequence(lineStart, lineEnd).toString().trim();
+            lineStart = lineEnd + 1;
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] items = line.split("\\|");
+            if (items.length < 3) {
+                continue;
+            }
+            long start = toLong(items[0].trim());
+            long end = toLong(items[1].trim());
+            if (start < 0 || end < start) {
+                continue;
+            }
+            // 拼接地区，忽略值为0及与上一字段重复的字段
+            StringBuilder sb = new StringBuilder();
+            String last = null;
+            for (int i = 2; i < items.length; i++) {
+                String item = items[i].trim();
+                if (item.isEmpty() || "0".equals(item) || item.equals(last)) {
+                    continue;
+                }
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(item);
+                last = item;
+            }
+            String region = sb.toString();
+            Integer index = regionMap.get(region);
+            if (index == null) {
+                index = regionList.size();
+                regionMap.put(region, index);
+                regionList.add(region);
+            }
+            ranges.add(new long[]{start, end, index});
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        int size = ranges.size();
+        int[] starts = new int[size];
+        int[] ends = new int[size];
+        int[] regionIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            long[] range = ranges.get(i);
+            starts[i] = (int) range[0];
+            ends[i] = (int) range[1];
+            regionIndexes[i] = (int) range[2];
+        }
+        return new IpRangeDatabase(starts, ends, regionIndexes, regionList.toArray(new String[0]));
+    }
+
+    /**
+     * 根据IP获取地区
+     *
+     * @param ip IPv4地址
+     * @return 地区，未收录时返回null
+     */
+    @Override
+    public String resolve(String ip) {
+        long value = toLong(ip);
+        if (value < 0) {
+            return null;
+        }
+        int target = (int) value;
+        // 二分查找最后一个起始地址小于等于目标地址的IP段
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(starts[mid], target) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0 || Integer.compareUnsigned(ends[found], target) < 0) {
+            return null;
+        }
+        String region = regions[regionIndexes[found]];
+        return region.isEmpty() ? null : region;
+    }
+
+    /**
+     * 获取IP段数
+     *
+     * @return
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * 将IPv4地址转换为数值
+     *
+     * @param ip IPv4地址
+     * @return 数值，格式错误时返回-1
+     */
+    public static long toLong(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return -1;
+        }
+        long result = 0;
+        int part = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                part = part * 10 + (c - '0');
+                if (++digits > 3 || part > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                result = (result << 8) | part;
+                part = 0;
+                digits = 0;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || digits == 0) {
+            return -1;
+        }
+        return (result << 8) | part;
+    }
+}
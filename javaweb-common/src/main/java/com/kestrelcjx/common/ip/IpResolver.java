@@ -0,0 +1,14 @@
+package com.kestrelcjx.common.ip;
+
+/**
+ * IP地址解析接口
+ */
+public interface IpResolver {
+    /**
+     * 根据IP获取地区
+     *
+     * @param ip IPv4地址
+     * @return 地区，无法解析时返回null
+     */
+    String resolve(String ip);
+}
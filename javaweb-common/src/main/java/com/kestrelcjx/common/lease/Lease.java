@@ -0,0 +1,97 @@
+package com.kestrelcjx.common.lease;
+
+/**
+ * 租约
+ * 持有期间由LeaseManager定时续约，续约失败或超过有效期即失效
+ */
+public class Lease {
+    /**
+     * 租约名称
+     */
+    private final String name;
+    /**
+     * 持有者（节点标识）
+     */
+    private final String owner;
+    /**
+     * 防护令牌（每次租约易主时递增，下游可拒绝令牌更小的写入）
+     */
+    private final long token;
+    /**
+     * 有效期（毫秒）
+     */
+    private final long ttlMillis;
+    /**
+     * 本地估算的到期时间（按请求发出时间计算，早于Redis中的实际到期时间）
+     */
+    private volatile long expireAt;
+    /**
+     * 是否已失效（续约失败或已释放）
+     */
+    private volatile boolean lost;
+
+    Lease(String name, String owner, long token, long ttlMillis, long expireAt) {
+        this.name = name;
+        this.owner = owner;
+        this.token = token;
+        this.ttlMillis = ttlMillis;
+        this.expireAt = expireAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public long getExpireAt() {
+        return expireAt;
+    }
+
+    /**
+     * 是否仍持有租约
+     *
+     * @return
+     */
+    public boolean isHeld() {
+        return !lost && System.currentTimeMillis() < expireAt;
+    }
+
+    /**
+     * Redis中保存的租约值
+     *
+     * @return
+     */
+    String getValue() {
+        return token + ":" + owner;
+    }
+
+    void setExpireAt(long expireAt) {
+        this.expireAt = expireAt;
+    }
+
+    void setLost() {
+        this.lost = true;
+    }
+
+    @Override
+    public String toString() {
+        return "Lease(" +
+                "name=" + name +
+                ", owner=" + owner +
+                ", token=" + token +
+                ", expireAt=" + expireAt +
+                ", lost=" + lost +
+                ")";
+    }
+}
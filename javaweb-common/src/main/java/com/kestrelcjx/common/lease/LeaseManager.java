@@ -0,0 +1,278 @@
+package com.kestrelcjx.common.lease;
+
+import com.kestrelcjx.common.utils.RedisUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 集群租约管理（分布式锁）
+ * 租约保存在Redis中（值为“令牌:持有者”，带过期时间），获取、续约、释放均通过Lua脚本原子执行
+ * 每次租约易主时令牌递增，作为防护令牌传递给下游；持有中的租约由后台线程定时续约，节点宕机后租约过期即可被其他节点获取
+ */
+@Component
+public class LeaseManager {
+    private static final Logger logger = LoggerFactory.getLogger(LeaseManager.class);
+    /**
+     * 租约KEY前缀
+     */
+    private static final String LEASE_KEY = "lease:";
+    /**
+     * 防护令牌KEY前缀
+     */
+    private static final String TOKEN_KEY = "lease:token:";
+    /**
+     * 获取租约：未被持有时递增令牌并写入，已被自己持有时延长有效期，返回令牌；被其他节点持有时返回0
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('get', KEYS[1]) " +
+                    "if value then " +
+                    "  local index = string.find(value, ':', 1, true) " +
+                    "  if string.sub(value, index + 1) == ARGV[1] then " +
+                    "    redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                    "    return tonumber(string.sub(value, 1, index - 1)) " +
+                    "  end " +
+                    "  return 0 " +
+                    "end " +
+                    "local token = redis.call('incr', KEYS[2]) " +
+                    "redis.call('set', KEYS[1], token .. ':' .. ARGV[1], 'PX', ARGV[2]) " +
+                    "return token", Long.class);
+    /**
+     * 续约：租约值一致时延长有效期
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "  return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                    "end " +
+                    "return 0", Long.class);
+    /**
+     * 释放：租约值一致时删除
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "  return redis.call('del', KEYS[1]) " +
+                    "end " +
+                    "return 0", Long.class);
+
+    @Autowired
+    private RedisUtils redisUtils;
+    /**
+     * 续约检查间隔（毫秒）
+     */
+    @Value("${lease.renewIntervalMillis:1000}")
+    private Long renewIntervalMillis;
+
+    /**
+     * 节点标识（主机名@进程ID-随机串）
+     */
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+    /**
+     * 持有中的租约
+     */
+    private final Map<String, Lease> leaseMap = new ConcurrentHashMap<>();
+    /**
+     * 续约线程
+     */
+    private ScheduledExecutorService renewExecutor;
+
+    /**
+     * 获取租约次数
+     */
+    private final AtomicLong acquireCount = new AtomicLong();
+    /**
+     * 获取成功次数
+     */
+    private final AtomicLong acquiredCount = new AtomicLong();
+    /**
+     * 获取租约耗时合计（微秒）
+     */
+    private final AtomicLong acquireMicros = new AtomicLong();
+    /**
+     * 获取租约最大耗时（微秒）
+     */
+    private volatile long maxAcquireMicros;
+    /**
+     * 续约次数
+     */
+    private final AtomicLong renewCount = new AtomicLong();
+    /**
+     * 失去租约次数
+     */
+    private final AtomicLong lostCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        renewExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-renew");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewExecutor.scheduleWithFixedDelay(this::renewAll, renewIntervalMillis, renewIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 尝试获取租约，获取成功后自动续约直至释放
+     *
+     * @param name      租约名称
+     * @param ttlMillis 有效期（毫秒），节点宕机后最长经过该时间可被其他节点获取
+     * @return 租约，被其他节点持有或Redis不可用时返回null
+     */
+    public Lease tryAcquire(String name, long ttlMillis) {
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        Long token = null;
+        try {
+            token = redisUtils.eval(ACQUIRE_SCRIPT, Arrays.asList(LEASE_KEY + name, TOKEN_KEY + name),
+                    nodeId, String.valueOf(ttlMillis));
+        } catch (Exception e) {
+            logger.error("获取租约[{}]失败：{}", name, e.getMessage());
+        }
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        acquireCount.incrementAndGet();
+        acquireMicros.addAndGet(micros);
+        if (micros > maxAcquireMicros) {
+            maxAcquireMicros = micros;
+        }
+        if (token == null || token <= 0) {
+            return null;
+        }
+        acquiredCount.incrementAndGet();
+        Lease lease = new Lease(name, nodeId, token, ttlMillis, start + ttlMillis);
+        Lease old = leaseMap.put(name, lease);
+        if (old != null && old.getToken() != token) {
+            old.setLost();
+        }
+        return lease;
+    }
+
+    /**
+     * 获取本节点持有中的租约
+     *
+     * @param name 租约名称
+     * @return 未持有时返回null
+     */
+    public Lease getHeld(String name) {
+        Lease lease = leaseMap.get(name);
+        return lease != null && lease.isHeld() ? lease : null;
+    }
+
+    /**
+     * 释放租约
+     *
+     * @param lease 租约
+     */
+    public void release(Lease lease) {
+        if (lease == null) {
+            return;
+        }
+        lease.setLost();
+        leaseMap.remove(lease.getName(), lease);
+        try {
+            redisUtils.eval(RELEASE_SCRIPT, Arrays.asList(LEASE_KEY + lease.getName()), lease.getValue());
+        } catch (Exception e) {
+            logger.error("释放租约[{}]失败：{}", lease.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * 释放本节点持有的租约
+     *
+     * @param name 租约名称
+     */
+    public void release(String name) {
+        release(leaseMap.get(name));
+    }
+
+    /**
+     * 释放全部租约并停止续约（应用退出时调用，其他节点可立即接管）
+     */
+    public void shutdown() {
+        if (renewExecutor != null) {
+            renewExecutor.shutdown();
+        }
+        leaseMap.values().forEach(this::release);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("held", leaseMap.size());
+        stats.put("acquire", acquireCount.get());
+        stats.put("acquired", acquiredCount.get());
+        long count = acquireCount.get();
+        stats.put("avgAcquireMicros", count == 0 ? 0 : acquireMicros.get() / count);
+        stats.put("maxAcquireMicros", maxAcquireMicros);
+        stats.put("renew", renewCount.get());
+        stats.put("lost", lostCount.get());
+        return stats;
+    }
+
+    /**
+     * 续约剩余有效期不足三分之二的租约
+     */
+    private void renewAll() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leaseMap.values()) {
+            if (lease.getExpireAt() - now > lease.getTtlMillis() * 2 / 3) {
+                continue;
+            }
+            if (!lease.isHeld()) {
+                // 已超过有效期，可能已被其他节点获取
+                lose(lease);
+                continue;
+            }
+            try {
+                Long result = redisUtils.eval(RENEW_SCRIPT, Arrays.asList(LEASE_KEY + lease.getName()),
+                        lease.getValue(), String.valueOf(lease.getTtlMillis()));
+                if (result != null && result > 0) {
+                    lease.setExpireAt(now + lease.getTtlMillis());
+                    renewCount.incrementAndGet();
+                } else {
+                    lose(lease);
+                }
+            } catch (Exception e) {
+                // Redis暂时不可用时保留租约，超过有效期后失效
+                logger.error("租约[{}]续约失败：{}", lease.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 标记租约失效
+     *
+     * @param lease 租约
+     */
+    private void lose(Lease lease) {
+        lease.setLost();
+        if (leaseMap.remove(lease.getName(), lease)) {
+            lostCount.incrementAndGet();
+            logger.warn("已失去租约：{}", lease);
+        }
+    }
+}
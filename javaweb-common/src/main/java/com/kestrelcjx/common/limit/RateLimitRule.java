@@ -0,0 +1,123 @@
+package com.kestrelcjx.common.limit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 限流规则：路径 + 维度（IP或用户名）+ 窗口内最大次数 + 窗口秒数 + 请求方法（可选）
+ */
+public final class RateLimitRule {
+    /**
+     * 按客户端IP限流
+     */
+    public static final String DIMENSION_IP = "ip";
+    /**
+     * 按登录用户名限流
+     */
+    public static final String DIMENSION_USERNAME = "username";
+
+    private final String path;
+    private final String dimension;
+    private final int limit;
+    private final int windowSeconds;
+    /**
+     * 请求方法，为空时不限方法
+     */
+    private final String method;
+
+    public RateLimitRule(String path, String dimension, int limit, int windowSeconds) {
+        this(path, dimension, limit, windowSeconds, null);
+    }
+
+    public RateLimitRule(String path, String dimension, int limit, int windowSeconds, String method) {
+        if (!DIMENSION_IP.equals(dimension) && !DIMENSION_USERNAME.equals(dimension)) {
+            throw new IllegalArgumentException("限流维度无效：" + dimension);
+        }
+        if (limit <= 0 || windowSeconds <= 0) {
+            throw new IllegalArgumentException("限流次数和窗口秒数必须大于0：" + path);
+        }
+        this.path = path;
+        this.dimension = dimension;
+        this.limit = limit;
+        this.windowSeconds = windowSeconds;
+        this.method = method == null || method.isEmpty() ? null : method.toUpperCase();
+    }
+
+    /**
+     * 解析限流规则
+     *
+     * @param rules 多条规则以逗号分隔，每条格式为“路径:维度:次数:秒数[:请求方法]”，如：/login:ip:60:60:POST,/captcha:ip:60:60
+     * @return
+     */
+    public static List<RateLimitRule> parse(String rules) {
+        if (rules == null || rules.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<RateLimitRule> list = new ArrayList<>();
+        for (String item : rules.split(",")) {
+            if (item.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = item.trim().split(":");
+            if (parts.length != 4 && parts.length != 5) {
+                throw new IllegalArgumentException("限流规则格式错误：" + item);
+            }
+            try {
+                list.add(new RateLimitRule(parts[0], parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                        parts.length == 5 ? parts[4] : null));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("限流规则格式错误：" + item);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 请求方法是否适用
+     *
+     * @param method 请求方法
+     * @return
+     */
+    public boolean matchesMethod(String method) {
+        return this.method == null || this.method.equalsIgnoreCase(method);
+    }
+
+    /**
+     * 规则标识（[请求方法:]路径:维度）
+     *
+     * @return
+     */
+    public String getId() {
+        return (method == null ? "" : method + ":") + path + ":" + dimension;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getWindowMillis() {
+        return windowSeconds * 1000L;
+    }
+
+    @Override
+    public String toString() {
+        return getId() + ":" + limit + "/" + windowSeconds + "s";
+    }
+}
@@ -0,0 +1,154 @@
+package com.kestrelcjx.common.limit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地滑动窗口计数（近似）
+ * 每个KEY只保存当前和上一个固定窗口的计数，估算值 = 上一窗口计数 × 上一窗口在滑动窗口内的剩余比例 + 当前窗口计数；
+ * KEY按哈希分片，每个分片独立加锁并按LRU限制KEY数量，大量不同的IP或用户名不会占满内存
+ */
+public class SlidingWindowCounter {
+    private final Shard[] shards;
+    private final int mask;
+
+    /**
+     * @param shardCount 分片数（向上取整为2的幂）
+     * @param maxKeys    最大KEY数量（平均分到各分片）
+     */
+    public SlidingWindowCounter(int shardCount, int maxKeys) {
+        int size = Integer.highestOneBit(Math.max(shardCount, 1));
+        if (size < shardCount) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.shards = new Shard[size];
+        int maxPerShard = Math.max(maxKeys / size, 1);
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard(maxPerShard);
+        }
+    }
+
+    /**
+     * 尝试计数
+     *
+     * @param key          KEY
+     * @param limit        窗口内的最大次数
+     * @param windowMillis 窗口长度（毫秒，同一KEY须固定）
+     * @param now          当前时间（毫秒）
+     * @return 未超过限制时计数并返回true，超过时不计数并返回false
+     */
+    public boolean tryAcquire(String key, int limit, long windowMillis, long now) {
+        Shard shard = shardOf(key);
+        synchronized (shard) {
+            Window window = shard.get(key);
+            if (window == null) {
+                window = new Window();
+                shard.put(key, window);
+            }
+            window.roll(now, windowMillis);
+            if (window.estimate(now, windowMillis) >= limit) {
+                return false;
+            }
+            window.current++;
+            return true;
+        }
+    }
+
+    /**
+     * 撤销一次计数（后续规则拒绝请求时调用，窗口已切换时忽略）
+     *
+     * @param key          KEY
+     * @param windowMillis 窗口长度（毫秒）
+     * @param now          计数时的时间（毫秒）
+     */
+    public void release(String key, long windowMillis, long now) {
+        Shard shard = shardOf(key);
+        synchronized (shard) {
+            Window window = shard.get(key);
+            if (window != null && window.start == now - now % windowMillis && window.current > 0) {
+                window.current--;
+            }
+        }
+    }
+
+    /**
+     * 滑动窗口内的估算次数
+     *
+     * @param key          KEY
+     * @param windowMillis 窗口长度（毫秒）
+     * @param now          当前时间（毫秒）
+     * @return
+     */
+    public double estimate(String key, long windowMillis, long now) {
+        Shard shard = shardOf(key);
+        synchronized (shard) {
+            Window window = shard.get(key);
+            if (window == null) {
+                return 0;
+            }
+            window.roll(now, windowMillis);
+            return window.estimate(now, windowMillis);
+        }
+    }
+
+    /**
+     * 当前KEY数量
+     *
+     * @return
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.size();
+            }
+        }
+        return size;
+    }
+
+    private Shard shardOf(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static final class Shard extends LinkedHashMap<String, Window> {
+        private final int maxSize;
+
+        private Shard(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class Window {
+        /**
+         * 当前窗口起始时间（按窗口长度对齐）
+         */
+        private long start;
+        private int previous;
+        private int current;
+
+        /**
+         * 进入新窗口时，相邻窗口的计数转为上一窗口计数，否则清零
+         */
+        private void roll(long now, long windowMillis) {
+            long windowStart = now - now % windowMillis;
+            if (windowStart != start) {
+                previous = windowStart - start == windowMillis ? current : 0;
+                current = 0;
+                start = windowStart;
+            }
+        }
+
+        private double estimate(long now, long windowMillis) {
+            double weight = 1 - (double) (now - start) / windowMillis;
+            return previous * weight + current;
+        }
+    }
+}
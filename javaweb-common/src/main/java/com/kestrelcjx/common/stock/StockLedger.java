@@ -0,0 +1,394 @@
+package com.kestrelcjx.common.stock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 库存台账（单节点内存库存）
+ * 可用库存以CAS扣减，不加锁且不会超卖；预占到期未确认时由定时清理自动释放
+ * 已确认、已释放的预占立即移除，清理只遍历未完成的预占，不为每个预占保留定时器
+ * 库存、锁定库存、销量的变化按SKU合并为增量，由调用方定时取出批量写入数据库
+ * 预占：可用库存减少，锁定库存增加；确认：库存、锁定库存减少，销量增加；释放：可用库存恢复，锁定库存减少
+ */
+public class StockLedger {
+    /**
+     * 预占结果：SKU未加载
+     */
+    public static final long NOT_LOADED = -1;
+    /**
+     * 预占结果：库存不足
+     */
+    public static final long INSUFFICIENT = 0;
+
+    /**
+     * 低库存监听
+     */
+    public interface Listener {
+        /**
+         * 可用库存低于预警库存
+         *
+         * @param skuId     SKU ID
+         * @param available 可用库存
+         * @param lowStock  预警库存
+         */
+        void onLowStock(int skuId, long available, int lowStock);
+    }
+
+    /**
+     * SKU ID与库存的对应关系
+     */
+    private final Map<Integer, Slot> slotMap = new ConcurrentHashMap<>();
+    /**
+     * 预占ID与预占记录的对应关系
+     */
+    private final Map<Long, Reservation> reservationMap = new ConcurrentHashMap<>();
+    /**
+     * SKU ID与待写入增量的对应关系（SKU卸载后增量仍需写入，单独保存）
+     */
+    private final Map<Integer, Delta> deltaMap = new ConcurrentHashMap<>();
+    /**
+     * 有待写入增量的SKU
+     */
+    private final Set<Integer> dirtySet = ConcurrentHashMap.newKeySet();
+    /**
+     * 低库存监听
+     */
+    private final Listener listener;
+    /**
+     * 预占ID序列（以启动时间为基数，重启后不与之前的预占ID重复）
+     */
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    /**
+     * 预占成功次数
+     */
+    private final AtomicLong reserveCount = new AtomicLong();
+    /**
+     * 库存不足次数
+     */
+    private final AtomicLong insufficientCount = new AtomicLong();
+    /**
+     * 确认次数
+     */
+    private final AtomicLong confirmCount = new AtomicLong();
+    /**
+     * 释放次数
+     */
+    private final AtomicLong releaseCount = new AtomicLong();
+    /**
+     * 到期释放次数
+     */
+    private final AtomicLong expireCount = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param listener 低库存监听，可为null
+     */
+    public StockLedger(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * SKU是否已加载
+     *
+     * @param skuId SKU ID
+     * @return
+     */
+    public boolean isLoaded(int skuId) {
+        return slotMap.containsKey(skuId);
+    }
+
+    /**
+     * 加载SKU库存（已加载时忽略）
+     * 预占只保存在内存中，加载时数据库中的锁定库存视为上次运行遗留，以增量方式清零
+     *
+     * @param skuId     SKU ID
+     * @param stock     库存
+     * @param lockStock 锁定库存
+     * @param lowStock  预警库存
+     */
+    public void load(int skuId, int stock, int lockStock, int lowStock) {
+        Slot slot = new Slot(stock, lowStock);
+        if (slotMap.putIfAbsent(skuId, slot) == null && lockStock != 0) {
+            record(skuId, 0, -lockStock, 0);
+        }
+    }
+
+    /**
+     * 卸载SKU库存（SKU删除后调用）
+     *
+     * @param skuId SKU ID
+     */
+    public void unload(int skuId) {
+        slotMap.remove(skuId);
+    }
+
+    /**
+     * 预占库存
+     *
+     * @param skuId     SKU ID
+     * @param quantity  数量
+     * @param ttlMillis 有效期（毫秒），到期未确认自动释放
+     * @param nowMillis 当前时间（毫秒）
+     * @return 预占ID，库存不足返回INSUFFICIENT，未加载返回NOT_LOADED
+     */
+    public long reserve(int skuId, int quantity, long ttlMillis, long nowMillis) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("预占数量必须大于0");
+        }
+        Slot slot = slotMap.get(skuId);
+        if (slot == null) {
+            return NOT_LOADED;
+        }
+        long current;
+        do {
+            current = slot.available.get();
+            if (current < quantity) {
+                insufficientCount.incrementAndGet();
+                return INSUFFICIENT;
+            }
+        } while (!slot.available.compareAndSet(current, current - quantity));
+        record(skuId, 0, quantity, 0);
+        Reservation reservation = new Reservation(sequence.incrementAndGet(), skuId, quantity, nowMillis + ttlMillis);
+        reservationMap.put(reservation.id, reservation);
+        reserveCount.incrementAndGet();
+        int lowStock = slot.lowStock;
+        if (listener != null && lowStock > 0 && current >= lowStock && current - quantity < lowStock) {
+            listener.onLowStock(skuId, current - quantity, lowStock);
+        }
+        return reservation.id;
+    }
+
+    /**
+     * 确认预占（扣减库存）
+     *
+     * @param reservationId 预占ID
+     * @return 预占不存在（已确认、已释放或已到期）时返回false
+     */
+    public boolean confirm(long reservationId) {
+        Reservation reservation = reservationMap.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        record(reservation.skuId, -reservation.quantity, -reservation.quantity, reservation.quantity);
+        confirmCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 释放预占
+     *
+     * @param reservationId 预占ID
+     * @return 预占不存在（已确认、已释放或已到期）时返回false
+     */
+    public boolean release(long reservationId) {
+        Reservation reservation = reservationMap.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        restore(reservation);
+        releaseCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 释放到期的预占（定时调用）
+     *
+     * @param nowMillis 当前时间（毫秒）
+     * @return 释放数量
+     */
+    public int expire(long nowMillis) {
+        int count = 0;
+        for (Reservation reservation : reservationMap.values()) {
+            if (reservation.expireAt <= nowMillis && reservationMap.remove(reservation.id, reservation)) {
+                restore(reservation);
+                count++;
+            }
+        }
+        expireCount.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * 调整库存（后台修改库存时调用）
+     *
+     * @param skuId SKU ID
+     * @param delta 库存增量
+     */
+    public void adjustStock(int skuId, int delta) {
+        Slot slot = slotMap.get(skuId);
+        if (slot != null) {
+            slot.available.addAndGet(delta);
+        }
+        record(skuId, delta, 0, 0);
+    }
+
+    /**
+     * 设置预警库存
+     *
+     * @param skuId    SKU ID
+     * @param lowStock 预警库存
+     */
+    public void setLowStock(int skuId, int lowStock) {
+        Slot slot = slotMap.get(skuId);
+        if (slot != null) {
+            slot.lowStock = lowStock;
+        }
+    }
+
+    /**
+     * 获取可用库存
+     *
+     * @param skuId SKU ID
+     * @return 未加载时返回-1
+     */
+    public long getAvailable(int skuId) {
+        Slot slot = slotMap.get(skuId);
+        return slot != null ? slot.available.get() : -1;
+    }
+
+    /**
+     * 记录增量（集群模式下由Redis扣减库存，只在本地合并增量）
+     *
+     * @param skuId     SKU ID
+     * @param stock     库存增量
+     * @param lockStock 锁定库存增量
+     * @param sales     销量增量
+     */
+    public void record(int skuId, int stock, int lockStock, int sales) {
+        Delta delta = deltaOf(skuId);
+        if (stock != 0) {
+            delta.stock.addAndGet(stock);
+        }
+        if (lockStock != 0) {
+            delta.lockStock.addAndGet(lockStock);
+        }
+        if (sales != 0) {
+            delta.sales.addAndGet(sales);
+        }
+        // 先累加再标记，取出时先清除标记再取值，保证增量不丢失
+        dirtySet.add(skuId);
+    }
+
+    /**
+     * 取出待写入的增量（每个SKU合并为一条）
+     *
+     * @return 增量列表，元素依次为SKU ID、库存增量、锁定库存增量、销量增量
+     */
+    public List<int[]> drain() {
+        List<int[]> list = new ArrayList<>();
+        for (Integer skuId : dirtySet) {
+            dirtySet.remove(skuId);
+            Delta delta = deltaMap.get(skuId);
+            int stock = (int) delta.stock.getAndSet(0);
+            int lockStock = (int) delta.lockStock.getAndSet(0);
+            int sales = (int) delta.sales.getAndSet(0);
+            if (stock != 0 || lockStock != 0 || sales != 0) {
+                list.add(new int[]{skuId, stock, lockStock, sales});
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 未确认的预占数
+     *
+     * @return
+     */
+    public int getReservationCount() {
+        return reservationMap.size();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("skus", slotMap.size());
+        stats.put("reservations", reservationMap.size());
+        stats.put("reserved", reserveCount.get());
+        stats.put("insufficient", insufficientCount.get());
+        stats.put("confirmed", confirmCount.get());
+        stats.put("released", releaseCount.get());
+        stats.put("expired", expireCount.get());
+        stats.put("dirty", dirtySet.size());
+        return stats;
+    }
+
+    /**
+     * 获取SKU的增量
+     *
+     * @param skuId SKU ID
+     * @return
+     */
+    private Delta deltaOf(int skuId) {
+        Delta delta = deltaMap.get(skuId);
+        return delta != null ? delta : deltaMap.computeIfAbsent(skuId, k -> new Delta());
+    }
+
+    /**
+     * 恢复预占的可用库存
+     *
+     * @param reservation 预占记录
+     */
+    private void restore(Reservation reservation) {
+        Slot slot = slotMap.get(reservation.skuId);
+        if (slot != null) {
+            slot.available.addAndGet(reservation.quantity);
+        }
+        record(reservation.skuId, 0, -reservation.quantity, 0);
+    }
+
+    /**
+     * SKU库存
+     */
+    private static final class Slot {
+        /**
+         * 可用库存
+         */
+        private final AtomicLong available;
+        /**
+         * 预警库存
+         */
+        private volatile int lowStock;
+
+        private Slot(long available, int lowStock) {
+            this.available = new AtomicLong(available);
+            this.lowStock = lowStock;
+        }
+    }
+
+    /**
+     * 待写入的增量
+     */
+    private static final class Delta {
+        private final AtomicLong stock = new AtomicLong();
+        private final AtomicLong lockStock = new AtomicLong();
+        private final AtomicLong sales = new AtomicLong();
+    }
+
+    /**
+     * 预占记录
+     */
+    private static final class Reservation {
+        private final long id;
+        private final int skuId;
+        private final int quantity;
+        private final long expireAt;
+
+        private Reservation(long id, int skuId, int quantity, long expireAt) {
+            this.id = id;
+            this.skuId = skuId;
+            this.quantity = quantity;
+            this.expireAt = expireAt;
+        }
+    }
+}
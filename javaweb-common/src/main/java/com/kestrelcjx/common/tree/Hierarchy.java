@@ -0,0 +1,350 @@
+package com.kestrelcjx.common.tree;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 层级数据快照（加载后不可变）
+ * 适用于以pid关联上级的数据（部门、栏目、菜单、商品分类等），按先序遍历编号：
+ * 每个节点的全部下级位于遍历序列的连续区间[enter, exit)，下级查询及上下级判断无需递归；
+ * 每个节点保存从顶级到自身的祖先数组，名称路径按拼接字符整体预计算
+ */
+public class Hierarchy {
+    /**
+     * 最多预计算的拼接字符数，超出后按需计算
+     */
+    private static final int MAX_DELIMITER = 8;
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * 节点ID（按输入顺序，同级节点保持该顺序）
+     */
+    private final int[] ids;
+    /**
+     * 节点名称
+     */
+    private final String[] names;
+    /**
+     * 升序排列的节点ID及对应下标，用于按ID查找
+     */
+    private final int[] sortedIds;
+    private final int[] sortedIndexes;
+    /**
+     * 先序遍历序列（节点下标）
+     */
+    private final int[] order;
+    /**
+     * 节点在遍历序列中的起始位置
+     */
+    private final int[] enter;
+    /**
+     * 节点全部下级在遍历序列中的结束位置（不含）
+     */
+    private final int[] exit;
+    /**
+     * 从顶级到自身的祖先下标
+     */
+    private final int[][] ancestors;
+    /**
+     * 拼接字符与全部节点名称路径的对应关系
+     */
+    private final Map<String, String[]> pathMap = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     * 上级不存在（含pid=0）的节点作为顶级；上级关系成环时，从首个未遍历到的节点处断开
+     *
+     * @param ids   节点ID
+     * @param pids  上级ID
+     * @param names 节点名称
+     */
+    public Hierarchy(int[] ids, int[] pids, String[] names) {
+        int size = ids.length;
+        this.ids = ids.clone();
+        this.names = new String[size];
+        for (int i = 0; i < size; i++) {
+            this.names[i] = names[i] != null ? names[i] : "";
+        }
+        // 按ID排序的下标
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) ids[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        sortedIds = new int[size];
+        sortedIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedIds[i] = (int) (keys[i] >> 32);
+            sortedIndexes[i] = (int) keys[i];
+        }
+        // 子级偏移：下标k+1为第k个节点的子级，下标0为顶级节点
+        int[] parents = new int[size];
+        int[] offsets = new int[size + 2];
+        for (int i = 0; i < size; i++) {
+            int parent = pids[i] != ids[i] ? indexOf(pids[i]) : -1;
+            parents[i] = parent;
+            offsets[parent + 2]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] children = new int[size];
+        int[] cursor = Arrays.copyOf(offsets, size + 1);
+        for (int i = 0; i < size; i++) {
+            children[cursor[parents[i] + 1]++] = i;
+        }
+        // 先序遍历
+        order = new int[size];
+        enter = new int[size];
+        exit = new int[size];
+        ancestors = new int[size][];
+        boolean[] visited = new boolean[size];
+        int[] stack = new int[size];
+        int[] next = new int[size];
+        int position = 0;
+        for (int k = 0; k <= size; k++) {
+            // 先遍历顶级节点，再从成环的节点处断开遍历
+            int from = k == 0 ? offsets[0] : k - 1;
+            int to = k == 0 ? offsets[1] : k;
+            for (int r = from; r < to; r++) {
+                int root = k == 0 ? children[r] : r;
+                if (visited[root]) {
+                    continue;
+                }
+                // 未遍历到的节点必在环上或环的下级，沿上级回溯到环上再断开
+                for (int step = 0; step < size && parents[root] >= 0; step++) {
+                    root = parents[root];
+                }
+                visited[root] = true;
+                ancestors[root] = new int[]{root};
+                enter[root] = position;
+                order[position++] = root;
+                int top = 0;
+                stack[0] = root;
+                next[0] = offsets[root + 1];
+                while (top >= 0) {
+                    int node = stack[top];
+                    if (next[top] >= offsets[node + 2]) {
+                        exit[node] = position;
+                        top--;
+                        continue;
+                    }
+                    int child = children[next[top]++];
+                    if (visited[child]) {
+                        continue;
+                    }
+                    visited[child] = true;
+                    int[] path = Arrays.copyOf(ancestors[node], ancestors[node].length + 1);
+                    path[path.length - 1] = child;
+                    ancestors[child] = path;
+                    enter[child] = position;
+                    order[position++] = child;
+                    stack[++top] = child;
+                    next[top] = offsets[child + 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据实体列表创建
+     *
+     * @param list 实体列表（同级节点按列表顺序排列）
+     * @param id   获取ID
+     * @param pid  获取上级ID
+     * @param name 获取名称
+     * @param <T>  实体类型
+     * @return
+     */
+    public static <T> Hierarchy of(List<T> list, ToIntFunction<T> id, ToIntFunction<T> pid, Function<T, String> name) {
+        int size = list.size();
+        int[] ids = new int[size];
+        int[] pids = new int[size];
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            T item = list.get(i);
+            ids[i] = id.applyAsInt(item);
+            pids[i] = pid.applyAsInt(item);
+            names[i] = name.apply(item);
+        }
+        return new Hierarchy(ids, pids, names);
+    }
+
+    /**
+     * 节点数
+     *
+     * @return
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * 获取节点名称
+     *
+     * @param id 节点ID
+     * @return 不存在时返回null
+     */
+    public String getName(int id) {
+        int index = indexOf(id);
+        return index >= 0 ? names[index] : null;
+    }
+
+    /**
+     * 获取上级ID
+     *
+     * @param id 节点ID
+     * @return 顶级节点或不存在时返回0
+     */
+    public int getParentId(int id) {
+        int index = indexOf(id);
+        if (index < 0 || ancestors[index].length < 2) {
+            return 0;
+        }
+        return ids[ancestors[index][ancestors[index].length - 2]];
+    }
+
+    /**
+     * 获取层级深度
+     *
+     * @param id 节点ID
+     * @return 顶级节点为1，不存在时返回0
+     */
+    public int getDepth(int id) {
+        int index = indexOf(id);
+        return index >= 0 ? ancestors[index].length : 0;
+    }
+
+    /**
+     * 获取从顶级到自身的祖先ID
+     *
+     * @param id 节点ID
+     * @return 不存在时返回空数组
+     */
+    public int[] getAncestorIds(int id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return EMPTY;
+        }
+        int[] path = ancestors[index];
+        int[] result = new int[path.length];
+        for (int i = 0; i < path.length; i++) {
+            result[i] = ids[path[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 获取全部下级ID（先序遍历顺序）
+     *
+     * @param id          节点ID
+     * @param includeSelf 是否包含自身
+     * @return 不存在时返回空数组
+     */
+    public int[] getDescendantIds(int id, boolean includeSelf) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return EMPTY;
+        }
+        int from = includeSelf ? enter[index] : enter[index] + 1;
+        int[] result = new int[exit[index] - from];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids[order[from + i]];
+        }
+        return result;
+    }
+
+    /**
+     * 判断节点是否为指定节点的下级（含自身）
+     *
+     * @param ancestorId 上级节点ID
+     * @param id         节点ID
+     * @return
+     */
+    public boolean isDescendant(int ancestorId, int id) {
+        int ancestor = indexOf(ancestorId);
+        int index = indexOf(id);
+        if (ancestor < 0 || index < 0) {
+            return false;
+        }
+        return enter[index] >= enter[ancestor] && enter[index] < exit[ancestor];
+    }
+
+    /**
+     * 获取名称路径（从顶级到自身）
+     *
+     * @param id        节点ID
+     * @param delimiter 拼接字符
+     * @return 不存在时返回空字符串
+     */
+    public String getPath(int id, String delimiter) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return "";
+        }
+        String[] paths = pathMap.get(delimiter);
+        if (paths == null) {
+            if (pathMap.size() >= MAX_DELIMITER) {
+                return buildPath(index, delimiter);
+            }
+            paths = pathMap.computeIfAbsent(delimiter, this::buildPaths);
+        }
+        return paths[index];
+    }
+
+    /**
+     * 批量获取名称路径
+     *
+     * @param ids       节点ID
+     * @param delimiter 拼接字符
+     * @return 与节点ID一一对应，不存在时为空字符串
+     */
+    public String[] resolvePaths(int[] ids, String delimiter) {
+        String[] paths = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            paths[i] = getPath(ids[i], delimiter);
+        }
+        return paths;
+    }
+
+    /**
+     * 根据ID获取下标
+     *
+     * @param id 节点ID
+     * @return 不存在时返回-1
+     */
+    private int indexOf(int id) {
+        int position = Arrays.binarySearch(sortedIds, id);
+        return position >= 0 ? sortedIndexes[position] : -1;
+    }
+
+    private String[] buildPaths(String delimiter) {
+        // 按遍历顺序计算，上级路径总在下级之前
+        String[] paths = new String[ids.length];
+        for (int i : order) {
+            int[] path = ancestors[i];
+            paths[i] = path.length < 2 ? names[i] : paths[path[path.length - 2]] + delimiter + names[i];
+        }
+        return paths;
+    }
+
+    private String buildPath(int index, String delimiter) {
+        int[] path = ancestors[index];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) {
+                sb.append(delimiter);
+            }
+            sb.append(names[path[i]]);
+        }
+        return sb.toString();
+    }
+}
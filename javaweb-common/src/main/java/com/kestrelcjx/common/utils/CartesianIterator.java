@@ -0,0 +1,92 @@
+package com.kestrelcjx.common.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 笛卡尔积迭代器
+ * 按里程表方式逐个生成组合（最后一维变化最快），不预先生成全部组合，内存占用与组合数无关
+ *
+ * @param <T> 元素类型
+ */
+public class CartesianIterator<T> implements Iterator<List<T>> {
+    /**
+     * 各维度的取值
+     */
+    private final List<? extends List<? extends T>> dimensions;
+    /**
+     * 各维度当前下标
+     */
+    private final int[] indexes;
+    /**
+     * 是否还有组合
+     */
+    private boolean hasNext;
+
+    /**
+     * 构造函数
+     *
+     * @param dimensions 各维度的取值，任一维度为空时没有组合
+     */
+    public CartesianIterator(List<? extends List<? extends T>> dimensions) {
+        this.dimensions = dimensions;
+        this.indexes = new int[dimensions.size()];
+        this.hasNext = !dimensions.isEmpty();
+        for (List<? extends T> dimension : dimensions) {
+            if (dimension == null || dimension.isEmpty()) {
+                this.hasNext = false;
+                break;
+            }
+        }
+    }
+
+    /**
+     * 计算组合数
+     *
+     * @param dimensions 各维度的取值
+     * @return 超过Long.MAX_VALUE时返回Long.MAX_VALUE
+     */
+    public static long count(List<? extends List<?>> dimensions) {
+        if (dimensions.isEmpty()) {
+            return 0;
+        }
+        long count = 1;
+        for (List<?> dimension : dimensions) {
+            int size = dimension == null ? 0 : dimension.size();
+            if (size == 0) {
+                return 0;
+            }
+            if (count > Long.MAX_VALUE / size) {
+                return Long.MAX_VALUE;
+            }
+            count *= size;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext) {
+            throw new NoSuchElementException();
+        }
+        List<T> combination = new ArrayList<>(indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            combination.add(dimensions.get(i).get(indexes[i]));
+        }
+        // 末位加一，逢维度大小进位
+        int i = indexes.length - 1;
+        while (i >= 0 && ++indexes[i] == dimensions.get(i).size()) {
+            indexes[i] = 0;
+            i--;
+        }
+        hasNext = i >= 0;
+        return combination;
+    }
+}
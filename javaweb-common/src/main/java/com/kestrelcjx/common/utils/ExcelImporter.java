@@ -0,0 +1,447 @@
+package com.kestrelcjx.common.utils;
+
+import com.alibaba.excel.EasyExcelFactory;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.event.AnalysisEventListener;
+import com.alibaba.excel.metadata.Sheet;
+import com.kestrelcjx.common.annotation.Excel;
+import com.kestrelcjx.common.exception.CustomException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Excel流式导入
+ * 读取线程以SAX方式逐行解析（不加载整个工作簿），每batchSize行组成一批交给线程池转换、校验并批量写入；
+ * 同时处理中的批次数有上限，写入跟不上时读取线程等待，内存占用与文件行数无关。
+ * 各批次并行写入，写入顺序与文件行顺序不一定一致；整批写入失败时对半拆分重试，定位出错的行，其余行照常写入
+ *
+ * @param <T> 实体类型
+ */
+public class ExcelImporter<T> {
+    private static final Logger logger = LoggerFactory.getLogger(ExcelImporter.class);
+
+    private final Class<T> clazz;
+    private final ExcelPlan<T> plan;
+    /**
+     * 每批行数（同时也是批量写入的行数）
+     */
+    private int batchSize = 1000;
+    /**
+     * 并行处理的线程数
+     */
+    private int threads = 4;
+    /**
+     * 最多保留的错误明细数，超出后只计数
+     */
+    private int maxErrors = 1000;
+    /**
+     * 行校验，返回错误信息，校验通过时返回null
+     */
+    private Function<T, String> validator;
+    /**
+     * 进度通知（每批处理完成后在工作线程中调用）
+     */
+    private Consumer<Progress> progressListener;
+
+    public ExcelImporter(Class<T> clazz) {
+        this.clazz = clazz;
+        this.plan = ExcelPlan.of(clazz, Excel.Type.IMPORT);
+    }
+
+    public ExcelImporter<T> setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+        return this;
+    }
+
+    public ExcelImporter<T> setThreads(int threads) {
+        this.threads = Math.max(threads, 1);
+        return this;
+    }
+
+    public ExcelImporter<T> setMaxErrors(int maxErrors) {
+        this.maxErrors = Math.max(maxErrors, 0);
+        return this;
+    }
+
+    public ExcelImporter<T> setValidator(Function<T, String> validator) {
+        this.validator = validator;
+        return this;
+    }
+
+    public ExcelImporter<T> setProgressListener(Consumer<Progress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * 导入第一个工作表，第一行为表头（按@Excel的name匹配列）
+     *
+     * @param is       输入流
+     * @param executor 线程池，为null时创建临时线程池
+     * @param writer   批量写入（多线程调用，需线程安全；抛出异常时须整批未写入，失败的批次会拆分后重试）
+     * @return 导入结果
+     */
+    public Result importExcel(InputStream is, ExecutorService executor, Consumer<List<T>> writer) {
+        Session session = open(executor, writer);
+        try {
+            EasyExcelFactory.readBySax(is, new Sheet(1, 0), new AnalysisEventListener<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void invoke(Object row, AnalysisContext context) {
+                    session.accept(context.getCurrentRowNum() + 1, (List<String>) row);
+                }
+
+                @Override
+                public void doAfterAllAnalysed(AnalysisContext context) {
+                }
+            });
+        } finally {
+            session.close();
+        }
+        return session.getResult();
+    }
+
+    /**
+     * 开始导入，由调用方逐行提交数据
+     *
+     * @param executor 线程池，为null时创建临时线程池
+     * @param writer   批量写入
+     * @return
+     */
+    public Session open(ExecutorService executor, Consumer<List<T>> writer) {
+        return new Session(executor, writer);
+    }
+
+    /**
+     * 导入会话（accept只能在一个线程中调用）
+     */
+    public class Session implements AutoCloseable {
+        private final ExecutorService executor;
+        private final boolean shutdown;
+        private final Consumer<List<T>> writer;
+        /**
+         * 限制同时处理中的批次数
+         */
+        private final Semaphore permits;
+        private final int maxPermits;
+        private final long begin = System.currentTimeMillis();
+        private final AtomicInteger success = new AtomicInteger();
+        private final AtomicInteger fail = new AtomicInteger();
+        private final AtomicInteger errorCount = new AtomicInteger();
+        private final Queue<RowError> errors = new ConcurrentLinkedQueue<>();
+        private volatile int read;
+        /**
+         * 单元格下标对应的列定义，表头读取前为null
+         */
+        private ExcelPlan.Column[] columns;
+        private int[] rowNums;
+        private List<List<String>> rows;
+        private boolean closed;
+
+        private Session(ExecutorService executor, Consumer<List<T>> writer) {
+            this.executor = executor != null ? executor : Executors.newFixedThreadPool(threads);
+            this.shutdown = executor == null;
+            this.writer = writer;
+            this.maxPermits = threads * 2;
+            this.permits = new Semaphore(maxPermits);
+            newBatch();
+        }
+
+        /**
+         * 提交一行数据
+         *
+         * @param rowNum 行号（从1开始，用于错误提示）
+         * @param cells  单元格文本
+         */
+        public void accept(int rowNum, List<String> cells) {
+            if (columns == null) {
+                readHeader(cells);
+                return;
+            }
+            rowNums[rows.size()] = rowNum;
+            rows.add(cells);
+            read++;
+            if (rows.size() >= batchSize) {
+                submit();
+            }
+        }
+
+        /**
+         * 提交剩余数据并等待全部批次处理完成
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (!rows.isEmpty()) {
+                    submit();
+                }
+                permits.acquireUninterruptibly(maxPermits);
+                permits.release(maxPermits);
+            } finally {
+                if (shutdown) {
+                    executor.shutdown();
+                }
+            }
+            logger.info("导入Excel：{}，{}行，成功{}行，失败{}行，耗时{}ms", clazz.getSimpleName(), read,
+                    success.get(), fail.get(), System.currentTimeMillis() - begin);
+        }
+
+        /**
+         * 当前进度
+         *
+         * @return
+         */
+        public Progress getProgress() {
+            return new Progress(read, success.get(), fail.get(), System.currentTimeMillis() - begin);
+        }
+
+        /**
+         * 导入结果（close之后调用）
+         *
+         * @return
+         */
+        public Result getResult() {
+            List<RowError> errorList = new ArrayList<>(errors);
+            errorList.sort(Comparator.comparingInt(RowError::getRow));
+            return new Result(getProgress(), errorCount.get(), errorList);
+        }
+
+        private void readHeader(List<String> cells) {
+            columns = new ExcelPlan.Column[cells.size()];
+            boolean matched = false;
+            for (ExcelPlan.Column column : plan.getColumns()) {
+                int index = cells.indexOf(column.getAttr().name());
+                if (index >= 0) {
+                    columns[index] = column;
+                    matched = true;
+                }
+            }
+            if (!matched) {
+                throw new CustomException("Excel表头与导入模板不一致");
+            }
+        }
+
+        private void newBatch() {
+            rowNums = new int[batchSize];
+            rows = new ArrayList<>(batchSize);
+        }
+
+        private void submit() {
+            int[] batchRowNums = rowNums;
+            List<List<String>> batchRows = rows;
+            newBatch();
+            permits.acquireUninterruptibly();
+            try {
+                executor.execute(() -> {
+                    try {
+                        process(batchRowNums, batchRows);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * 转换、校验并写入一批数据
+         *
+         * @param batchRowNums 行号
+         * @param batchRows    单元格文本
+         */
+        private void process(int[] batchRowNums, List<List<String>> batchRows) {
+            List<T> list = new ArrayList<>(batchRows.size());
+            int[] listRowNums = new int[batchRows.size()];
+            for (int i = 0; i < batchRows.size(); i++) {
+                String message;
+                try {
+                    T entity = toEntity(batchRows.get(i));
+                    message = validator != null ? validator.apply(entity) : null;
+                    if (message == null) {
+                        listRowNums[list.size()] = batchRowNums[i];
+                        list.add(entity);
+                    }
+                } catch (RuntimeException e) {
+                    message = e.getMessage() != null ? e.getMessage() : e.toString();
+                }
+                if (message != null) {
+                    addError(batchRowNums[i], message);
+                }
+            }
+            if (!list.isEmpty()) {
+                write(list, listRowNums, 0, list.size());
+            }
+            if (progressListener != null) {
+                progressListener.accept(getProgress());
+            }
+        }
+
+        /**
+         * 写入一批数据，失败时对半拆分重试，直到定位到出错的单行
+         * 一批中有k行出错时最多多写入约2k·log(批次行数)次
+         *
+         * @param list        实体
+         * @param listRowNums 实体对应的行号
+         * @param from        开始下标（包含）
+         * @param to          结束下标（不包含）
+         */
+        private void write(List<T> list, int[] listRowNums, int from, int to) {
+            try {
+                writer.accept(from == 0 && to == list.size() ? list : new ArrayList<>(list.subList(from, to)));
+                success.addAndGet(to - from);
+            } catch (RuntimeException e) {
+                if (to - from == 1) {
+                    addError(listRowNums[from], "写入失败：" + e.getMessage());
+                    return;
+                }
+                if (from == 0 && to == list.size()) {
+                    logger.warn("导入Excel批量写入失败，拆分定位出错行：{}", e.getMessage());
+                }
+                int middle = (from + to) >>> 1;
+                write(list, listRowNums, from, middle);
+                write(list, listRowNums, middle, to);
+            }
+        }
+
+        private T toEntity(List<String> cells) {
+            T entity;
+            try {
+                entity = clazz.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+            int size = Math.min(cells.size(), columns.length);
+            for (int i = 0; i < size; i++) {
+                ExcelPlan.Column column = columns[i];
+                if (column != null) {
+                    Object value = column.parse(cells.get(i));
+                    if (value != null) {
+                        column.set(entity, value);
+                    }
+                }
+            }
+            return entity;
+        }
+
+        private void addError(int row, String message) {
+            fail.incrementAndGet();
+            if (errorCount.incrementAndGet() <= maxErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+    }
+
+    /**
+     * 导入进度
+     */
+    public static class Progress {
+        /**
+         * 已读取行数（不含表头）
+         */
+        private final int read;
+        /**
+         * 写入成功行数
+         */
+        private final int success;
+        /**
+         * 失败行数
+         */
+        private final int fail;
+        /**
+         * 已用时间（毫秒）
+         */
+        private final long elapsed;
+
+        public Progress(int read, int success, int fail, long elapsed) {
+            this.read = read;
+            this.success = success;
+            this.fail = fail;
+            this.elapsed = elapsed;
+        }
+
+        public int getRead() {
+            return read;
+        }
+
+        public int getSuccess() {
+            return success;
+        }
+
+        public int getFail() {
+            return fail;
+        }
+
+        public long getElapsed() {
+            return elapsed;
+        }
+    }
+
+    /**
+     * 导入结果
+     */
+    public static class Result extends Progress {
+        /**
+         * 错误总数
+         */
+        private final int errorCount;
+        /**
+         * 错误明细（按行号排列，最多maxErrors条）
+         */
+        private final List<RowError> errors;
+
+        public Result(Progress progress, int errorCount, List<RowError> errors) {
+            super(progress.getRead(), progress.getSuccess(), progress.getFail(), progress.getElapsed());
+            this.errorCount = errorCount;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+    }
+
+    /**
+     * 行错误
+     */
+    public static class RowError {
+        private final int row;
+        private final String message;
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
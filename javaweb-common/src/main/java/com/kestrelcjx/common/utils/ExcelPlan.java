@@ -0,0 +1,344 @@
+package com.kestrelcjx.common.utils;
+
+import com.kestrelcjx.common.annotation.Excel;
+import com.kestrelcjx.common.annotation.Excels;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Excel列计划
+ * 每个类的@Excel/@Excels注解只解析一次：字段访问编译为MethodHandle，读取转换表达式预先解析为映射表，导入导出共用
+ *
+ * @param <T> 实体类型
+ */
+public final class ExcelPlan<T> {
+    /**
+     * 类及导入导出类型与列计划的对应关系
+     */
+    private static final Map<Class<?>, ExcelPlan<?>[]> PLAN_CACHE = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+(\\.\\d+)?");
+
+    private final Class<T> clazz;
+    private final List<Column> columns;
+
+    private ExcelPlan(Class<T> clazz, List<Column> columns) {
+        this.clazz = clazz;
+        this.columns = Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * 获取列计划
+     *
+     * @param clazz 实体类
+     * @param type  导入导出类型（EXPORT：导出数据；IMPORT：导入模板及导入数据）
+     * @param <T>   实体类型
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ExcelPlan<T> of(Class<T> clazz, Excel.Type type) {
+        ExcelPlan<?>[] plans = PLAN_CACHE.computeIfAbsent(clazz, k -> new ExcelPlan<?>[Excel.Type.values().length]);
+        ExcelPlan<T> plan = (ExcelPlan<T>) plans[type.ordinal()];
+        if (plan == null) {
+            // 并发时可能重复编译，结果相同
+            plan = compile(clazz, type);
+            plans[type.ordinal()] = plan;
+        }
+        return plan;
+    }
+
+    public Class<T> getClazz() {
+        return clazz;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 编译列计划：父类字段在前，同一字段的多个注解按声明顺序展开
+     *
+     * @param clazz 实体类
+     * @param type  导入导出类型
+     * @param <T>   实体类型
+     * @return
+     */
+    private static <T> ExcelPlan<T> compile(Class<T> clazz, Excel.Type type) {
+        List<Field> fieldList = new ArrayList<>();
+        if (clazz.getSuperclass() != null) {
+            fieldList.addAll(Arrays.asList(clazz.getSuperclass().getDeclaredFields()));
+        }
+        fieldList.addAll(Arrays.asList(clazz.getDeclaredFields()));
+        List<Column> columns = new ArrayList<>();
+        for (Field field : fieldList) {
+            List<Excel> attrs = new ArrayList<>();
+            if (field.isAnnotationPresent(Excel.class)) {
+                attrs.add(field.getAnnotation(Excel.class));
+            }
+            if (field.isAnnotationPresent(Excels.class)) {
+                attrs.addAll(Arrays.asList(field.getAnnotation(Excels.class).value()));
+            }
+            for (Excel attr : attrs) {
+                if (attr.type() == Excel.Type.ALL || attr.type() == type) {
+                    columns.add(new Column(field, attr));
+                }
+            }
+        }
+        return new ExcelPlan<>(clazz, columns);
+    }
+
+    /**
+     * 解析转换表达式（如：0=男,1=女,2=未知）
+     *
+     * @param converterExp 转换表达式
+     * @param reverse      是否反向（显示值到原值）
+     * @return
+     */
+    static Map<String, String> parseConverterExp(String converterExp, boolean reverse) {
+        if (StringUtils.isEmpty(converterExp)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> map = new HashMap<>();
+        for (String item : converterExp.split(",")) {
+            String[] itemArray = item.split("=");
+            if (itemArray.length < 2) {
+                continue;
+            }
+            // 与逐项匹配一致：重复时取第一项
+            if (reverse) {
+                map.putIfAbsent(itemArray[1], itemArray[0]);
+            } else {
+                map.putIfAbsent(itemArray[0], itemArray[1]);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * 列定义
+     */
+    public static final class Column {
+        private final Field field;
+        private final Excel attr;
+        /**
+         * 字段类型（有targetAttr时为最终属性的类型）
+         */
+        private final Class<?> valueType;
+        /**
+         * 读取字段值（含targetAttr属性链），签名为(Object)Object
+         */
+        private final MethodHandle getter;
+        /**
+         * 获取targetAttr属性链中最后一个对象，为null时直接写入字段
+         */
+        private final MethodHandle[] targetChain;
+        /**
+         * 写入值，签名为(Object, Object)void；无法写入时为null
+         */
+        private final MethodHandle setter;
+        /**
+         * 原值到显示值的映射
+         */
+        private final Map<String, String> converter;
+        /**
+         * 显示值到原值的映射
+         */
+        private final Map<String, String> reverseConverter;
+
+        private Column(Field field, Excel attr) {
+            this.field = field;
+            this.attr = attr;
+            this.converter = parseConverterExp(attr.readConverterExp(), false);
+            this.reverseConverter = parseConverterExp(attr.readConverterExp(), true);
+            try {
+                field.setAccessible(true);
+                MethodHandle fieldGetter = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+                if (StringUtils.isEmpty(attr.targetAttr())) {
+                    this.valueType = field.getType();
+                    this.getter = fieldGetter;
+                    this.targetChain = null;
+                    this.setter = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+                } else {
+                    // 按声明类型解析属性链：field.a.b -> getA().getB()，最后一级写入时调用setB
+                    String[] names = attr.targetAttr().split("[.]");
+                    MethodHandle[] chain = new MethodHandle[names.length];
+                    chain[0] = fieldGetter;
+                    Class<?> owner = field.getType();
+                    for (int i = 0; i < names.length - 1; i++) {
+                        Method method = owner.getMethod("get" + StringUtils.capitalize(names[i]));
+                        chain[i + 1] = LOOKUP.unreflect(method).asType(GETTER_TYPE);
+                        owner = method.getReturnType();
+                    }
+                    Method lastGetter = owner.getMethod("get" + StringUtils.capitalize(names[names.length - 1]));
+                    this.valueType = lastGetter.getReturnType();
+                    this.getter = LOOKUP.unreflect(lastGetter).asType(GETTER_TYPE);
+                    this.targetChain = chain;
+                    MethodHandle lastSetter = null;
+                    try {
+                        // 链式setter的返回值在转换为void时丢弃
+                        Method method = owner.getMethod("set" + StringUtils.capitalize(names[names.length - 1]), valueType);
+                        lastSetter = LOOKUP.unreflect(method).asType(SETTER_TYPE);
+                    } catch (NoSuchMethodException e) {
+                        // 只读属性，导入时忽略
+                    }
+                    this.setter = lastSetter;
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Excel列定义无效：" + field.getName() + "." + attr.targetAttr(), e);
+            }
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public Excel getAttr() {
+            return attr;
+        }
+
+        public Class<?> getValueType() {
+            return valueType;
+        }
+
+        /**
+         * 读取列值
+         *
+         * @param bean 实体对象
+         * @return 属性链中间对象为null时返回null
+         */
+        public Object get(Object bean) {
+            try {
+                if (targetChain == null) {
+                    return getter.invokeExact(bean);
+                }
+                Object target = targetOf(bean);
+                return target == null ? null : getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * 写入列值
+         *
+         * @param bean  实体对象
+         * @param value 值（类型需与字段类型一致）
+         */
+        public void set(Object bean, Object value) {
+            if (setter == null) {
+                return;
+            }
+            try {
+                if (targetChain == null) {
+                    setter.invokeExact(bean, value);
+                } else {
+                    Object target = targetOf(bean);
+                    if (target != null) {
+                        setter.invokeExact(target, value);
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * 原值转为显示值，无对应项时返回原值
+         *
+         * @param value 原值
+         * @return
+         */
+        public String convert(String value) {
+            String result = converter.get(value);
+            return result != null ? result : value;
+        }
+
+        /**
+         * 显示值转为原值，无对应项时返回显示值
+         *
+         * @param value 显示值
+         * @return
+         */
+        public String reverse(String value) {
+            String result = reverseConverter.get(value);
+            return result != null ? result : value;
+        }
+
+        public boolean hasConverter() {
+            return !converter.isEmpty();
+        }
+
+        /**
+         * 单元格文本转为字段值（先按转换表达式还原原值）
+         *
+         * @param text 单元格文本（如SAX方式读取的原始值）
+         * @return 空白时返回null
+         * @throws IllegalArgumentException 格式错误
+         */
+        public Object parse(String text) {
+            if (text == null || text.trim().isEmpty()) {
+                return null;
+            }
+            String value = reverse(text.trim());
+            try {
+                if (String.class == valueType) {
+                    return value;
+                } else if (Integer.class == valueType || Integer.TYPE == valueType) {
+                    return new BigDecimal(value).intValueExact();
+                } else if (Long.class == valueType || Long.TYPE == valueType) {
+                    return new BigDecimal(value).longValueExact();
+                } else if (Double.class == valueType || Double.TYPE == valueType) {
+                    return Double.valueOf(value);
+                } else if (Float.class == valueType || Float.TYPE == valueType) {
+                    return Float.valueOf(value);
+                } else if (BigDecimal.class == valueType) {
+                    return new BigDecimal(value);
+                } else if (Boolean.class == valueType || Boolean.TYPE == valueType) {
+                    return "1".equals(value) || "true".equalsIgnoreCase(value);
+                } else if (Date.class == valueType) {
+                    // 日期单元格的原始值为天数
+                    Date date = NUMBER_PATTERN.matcher(value).matches()
+                            ? DateUtil.getJavaDate(Double.parseDouble(value)) : DateUtils.parseDate(value);
+                    if (date != null) {
+                        return date;
+                    }
+                }
+            } catch (ArithmeticException | NumberFormatException e) {
+                // 下面统一处理
+            }
+            throw new IllegalArgumentException("[" + attr.name() + "]格式错误：" + text);
+        }
+
+        private Object targetOf(Object bean) throws Throwable {
+            Object target = bean;
+            for (MethodHandle handle : targetChain) {
+                target = (Object) handle.invokeExact(target);
+                if (target == null) {
+                    return null;
+                }
+            }
+            return target;
+        }
+    }
+}
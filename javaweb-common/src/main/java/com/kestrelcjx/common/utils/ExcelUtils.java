@@ -1,7 +1,6 @@
 package com.kestrelcjx.common.utils;
 
 import com.kestrelcjx.common.annotation.Excel;
-import com.kestrelcjx.common.annotation.Excels;
 import com.kestrelcjx.common.config.UploadFileConfig;
 import com.kestrelcjx.common.exception.CustomException;
 import org.apache.poi.hssf.usermodel.HSSFDateUtil;
@@ -12,10 +11,10 @@ import org.apache.poi.xssf.usermodel.XSSFDataValidation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.*;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.net.URLEncoder;
 import java.text.DecimalFormat;
 import java.util.*;
 
@@ -28,6 +27,10 @@ public class ExcelUtils<T> {
      * Excel sheet最大行数，默认为65536
      */
     public static final int sheetSize = 65536;
+    /**
+     * 流式写入时内存中保留的行数，超出的行写入临时文件
+     */
+    public static final int rowAccessWindowSize = 500;
     /**
      * 工作表名称
      */
@@ -53,9 +56,9 @@ public class ExcelUtils<T> {
      */
     private List<T> list;
     /**
-     * 注解列表
+     * 列计划
      */
-    private List<Object[]> fields;
+    private ExcelPlan<T> plan;
     /**
      * 实体对象
      */
@@ -125,65 +128,29 @@ public class ExcelUtils<T> {
                     cellMap.put(null, i);
                 }
             }
-            // 有数据时才处理，得到类的所有field
-            Field[] allFields = clazz.getDeclaredFields();
-            // 定义一个map用于存放列的序号和field
-            Map<Integer, Field> fieldMap = new HashMap<>();
-            for (int col = 0; col < allFields.length; col++) {
-                Field field = allFields[col];
-                Excel attr = field.getAnnotation(Excel.class);
-                if (attr != null && (attr.type() == Excel.Type.ALL || attr.type() == type)) {
-                    // 设置类的私有字段属性可访问
-                    field.setAccessible(true);
-                    Integer column = cellMap.get(attr.name());
-                    fieldMap.put(column, field);
+            // 有数据时才处理，按表头名称匹配列计划，表头中不存在的列忽略
+            plan = ExcelPlan.of(clazz, type);
+            Map<Integer, ExcelPlan.Column> columnMap = new LinkedHashMap<>();
+            for (ExcelPlan.Column column : plan.getColumns()) {
+                Integer index = cellMap.get(column.getAttr().name());
+                if (index != null) {
+                    columnMap.put(index, column);
                 }
             }
             for (int i = 1; i < rows; i++) {
                 // 从第二行开始取数据，默认第一行是表头
                 Row row = sheet.getRow(i);
-                T entity = null;
-                for (Map.Entry<Integer, Field> entry : fieldMap.entrySet()) {
+                T entity = clazz.newInstance();
+                for (Map.Entry<Integer, ExcelPlan.Column> entry : columnMap.entrySet()) {
+                    ExcelPlan.Column column = entry.getValue();
                     Object val = getCellValue(row, entry.getKey());
-                    // 如果不存在实例则新建
-                    entity = entity == null ? clazz.newInstance() : entity;
-                    // 从map中得到对应列的field
-                    Field field = fieldMap.get(entry.getKey());
-                    // 取得类型，并根据对象设置值
-                    Class<?> fieldType = field.getType();
-                    if (String.class == fieldType) {
-                        String s = ConvertUtils.toStr(val);
-                        if (StringUtils.endsWith(s, ".0")) {
-                            val = StringUtils.substringBefore(s, ".0");
-                        } else {
-                            val = ConvertUtils.toStr(val);
-                        }
-                    } else if ((Integer.TYPE == fieldType) || (Integer.class == fieldType)) {
-                        val = ConvertUtils.toInt(val);
-                    } else if ((Long.TYPE == fieldType) || (Long.class == fieldType)) {
-                        val = ConvertUtils.toLong(val);
-                    } else if ((Double.TYPE == fieldType) || (Double.class == fieldType)) {
-                        val = ConvertUtils.toDouble(val);
-                    } else if ((Float.TYPE == fieldType) || (Float.class == fieldType)) {
-                        val = ConvertUtils.toFloat(val);
-                    } else if (BigDecimal.class == fieldType) {
-                        val = ConvertUtils.toBigDecimal(val);
-                    } else if (Date.class == fieldType) {
-                        if (val instanceof String) {
-                            val = DateUtils.parseDate(val);
-                        } else if (val instanceof Double) {
-                            val = DateUtil.getJavaDate((Double) val);
-                        }
+                    if (column.hasConverter() && val != null) {
+                        val = column.reverse(String.valueOf(val));
                     }
-                    if (StringUtils.isNotNull(fieldType)) {
-                        Excel attr = field.getAnnotation(Excel.class);
-                        String propertyName = field.getName();
-                        if (StringUtils.isNotEmpty(attr.targetAttr())) {
-                            propertyName = field.getName() + "." + attr.targetAttr();
-                        } else if (StringUtils.isNotEmpty(attr.readConverterExp())) {
-                            val = reverseByExp(String.valueOf(val), attr.readConverterExp());
-                        }
-                        ReflectUtils.invokeSetter(entity, propertyName, val);
+                    val = convertCellValue(val, column.getValueType());
+                    // 无法转为字段类型的值忽略
+                    if (val != null ? box(column.getValueType()).isInstance(val) : !column.getValueType().isPrimitive()) {
+                        column.set(entity, val);
                     }
                 }
                 list.add(entity);
@@ -221,45 +188,82 @@ public class ExcelUtils<T> {
      * @return
      */
     public JsonResult exportExcel() {
-        OutputStream out = null;
-        try {
-            // 取出一共有多少个sheet
-            double sheetNo = Math.ceil(list.size() / sheetSize);
-            for (int index = 0; index <= sheetNo; index++) {
-                createSheet(sheetNo, index);
-                // 产生一行
-                Row row = sheet.createRow(0);
-                int column = 0;
-                for (Object[] os : fields) {
-                    Excel excel = (Excel) os[1];
-                    createCell(excel, row, column++);
-                }
-                if (Excel.Type.EXPORT.equals(type)) {
-                    fillExcelData(index, row);
-                }
-            }
-            String filename = encodingFilename(sheetName);
-            out = new FileOutputStream(getAbsoluteFile(filename));
-            wb.write(out);
+        String filename = encodingFilename(sheetName);
+        try (OutputStream out = new FileOutputStream(getAbsoluteFile(filename))) {
+            write(Excel.Type.EXPORT.equals(type) ? list.iterator() : Collections.<T>emptyIterator(), out);
             return JsonResult.success(filename);
         } catch (Exception e) {
             logger.error("导出Excel异常{}", e.getMessage());
             throw new CustomException("导出Excel失败，请联系网站管理员！");
-        } finally {
-            if (wb != null) {
-                try {
-                    wb.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
+        }
+    }
+
+    /**
+     * 流式导出：逐行读取数据写入输出流，内存中只保留固定行数，与数据总量无关
+     *
+     * @param rows      数据（如数据库流式查询游标）
+     * @param sheetName 工作表的名称
+     * @param out       输出流（调用方负责关闭）
+     * @return 导出行数
+     * @throws IOException
+     */
+    public int exportExcel(Iterator<T> rows, String sheetName, OutputStream out) throws IOException {
+        init(null, sheetName, Excel.Type.EXPORT);
+        return write(rows, out);
+    }
+
+    /**
+     * 流式导出并直接写入响应，无需先生成文件再下载
+     *
+     * @param rows      数据（如数据库流式查询游标）
+     * @param sheetName 工作表的名称（同时作为下载文件名）
+     * @param response  网络响应
+     * @return 导出行数
+     */
+    public int exportExcel(Iterator<T> rows, String sheetName, HttpServletResponse response) {
+        try {
+            String filename = URLEncoder.encode(sheetName + ".xlsx", "utf-8").replace("+", "%20");
+            response.setCharacterEncoding("utf-8");
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            response.setHeader("Content-Disposition", "attachment;filename*=utf-8''" + filename);
+            return exportExcel(rows, sheetName, response.getOutputStream());
+        } catch (Exception e) {
+            logger.error("导出Excel异常{}", e.getMessage());
+            throw new CustomException("导出Excel失败，请联系网站管理员！");
+        }
+    }
+
+    /**
+     * 写入表头及数据，每个工作表写满sheetSize行数据后换到下一个工作表
+     *
+     * @param rows 数据
+     * @param out  输出流
+     * @return 数据行数
+     * @throws IOException
+     */
+    private int write(Iterator<T> rows, OutputStream out) throws IOException {
+        try {
+            int index = 0;
+            int rowNum = 0;
+            int count = 0;
+            createSheet(index);
+            while (rows.hasNext()) {
+                if (rowNum == sheetSize) {
+                    createSheet(++index);
+                    rowNum = 0;
                 }
+                fillExcelRow(sheet.createRow(++rowNum), rows.next());
+                count++;
             }
-            if (out != null) {
-                try {
-                    out.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+            wb.write(out);
+            out.flush();
+            return count;
+        } finally {
+            if (wb instanceof SXSSFWorkbook) {
+                // 删除临时文件
+                ((SXSSFWorkbook) wb).dispose();
             }
+            wb.close();
         }
     }
 
@@ -290,56 +294,44 @@ public class ExcelUtils<T> {
     }
 
     /**
-     * 填充excel数据
+     * 填充一行excel数据
      *
-     * @param index 序号
-     * @param row   单元格行
-     */
-    public void fillExcelData(int index, Row row) {
-        int startNo = index * sheetSize;
-        int endNo = Math.min(startNo + sheetSize, list.size());
-        for (int i = startNo; i < endNo; i++) {
-            row = sheet.createRow(i + 1 - startNo);
-            // 得到导出对象
-            T vo = (T) list.get(0);
-            int column = 0;
-            for (Object[] os : fields) {
-                Field field = (Field) os[0];
-                Excel excel = (Excel) os[1];
-                // 设置实体类私有属性可访问
-                field.setAccessible(true);
-                addCell(excel, row, vo, field, column++);
-            }
+     * @param row 单元格行
+     * @param vo  导出对象
+     */
+    public void fillExcelRow(Row row, T vo) {
+        int index = 0;
+        for (ExcelPlan.Column column : plan.getColumns()) {
+            addCell(column, row, vo, index++);
         }
     }
 
     /**
      * 添加单元格
      *
-     * @param attr
+     * @param column 列定义
      * @param row
      * @param vo
-     * @param field
-     * @param column
+     * @param index  列号
      */
-    public Cell addCell(Excel attr, Row row, T vo, Field field, int column) {
+    public Cell addCell(ExcelPlan.Column column, Row row, T vo, int index) {
         Cell cell = null;
+        Excel attr = column.getAttr();
         try {
             // 设置行高
             row.setHeight((short) (attr.height() * 20));
             // 根据Excel中设置情况决定是否导出，有些情况需要保持为空，希望用户填写这一列
             if (attr.isExport()) {
                 // 创建Cell
-                cell = row.createCell(column);
+                cell = row.createCell(index);
                 cell.setCellStyle(styles.get("data"));
                 // 用于读取对象中的属性
-                Object value = getTargetValue(vo, field, attr);
+                Object value = column.get(vo);
                 String dateFormat = attr.dateFormat();
-                String readConvertExp = attr.readConverterExp();
                 if (StringUtils.isNotEmpty(dateFormat) && StringUtils.isNotNull(value)) {
                     cell.setCellValue(DateUtils.parseDateToStr(dateFormat, (Date) value));
-                } else if (StringUtils.isNotEmpty(readConvertExp) && StringUtils.isNotNull(value)) {
-                    cell.setCellValue(convertByExp(String.valueOf(value), readConvertExp));
+                } else if (column.hasConverter() && StringUtils.isNotNull(value)) {
+                    cell.setCellValue(column.convert(String.valueOf(value)));
                 } else {
                     // 设置列类型
                     setCellVo(value, attr, cell);
@@ -387,49 +379,6 @@ public class ExcelUtils<T> {
         return propertyValue;
     }
 
-    /**
-     * 获取bean中的属性值
-     *
-     * @param vo    实体对象
-     * @param field 字段
-     * @param excel 注解
-     * @return 最终的属性值
-     * @throws Exception
-     */
-    private Object getTargetValue(T vo, Field field, Excel excel) throws Exception {
-        Object o = field.get(vo);
-        if (StringUtils.isNotEmpty(excel.targetAttr())) {
-            String target = excel.targetAttr();
-            if (target.indexOf(".") > -1) {
-                String[] targets = target.split("[.]");
-                for (String name : targets) {
-                    o = getValue(o, name);
-                }
-            } else {
-                o = getValue(o, target);
-            }
-        }
-        return o;
-    }
-
-    /**
-     * 以类的属性的get方法形式获取值
-     *
-     * @param o
-     * @param name
-     * @return value
-     * @throws Exception
-     */
-    private Object getValue(Object o, String name) throws Exception {
-        if (StringUtils.isNotEmpty(name)) {
-            Class<?> clazz = o.getClass();
-            String methodName = "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
-            Method method = clazz.getMethod(methodName);
-            o = method.invoke(o);
-        }
-        return o;
-    }
-
     /**
      * 创建单元格
      *
@@ -524,19 +473,23 @@ public class ExcelUtils<T> {
     }
 
     /**
-     * 创建工作表
+     * 创建工作表并写入表头
+     * 第一个工作表使用工作表名称，之后的工作表名称后加序号
      *
-     * @param sheetNo sheet数量
-     * @param index   序号
+     * @param index 序号
      */
-    public void createSheet(double sheetNo, int index) {
+    public void createSheet(int index) {
         sheet = wb.createSheet();
-        styles = createStyles(wb);
+        if (styles == null) {
+            styles = createStyles(wb);
+        }
         // 设置工作表名称
-        if (sheetNo == 0) {
-            wb.setSheetName(index, sheetName);
-        } else {
-            wb.setSheetName(index, sheetName + index);
+        wb.setSheetName(index, index == 0 ? sheetName : sheetName + index);
+        // 产生表头
+        Row row = sheet.createRow(0);
+        int column = 0;
+        for (ExcelPlan.Column os : plan.getColumns()) {
+            createCell(os.getAttr(), row, column++);
         }
     }
 
@@ -606,46 +559,84 @@ public class ExcelUtils<T> {
     }
 
     /**
-     * 得到所有定义字段
+     * 得到所有定义字段（每个类只解析一次）
      */
     private void createExcelField() {
-        fields = new ArrayList<>();
-        List<Field> tempFields = new ArrayList<>();
-        tempFields.addAll(Arrays.asList(clazz.getSuperclass().getDeclaredFields()));
-        tempFields.addAll(Arrays.asList(clazz.getDeclaredFields()));
-        for (Field field : tempFields) {
-            // 单注解
-            if (field.isAnnotationPresent(Excel.class)) {
-                putToField(field, field.getAnnotation(Excel.class));
-            }
-            // 多注解
-            if (field.isAnnotationPresent(Excels.class)) {
-                Excels attrs = field.getAnnotation(Excels.class);
-                Excel[] excels = attrs.value();
-                for (Excel excel : excels) {
-                    putToField(field, excel);
-                }
-            }
-        }
+        styles = null;
+        plan = ExcelPlan.of(clazz, type);
     }
 
     /**
-     * 放到字段集合中
+     * 创建一个工作簿
+     */
+    private void createWorkbook() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindowSize);
+        // 压缩临时文件
+        workbook.setCompressTempFiles(true);
+        wb = workbook;
+    }
+
+    /**
+     * 单元格值转为字段类型
      *
-     * @param field
-     * @param attr
+     * @param val       单元格值
+     * @param fieldType 字段类型
+     * @return
      */
-    private void putToField(Field field, Excel attr) {
-        if (attr != null && (attr.type() == Excel.Type.ALL || attr.type() == type)) {
-            fields.add(new Object[]{field, attr});
+    private Object convertCellValue(Object val, Class<?> fieldType) {
+        if (String.class == fieldType) {
+            String s = ConvertUtils.toStr(val);
+            if (StringUtils.endsWith(s, ".0")) {
+                val = StringUtils.substringBefore(s, ".0");
+            } else {
+                val = ConvertUtils.toStr(val);
+            }
+        } else if ((Integer.TYPE == fieldType) || (Integer.class == fieldType)) {
+            val = ConvertUtils.toInt(val);
+        } else if ((Long.TYPE == fieldType) || (Long.class == fieldType)) {
+            val = ConvertUtils.toLong(val);
+        } else if ((Double.TYPE == fieldType) || (Double.class == fieldType)) {
+            val = ConvertUtils.toDouble(val);
+        } else if ((Float.TYPE == fieldType) || (Float.class == fieldType)) {
+            val = ConvertUtils.toFloat(val);
+        } else if (BigDecimal.class == fieldType) {
+            val = ConvertUtils.toBigDecimal(val);
+        } else if (Date.class == fieldType) {
+            if (val instanceof String) {
+                val = DateUtils.parseDate(val);
+            } else if (val instanceof Double) {
+                val = DateUtil.getJavaDate((Double) val);
+            }
         }
+        return val;
     }
 
     /**
-     * 创建一个工作簿
+     * 基本类型转为包装类型
+     *
+     * @param type 类型
+     * @return
      */
-    private void createWorkbook() {
-        wb = new SXSSFWorkbook(500);
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (Integer.TYPE == type) {
+            return Integer.class;
+        } else if (Long.TYPE == type) {
+            return Long.class;
+        } else if (Double.TYPE == type) {
+            return Double.class;
+        } else if (Float.TYPE == type) {
+            return Float.class;
+        } else if (Boolean.TYPE == type) {
+            return Boolean.class;
+        } else if (Short.TYPE == type) {
+            return Short.class;
+        } else if (Byte.TYPE == type) {
+            return Byte.class;
+        }
+        return Character.class;
     }
 
     /**
@@ -1,15 +1,13 @@
 package com.kestrelcjx.common.utils;
 
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
+import com.kestrelcjx.common.ip.IpLocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.*;
 import java.util.Locale;
@@ -223,69 +221,22 @@ public class IpUtils {
     }
 
     /**
-     * 通过IP获取地址（需要联网，调用淘宝的IP库）
+     * 通过IP获取地址（查询本地IP库，不再同步调用淘宝的IP库）
      *
      * @param ip IP地址
      * @return
      */
     public static String getIpInfo(String ip) {
-        String info = "";
-        try {
-            URL url = new URL("http://ip.taobao.com/service/getIpInfo.php?ip=" + ip);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setDoOutput(true);
-            connection.setDoInput(true);
-            connection.setUseCaches(false);
-            InputStream in = connection.getInputStream();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(in));
-            StringBuffer temp = new StringBuffer();
-            String line = null;
-            while ((line = reader.readLine()) != null) {
-                temp.append(line).append("\r\n");
-            }
-            reader.close();
-            JSONObject object = (JSONObject) JSON.parse(temp.toString());
-            if (object.getIntValue("code") == 0) {
-                JSONObject data = object.getJSONObject("data");
-                info += data.getString("country") + " ";
-                info += data.getString("region") + " ";
-                info += data.getString("city") + " ";
-                info += data.getString("isp");
-            }
-        } catch (MalformedURLException e) {
-            e.printStackTrace();
-        } catch (ProtocolException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return info;
+        return getRealAddressByIP(ip);
     }
 
     /**
-     * 根据IP查询地区
+     * 根据IP查询地区（本地IP库，可选远程IP库兜底，结果缓存）
      *
      * @param ip IP地址
      * @return
      */
     public static String getRealAddressByIP(String ip) {
-        String address = "XX XX";
-        // 内网不查询
-        if (IpUtils.internalIp(ip)) {
-            return "内网IP";
-        }
-        String rspStr = HttpUtils.sendPost(
-                "http://ip.taobao.com/service/getIpInfo.php", "ip=" + ip);
-        if (StringUtils.isEmpty(rspStr)) {
-            logger.error("获取地理位置异常 {}", ip);
-            return address;
-        }
-        JSONObject object = JSONObject.parseObject(rspStr);
-        JSONObject data = object.getObject("data", JSONObject.class);
-        String region = data.getString("region");
-        String city = data.getString("city");
-        address = region + " " + city;
-        return null;
+        return SpringUtils.getBean(IpLocator.class).getAddress(ip);
     }
 }
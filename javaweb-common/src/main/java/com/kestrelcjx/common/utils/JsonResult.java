@@ -1,5 +1,7 @@
 package com.kestrelcjx.common.utils;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.kestrelcjx.common.interceptor.CountCachePaginationInterceptor;
 import org.springframework.http.HttpStatus;
 
 import java.io.Serializable;
@@ -24,6 +26,11 @@ public class JsonResult implements Serializable {
      * 数据总数
      */
     private Long count;
+    /**
+     * 数据总数是否为近似值（缓存或表统计估算）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean approximate;
 
     public JsonResult() {
     }
@@ -86,6 +93,14 @@ public class JsonResult implements Serializable {
         this.count = count;
     }
 
+    public Boolean getApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(Boolean approximate) {
+        this.approximate = approximate;
+    }
+
     public static JsonResult success() {
         return new JsonResult();
     }
@@ -103,7 +118,9 @@ public class JsonResult implements Serializable {
     }
 
     public static JsonResult success(String msg, Object data, long count) {
-        return new JsonResult(0, msg, data, count);
+        JsonResult result = new JsonResult(0, msg, data, count);
+        result.setApproximate(CountCachePaginationInterceptor.pollApproximate());
+        return result;
     }
 
     public static JsonResult error() {
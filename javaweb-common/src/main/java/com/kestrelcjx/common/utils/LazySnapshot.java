@@ -0,0 +1,102 @@
+package com.kestrelcjx.common.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 可失效的懒加载快照
+ * 每次失效代次加1，快照记录开始加载时的代次；加载期间发生失效时该快照的代次已过期，下次访问重新加载，
+ * 失效前读取的数据不会作为最新快照长期保留
+ *
+ * @param <T> 快照类型
+ */
+public class LazySnapshot<T> {
+    private final Supplier<T> loader;
+    /**
+     * 失效代次
+     */
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Entry<T> entry;
+
+    /**
+     * @param loader 加载
+     */
+    public LazySnapshot(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * 获取快照，不存在或已失效时加载（同一时刻只有一个线程加载）
+     *
+     * @return
+     */
+    public T get() {
+        Entry<T> current = entry;
+        if (current == null || current.generation != generation.get()) {
+            synchronized (this) {
+                long start = generation.get();
+                current = entry;
+                if (current == null || current.generation != start) {
+                    current = new Entry<>(start, loader.get());
+                    entry = current;
+                }
+            }
+        }
+        return current.value;
+    }
+
+    /**
+     * 获取当前有效的快照，不触发加载
+     *
+     * @return 未加载或已失效时返回null
+     */
+    public T peek() {
+        Entry<T> current = entry;
+        return current != null && current.generation == generation.get() ? current.value : null;
+    }
+
+    /**
+     * 在当前有效快照的基础上生成新快照（与加载互斥），未加载或已失效时不处理，下次访问时加载
+     *
+     * @param updater 由当前快照生成新快照
+     */
+    public synchronized void update(UnaryOperator<T> updater) {
+        long start = generation.get();
+        Entry<T> current = entry;
+        if (current == null || current.generation != start) {
+            return;
+        }
+        T value = updater.apply(current.value);
+        if (generation.get() == start) {
+            entry = new Entry<>(start, value);
+        }
+    }
+
+    /**
+     * 失效当前快照及正在进行的加载
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        entry = null;
+    }
+
+    /**
+     * 当前代次（可作为派生缓存KEY的一部分，失效后旧KEY不再命中）
+     *
+     * @return
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    private static final class Entry<T> {
+        private final long generation;
+        private final T value;
+
+        private Entry(long generation, T value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
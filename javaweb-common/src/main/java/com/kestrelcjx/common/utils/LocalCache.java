@@ -0,0 +1,199 @@
+package com.kestrelcjx.common.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 本地缓存工具类
+ * 按访问顺序淘汰（LRU），超过容量时淘汰最久未访问的记录，记录写入超过有效期后自动失效
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class LocalCache<K, V> {
+    /**
+     * 最大缓存条数
+     */
+    private final int maxSize;
+    /**
+     * 有效期（纳秒），小于等于0表示永不过期
+     */
+    private final long expireNanos;
+    /**
+     * 缓存数据
+     */
+    private final LinkedHashMap<K, CacheEntry<V>> map;
+    /**
+     * 命中次数
+     */
+    private final AtomicLong hitCount = new AtomicLong();
+    /**
+     * 未命中次数
+     */
+    private final AtomicLong missCount = new AtomicLong();
+    /**
+     * 淘汰次数（容量淘汰及过期淘汰）
+     */
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param maxSize  最大缓存条数
+     * @param duration 有效期，小于等于0表示永不过期
+     * @param unit     有效期单位
+     */
+    public LocalCache(int maxSize, long duration, TimeUnit unit) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.expireNanos = duration > 0 ? unit.toNanos(duration) : 0;
+        this.map = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > LocalCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存
+     *
+     * @param key 键
+     * @return 不存在或已过期时返回null
+     */
+    public V get(K key) {
+        synchronized (map) {
+            CacheEntry<V> entry = map.get(key);
+            if (entry == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                map.remove(key);
+                evictionCount.incrementAndGet();
+                missCount.incrementAndGet();
+                return null;
+            }
+            hitCount.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    /**
+     * 获取缓存，不存在时通过loader加载并写入缓存
+     * 加载过程不持有锁，并发加载同一个键时以最后写入的值为准
+     *
+     * @param key    键
+     * @param loader 加载函数
+     * @return
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        long expireAt = expireNanos > 0 ? System.nanoTime() + expireNanos : 0;
+        synchronized (map) {
+            map.put(key, new CacheEntry<>(value, expireAt));
+        }
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key 键
+     */
+    public void remove(K key) {
+        synchronized (map) {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+        }
+    }
+
+    /**
+     * 当前缓存条数（含尚未清理的过期记录）
+     *
+     * @return
+     */
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * 缓存命中率
+     *
+     * @return
+     */
+    public double getHitRate() {
+        long hit = hitCount.get();
+        long total = hit + missCount.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * 缓存记录
+     *
+     * @param <V> 值类型
+     */
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long expireAt;
+
+        CacheEntry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(long now) {
+            return expireAt != 0 && now - expireAt >= 0;
+        }
+    }
+}
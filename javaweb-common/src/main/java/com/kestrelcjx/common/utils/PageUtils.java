@@ -0,0 +1,69 @@
+package com.kestrelcjx.common.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.kestrelcjx.common.common.BaseQuery;
+
+import java.util.Collections;
+
+/**
+ * 分页工具类
+ * 默认按页码分页（LIMIT offset,n + COUNT）；传入afterId/beforeId时以ID为排序键按游标分页（WHERE id &lt; ? / id &gt; ?），不统计总数
+ */
+public class PageUtils {
+    /**
+     * 游标分页排序键
+     */
+    private static final String CURSOR_KEY = "id";
+
+    /**
+     * 获取分页对象
+     * 游标分页时只取第一页且不执行COUNT查询
+     *
+     * @param query 查询条件
+     * @return
+     */
+    public static <E> IPage<E> getPage(BaseQuery query) {
+        if (query.isCursor()) {
+            return new Page<>(1, query.getLimit(), false);
+        }
+        return new Page<>(query.getPage(), query.getLimit());
+    }
+
+    /**
+     * 分页查询数据
+     *
+     * @param mapper       Mapper对象
+     * @param query        查询条件
+     * @param queryWrapper 查询条件构造器（无需设置ID排序）
+     * @param isAsc        是否按ID升序
+     * @return
+     */
+    public static <T> IPage<T> selectPage(BaseMapper<T> mapper, BaseQuery query, QueryWrapper<T> queryWrapper, boolean isAsc) {
+        boolean isBefore = false;
+        if (query.getAfterId() != null && query.getAfterId() > 0) {
+            // 下一页
+            if (isAsc) {
+                queryWrapper.gt(CURSOR_KEY, query.getAfterId());
+            } else {
+                queryWrapper.lt(CURSOR_KEY, query.getAfterId());
+            }
+        } else if (query.getBeforeId() != null && query.getBeforeId() > 0) {
+            // 上一页：反向排序取最近的记录，查询后再翻转
+            isBefore = true;
+            if (isAsc) {
+                queryWrapper.lt(CURSOR_KEY, query.getBeforeId());
+            } else {
+                queryWrapper.gt(CURSOR_KEY, query.getBeforeId());
+            }
+        }
+        queryWrapper.orderBy(true, isAsc != isBefore, CURSOR_KEY);
+        IPage<T> data = mapper.selectPage(getPage(query), queryWrapper);
+        if (isBefore) {
+            Collections.reverse(data.getRecords());
+        }
+        return data;
+    }
+}
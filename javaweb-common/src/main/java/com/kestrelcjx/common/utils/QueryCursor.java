@@ -0,0 +1,117 @@
+package com.kestrelcjx.common.utils;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * 流式查询游标
+ * 基于Mapper已有的查询语句（如BaseMapper.selectList）派生一条fetchSize=Integer.MIN_VALUE的语句，
+ * MySQL驱动逐行返回结果，不在内存中缓存整个结果集；需在使用完毕后关闭（独占一个数据库连接）
+ *
+ * @param <T> 实体类型
+ */
+public class QueryCursor<T> implements Iterable<T>, Closeable {
+    /**
+     * 派生语句ID后缀
+     */
+    private static final String STREAM_SUFFIX = "$Stream";
+
+    private final SqlSession sqlSession;
+    private final Cursor<T> cursor;
+
+    private QueryCursor(SqlSession sqlSession, Cursor<T> cursor) {
+        this.sqlSession = sqlSession;
+        this.cursor = cursor;
+    }
+
+    /**
+     * 打开流式查询游标
+     *
+     * @param sqlSessionFactory 会话工厂
+     * @param statement         查询语句ID（参数为查询条件构造器，如Mapper全名 + ".selectList"）
+     * @param queryWrapper      查询条件构造器
+     * @param <T>               实体类型
+     * @return
+     */
+    public static <T> QueryCursor<T> open(SqlSessionFactory sqlSessionFactory, String statement, Wrapper<T> queryWrapper) {
+        String streamStatement = getStreamStatement(sqlSessionFactory.getConfiguration(), statement);
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        try {
+            Cursor<T> cursor = sqlSession.selectCursor(streamStatement,
+                    Collections.singletonMap(Constants.WRAPPER, queryWrapper));
+            return new QueryCursor<>(sqlSession, cursor);
+        } catch (RuntimeException e) {
+            sqlSession.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 获取（不存在时注册）流式查询语句
+     *
+     * @param configuration MyBatis配置
+     * @param statement     原查询语句ID
+     * @return
+     */
+    private static String getStreamStatement(Configuration configuration, String statement) {
+        String streamStatement = statement + STREAM_SUFFIX;
+        if (configuration.hasStatement(streamStatement, false)) {
+            return streamStatement;
+        }
+        synchronized (configuration) {
+            if (!configuration.hasStatement(streamStatement, false)) {
+                MappedStatement ms = configuration.getMappedStatement(statement);
+                MappedStatement streamMs = new MappedStatement.Builder(configuration, streamStatement,
+                        ms.getSqlSource(), ms.getSqlCommandType())
+                        .resource(ms.getResource())
+                        .databaseId(ms.getDatabaseId())
+                        .lang(ms.getLang())
+                        .statementType(ms.getStatementType())
+                        .parameterMap(ms.getParameterMap())
+                        .resultMaps(ms.getResultMaps())
+                        .timeout(ms.getTimeout())
+                        .resultSetType(ResultSetType.FORWARD_ONLY)
+                        .fetchSize(Integer.MIN_VALUE)
+                        .useCache(false)
+                        .flushCacheRequired(false)
+                        .build();
+                configuration.addMappedStatement(streamMs);
+            }
+        }
+        return streamStatement;
+    }
+
+    /**
+     * 已读取的行数
+     *
+     * @return
+     */
+    public int getCount() {
+        return cursor.getCurrentIndex() + 1;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return cursor.iterator();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            cursor.close();
+        } finally {
+            sqlSession.close();
+        }
+    }
+}
@@ -1,33 +1,136 @@
 package com.kestrelcjx.common.utils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class RedisUtils {
+    private static final Logger logger = LoggerFactory.getLogger(RedisUtils.class);
+
+    /**
+     * 开启事务支持的模板（数据库事务中的写操作进入MULTI队列，事务提交时执行）
+     */
     private RedisTemplate<String, Object> redisTemplate;
+    /**
+     * 不开启事务支持的模板（连接不绑定线程），用于SCAN、管道、脚本等热点操作，未设置时使用redisTemplate
+     */
+    private RedisTemplate<String, Object> fastTemplate;
 
     public void setRedisTemplate(RedisTemplate<String, Object> redisTemplate) {
         this.redisTemplate = redisTemplate;
     }
 
+    public void setFastTemplate(RedisTemplate<String, Object> fastTemplate) {
+        this.fastTemplate = fastTemplate;
+    }
+
+    private RedisTemplate<String, Object> fast() {
+        return fastTemplate != null ? fastTemplate : redisTemplate;
+    }
+
     //========================common============================
 
     /**
-     * 普通缓存获取
+     * 获取匹配的全部键（以SCAN分批遍历，不阻塞Redis）
      *
-     * @return 值
+     * @param pattern 匹配模式
+     * @return 键
      */
-    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
     public Set<String> keys(String pattern) {
-        return redisTemplate.keys(pattern);
+        Set<String> keys = new HashSet<>();
+        try (Stream<String> stream = scan(pattern, 1000)) {
+            stream.forEach(keys::add);
+        }
+        return keys;
+    }
+
+    /**
+     * 以SCAN游标遍历匹配的键，每次向Redis取batchSize个（遍历期间新增或删除的键可能遗漏，也可能重复返回）
+     * 流占用一个连接直到关闭，需在try-with-resources中使用
+     *
+     * @param pattern   匹配模式
+     * @param batchSize 每批数量（COUNT）
+     * @return 键的流
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<String> scan(String pattern, int batchSize) {
+        RedisTemplate<String, Object> template = fast();
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) template.getKeySerializer();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(Math.max(batchSize, 1)).build();
+        Cursor<byte[]> cursor = template.executeWithStickyConnection(
+                (RedisCallback<Cursor<byte[]>>) connection -> connection.scan(options));
+        Iterator<String> iterator = new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return keySerializer.deserialize(cursor.next());
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        cursor.close();
+                    } catch (IOException e) {
+                        logger.warn("关闭SCAN游标失败：{}", e.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * 删除匹配的全部键（SCAN遍历，每batchSize个键一次DEL）
+     *
+     * @param pattern   匹配模式
+     * @param batchSize 每批数量
+     * @return 删除个数
+     */
+    public long delByPattern(String pattern, int batchSize) {
+        int size = Math.max(batchSize, 1);
+        long count = 0;
+        List<String> keys = new ArrayList<>(size);
+        try (Stream<String> stream = scan(pattern, size)) {
+            Iterator<String> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                keys.add(iterator.next());
+                if (keys.size() >= size || !iterator.hasNext()) {
+                    Long deleted = fast().delete(keys);
+                    count += deleted != null ? deleted : 0;
+                    keys.clear();
+                }
+            }
+        }
+        return count;
     }
 
     /**
@@ -81,9 +184,10 @@ public class RedisUtils {
     public void del(String... key) {
         if (key != null && key.length > 0) {
             if (key.length == 1) {
-                redisTemplate.delete(key[0]);
+                fast().delete(key[0]);
             } else {
-                redisTemplate.delete(CollectionUtils.arrayToList(key));
+                // 多个键一次DEL
+                fast().delete(CollectionUtils.arrayToList(key));
             }
         }
     }
@@ -220,10 +324,12 @@ public class RedisUtils {
      */
     public boolean hmset(String key, Map<String, Object> map, long time) {
         try {
-            redisTemplate.opsForHash().putAll(key, map);
+            // HMSET与EXPIRE通过管道一次发送
+            Batch batch = batch().hmset(key, map);
             if (time > 0) {
-                expire(key, time);
+                batch.expire(key, time);
             }
+            batch.execute();
             return true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -378,11 +484,13 @@ public class RedisUtils {
      */
     public long sSetAndTime(String key, long time, Object... values) {
         try {
-            long count = redisTemplate.opsForSet().add(key, values);
+            // SADD与EXPIRE通过管道一次发送
+            Batch batch = batch().sSet(key, values);
             if (time > 0) {
-                expire(key, time);
+                batch.expire(key, time);
             }
-            return count;
+            Object count = batch.execute().get(0);
+            return count instanceof Long ? (Long) count : 0;
         } catch (Exception e) {
             e.printStackTrace();
             return 0;
@@ -594,30 +702,195 @@ public class RedisUtils {
      * @param keys 多个键
      * @return List<Object>
      */
-    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
     public List<Object> mget(Collection<String> keys) {
-        return redisTemplate.opsForValue().multiGet(keys);
+        return fast().opsForValue().multiGet(keys);
     }
-}
 
+    //========================pipeline============================
 
+    /**
+     * 创建管道批量操作，操作在execute时一次发送，不参与事务
+     *
+     * @return
+     */
+    public Batch batch() {
+        return new Batch();
+    }
 
+    /**
+     * 管道批量操作
+     * 各操作依次写入管道，全部发送后统一读取结果，N个操作只需一次往返；结果按加入顺序返回，
+     * GET/HGET的值已反序列化，SET/EXPIRE为Boolean，DEL/SADD为Long
+     */
+    public class Batch {
+        private final List<Consumer<RedisConnection>> operations = new ArrayList<>();
+        private final RedisTemplate<String, Object> template = fast();
 
+        private Batch() {
+        }
 
+        public Batch get(String key) {
+            byte[] rawKey = rawKey(key);
+            operations.add(connection -> connection.get(rawKey));
+            return this;
+        }
 
+        public Batch set(String key, Object value) {
+            byte[] rawKey = rawKey(key);
+            byte[] rawValue = rawValue(value);
+            operations.add(connection -> connection.set(rawKey, rawValue));
+            return this;
+        }
 
+        /**
+         * 放入并设置时间
+         *
+         * @param key   键
+         * @param value 值
+         * @param time  时间（秒）如果time <= 0，将设置无限期
+         * @return
+         */
+        public Batch set(String key, Object value, long time) {
+            if (time <= 0) {
+                return set(key, value);
+            }
+            byte[] rawKey = rawKey(key);
+            byte[] rawValue = rawValue(value);
+            operations.add(connection -> connection.setEx(rawKey, time, rawValue));
+            return this;
+        }
 
+        public Batch expire(String key, long time) {
+            byte[] rawKey = rawKey(key);
+            operations.add(connection -> connection.expire(rawKey, time));
+            return this;
+        }
 
+        public Batch del(String... keys) {
+            byte[][] rawKeys = new byte[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                rawKeys[i] = rawKey(keys[i]);
+            }
+            operations.add(connection -> connection.del(rawKeys));
+            return this;
+        }
 
+        @SuppressWarnings("unchecked")
+        public Batch hget(String key, String item) {
+            byte[] rawKey = rawKey(key);
+            byte[] rawItem = ((RedisSerializer<String>) template.getHashKeySerializer()).serialize(item);
+            operations.add(connection -> connection.hGet(rawKey, rawItem));
+            return this;
+        }
 
+        @SuppressWarnings("unchecked")
+        public Batch hmset(String key, Map<String, Object> map) {
+            byte[] rawKey = rawKey(key);
+            RedisSerializer<String> hashKeySerializer = (RedisSerializer<String>) template.getHashKeySerializer();
+            RedisSerializer<Object> hashValueSerializer = (RedisSerializer<Object>) template.getHashValueSerializer();
+            Map<byte[], byte[]> hashes = new LinkedHashMap<>(map.size());
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                hashes.put(hashKeySerializer.serialize(entry.getKey()), hashValueSerializer.serialize(entry.getValue()));
+            }
+            operations.add(connection -> connection.hMSet(rawKey, hashes));
+            return this;
+        }
 
+        public Batch sSet(String key, Object... values) {
+            byte[] rawKey = rawKey(key);
+            byte[][] rawValues = new byte[values.length][];
+            for (int i = 0; i < values.length; i++) {
+                rawValues[i] = rawValue(values[i]);
+            }
+            operations.add(connection -> connection.sAdd(rawKey, rawValues));
+            return this;
+        }
 
+        public int size() {
+            return operations.size();
+        }
 
+        /**
+         * 发送全部操作
+         *
+         * @return 各操作的结果
+         */
+        public List<Object> execute() {
+            if (operations.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return template.executePipelined((RedisCallback<Object>) connection -> {
+                for (Consumer<RedisConnection> operation : operations) {
+                    operation.accept(connection);
+                }
+                return null;
+            });
+        }
 
+        @SuppressWarnings("unchecked")
+        private byte[] rawKey(String key) {
+            return ((RedisSerializer<String>) template.getKeySerializer()).serialize(key);
+        }
 
+        @SuppressWarnings("unchecked")
+        private byte[] rawValue(Object value) {
+            return ((RedisSerializer<Object>) template.getValueSerializer()).serialize(value);
+        }
+    }
 
+    //========================script============================
 
+    /**
+     * 执行Lua脚本（参数及字符串返回值按字符串序列化，不经过JSON序列化；不参与事务，在数据库事务中也立即执行）
+     *
+     * @param script 脚本
+     * @param keys   键
+     * @param args   参数
+     * @return 脚本返回值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T eval(RedisScript<T> script, List<String> keys, String... args) {
+        RedisTemplate<String, Object> template = fast();
+        RedisSerializer<String> stringSerializer = template.getStringSerializer();
+        return template.execute(script, stringSerializer, (RedisSerializer<T>) stringSerializer, keys, (Object[]) args);
+    }
 
+    /**
+     * 执行Lua脚本（键和参数为原始字节，不经过模板序列化，用于其他组件写入的值，如Shiro会话）
+     *
+     * @param script 脚本（返回整数）
+     * @param key    键
+     * @param args   参数
+     * @return 脚本返回值
+     */
+    public Long eval(String script, byte[] key, byte[]... args) {
+        byte[] scriptBytes = script.getBytes(StandardCharsets.UTF_8);
+        byte[][] keysAndArgs = new byte[args.length + 1][];
+        keysAndArgs[0] = key;
+        System.arraycopy(args, 0, keysAndArgs, 1, args.length);
+        return fast().execute((RedisCallback<Long>) connection ->
+                connection.eval(scriptBytes, ReturnType.INTEGER, 1, keysAndArgs));
+    }
 
+    //========================pubsub============================
 
+    /**
+     * 发布消息
+     *
+     * @param channel 频道
+     * @param message 消息
+     */
+    public void publish(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
 
+    /**
+     * 反序列化订阅收到的消息体
+     *
+     * @param body 消息体
+     * @return 消息
+     */
+    public Object deserialize(byte[] body) {
+        return redisTemplate.getValueSerializer().deserialize(body);
+    }
+}
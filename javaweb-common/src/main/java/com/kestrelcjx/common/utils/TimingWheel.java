@@ -0,0 +1,240 @@
+package com.kestrelcjx.common.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 分层时间轮
+ * 第0层每格一个刻度，第i层每格为第i-1层一圈，到期时间超出最高层一圈的任务放入溢出队列
+ * 高层格子到期时将任务降级放入低层，第0层格子到期时任务到期
+ * 添加任务线程安全（先放入待添加队列），推进时间轮只能由单个线程调用
+ *
+ * @param <T> 任务类型
+ */
+public class TimingWheel<T> {
+    /**
+     * 刻度（毫秒）
+     */
+    private final long tickMillis;
+    /**
+     * 每层格数的二进制位数
+     */
+    private final int wheelBits;
+    /**
+     * 每层格数掩码
+     */
+    private final long wheelMask;
+    /**
+     * 层数
+     */
+    private final int levels;
+    /**
+     * 起始时间（毫秒）
+     */
+    private final long startMillis;
+    /**
+     * 各层格子
+     */
+    private final ArrayDeque<Timeout<T>>[][] buckets;
+    /**
+     * 溢出队列（到期时间超出最高层一圈）
+     */
+    private final ArrayDeque<Timeout<T>> overflow = new ArrayDeque<>();
+    /**
+     * 待添加任务
+     */
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * 当前刻度
+     */
+    private long currentTick;
+    /**
+     * 时间轮中的任务数（不含待添加任务）
+     */
+    private int size;
+
+    /**
+     * 构造函数
+     *
+     * @param tickMillis  刻度（毫秒）
+     * @param wheelBits   每层格数的二进制位数（每层格数为2的wheelBits次方）
+     * @param levels      层数
+     * @param startMillis 起始时间（毫秒）
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelBits, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelBits <= 0 || levels <= 0 || wheelBits * levels >= 62) {
+            throw new IllegalArgumentException("时间轮参数错误");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.wheelMask = (1L << wheelBits) - 1;
+        this.levels = levels;
+        this.startMillis = startMillis;
+        this.buckets = new ArrayDeque[levels][1 << wheelBits];
+        for (int i = 0; i < levels; i++) {
+            for (int j = 0; j < buckets[i].length; j++) {
+                buckets[i][j] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * 添加任务
+     *
+     * @param task           任务
+     * @param deadlineMillis 到期时间（毫秒）
+     * @return 可用于取消任务的句柄
+     */
+    public Timeout<T> add(T task, long deadlineMillis) {
+        // 向上取整，保证不会提前到期
+        long deadlineTick = Math.max(0, (deadlineMillis - startMillis + tickMillis - 1) / tickMillis);
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis, deadlineTick);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 推进时间轮至指定时间
+     *
+     * @param nowMillis 当前时间（毫秒）
+     * @return 到期的任务
+     */
+    public List<Timeout<T>> advance(long nowMillis) {
+        List<Timeout<T>> expired = new ArrayList<>();
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            size++;
+            insert(timeout, expired);
+        }
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // 从高层到低层降级，保证降级到当前格子的任务在本刻度到期
+            if ((currentTick & ((1L << (wheelBits * levels)) - 1)) == 0) {
+                cascade(overflow, expired);
+            }
+            for (int i = levels - 1; i > 0; i--) {
+                if ((currentTick & ((1L << (wheelBits * i)) - 1)) == 0) {
+                    cascade(buckets[i][(int) ((currentTick >>> (wheelBits * i)) & wheelMask)], expired);
+                }
+            }
+            cascade(buckets[0][(int) (currentTick & wheelMask)], expired);
+        }
+        return expired;
+    }
+
+    /**
+     * 获取任务数（含待添加任务）
+     *
+     * @return
+     */
+    public int size() {
+        return size + pending.size();
+    }
+
+    /**
+     * 获取当前刻度对应的时间（毫秒）
+     *
+     * @return
+     */
+    public long getCurrentMillis() {
+        return startMillis + currentTick * tickMillis;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * 取出格子中的任务重新放入时间轮
+     *
+     * @param bucket  格子
+     * @param expired 到期任务
+     */
+    private void cascade(ArrayDeque<Timeout<T>> bucket, List<Timeout<T>> expired) {
+        int count = bucket.size();
+        for (int i = 0; i < count; i++) {
+            insert(bucket.poll(), expired);
+        }
+    }
+
+    /**
+     * 按到期刻度放入对应层的格子
+     *
+     * @param timeout 任务
+     * @param expired 到期任务
+     */
+    private void insert(Timeout<T> timeout, List<Timeout<T>> expired) {
+        if (timeout.cancelled) {
+            size--;
+            return;
+        }
+        if (timeout.deadlineTick <= currentTick) {
+            size--;
+            expired.add(timeout);
+            return;
+        }
+        // 找到与当前刻度处于同一上层格子的最低层
+        for (int i = 0; i < levels; i++) {
+            int shift = wheelBits * (i + 1);
+            if ((timeout.deadlineTick >>> shift) == (currentTick >>> shift)) {
+                buckets[i][(int) ((timeout.deadlineTick >>> (wheelBits * i)) & wheelMask)].add(timeout);
+                return;
+            }
+        }
+        overflow.add(timeout);
+    }
+
+    /**
+     * 任务句柄
+     *
+     * @param <T> 任务类型
+     */
+    public static final class Timeout<T> {
+        /**
+         * 任务
+         */
+        private final T task;
+        /**
+         * 到期时间（毫秒）
+         */
+        private final long deadlineMillis;
+        /**
+         * 到期刻度
+         */
+        private final long deadlineTick;
+        /**
+         * 是否已取消
+         */
+        private volatile boolean cancelled;
+
+        private Timeout(T task, long deadlineMillis, long deadlineTick) {
+            this.task = task;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * 取消任务（时间轮推进到该任务时移除）
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.kestrelcjx.common.utils;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ */
+public class TransactionUtils {
+    /**
+     * 事务提交后执行，不在事务中时立即执行
+     * 用于缓存失效等操作：在提交前失效，其他线程可能在提交前重新加载旧数据
+     *
+     * @param runnable 任务
+     */
+    public static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+}
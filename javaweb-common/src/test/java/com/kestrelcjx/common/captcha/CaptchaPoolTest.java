@@ -0,0 +1,148 @@
+package com.kestrelcjx.common.captcha;
+
+import com.kestrelcjx.common.utils.VerifyUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class CaptchaPoolTest {
+    @Test
+    public void testRingBuffer() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(5);
+        assert buffer.capacity() == 8 && buffer.poll() == null;
+        for (int i = 0; i < 8; i++) {
+            assert buffer.offer(i);
+        }
+        assert !buffer.offer(8) && buffer.size() == 8;
+        assert buffer.poll() == 0 && buffer.offer(8) && buffer.size() == 8;
+        for (int i = 1; i <= 8; i++) {
+            assert buffer.poll() == i;
+        }
+        assert buffer.poll() == null && buffer.size() == 0;
+
+        // 4个生产者、4个消费者，每个元素恰好取出一次
+        RingBuffer<Integer> shared = new RingBuffer<>(64);
+        int perProducer = 200000;
+        AtomicLong sum = new AtomicLong();
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    while (!shared.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            }));
+            threads.add(new Thread(() -> {
+                while (taken.get() < perProducer * 4) {
+                    Integer value = shared.poll();
+                    if (value != null) {
+                        sum.addAndGet(value);
+                        taken.incrementAndGet();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            }));
+        }
+        threads.forEach(Thread::start);
+        done.await();
+        long n = perProducer * 4L;
+        assert taken.get() == n && sum.get() == n * (n + 1) / 2;
+    }
+
+    @Test
+    public void testAdaptive() throws Exception {
+        AtomicInteger seq = new AtomicInteger();
+        CaptchaPool pool = new CaptchaPool(64, 4, 1, 10,
+                () -> new CaptchaPool.Captcha(String.valueOf(seq.incrementAndGet()), ""));
+        // 没有请求时只补到最低保有量
+        assert pool.refill() == 4 && pool.refill() == 0;
+        assert pool.take().getAnswer().equals("1") && pool.getHitCount() == 1;
+        // 池空时同步渲染
+        for (int i = 0; i < 3; i++) {
+            pool.take();
+        }
+        assert pool.take().getAnswer().equals("5") && pool.getHitCount() == 4;
+        // 请求突增后目标数量随速率上升，每次补充不超过上限
+        for (int i = 0; i < 200; i++) {
+            pool.take();
+        }
+        Thread.sleep(100);
+        assert pool.refill() == 10;
+        assert (int) pool.getStats().get("target") == 64;
+        for (int i = 0; i < 10; i++) {
+            pool.refill();
+        }
+        assert pool.size() == 64;
+        assert pool.refill() == 0;
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        // 平稳期约100次/秒，池按速率补充；随后8个请求线程突发各取50个，对比同步渲染
+        CaptchaPool pool = new CaptchaPool(1024, 16, 5, 50, VerifyUtilsRender::render);
+        Thread producer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                pool.refill();
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+        for (int i = 0; i < 100; i++) {
+            pool.take();
+            Thread.sleep(10);
+        }
+        Thread.sleep(500);
+        long hits = pool.getHitCount();
+        long poolTime = run(8, 50, pool::take);
+        long burstHits = pool.getHitCount() - hits;
+        producer.interrupt();
+        long syncTime = run(8, 50, VerifyUtilsRender::render);
+        System.out.println("验证码突发400次：同步渲染 " + syncTime + "ms，预渲染池 " + poolTime + "ms（命中" + burstHits + "次），"
+                + pool.getStats());
+        assert pool.getRequestCount() == 500 && burstHits > 0;
+    }
+
+    private static long run(int threads, int perThread, Supplier<CaptchaPool.Captcha> supplier) throws Exception {
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger answers = new AtomicInteger();
+        long begin = System.currentTimeMillis();
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (supplier.get().getAnswer().length() == 4) {
+                        answers.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        assert answers.get() == threads * perThread;
+        return System.currentTimeMillis() - begin;
+    }
+
+    private static class VerifyUtilsRender {
+        private static CaptchaPool.Captcha render() {
+            Map<String, String> mapInfo = new VerifyUtils().getRandomCodeBase64();
+            return new CaptchaPool.Captcha(mapInfo.get("randomStr"), "data:image/png;base64," + mapInfo.get("img"));
+        }
+    }
+}
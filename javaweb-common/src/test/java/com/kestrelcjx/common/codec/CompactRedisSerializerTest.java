@@ -0,0 +1,338 @@
+package com.kestrelcjx.common.codec;
+
+import com.kestrelcjx.common.utils.JsonResult;
+import org.junit.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class CompactRedisSerializerTest {
+    /**
+     * 与系统人员实体字段一致
+     */
+    public static class Admin implements Serializable {
+        public Integer id;
+        public String realname;
+        public String nickname;
+        public Integer gender;
+        public String avatar;
+        public String mobile;
+        public String email;
+        public Date birthday;
+        public Integer companyId;
+        public Integer deptId;
+        public Integer levelId;
+        public Integer positionId;
+        public Integer provinceId;
+        public Integer cityId;
+        public Integer districtId;
+        public String address;
+        public String username;
+        public String password;
+        public String salt;
+        public String tags;
+        public String intro;
+        public Integer status;
+        public String rules;
+        public String roleIds;
+        public String note;
+        public Integer sort;
+        public Integer loginNum;
+        public String loginIp;
+        public Date loginTime;
+        public Integer createUser;
+        public Date createTime;
+        public Integer updateUser;
+        public Date updateTime;
+        public Integer mark;
+    }
+
+    public static class BaseEntity implements Serializable {
+        public Integer id;
+        public Integer createUser;
+        public Date createTime;
+        public Integer updateUser;
+        public Date updateTime;
+        public Integer mark;
+    }
+
+    /**
+     * 与菜单实体字段一致
+     */
+    public static class Menu extends BaseEntity {
+        public String name;
+        public String icon;
+        public String url;
+        public String param;
+        public Integer pid;
+        public Integer type;
+        public String permission;
+        public Integer status;
+        public Integer isPublic;
+        public String note;
+        public Integer sort;
+        public String funcIds;
+        public List<Menu> children;
+    }
+
+    public static class Sample implements Serializable {
+        public int count;
+        public long total;
+        public double rate;
+        public boolean enabled;
+        public Long version;
+        public BigDecimal amount;
+        public byte[] data;
+        public Map<String, Object> extra;
+        public Sample next;
+    }
+
+    public static class SampleV2 implements Serializable {
+        public int count;
+        public long total;
+        public String label;
+    }
+
+    private static CompactRedisSerializer newSerializer() {
+        return new CompactRedisSerializer(new GenericJackson2JsonRedisSerializer())
+                .register(1, JsonResult.class)
+                .register(2, Sample.class)
+                .register(100, Admin.class)
+                .register(101, Menu.class);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        CompactRedisSerializer serializer = newSerializer();
+        assert serializer.serialize(null).length == 0 && serializer.deserialize(new byte[0]) == null;
+        assert serializer.deserialize(serializer.serialize("验证码Ab3")).equals("验证码Ab3");
+        assert serializer.serialize("abcd").length == 5;
+        for (Object value : Arrays.asList(0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 1L, Long.MIN_VALUE, 1.5d, 2.5f,
+                (short) -3, (byte) 7, true, false, new Date(), new BigDecimal("-12.3400"))) {
+            Object result = serializer.deserialize(serializer.serialize(value));
+            assert value.equals(result) && value.getClass() == result.getClass() : value;
+        }
+        assert serializer.serialize(1700000000000L).length == 8;
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", Arrays.asList(1, "x", null));
+        map.put("b", new LinkedHashSet<>(Arrays.asList(3L, 4L)));
+        assert serializer.deserialize(serializer.serialize(map)).equals(map);
+
+        Sample sample = new Sample();
+        sample.count = 3;
+        sample.total = -5;
+        sample.rate = 0.25;
+        sample.enabled = true;
+        sample.amount = new BigDecimal("9.90");
+        sample.data = new byte[]{1, 2, 3};
+        sample.extra = Collections.singletonMap("k", new Date(0));
+        sample.next = new Sample();
+        sample.next.version = 7L;
+        Sample result = (Sample) serializer.deserialize(serializer.serialize(sample));
+        assert result.count == 3 && result.total == -5 && result.rate == 0.25 && result.enabled;
+        assert result.version == null && result.amount.equals(sample.amount) && Arrays.equals(result.data, sample.data);
+        assert result.extra.equals(sample.extra);
+        assert result.next.version == 7L && result.next.count == 0 && result.next.next == null;
+
+        JsonResult jsonResult = new JsonResult(0, "查询成功", Arrays.asList(newMenu(1), newMenu(2)), 2L);
+        JsonResult jsonResult2 = (JsonResult) serializer.deserialize(serializer.serialize(jsonResult));
+        assert jsonResult2.getCount() == 2L && jsonResult2.getMsg().equals("查询成功");
+        assert ((Menu) ((List<?>) jsonResult2.getData()).get(1)).children.get(0).name.equals("子菜单2");
+    }
+
+    @Test
+    public void testCompatibility() {
+        // JSON格式的旧数据、未注册的类、关闭紧凑格式时写入的数据均按JSON读写
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        CompactRedisSerializer serializer = newSerializer();
+        Admin admin = newAdmin(1);
+        Admin old = (Admin) serializer.deserialize(json.serialize(admin));
+        assert old.username.equals(admin.username) && old.loginTime.equals(admin.loginTime);
+        assert serializer.deserialize(json.serialize("abc")).equals("abc");
+        assert serializer.deserialize(json.serialize(12)).equals(12);
+        SampleV2 unregistered = new SampleV2();
+        unregistered.label = "x";
+        assert Arrays.equals(serializer.serialize(unregistered), json.serialize(unregistered));
+        Sample nested = new Sample();
+        nested.extra = Collections.singletonMap("v2", unregistered);
+        assert ((SampleV2) ((Sample) serializer.deserialize(serializer.serialize(nested))).extra.get("v2")).label.equals("x");
+        serializer.setWriteCompact(false);
+        assert Arrays.equals(serializer.serialize(admin), json.serialize(admin));
+    }
+
+    @Test
+    public void testSchemaChange() {
+        // 同一类ID的字段变化后，旧数据按未命中处理
+        CompactRedisSerializer writer = new CompactRedisSerializer(new GenericJackson2JsonRedisSerializer()).register(2, Sample.class);
+        CompactRedisSerializer reader = new CompactRedisSerializer(new GenericJackson2JsonRedisSerializer()).register(2, SampleV2.class);
+        byte[] bytes = writer.serialize(new Sample());
+        assert reader.deserialize(bytes) == null;
+        assert new CompactRedisSerializer(new GenericJackson2JsonRedisSerializer()).deserialize(bytes) == null;
+        try {
+            reader.register(2, Sample.class);
+            assert false;
+        } catch (IllegalArgumentException e) {
+            assert e.getMessage().contains("类ID重复");
+        }
+    }
+
+    @Test
+    public void testLz4() {
+        Random random = new Random(1);
+        for (int length : new int[]{0, 1, 12, 13, 100, 5000, 70000}) {
+            byte[] text = new byte[length];
+            byte[] noise = new byte[length];
+            for (int i = 0; i < length; i++) {
+                text[i] = (byte) "select * from sys_menu where mark = 1 ".charAt(random.nextInt(6) + i % 30);
+                noise[i] = (byte) random.nextInt();
+            }
+            for (byte[] data : Arrays.asList(text, noise)) {
+                byte[] compressed = Lz4.compress(data, 0, data.length);
+                assert Arrays.equals(Lz4.decompress(compressed, 0, compressed.length, data.length), data);
+            }
+        }
+        byte[] repeated = new byte[10000];
+        Arrays.fill(repeated, (byte) 'a');
+        byte[] compressed = Lz4.compress(repeated, 0, repeated.length);
+        assert compressed.length < 100;
+        assert Arrays.equals(Lz4.decompress(compressed, 0, compressed.length, repeated.length), repeated);
+        try {
+            Lz4.decompress(compressed, 0, compressed.length - 1, repeated.length);
+            assert false;
+        } catch (IllegalArgumentException e) {
+            // 数据不完整
+        }
+        // 超过阈值的值整体压缩
+        CompactRedisSerializer serializer = newSerializer();
+        List<Menu> menus = newMenus(100);
+        byte[] bytes = serializer.serialize(menus);
+        assert bytes[0] == (byte) 0xC2;
+        assert ((List<?>) serializer.deserialize(bytes)).size() == 100;
+    }
+
+    @Test
+    public void testThroughput() {
+        // 每条数据的字节数及编码、解码耗时：JSON对比紧凑格式
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        CompactRedisSerializer compact = newSerializer();
+        CompactRedisSerializer compactNoLz4 = newSerializer().setCompressThreshold(0);
+        List<Admin> admins = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            admins.add(newAdmin(i));
+        }
+        Object[][] samples = {
+                {"Admin", newAdmin(1)},
+                {"Menu列表(100)", newMenus(100)},
+                {"JsonResult(20个Admin)", new JsonResult(0, "查询成功", admins, 20L)}
+        };
+        for (Object[] sample : samples) {
+            measure((String) sample[0], "JSON", json, sample[1]);
+            measure((String) sample[0], "紧凑", compactNoLz4, sample[1]);
+            measure((String) sample[0], "紧凑+LZ4", compact, sample[1]);
+        }
+    }
+
+    private static void measure(String name, String codec, RedisSerializer<Object> serializer, Object value) {
+        int rounds = 20000;
+        byte[] bytes = serializer.serialize(value);
+        long hash = 0;
+        for (int i = 0; i < rounds; i++) {
+            hash += serializer.serialize(value).length;
+            hash += serializer.deserialize(bytes).hashCode() & 1;
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            hash += serializer.serialize(value).length;
+        }
+        long encode = (System.nanoTime() - begin) / rounds;
+        begin = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            hash += serializer.deserialize(bytes).hashCode() & 1;
+        }
+        long decode = (System.nanoTime() - begin) / rounds;
+        assert hash > 0;
+        System.out.println(name + " " + codec + "：" + bytes.length + "字节，编码 " + encode + "ns/op，解码 " + decode + "ns/op");
+    }
+
+    private static Admin newAdmin(int i) {
+        Admin admin = new Admin();
+        admin.id = i;
+        admin.realname = "管理员" + i;
+        admin.nickname = "admin" + i;
+        admin.gender = 1;
+        admin.avatar = "/images/user/20200501/avatar" + i + ".png";
+        admin.mobile = "1380000" + (1000 + i);
+        admin.email = "admin" + i + "@example.com";
+        admin.birthday = new Date(631152000000L);
+        admin.deptId = 3;
+        admin.levelId = 2;
+        admin.positionId = 5;
+        admin.provinceId = 110000;
+        admin.cityId = 110100;
+        admin.districtId = 110101;
+        admin.address = "东城区";
+        admin.username = "admin" + i;
+        admin.password = "e10adc3949ba59abbe56e057f20f883e";
+        admin.salt = "8wFiAB";
+        admin.status = 1;
+        admin.roleIds = "1,2";
+        admin.sort = 125;
+        admin.loginNum = 312;
+        admin.loginIp = "127.0.0.1";
+        admin.loginTime = new Date(1588262400000L + i);
+        admin.createUser = 1;
+        admin.createTime = new Date(1588262400000L);
+        admin.updateUser = 1;
+        admin.updateTime = new Date(1588262400000L);
+        admin.mark = 1;
+        return admin;
+    }
+
+    private static Menu newMenu(int i) {
+        Menu menu = new Menu();
+        menu.id = i;
+        menu.name = "菜单" + i;
+        menu.icon = "layui-icon-set";
+        menu.url = "/menu/index" + i;
+        menu.pid = 0;
+        menu.type = 0;
+        menu.permission = "sys:menu:index" + i;
+        menu.status = 1;
+        menu.isPublic = 2;
+        menu.sort = i;
+        menu.createUser = 1;
+        menu.createTime = new Date(1588262400000L);
+        menu.mark = 1;
+        Menu child = new Menu();
+        child.id = 1000 + i;
+        child.name = "子菜单" + i;
+        child.url = "/menu/child" + i;
+        child.pid = i;
+        child.type = 1;
+        child.permission = "sys:menu:child" + i;
+        child.status = 1;
+        child.sort = 1;
+        child.mark = 1;
+        menu.children = new ArrayList<>(Collections.singletonList(child));
+        return menu;
+    }
+
+    private static List<Menu> newMenus(int count) {
+        List<Menu> menus = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            menus.add(newMenu(i));
+        }
+        return menus;
+    }
+}
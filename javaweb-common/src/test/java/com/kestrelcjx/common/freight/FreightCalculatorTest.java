@@ -0,0 +1,96 @@
+package com.kestrelcjx.common.freight;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class FreightCalculatorTest {
+    @Test
+    public void testFee() {
+        // 首重1kg 10元，续重0.5kg 3元
+        FreightRule rule = new FreightRule(1, FreightRule.CHARGE_WEIGHT, new BigDecimal("1"), new BigDecimal("10"),
+                new BigDecimal("0.5"), new BigDecimal("3"), null);
+        assert rule.fee(800) == 1000;
+        assert rule.fee(1000) == 1000;
+        assert rule.fee(1001) == 1300;
+        assert rule.fee(2000) == 1600;
+        // 首件2件 5元，续件1件 1.5元
+        FreightRule piece = new FreightRule(2, FreightRule.CHARGE_PIECE, new BigDecimal("2"), new BigDecimal("5"),
+                new BigDecimal("1"), new BigDecimal("1.5"), null);
+        assert piece.fee(piece.amountOf(5, 99999)) == 950;
+    }
+
+    @Test
+    public void testQuote() {
+        BitSet regions = new BitSet();
+        regions.set(110000);
+        regions.set(110100);
+        FreightRule weight = new FreightRule(1, FreightRule.CHARGE_WEIGHT, new BigDecimal("1"), new BigDecimal("10"),
+                new BigDecimal("1"), new BigDecimal("2"), regions);
+        FreightRule piece = new FreightRule(2, FreightRule.CHARGE_PIECE, new BigDecimal("1"), new BigDecimal("6"),
+                new BigDecimal("1"), new BigDecimal("1"), null);
+        FreightRule[] rules = {null, weight, piece};
+        List<FreightCalculator.Item> items = Arrays.asList(
+                // 店铺1：同一模板合并计费，共2.5kg
+                new FreightCalculator.Item(1, 1, 2, new BigDecimal("0.5")),
+                new FreightCalculator.Item(1, 1, 1, new BigDecimal("1.5")),
+                // 店铺2：按件数，共3件
+                new FreightCalculator.Item(2, 2, 3, BigDecimal.ZERO),
+                // 模板不存在
+                new FreightCalculator.Item(2, 3, 1, BigDecimal.ONE));
+        FreightCalculator.Quote quote = FreightCalculator.quote(110100, items, id -> id < rules.length ? rules[id] : null);
+        assert quote.getStoreFee(1).compareTo(new BigDecimal("14")) == 0;
+        assert quote.getStoreFee(2).compareTo(new BigDecimal("8")) == 0;
+        assert quote.getTotal().compareTo(new BigDecimal("22")) == 0;
+        assert quote.getUndeliverableList().size() == 1 && !quote.isDeliverable();
+        // 不在配送范围
+        quote = FreightCalculator.quote(310100, items.subList(0, 2), id -> rules[id]);
+        assert quote.getUndeliverableList().size() == 2;
+        assert quote.getTotal().signum() == 0;
+    }
+
+    @Test
+    public void testThroughput() {
+        // 500个模板，各覆盖约一半城市；每单20件商品分布在5个店铺
+        Random random = new Random(1);
+        int cityCount = 4000;
+        FreightRule[] rules = new FreightRule[500];
+        for (int i = 0; i < rules.length; i++) {
+            BitSet regions = new BitSet(cityCount);
+            for (int j = 0; j < cityCount; j++) {
+                if (random.nextBoolean()) {
+                    regions.set(j);
+                }
+            }
+            rules[i] = new FreightRule(i, 1 + random.nextInt(2), new BigDecimal(1 + random.nextInt(3)),
+                    new BigDecimal(random.nextInt(20)), BigDecimal.ONE, new BigDecimal(random.nextInt(5)),
+                    i % 10 == 0 ? null : regions);
+        }
+        List<List<FreightCalculator.Item>> orders = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            List<FreightCalculator.Item> items = new ArrayList<>();
+            for (int j = 0; j < 20; j++) {
+                items.add(new FreightCalculator.Item(random.nextInt(5), random.nextInt(rules.length),
+                        1 + random.nextInt(3), new BigDecimal(random.nextInt(3000)).movePointLeft(3)));
+            }
+            orders.add(items);
+        }
+        int count = 200000;
+        long checksum = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            FreightCalculator.Quote quote = FreightCalculator.quote(random.nextInt(cityCount),
+                    orders.get(i % orders.size()), id -> rules[id]);
+            checksum += quote.getStoreFeeMap().size();
+        }
+        long nanos = System.nanoTime() - begin;
+        double rate = (double) count * 1000000000L / nanos;
+        System.out.println("运费计算：每单20件，" + (long) rate + "单/秒");
+        assert checksum > 0;
+    }
+}
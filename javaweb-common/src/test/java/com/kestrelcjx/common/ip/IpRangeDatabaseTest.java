@@ -0,0 +1,39 @@
+package com.kestrelcjx.common.ip;
+
+import org.junit.Test;
+
+public class IpRangeDatabaseTest {
+    private static final String DATA = "# 测试数据\n"
+            + "1.0.8.0|1.0.15.255|中国|0|广东省|广州市|电信\n"
+            + "0.0.0.0|0.255.255.255|0|0|0|内网IP|内网IP\n"
+            + "223.255.255.0|255.255.255.255|美国|0|0|0|0\n"
+            + "1.0.0.0|1.0.0.255|澳大利亚|0|0|0|0\n";
+
+    @Test
+    public void testResolve() {
+        IpRangeDatabase database = IpRangeDatabase.parse(DATA);
+        assert 4 == database.size();
+        assert "澳大利亚".equals(database.resolve("1.0.0.1"));
+        assert "中国 广东省 广州市 电信".equals(database.resolve("1.0.8.0"));
+        assert "中国 广东省 广州市 电信".equals(database.resolve("1.0.15.255"));
+        assert "内网IP".equals(database.resolve("0.1.2.3"));
+        // 未收录的IP段
+        assert database.resolve("1.0.16.0") == null;
+        assert database.resolve("1.0.1.0") == null;
+        // 高位地址（无符号比较）
+        assert "美国".equals(database.resolve("255.255.255.255"));
+        assert database.resolve("200.0.0.1") == null;
+    }
+
+    @Test
+    public void testToLong() {
+        assert 0L == IpRangeDatabase.toLong("0.0.0.0");
+        assert 4294967295L == IpRangeDatabase.toLong("255.255.255.255");
+        assert 16777217L == IpRangeDatabase.toLong("1.0.0.1");
+        assert -1L == IpRangeDatabase.toLong("256.0.0.1");
+        assert -1L == IpRangeDatabase.toLong("1.0.0");
+        assert -1L == IpRangeDatabase.toLong("1..0.1");
+        assert -1L == IpRangeDatabase.toLong("0:0:0:0:0:0:0:1");
+        assert -1L == IpRangeDatabase.toLong(null);
+    }
+}
@@ -0,0 +1,124 @@
+package com.kestrelcjx.common.stock;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StockLedgerTest {
+    @Test
+    public void testReserveConfirmRelease() {
+        StockLedger ledger = new StockLedger(null);
+        assert ledger.reserve(1, 1, 1000, 0) == StockLedger.NOT_LOADED;
+        ledger.load(1, 10, 0, 0);
+        long a = ledger.reserve(1, 3, 1000, 0);
+        long b = ledger.reserve(1, 5, 1000, 0);
+        assert a > 0 && b > 0 && a != b;
+        assert ledger.getAvailable(1) == 2;
+        assert ledger.reserve(1, 3, 1000, 0) == StockLedger.INSUFFICIENT;
+        assert ledger.confirm(a);
+        assert !ledger.confirm(a);
+        assert ledger.release(b);
+        assert !ledger.release(b);
+        assert ledger.getAvailable(1) == 7;
+        // 同一SKU的多次变化合并为一条增量
+        List<int[]> deltas = ledger.drain();
+        assert deltas.size() == 1;
+        int[] delta = deltas.get(0);
+        assert delta[0] == 1 && delta[1] == -3 && delta[2] == 0 && delta[3] == 3;
+        assert ledger.drain().isEmpty();
+    }
+
+    @Test
+    public void testExpire() {
+        StockLedger ledger = new StockLedger(null);
+        // 遗留的锁定库存以增量方式清零
+        ledger.load(1, 10, 4, 0);
+        long a = ledger.reserve(1, 6, 100, 0);
+        long b = ledger.reserve(1, 4, 500, 0);
+        assert ledger.getAvailable(1) == 0;
+        assert ledger.expire(50) == 0;
+        assert ledger.expire(100) == 1;
+        assert ledger.getAvailable(1) == 6;
+        assert !ledger.confirm(a);
+        assert ledger.confirm(b);
+        assert ledger.expire(1000) == 0;
+        assert ledger.getReservationCount() == 0;
+        int[] delta = ledger.drain().get(0);
+        assert delta[1] == -4 && delta[2] == -4 && delta[3] == 4;
+    }
+
+    @Test
+    public void testLowStock() {
+        AtomicInteger events = new AtomicInteger();
+        StockLedger ledger = new StockLedger((skuId, available, lowStock) -> {
+            assert available < lowStock;
+            events.incrementAndGet();
+        });
+        ledger.load(1, 10, 0, 5);
+        long a = ledger.reserve(1, 4, 1000, 0);
+        assert events.get() == 0;
+        ledger.reserve(1, 2, 1000, 0);
+        assert events.get() == 1;
+        // 低于预警后不重复通知，恢复后再次低于预警时通知
+        ledger.reserve(1, 1, 1000, 0);
+        assert events.get() == 1;
+        ledger.release(a);
+        ledger.reserve(1, 4, 1000, 0);
+        assert events.get() == 2;
+    }
+
+    @Test
+    public void testNoOversell() throws InterruptedException {
+        // 16线程争抢同一SKU，需求量为库存的1.6倍
+        int stock = 100000;
+        int threads = 16;
+        int perThread = 10000;
+        StockLedger ledger = new StockLedger(null);
+        ledger.load(1, stock, 0, 0);
+        AtomicLong success = new AtomicLong();
+        // 工作线程中的失败收集后在主线程断言
+        AtomicLong confirmFailures = new AtomicLong();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < perThread; j++) {
+                        long id = ledger.reserve(1, 1, 60000, System.currentTimeMillis());
+                        if (id > 0) {
+                            success.incrementAndGet();
+                            if (!ledger.confirm(id)) {
+                                confirmFailures.incrementAndGet();
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long nanos = System.nanoTime() - begin;
+        double rate = (double) threads * perThread * 1000000000L / nanos;
+        System.out.println("单SKU预占：" + threads + "线程，" + (long) rate + "次/秒");
+        assert errors.isEmpty() : errors.peek();
+        assert confirmFailures.get() == 0;
+        // 恰好售出全部库存，不超卖
+        assert success.get() == stock;
+        assert ledger.getAvailable(1) == 0;
+        assert ledger.getReservationCount() == 0;
+        int[] delta = ledger.drain().get(0);
+        assert delta[1] == -stock && delta[2] == 0 && delta[3] == stock;
+    }
+}
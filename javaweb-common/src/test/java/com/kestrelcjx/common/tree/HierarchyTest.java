@@ -0,0 +1,80 @@
+package com.kestrelcjx.common.tree;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class HierarchyTest {
+    @Test
+    public void testTree() {
+        // 1总公司 -> 2研发部 -> 4前端组、5后端组；1 -> 3市场部；6独立公司；7上级不存在
+        int[] ids = {1, 2, 3, 4, 5, 6, 7};
+        int[] pids = {0, 1, 1, 2, 2, 0, 99};
+        String[] names = {"总公司", "研发部", "市场部", "前端组", "后端组", "独立公司", "孤立节点"};
+        Hierarchy hierarchy = new Hierarchy(ids, pids, names);
+        assert hierarchy.size() == 7;
+        assert hierarchy.getPath(5, ">>").equals("总公司>>研发部>>后端组");
+        assert hierarchy.getPath(3, " -> ").equals("总公司 -> 市场部");
+        assert hierarchy.getPath(7, ">>").equals("孤立节点");
+        assert hierarchy.getPath(100, ">>").isEmpty();
+        assert Arrays.equals(hierarchy.getAncestorIds(4), new int[]{1, 2, 4});
+        assert Arrays.equals(hierarchy.getDescendantIds(1, true), new int[]{1, 2, 4, 5, 3});
+        assert Arrays.equals(hierarchy.getDescendantIds(2, false), new int[]{4, 5});
+        assert hierarchy.getDescendantIds(6, false).length == 0;
+        assert hierarchy.isDescendant(1, 5) && hierarchy.isDescendant(2, 2);
+        assert !hierarchy.isDescendant(2, 3) && !hierarchy.isDescendant(5, 1);
+        assert hierarchy.getParentId(4) == 2 && hierarchy.getParentId(1) == 0;
+        assert hierarchy.getDepth(5) == 3 && hierarchy.getDepth(100) == 0;
+        String[] paths = hierarchy.resolvePaths(new int[]{4, 100, 6}, "/");
+        assert Arrays.equals(paths, new String[]{"总公司/研发部/前端组", "", "独立公司"});
+    }
+
+    @Test
+    public void testCycle() {
+        // 1 -> 2 -> 1 成环，3为2的下级
+        int[] ids = {3, 1, 2};
+        int[] pids = {2, 2, 1};
+        Hierarchy hierarchy = new Hierarchy(ids, pids, new String[]{"c", "a", "b"});
+        Set<Integer> all = new HashSet<>();
+        for (int id : ids) {
+            assert hierarchy.getPath(id, ",").length() > 0;
+            assert hierarchy.getDepth(id) <= 3;
+        }
+        int[] root = hierarchy.getAncestorIds(3);
+        for (int id : hierarchy.getDescendantIds(root[0], true)) {
+            all.add(id);
+        }
+        assert all.size() == 3;
+    }
+
+    @Test
+    public void testLarge() {
+        // 随机生成10万个节点，校验区间与祖先数组一致
+        Random random = new Random(1);
+        int size = 100000;
+        int[] ids = new int[size];
+        int[] pids = new int[size];
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i + 1;
+            pids[i] = i == 0 ? 0 : 1 + random.nextInt(i);
+            names[i] = String.valueOf(i + 1);
+        }
+        long begin = System.nanoTime();
+        Hierarchy hierarchy = new Hierarchy(ids, pids, names);
+        System.out.println("层级快照构建：10万节点 " + (System.nanoTime() - begin) / 1000000 + "ms");
+        assert hierarchy.getDescendantIds(1, true).length == size;
+        for (int i = 0; i < 1000; i++) {
+            int id = 1 + random.nextInt(size);
+            int[] ancestorIds = hierarchy.getAncestorIds(id);
+            for (int ancestorId : ancestorIds) {
+                assert hierarchy.isDescendant(ancestorId, id);
+            }
+            assert ancestorIds[ancestorIds.length - 1] == id;
+            assert ancestorIds.length == 1 || ancestorIds[ancestorIds.length - 2] == pids[id - 1];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.kestrelcjx.common.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class CartesianIteratorTest {
+    @Test
+    public void testIterate() {
+        List<List<String>> dimensions = Arrays.asList(
+                Arrays.asList("红", "蓝"),
+                Arrays.asList("S", "M", "L"),
+                Collections.singletonList("棉"));
+        assert CartesianIterator.count(dimensions) == 6;
+        List<String> keys = new ArrayList<>();
+        CartesianIterator<String> iterator = new CartesianIterator<>(dimensions);
+        while (iterator.hasNext()) {
+            keys.add(String.join(",", iterator.next()));
+        }
+        assert keys.equals(Arrays.asList("红,S,棉", "红,M,棉", "红,L,棉", "蓝,S,棉", "蓝,M,棉", "蓝,L,棉"));
+    }
+
+    @Test
+    public void testEmpty() {
+        assert !new CartesianIterator<String>(Collections.emptyList()).hasNext();
+        List<List<String>> dimensions = Arrays.asList(Arrays.asList("红", "蓝"), Collections.emptyList());
+        assert !new CartesianIterator<>(dimensions).hasNext();
+        assert CartesianIterator.count(dimensions) == 0;
+    }
+
+    @Test
+    public void testLarge() {
+        List<List<Integer>> dimensions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            List<Integer> dimension = new ArrayList<>();
+            for (int j = 0; j < 10; j++) {
+                dimension.add(j);
+            }
+            dimensions.add(dimension);
+        }
+        Set<List<Integer>> set = new HashSet<>();
+        new CartesianIterator<>(dimensions).forEachRemaining(set::add);
+        assert set.size() == 10000;
+        assert CartesianIterator.count(Collections.nCopies(40, Arrays.asList(1, 2, 3))) == Long.MAX_VALUE;
+    }
+}
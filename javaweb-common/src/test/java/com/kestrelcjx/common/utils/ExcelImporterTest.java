@@ -0,0 +1,163 @@
+package com.kestrelcjx.common.utils;
+
+import com.kestrelcjx.common.annotation.Excel;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExcelImporterTest {
+    public static class Member {
+        @Excel(name = "账号")
+        private String username;
+        @Excel(name = "性别", readConverterExp = "1=男,2=女")
+        private Integer gender;
+        @Excel(name = "余额")
+        private BigDecimal balance;
+        @Excel(name = "积分")
+        private long score;
+    }
+
+    @Test
+    public void testImport() {
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger progressCount = new AtomicInteger();
+        ExcelImporter<Member> importer = new ExcelImporter<>(Member.class)
+                .setBatchSize(2)
+                .setThreads(2)
+                .setValidator(member -> member.username == null ? "[账号]不能为空" : null)
+                .setProgressListener(progress -> progressCount.incrementAndGet());
+        ExcelImporter<Member>.Session session = importer.open(null, list -> {
+            for (Member member : list) {
+                if ("error".equals(member.username)) {
+                    throw new IllegalStateException("重复");
+                }
+            }
+            written.addAndGet(list.size());
+        });
+        // 表头列顺序与字段顺序不同，多余的列忽略
+        session.accept(1, Arrays.asList("积分", "备注", "账号", "性别", "余额"));
+        session.accept(2, Arrays.asList("10", "x", "a", "男", "1.50"));
+        session.accept(3, Arrays.asList("2.0", "", "b", "2", ""));
+        session.accept(4, Arrays.asList("abc", "", "c", "女", "1"));
+        session.accept(5, Arrays.asList("1", "", "", "男", "1"));
+        session.accept(6, Arrays.asList("1", "", "error", "男", "1"));
+        session.accept(7, Collections.singletonList("3"));
+        session.close();
+        ExcelImporter.Result result = session.getResult();
+        assert result.getRead() == 6;
+        assert result.getSuccess() == 2 && written.get() == 2;
+        assert result.getFail() == 4 && result.getErrorCount() == 4;
+        assert progressCount.get() == 3;
+        List<ExcelImporter.RowError> errors = result.getErrors();
+        assert errors.get(0).getRow() == 4 && errors.get(0).getMessage().contains("积分");
+        assert errors.get(1).getRow() == 5 && errors.get(1).getMessage().contains("账号");
+        assert errors.get(2).getRow() == 6 && errors.get(2).getMessage().startsWith("写入失败");
+        assert errors.get(3).getRow() == 7;
+    }
+
+    @Test
+    public void testWriteFailure() {
+        // 一批20行中有2行写入失败，拆分重试后其余18行写入成功，只有出错的行记为失败
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        ExcelImporter<Member> importer = new ExcelImporter<>(Member.class).setBatchSize(20).setThreads(1);
+        ExcelImporter<Member>.Session session = importer.open(null, list -> {
+            for (Member member : list) {
+                if (member.username.startsWith("dup")) {
+                    throw new IllegalStateException("Duplicate entry");
+                }
+            }
+            list.forEach(member -> written.add(member.username));
+        });
+        session.accept(1, Arrays.asList("账号", "积分"));
+        for (int i = 0; i < 20; i++) {
+            session.accept(i + 2, Arrays.asList(i == 3 || i == 15 ? "dup" + i : "user" + i, "1"));
+        }
+        session.close();
+        ExcelImporter.Result result = session.getResult();
+        assert result.getSuccess() == 18 && written.size() == 18 && new HashSet<>(written).size() == 18;
+        assert result.getFail() == 2;
+        assert result.getErrors().get(0).getRow() == 5 && result.getErrors().get(1).getRow() == 17;
+        assert result.getErrors().get(0).getMessage().equals("写入失败：Duplicate entry");
+    }
+
+    @Test
+    public void testWriteRollback() {
+        // 写入方逐行插入，遇到出错行时已插入部分行；每次写入在独立事务中，失败时回滚已插入的行，
+        // 拆分重试后每个正确的行只提交一次
+        List<String> committed = Collections.synchronizedList(new ArrayList<>());
+        ExcelImporter<Member> importer = new ExcelImporter<>(Member.class).setBatchSize(20).setThreads(2);
+        ExcelImporter<Member>.Session session = importer.open(null, list -> {
+            List<String> inserted = new ArrayList<>();
+            for (Member member : list) {
+                if (member.username.startsWith("dup")) {
+                    // 回滚：已插入的行不提交
+                    throw new IllegalStateException("Duplicate entry");
+                }
+                inserted.add(member.username);
+            }
+            committed.addAll(inserted);
+        });
+        session.accept(1, Arrays.asList("账号", "积分"));
+        for (int i = 0; i < 40; i++) {
+            session.accept(i + 2, Arrays.asList(i % 7 == 6 ? "dup" + i : "user" + i, "1"));
+        }
+        session.close();
+        ExcelImporter.Result result = session.getResult();
+        assert committed.size() == 35 && new HashSet<>(committed).size() == 35;
+        assert result.getSuccess() == 35 && result.getFail() == 5;
+        for (ExcelImporter.RowError error : result.getErrors()) {
+            assert (error.getRow() - 2) % 7 == 6;
+        }
+    }
+
+    @Test
+    public void testConvert() {
+        List<ExcelPlan.Column> columns = ExcelPlan.of(Member.class, Excel.Type.IMPORT).getColumns();
+        assert columns.get(1).parse("女").equals(2);
+        assert columns.get(1).parse(" 1 ").equals(1);
+        assert columns.get(2).parse("1.50").equals(new BigDecimal("1.50"));
+        assert columns.get(3).parse("1E3").equals(1000L);
+        assert columns.get(3).parse("  ") == null;
+        try {
+            columns.get(3).parse("1.5");
+            assert false;
+        } catch (IllegalArgumentException e) {
+            assert e.getMessage().contains("积分");
+        }
+    }
+
+    @Test
+    public void testThroughput() {
+        // 100万行，写入方每批（1000行）休眠2ms模拟批量插入耗时（实际数据库写入耗时取决于库表及连接参数，不在此测量）；
+        // 同时处理中的批次数固定，内存占用与行数无关
+        AtomicLong total = new AtomicLong();
+        ExcelImporter<Member> importer = new ExcelImporter<>(Member.class).setBatchSize(1000).setThreads(4);
+        long begin = System.currentTimeMillis();
+        ExcelImporter<Member>.Session session = importer.open(null, list -> {
+            for (Member member : list) {
+                total.addAndGet(member.score);
+            }
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        session.accept(1, Arrays.asList("账号", "性别", "余额", "积分"));
+        for (int i = 0; i < 1000000; i++) {
+            session.accept(i + 2, Arrays.asList("user" + i, i % 2 == 0 ? "男" : "女", "12.34", String.valueOf(i % 100)));
+        }
+        session.close();
+        ExcelImporter.Result result = session.getResult();
+        System.out.println("Excel导入：100万行 " + (System.currentTimeMillis() - begin) + "ms");
+        assert result.getSuccess() == 1000000 && result.getFail() == 0;
+        assert total.get() == 49500000L;
+    }
+}
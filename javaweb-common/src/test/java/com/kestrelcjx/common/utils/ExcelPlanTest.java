@@ -0,0 +1,171 @@
+package com.kestrelcjx.common.utils;
+
+import com.kestrelcjx.common.annotation.Excel;
+import com.kestrelcjx.common.annotation.Excels;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class ExcelPlanTest {
+    public static class BaseBean {
+        @Excel(name = "编号")
+        private Integer id;
+
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+    }
+
+    public static class Dept {
+        private String name;
+        private Dept parent;
+
+        public String getName() {
+            return name;
+        }
+
+        public Dept setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Dept getParent() {
+            return parent;
+        }
+
+        public Dept setParent(Dept parent) {
+            this.parent = parent;
+            return this;
+        }
+    }
+
+    public static class User extends BaseBean {
+        @Excel(name = "姓名")
+        private String name;
+        @Excel(name = "性别", readConverterExp = "0=男,1=女,2=未知")
+        private Integer gender;
+        @Excel(name = "年龄")
+        private int age;
+        @Excel(name = "创建时间", dateFormat = "yyyy-MM-dd", type = Excel.Type.EXPORT)
+        private Date createTime;
+        @Excels({
+                @Excel(name = "部门", targetAttr = "name"),
+                @Excel(name = "上级部门", targetAttr = "parent.name", type = Excel.Type.EXPORT)
+        })
+        private Dept dept;
+        private String remark;
+    }
+
+    @Test
+    public void testColumns() {
+        ExcelPlan<User> export = ExcelPlan.of(User.class, Excel.Type.EXPORT);
+        List<String> names = new ArrayList<>();
+        for (ExcelPlan.Column column : export.getColumns()) {
+            names.add(column.getAttr().name());
+        }
+        assert names.equals(Arrays.asList("编号", "姓名", "性别", "年龄", "创建时间", "部门", "上级部门"));
+        assert export == ExcelPlan.of(User.class, Excel.Type.EXPORT);
+        ExcelPlan<User> imports = ExcelPlan.of(User.class, Excel.Type.IMPORT);
+        assert imports.getColumns().size() == 5;
+        assert imports.getColumns().get(4).getValueType() == String.class;
+    }
+
+    @Test
+    public void testAccess() {
+        List<ExcelPlan.Column> columns = ExcelPlan.of(User.class, Excel.Type.EXPORT).getColumns();
+        User user = new User();
+        columns.get(0).set(user, 7);
+        columns.get(1).set(user, "张三");
+        columns.get(2).set(user, 1);
+        columns.get(3).set(user, 20);
+        assert user.getId() == 7 && user.name.equals("张三") && user.gender == 1 && user.age == 20;
+        // 属性链中间对象为null
+        assert columns.get(5).get(user) == null && columns.get(6).get(user) == null;
+        columns.get(5).set(user, "研发部");
+        assert user.dept == null;
+        user.dept = new Dept().setName("研发部").setParent(new Dept().setName("总公司"));
+        assert columns.get(5).get(user).equals("研发部");
+        assert columns.get(6).get(user).equals("总公司");
+        columns.get(5).set(user, "市场部");
+        assert user.dept.getName().equals("市场部");
+        // 转换表达式
+        ExcelPlan.Column gender = columns.get(2);
+        assert gender.convert("1").equals("女") && gender.convert("9").equals("9");
+        assert gender.reverse("未知").equals("2") && gender.reverse("男").equals("0");
+        assert !columns.get(1).hasConverter() && columns.get(1).convert("x").equals("x");
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        // 10万行×7列：逐单元格反射读取+拆分转换表达式，对比预编译列计划
+        List<User> list = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            User user = new User();
+            user.setId(i);
+            user.name = "用户" + i;
+            user.gender = i % 3;
+            user.age = i % 100;
+            user.createTime = new Date();
+            user.dept = new Dept().setName("部门" + i % 50).setParent(new Dept().setName("总公司"));
+            list.add(user);
+        }
+        List<ExcelPlan.Column> columns = ExcelPlan.of(User.class, Excel.Type.EXPORT).getColumns();
+        for (int round = 0; round < 3; round++) {
+            long begin = System.nanoTime();
+            long reflectHash = 0;
+            for (User user : list) {
+                for (ExcelPlan.Column column : columns) {
+                    reflectHash += String.valueOf(reflectValue(user, column.getField(), column.getAttr())).hashCode();
+                }
+            }
+            long reflectTime = System.nanoTime() - begin;
+            begin = System.nanoTime();
+            long planHash = 0;
+            for (User user : list) {
+                for (ExcelPlan.Column column : columns) {
+                    Object value = column.get(user);
+                    if (value != null && column.hasConverter()) {
+                        value = column.convert(String.valueOf(value));
+                    }
+                    planHash += String.valueOf(value).hashCode();
+                }
+            }
+            long planTime = System.nanoTime() - begin;
+            assert reflectHash == planHash;
+            System.out.println("Excel列读取：反射 " + reflectTime / 1000000 + "ms，列计划 " + planTime / 1000000 + "ms");
+        }
+    }
+
+    /**
+     * 原实现：Field.get + 按名称查找getter + 每次拆分转换表达式
+     */
+    private static Object reflectValue(Object vo, Field field, Excel attr) throws Exception {
+        field.setAccessible(true);
+        Object o = field.get(vo);
+        if (StringUtils.isNotEmpty(attr.targetAttr())) {
+            for (String name : attr.targetAttr().split("[.]")) {
+                if (o == null) {
+                    return null;
+                }
+                o = o.getClass().getMethod("get" + name.substring(0, 1).toUpperCase() + name.substring(1)).invoke(o);
+            }
+        }
+        if (o != null && StringUtils.isNotEmpty(attr.readConverterExp())) {
+            for (String item : attr.readConverterExp().split(",")) {
+                String[] itemArray = item.split("=");
+                if (itemArray[0].equals(String.valueOf(o))) {
+                    return itemArray[1];
+                }
+            }
+        }
+        return o;
+    }
+}
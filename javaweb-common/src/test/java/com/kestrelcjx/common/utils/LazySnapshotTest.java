@@ -0,0 +1,69 @@
+package com.kestrelcjx.common.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LazySnapshotTest {
+    @Test
+    public void testGetAndInvalidate() {
+        AtomicInteger loads = new AtomicInteger();
+        LazySnapshot<Integer> snapshot = new LazySnapshot<>(loads::incrementAndGet);
+        assert snapshot.peek() == null;
+        assert snapshot.get() == 1 && snapshot.get() == 1 && snapshot.peek() == 1;
+        snapshot.invalidate();
+        assert snapshot.peek() == null && snapshot.getGeneration() == 1;
+        assert snapshot.get() == 2 && loads.get() == 2;
+    }
+
+    @Test
+    public void testUpdate() {
+        AtomicInteger loads = new AtomicInteger();
+        LazySnapshot<Integer> snapshot = new LazySnapshot<>(() -> loads.incrementAndGet() * 10);
+        // 未加载时不处理
+        snapshot.update(value -> value + 1);
+        assert snapshot.peek() == null;
+        assert snapshot.get() == 10;
+        snapshot.update(value -> value + 1);
+        assert snapshot.get() == 11 && loads.get() == 1;
+        // 生成期间发生失效时不替换
+        snapshot.update(value -> {
+            snapshot.invalidate();
+            return value + 1;
+        });
+        assert snapshot.peek() == null && snapshot.get() == 20;
+    }
+
+    @Test
+    public void testInvalidateDuringLoad() throws Exception {
+        // 加载读取旧数据后发生失效，旧数据只返回给本次调用，不作为快照保留
+        AtomicInteger data = new AtomicInteger(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        LazySnapshot<Integer> snapshot = new LazySnapshot<>(() -> {
+            int value = data.get();
+            if (value == 1) {
+                loaded.countDown();
+                try {
+                    evicted.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return value;
+        });
+        AtomicReference<Integer> first = new AtomicReference<>();
+        Thread loader = new Thread(() -> first.set(snapshot.get()));
+        loader.start();
+        loaded.await();
+        data.set(2);
+        snapshot.invalidate();
+        evicted.countDown();
+        loader.join();
+        assert first.get() == 1;
+        assert snapshot.peek() == null;
+        assert snapshot.get() == 2;
+    }
+}
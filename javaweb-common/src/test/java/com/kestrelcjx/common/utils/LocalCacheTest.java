@@ -0,0 +1,45 @@
+package com.kestrelcjx.common.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class LocalCacheTest {
+    @Test
+    public void testGetAndPut() {
+        LocalCache<Integer, String> cache = new LocalCache<>(10, 0, TimeUnit.SECONDS);
+        assert cache.get(1) == null;
+        cache.put(1, "a");
+        assert "a".equals(cache.get(1));
+        assert cache.getHitCount() == 1;
+        assert cache.getMissCount() == 1;
+        assert "b".equals(cache.get(2, key -> "b"));
+        assert cache.size() == 2;
+        cache.remove(1);
+        assert cache.get(1) == null;
+    }
+
+    @Test
+    public void testEvictEldest() {
+        LocalCache<Integer, String> cache = new LocalCache<>(2, 0, TimeUnit.SECONDS);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        // 访问1，使2成为最久未访问的记录
+        cache.get(1);
+        cache.put(3, "c");
+        assert cache.size() == 2;
+        assert cache.get(2) == null;
+        assert "a".equals(cache.get(1));
+        assert cache.getEvictionCount() == 1;
+    }
+
+    @Test
+    public void testExpire() {
+        LocalCache<Integer, String> cache = new LocalCache<>(10, 50, TimeUnit.MILLISECONDS);
+        cache.put(1, "a");
+        assert "a".equals(cache.get(1));
+        ThreadUtils.sleep(100L);
+        assert cache.get(1) == null;
+        assert cache.getEvictionCount() == 1;
+    }
+}
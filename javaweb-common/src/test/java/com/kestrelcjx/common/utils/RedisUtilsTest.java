@@ -0,0 +1,148 @@
+package com.kestrelcjx.common.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 需要本地Redis（localhost:6379），无法连接时跳过
+ */
+public class RedisUtilsTest {
+    private static final String PREFIX = "test:redisutils:";
+    private static final int COUNT = 10000;
+
+    private LettuceConnectionFactory factory;
+    private RedisUtils redisUtils;
+
+    @Before
+    public void setUp() {
+        factory = new LettuceConnectionFactory("localhost", 6379);
+        factory.afterPropertiesSet();
+        try (RedisConnection connection = factory.getConnection()) {
+            connection.ping();
+        } catch (Exception e) {
+            System.out.println("本地Redis不可用，跳过：" + e.getMessage());
+            factory.destroy();
+            factory = null;
+            return;
+        }
+        redisUtils = new RedisUtils();
+        redisUtils.setRedisTemplate(createTemplate(true));
+        redisUtils.setFastTemplate(createTemplate(false));
+    }
+
+    @After
+    public void tearDown() {
+        if (factory != null) {
+            redisUtils.delByPattern(PREFIX + "*", 1000);
+            factory.destroy();
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        if (factory == null) {
+            return;
+        }
+        List<Object> results = redisUtils.batch()
+                .set(PREFIX + "a", "1")
+                .set(PREFIX + "b", 2, 60)
+                .get(PREFIX + "a")
+                .get(PREFIX + "b")
+                .sSet(PREFIX + "s", "x", "y")
+                .expire(PREFIX + "s", 60)
+                .del(PREFIX + "a", PREFIX + "none")
+                .get(PREFIX + "a")
+                .execute();
+        assert results.size() == 8;
+        assert "1".equals(results.get(2)) && Integer.valueOf(2).equals(results.get(3));
+        assert Long.valueOf(2).equals(results.get(4));
+        assert Long.valueOf(1).equals(results.get(6));
+        assert results.get(7) == null;
+        assert redisUtils.getExpire(PREFIX + "s") > 0;
+        assert redisUtils.batch().execute().isEmpty();
+    }
+
+    @Test
+    public void testScan() {
+        if (factory == null) {
+            return;
+        }
+        RedisUtils.Batch batch = redisUtils.batch();
+        for (int i = 0; i < COUNT; i++) {
+            batch.set(PREFIX + "scan:" + i, i, 60);
+        }
+        batch.execute();
+        try (Stream<String> stream = redisUtils.scan(PREFIX + "scan:*", 500)) {
+            assert stream.distinct().count() == COUNT;
+        }
+        assert redisUtils.keys(PREFIX + "scan:*").size() == COUNT;
+        assert redisUtils.delByPattern(PREFIX + "scan:*", 1000) == COUNT;
+        assert redisUtils.keys(PREFIX + "scan:*").isEmpty();
+    }
+
+    @Test
+    public void testThroughput() {
+        if (factory == null) {
+            return;
+        }
+        // 1万个键的写入、读取、删除：逐个执行各1万次往返，管道各1次
+        List<String> keys = new ArrayList<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            keys.add(PREFIX + "bench:" + i);
+        }
+        for (int round = 0; round < 3; round++) {
+            long begin = System.nanoTime();
+            for (String key : keys) {
+                redisUtils.set(key, key, 60);
+            }
+            long hits = 0;
+            for (String key : keys) {
+                hits += redisUtils.get(key) != null ? 1 : 0;
+            }
+            for (String key : keys) {
+                redisUtils.del(key);
+            }
+            long singleTime = System.nanoTime() - begin;
+            assert hits == COUNT;
+
+            begin = System.nanoTime();
+            RedisUtils.Batch set = redisUtils.batch();
+            RedisUtils.Batch get = redisUtils.batch();
+            RedisUtils.Batch del = redisUtils.batch();
+            for (String key : keys) {
+                set.set(key, key, 60);
+                get.get(key);
+                del.del(key);
+            }
+            set.execute();
+            long pipelineHits = get.execute().stream().filter(value -> value != null).count();
+            del.execute();
+            long pipelineTime = System.nanoTime() - begin;
+            assert pipelineHits == COUNT;
+            System.out.println("Redis 1万键写读删：逐个 " + COUNT * 3 + "次往返 " + singleTime / 1000000
+                    + "ms，管道 3次往返 " + pipelineTime / 1000000 + "ms");
+        }
+    }
+
+    private RedisTemplate<String, Object> createTemplate(boolean enableTransactionSupport) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setEnableTransactionSupport(enableTransactionSupport);
+        template.setConnectionFactory(factory);
+        template.afterPropertiesSet();
+        return template;
+    }
+}
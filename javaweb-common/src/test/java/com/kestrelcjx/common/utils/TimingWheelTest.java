@@ -0,0 +1,60 @@
+package com.kestrelcjx.common.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TimingWheelTest {
+    @Test
+    public void testExpireOnTime() {
+        // 刻度10毫秒，每层16格，共2层（一圈2560毫秒）
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, 2, 0);
+        Random random = new Random(1);
+        long[] deadlines = new long[2000];
+        for (int i = 0; i < deadlines.length; i++) {
+            // 含超出最高层一圈的任务
+            deadlines[i] = random.nextInt(10000);
+            wheel.add(i, deadlines[i]);
+        }
+        assert wheel.size() == deadlines.length;
+        int count = 0;
+        for (long now = 0; now <= 10000; now += 7) {
+            for (TimingWheel.Timeout<Integer> timeout : wheel.advance(now)) {
+                long deadline = deadlines[timeout.getTask()];
+                // 不提前到期，延迟不超过一个刻度加推进间隔
+                assert deadline <= now;
+                assert now - deadline < 10 + 7;
+                count++;
+            }
+        }
+        assert count == deadlines.length;
+        assert wheel.size() == 0;
+    }
+
+    @Test
+    public void testAddWhileAdvancing() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 6, 3, 1000);
+        wheel.advance(5000);
+        wheel.add("past", 4000);
+        wheel.add("later", 5150);
+        List<String> expired = new ArrayList<>();
+        wheel.advance(5000).forEach(timeout -> expired.add(timeout.getTask()));
+        assert expired.size() == 1 && "past".equals(expired.get(0));
+        assert wheel.advance(5100).isEmpty();
+        wheel.advance(5200).forEach(timeout -> expired.add(timeout.getTask()));
+        assert expired.size() == 2 && "later".equals(expired.get(1));
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 2, 0);
+        TimingWheel.Timeout<String> a = wheel.add("a", 500);
+        wheel.add("b", 500);
+        a.cancel();
+        List<TimingWheel.Timeout<String>> expired = wheel.advance(1000);
+        assert expired.size() == 1 && "b".equals(expired.get(0).getTask());
+        assert wheel.size() == 0;
+    }
+}
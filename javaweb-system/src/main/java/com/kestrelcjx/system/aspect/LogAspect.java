@@ -8,8 +8,7 @@ import com.kestrelcjx.common.utils.ServletUtils;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.entity.Admin;
 import com.kestrelcjx.system.entity.OperLog;
-import com.kestrelcjx.system.manager.AsyncFactory;
-import com.kestrelcjx.system.manager.AsyncManager;
+import com.kestrelcjx.system.manager.OperLogWriter;
 import com.kestrelcjx.system.utils.ShiroUtils;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.Signature;
@@ -20,6 +19,7 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
@@ -37,6 +37,8 @@ import java.util.Map;
 @Component
 public class LogAspect {
     private static final Logger logger = LoggerFactory.getLogger(LogAspect.class);
+    @Autowired
+    private OperLogWriter operLogWriter;
 
     // 配置织入点
     @Pointcut("@annotation(com.kestrelcjx.common.annotation.Log)")
@@ -96,8 +98,8 @@ public class LogAspect {
             operLog.setRequestMethod(ServletUtils.getRequest().getMethod());
             // 处理设置注解上的参数
             getControllerMethodDescription(joinPoint, controllerLog, operLog);
-            // 保存数据库
-            AsyncManager.me().execute(AsyncFactory.recordOper(operLog));
+            // 写入缓冲队列，批量保存数据库
+            operLogWriter.offer(operLog);
         } catch (Exception exception) {
             // 记录本地异常日志
             logger.error("==前置通知异常==");
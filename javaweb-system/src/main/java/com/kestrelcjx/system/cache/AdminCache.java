@@ -0,0 +1,200 @@
+package com.kestrelcjx.system.cache;
+
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.utils.LocalCache;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.system.entity.Admin;
+import com.kestrelcjx.system.mapper.AdminMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 人员信息本地缓存
+ * 缓存人员基本信息（不含密码），人员信息变更时删除本地缓存并通过Redis发布/订阅通知其他节点
+ */
+@Component
+public class AdminCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(AdminCache.class);
+    /**
+     * 清空全部缓存的消息标识
+     */
+    private static final String EVICT_ALL = "*";
+    /**
+     * 最大缓存条数
+     */
+    @Value("${admin.cache.maxSize:2000}")
+    private Integer maxSize;
+    /**
+     * 缓存有效期（秒）
+     */
+    @Value("${admin.cache.expireSeconds:600}")
+    private Integer expireSeconds;
+    @Autowired
+    private AdminMapper adminMapper;
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private LocalCache<Integer, Admin> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new LocalCache<>(maxSize, expireSeconds, TimeUnit.SECONDS);
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(RedisConstant.REDIS_CHANNEL_ADMIN_EVICT));
+    }
+
+    /**
+     * 根据人员ID获取人员信息
+     * 返回的对象为缓存共享对象，调用方不得修改
+     *
+     * @param id 人员ID
+     * @return 人员不存在或已删除时返回null
+     */
+    public Admin get(Integer id) {
+        if (id == null || id <= 0) {
+            return null;
+        }
+        // 批量获取时已删除的人员也会缓存（用于显示创建人等名称），在此过滤
+        Admin admin = cache.get(id, key -> copy(adminMapper.selectById(key)));
+        return admin != null && Integer.valueOf(1).equals(admin.getMark()) ? admin : null;
+    }
+
+    /**
+     * 根据人员ID集合批量获取人员信息，未命中的人员通过一次IN查询加载
+     *
+     * @param ids 人员ID集合
+     * @return 人员ID与人员信息的对应关系
+     */
+    public Map<Integer, Admin> getBatch(Collection<Integer> ids) {
+        Map<Integer, Admin> adminMap = new HashMap<>();
+        List<Integer> missIds = new ArrayList<>();
+        for (Integer id : ids) {
+            if (id == null || id <= 0 || adminMap.containsKey(id)) {
+                continue;
+            }
+            Admin admin = cache.get(id);
+            if (admin != null) {
+                adminMap.put(id, admin);
+            } else {
+                missIds.add(id);
+            }
+        }
+        if (!missIds.isEmpty()) {
+            List<Admin> adminList = adminMapper.selectBatchIds(missIds);
+            adminList.forEach(item -> {
+                Admin admin = copy(item);
+                cache.put(admin.getId(), admin);
+                adminMap.put(admin.getId(), admin);
+            });
+        }
+        return adminMap;
+    }
+
+    /**
+     * 删除人员缓存，并通知其他节点
+     *
+     * @param ids 人员ID
+     */
+    public void evict(Integer... ids) {
+        if (ids == null || ids.length == 0) {
+            return;
+        }
+        for (Integer id : ids) {
+            cache.remove(id);
+        }
+        publish(StringUtils.join(ids, ","));
+    }
+
+    /**
+     * 清空人员缓存，并通知其他节点
+     */
+    public void evictAll() {
+        cache.clear();
+        publish(EVICT_ALL);
+    }
+
+    /**
+     * 接收其他节点的缓存失效通知
+     *
+     * @param message 消息
+     * @param pattern 频道
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.deserialize(message.getBody());
+        if (body == null) {
+            return;
+        }
+        String ids = body.toString();
+        if (EVICT_ALL.equals(ids)) {
+            cache.clear();
+            return;
+        }
+        for (String id : ids.split(",")) {
+            if (StringUtils.isNotEmpty(id)) {
+                cache.remove(Integer.valueOf(id.trim()));
+            }
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maxSize", cache.getMaxSize());
+        stats.put("hitCount", cache.getHitCount());
+        stats.put("missCount", cache.getMissCount());
+        stats.put("evictionCount", cache.getEvictionCount());
+        stats.put("hitRate", cache.getHitRate());
+        return stats;
+    }
+
+    /**
+     * 发布缓存失效通知，发布失败不影响本地缓存的删除
+     *
+     * @param message 消息
+     */
+    private void publish(String message) {
+        try {
+            redisUtils.publish(RedisConstant.REDIS_CHANNEL_ADMIN_EVICT, message);
+        } catch (Exception e) {
+            logger.error("人员缓存失效通知发布失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 复制人员信息，去除密码等敏感信息
+     *
+     * @param admin 人员信息
+     * @return
+     */
+    private Admin copy(Admin admin) {
+        if (admin == null) {
+            return null;
+        }
+        Admin entity = new Admin();
+        BeanUtils.copyProperties(admin, entity);
+        entity.setPassword(null);
+        entity.setSalt(null);
+        return entity;
+    }
+}
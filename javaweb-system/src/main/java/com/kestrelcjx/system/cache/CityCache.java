@@ -0,0 +1,377 @@
+package com.kestrelcjx.system.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.common.utils.TransactionUtils;
+import com.kestrelcjx.system.entity.City;
+import com.kestrelcjx.system.mapper.CityMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 城市本地缓存
+ * 启动时一次加载全部城市，以数组保存上级下标及子级偏移，城市路径按拼接字符整体预计算，查询时不再访问数据库
+ * 城市变更时在后台重建（重建期间继续使用旧数据），并通过Redis发布/订阅通知其他节点；
+ * 每次变更代次加1，重建结果按开始加载时的代次替换，先开始的重建晚结束时不会覆盖较新的数据
+ */
+@Component
+public class CityCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(CityCache.class);
+    @Autowired
+    private CityMapper cityMapper;
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * 城市树快照（为空时下次访问同步加载）
+     */
+    private volatile CityTree tree;
+    /**
+     * 变更代次
+     */
+    private final AtomicLong generation = new AtomicLong();
+    /**
+     * 当前城市树开始加载时的代次
+     */
+    private long treeGeneration = -1;
+    /**
+     * 是否已提交后台重建任务（合并短时间内的多次变更）
+     */
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(RedisConstant.REDIS_CHANNEL_CITY_RELOAD));
+        rebuild();
+    }
+
+    /**
+     * 根据城市ID获取城市路径名称（不含顶级节点）
+     *
+     * @param cityId    城市ID
+     * @param delimiter 拼接字符
+     * @return 城市不存在时返回空字符串
+     */
+    public String getPath(Integer cityId, String delimiter) {
+        if (cityId == null) {
+            return "";
+        }
+        return getTree().getPath(cityId, delimiter);
+    }
+
+    /**
+     * 批量获取城市路径名称，供列表接口使用
+     *
+     * @param cityIds   城市ID
+     * @param delimiter 拼接字符
+     * @return 与城市ID一一对应，城市不存在时为空字符串
+     */
+    public String[] resolvePaths(int[] cityIds, String delimiter) {
+        CityTree cityTree = getTree();
+        String[] paths = new String[cityIds.length];
+        for (int i = 0; i < cityIds.length; i++) {
+            paths[i] = cityTree.getPath(cityIds[i], delimiter);
+        }
+        return paths;
+    }
+
+    /**
+     * 根据父级城市ID获取子级城市列表
+     *
+     * @param pid 父级ID
+     * @return
+     */
+    public List<Map<String, Object>> getChildren(Integer pid) {
+        if (pid == null) {
+            return new ArrayList<>();
+        }
+        return getTree().getChildren(pid);
+    }
+
+    /**
+     * 城市数据变更后重建本地缓存，并通知其他节点（在事务中调用时于提交后执行）
+     */
+    public void reload() {
+        TransactionUtils.afterCommit(() -> {
+            rebuild();
+            try {
+                redisUtils.publish(RedisConstant.REDIS_CHANNEL_CITY_RELOAD, "*");
+            } catch (Exception e) {
+                logger.error("城市数据变更通知发布失败：{}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 接收其他节点的变更通知
+     *
+     * @param message 消息
+     * @param pattern 频道
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        rebuild();
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        CityTree cityTree = tree;
+        stats.put("cityCount", cityTree != null ? cityTree.ids.length : 0);
+        stats.put("delimiterCount", cityTree != null ? cityTree.pathMap.size() : 0);
+        return stats;
+    }
+
+    /**
+     * 提交后台重建任务，已有任务等待执行时不再重复提交
+     */
+    private void rebuild() {
+        generation.incrementAndGet();
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        scheduledExecutorService.execute(() -> {
+            rebuildPending.set(false);
+            try {
+                long start = generation.get();
+                install(start, load());
+            } catch (Exception e) {
+                logger.error("城市缓存重建失败：{}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 替换城市树，开始加载时的代次早于当前城市树时丢弃
+     *
+     * @param start    开始加载时的代次
+     * @param cityTree 城市树
+     */
+    private synchronized void install(long start, CityTree cityTree) {
+        if (start > treeGeneration) {
+            tree = cityTree;
+            treeGeneration = start;
+        }
+    }
+
+    /**
+     * 获取城市树快照，后台加载尚未完成时同步加载
+     *
+     * @return
+     */
+    private CityTree getTree() {
+        CityTree cityTree = tree;
+        if (cityTree == null) {
+            synchronized (this) {
+                cityTree = tree;
+                if (cityTree == null) {
+                    long start = generation.get();
+                    cityTree = load();
+                    install(start, cityTree);
+                }
+            }
+        }
+        return cityTree;
+    }
+
+    /**
+     * 加载全部城市（含已删除城市，历史数据仍需显示名称）
+     *
+     * @return
+     */
+    private CityTree load() {
+        QueryWrapper<City> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("id", "pid", "name", "mark");
+        queryWrapper.orderByAsc("id");
+        List<City> cityList = cityMapper.selectList(queryWrapper);
+        CityTree cityTree = new CityTree(cityList);
+        logger.info("加载城市缓存完成，城市数：{}", cityTree.ids.length);
+        return cityTree;
+    }
+
+    /**
+     * 城市树快照（加载后不可变）
+     */
+    private static final class CityTree {
+        /**
+         * 城市路径最大层级（防止脏数据成环）
+         */
+        private static final int MAX_DEPTH = 16;
+        /**
+         * 最多预计算的拼接字符数，超出后按需计算
+         */
+        private static final int MAX_DELIMITER = 8;
+        /**
+         * 城市ID（升序）
+         */
+        private final int[] ids;
+        /**
+         * 上级城市下标，上级不存在时为-1
+         */
+        private final int[] parents;
+        /**
+         * 城市名称
+         */
+        private final String[] names;
+        /**
+         * 子级偏移：下标0为顶级城市（pid=0），下标i+1为第i个城市的子级，子级下标位于children[offsets[k], offsets[k+1])
+         */
+        private final int[] offsets;
+        /**
+         * 正常状态的子级城市下标（按城市ID升序）
+         */
+        private final int[] children;
+        /**
+         * 拼接字符与全部城市路径的对应关系
+         */
+        private final Map<String, String[]> pathMap = new ConcurrentHashMap<>();
+
+        private CityTree(List<City> cityList) {
+            int size = cityList.size();
+            ids = new int[size];
+            parents = new int[size];
+            names = new String[size];
+            for (int i = 0; i < size; i++) {
+                City city = cityList.get(i);
+                ids[i] = city.getId();
+                names[i] = city.getName() != null ? city.getName() : "";
+            }
+            // 子级槽位：0为顶级，-1为自身已删除或上级不存在（不出现在下拉列表）
+            int[] slots = new int[size];
+            offsets = new int[size + 2];
+            for (int i = 0; i < size; i++) {
+                City city = cityList.get(i);
+                int pid = city.getPid() != null ? city.getPid() : 0;
+                parents[i] = pid > 0 ? Math.max(indexOf(pid), -1) : -1;
+                if (city.getMark() == null || city.getMark() != 1) {
+                    slots[i] = -1;
+                } else if (pid <= 0) {
+                    slots[i] = 0;
+                } else {
+                    slots[i] = parents[i] >= 0 ? parents[i] + 1 : -1;
+                }
+                if (slots[i] >= 0) {
+                    offsets[slots[i] + 1]++;
+                }
+            }
+            for (int i = 1; i < offsets.length; i++) {
+                offsets[i] += offsets[i - 1];
+            }
+            children = new int[offsets[offsets.length - 1]];
+            int[] cursor = Arrays.copyOf(offsets, size + 1);
+            for (int i = 0; i < size; i++) {
+                if (slots[i] >= 0) {
+                    children[cursor[slots[i]]++] = i;
+                }
+            }
+        }
+
+        /**
+         * 根据城市ID获取下标
+         *
+         * @param id 城市ID
+         * @return 不存在时返回负数
+         */
+        private int indexOf(int id) {
+            return Arrays.binarySearch(ids, id);
+        }
+
+        /**
+         * 获取城市路径名称
+         * 与逐级查询保持一致：自身及上级中ID大于1的城市按层级拼接
+         *
+         * @param id        城市ID
+         * @param delimiter 拼接字符
+         * @return
+         */
+        private String getPath(int id, String delimiter) {
+            int index = indexOf(id);
+            if (index < 0) {
+                return "";
+            }
+            String[] paths = pathMap.get(delimiter);
+            if (paths == null) {
+                if (pathMap.size() >= MAX_DELIMITER) {
+                    return buildPath(index, delimiter);
+                }
+                paths = pathMap.computeIfAbsent(delimiter, this::buildPaths);
+            }
+            return paths[index];
+        }
+
+        /**
+         * 按拼接字符计算全部城市路径
+         *
+         * @param delimiter 拼接字符
+         * @return
+         */
+        private String[] buildPaths(String delimiter) {
+            String[] paths = new String[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                paths[i] = buildPath(i, delimiter);
+            }
+            return paths;
+        }
+
+        private String buildPath(int index, String delimiter) {
+            String[] segments = new String[MAX_DEPTH];
+            int depth = 0;
+            while (index >= 0 && ids[index] > 1 && depth < MAX_DEPTH) {
+                segments[depth++] = names[index];
+                index = parents[index];
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int i = depth - 1; i >= 0; i--) {
+                sb.append(segments[i]);
+                if (i > 0) {
+                    sb.append(delimiter);
+                }
+            }
+            return sb.toString();
+        }
+
+        /**
+         * 获取正常状态的子级城市
+         *
+         * @param pid 父级ID
+         * @return
+         */
+        private List<Map<String, Object>> getChildren(int pid) {
+            int slot = pid <= 0 ? 0 : indexOf(pid) + 1;
+            if (slot <= 0 && pid > 0) {
+                return new ArrayList<>();
+            }
+            List<Map<String, Object>> mapList = new ArrayList<>(offsets[slot + 1] - offsets[slot]);
+            for (int i = offsets[slot]; i < offsets[slot + 1]; i++) {
+                Map<String, Object> map = new HashMap<>();
+                map.put("id", ids[children[i]]);
+                map.put("name", names[children[i]]);
+                mapList.add(map);
+            }
+            return mapList;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.kestrelcjx.system.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.kestrelcjx.common.tree.Hierarchy;
+import com.kestrelcjx.system.entity.Dep;
+import com.kestrelcjx.system.mapper.DepMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 部门层级缓存
+ * 含已删除部门，历史数据仍可显示名称路径
+ */
+@Component
+public class DepCache extends HierarchyCache<Dep> {
+    @Autowired
+    private DepMapper depMapper;
+
+    @Override
+    protected String getCacheName() {
+        return "dep";
+    }
+
+    @Override
+    protected List<Dep> loadList() {
+        QueryWrapper<Dep> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("id", "pid", "name");
+        queryWrapper.orderByAsc("sort");
+        queryWrapper.orderByAsc("id");
+        return depMapper.selectList(queryWrapper);
+    }
+
+    @Override
+    protected Hierarchy build(List<Dep> list) {
+        return Hierarchy.of(list, Dep::getId, item -> item.getPid() != null ? item.getPid() : 0, Dep::getName);
+    }
+}
@@ -0,0 +1,192 @@
+package com.kestrelcjx.system.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.tree.Hierarchy;
+import com.kestrelcjx.common.utils.LazySnapshot;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.common.utils.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 层级数据本地缓存基类
+ * 一次加载全部数据生成不可变的层级快照（祖先数组、先序遍历区间、名称路径），数据变更提交后整体替换快照；
+ * 各缓存共用一个Redis频道，消息内容为缓存名称，其他节点收到后清空对应快照
+ *
+ * @param <T> 实体类型
+ */
+public abstract class HierarchyCache<T> implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(HierarchyCache.class);
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 层级快照（失效后下次访问重新加载）
+     */
+    private final LazySnapshot<Hierarchy> hierarchy = new LazySnapshot<>(this::load);
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(RedisConstant.REDIS_CHANNEL_HIERARCHY_EVICT));
+    }
+
+    /**
+     * 缓存名称（用于区分失效通知）
+     *
+     * @return
+     */
+    protected abstract String getCacheName();
+
+    /**
+     * 加载全部数据（同级按显示顺序排列）
+     *
+     * @return
+     */
+    protected abstract List<T> loadList();
+
+    /**
+     * 实体转为层级快照
+     *
+     * @param list 实体列表
+     * @return
+     */
+    protected abstract Hierarchy build(List<T> list);
+
+    /**
+     * 获取层级快照，不存在时从数据库加载
+     * 快照不可变，同一请求内多次查询应复用同一快照
+     *
+     * @return
+     */
+    public Hierarchy getHierarchy() {
+        return hierarchy.get();
+    }
+
+    /**
+     * 获取名称路径
+     *
+     * @param id        节点ID
+     * @param delimiter 拼接字符
+     * @return 不存在时返回空字符串
+     */
+    public String getPath(Integer id, String delimiter) {
+        if (id == null || id <= 0) {
+            return "";
+        }
+        return getHierarchy().getPath(id, delimiter);
+    }
+
+    /**
+     * 批量获取名称路径
+     *
+     * @param ids       节点ID
+     * @param delimiter 拼接字符
+     * @return 与节点ID一一对应，不存在时为空字符串
+     */
+    public String[] resolvePaths(int[] ids, String delimiter) {
+        return getHierarchy().resolvePaths(ids, delimiter);
+    }
+
+    /**
+     * 获取自身及全部下级ID
+     *
+     * @param id 节点ID
+     * @return 不存在时返回空集合
+     */
+    public List<Integer> getSubtreeIds(Integer id) {
+        List<Integer> idList = new ArrayList<>();
+        if (id != null) {
+            for (int subId : getHierarchy().getDescendantIds(id, true)) {
+                idList.add(subId);
+            }
+        }
+        return idList;
+    }
+
+    /**
+     * 添加“属于指定节点及其下级”的查询条件（单个IN条件，无需递归查询）
+     *
+     * @param queryWrapper 查询条件
+     * @param column       关联字段
+     * @param id           节点ID
+     * @param <E>          查询实体类型
+     */
+    public <E> void inSubtree(QueryWrapper<E> queryWrapper, String column, Integer id) {
+        List<Integer> idList = getSubtreeIds(id);
+        if (idList.isEmpty()) {
+            // 节点不存在时按原值查询
+            queryWrapper.eq(column, id);
+        } else if (idList.size() == 1) {
+            queryWrapper.eq(column, idList.get(0));
+        } else {
+            queryWrapper.in(column, idList);
+        }
+    }
+
+    /**
+     * 清空本地快照，并通知其他节点（在事务中调用时于提交后执行）
+     */
+    public void evictAll() {
+        TransactionUtils.afterCommit(() -> {
+            hierarchy.invalidate();
+            try {
+                redisUtils.publish(RedisConstant.REDIS_CHANNEL_HIERARCHY_EVICT, getCacheName());
+            } catch (Exception e) {
+                logger.error("{}层级缓存失效通知发布失败：{}", getCacheName(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 接收其他节点的失效通知
+     *
+     * @param message 消息
+     * @param pattern 频道
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.deserialize(message.getBody());
+        if (body == null || getCacheName().equals(body.toString())) {
+            hierarchy.invalidate();
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Hierarchy snapshot = hierarchy.peek();
+        stats.put("name", getCacheName());
+        stats.put("size", snapshot != null ? snapshot.size() : 0);
+        return stats;
+    }
+
+    /**
+     * 从数据库加载层级快照
+     *
+     * @return
+     */
+    private Hierarchy load() {
+        Hierarchy snapshot = build(loadList());
+        logger.info("加载{}层级缓存完成，节点数：{}", getCacheName(), snapshot.size());
+        return snapshot;
+    }
+}
@@ -0,0 +1,39 @@
+package com.kestrelcjx.system.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.kestrelcjx.common.tree.Hierarchy;
+import com.kestrelcjx.system.entity.ItemCate;
+import com.kestrelcjx.system.mapper.ItemCateMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 栏目层级缓存
+ * 含已删除栏目，历史数据仍可显示名称路径
+ */
+@Component
+public class ItemCateCache extends HierarchyCache<ItemCate> {
+    @Autowired
+    private ItemCateMapper itemCateMapper;
+
+    @Override
+    protected String getCacheName() {
+        return "itemCate";
+    }
+
+    @Override
+    protected List<ItemCate> loadList() {
+        QueryWrapper<ItemCate> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("id", "pid", "name");
+        queryWrapper.orderByDesc("sort");
+        queryWrapper.orderByAsc("id");
+        return itemCateMapper.selectList(queryWrapper);
+    }
+
+    @Override
+    protected Hierarchy build(List<ItemCate> list) {
+        return Hierarchy.of(list, ItemCate::getId, item -> item.getPid() != null ? item.getPid() : 0, ItemCate::getName);
+    }
+}
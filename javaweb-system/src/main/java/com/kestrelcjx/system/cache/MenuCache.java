@@ -0,0 +1,268 @@
+package com.kestrelcjx.system.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.utils.LazySnapshot;
+import com.kestrelcjx.common.utils.LocalCache;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.common.utils.TransactionUtils;
+import com.kestrelcjx.system.entity.Menu;
+import com.kestrelcjx.system.entity.RoleMenu;
+import com.kestrelcjx.system.mapper.MenuMapper;
+import com.kestrelcjx.system.mapper.RoleMenuMapper;
+import com.kestrelcjx.system.vo.MenuListVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导航菜单本地缓存
+ * 一次加载全部菜单及角色菜单关系，按角色位图过滤后生成菜单树，按角色ID集合缓存
+ * 菜单或角色权限变更提交后清空本地缓存并通过Redis发布/订阅通知其他节点；
+ * 菜单树的缓存KEY带快照代次，清空前开始生成的菜单树写入旧代次的KEY，不会再被读取
+ */
+@Component
+public class MenuCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(MenuCache.class);
+    /**
+     * 全部菜单（超级管理员）的缓存KEY
+     */
+    private static final String ALL_MENU_KEY = "*";
+    /**
+     * 最大缓存条数（不同角色组合数）
+     */
+    @Value("${menu.cache.maxSize:500}")
+    private Integer maxSize;
+    @Autowired
+    private MenuMapper menuMapper;
+    @Autowired
+    private RoleMenuMapper roleMenuMapper;
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 菜单快照（失效后下次访问重新加载）
+     */
+    private final LazySnapshot<MenuSnapshot> snapshot = new LazySnapshot<>(this::load);
+    /**
+     * 菜单树缓存（KEY为“代次:角色ID集合”）
+     */
+    private LocalCache<String, List<MenuListVo>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new LocalCache<>(maxSize, 0, TimeUnit.SECONDS);
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(RedisConstant.REDIS_CHANNEL_MENU_EVICT));
+    }
+
+    /**
+     * 获取全部菜单树（超级管理员）
+     * 返回的菜单树为缓存共享对象，调用方不得修改
+     *
+     * @return
+     */
+    public List<MenuListVo> getAllMenu() {
+        return cache.get(getKey(ALL_MENU_KEY), key -> snapshot.get().build(null));
+    }
+
+    /**
+     * 根据角色ID集合获取菜单树
+     * 返回的菜单树为缓存共享对象，调用方不得修改
+     *
+     * @param roleIds 角色ID集合（逗号隔开）
+     * @return
+     */
+    public List<MenuListVo> getNavbarMenu(String roleIds) {
+        // 角色ID排序去重，相同角色组合共用缓存
+        Set<Integer> roleIdSet = new TreeSet<>();
+        if (StringUtils.isNotEmpty(roleIds)) {
+            for (String roleId : roleIds.split(",")) {
+                if (StringUtils.isNotEmpty(roleId.trim())) {
+                    roleIdSet.add(Integer.valueOf(roleId.trim()));
+                }
+            }
+        }
+        if (roleIdSet.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return cache.get(getKey(StringUtils.join(roleIdSet, ",")), key -> {
+            MenuSnapshot menuSnapshot = snapshot.get();
+            return menuSnapshot.build(menuSnapshot.getRoleBits(roleIdSet));
+        });
+    }
+
+    /**
+     * 清空菜单缓存，并通知其他节点（在事务中调用时于提交后执行）
+     */
+    public void evictAll() {
+        TransactionUtils.afterCommit(() -> {
+            clear();
+            try {
+                redisUtils.publish(RedisConstant.REDIS_CHANNEL_MENU_EVICT, ALL_MENU_KEY);
+            } catch (Exception e) {
+                logger.error("菜单缓存失效通知发布失败：{}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 接收其他节点的缓存失效通知
+     *
+     * @param message 消息
+     * @param pattern 频道
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        clear();
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        MenuSnapshot menuSnapshot = snapshot.peek();
+        stats.put("menuCount", menuSnapshot != null ? menuSnapshot.menus.length : 0);
+        stats.put("size", cache.size());
+        stats.put("maxSize", cache.getMaxSize());
+        stats.put("hitCount", cache.getHitCount());
+        stats.put("missCount", cache.getMissCount());
+        stats.put("hitRate", cache.getHitRate());
+        return stats;
+    }
+
+    /**
+     * 清空本地缓存
+     */
+    private void clear() {
+        snapshot.invalidate();
+        cache.clear();
+    }
+
+    /**
+     * 菜单树缓存KEY
+     * 代次在生成菜单树前取得，生成期间发生清空时结果写入旧代次的KEY
+     *
+     * @param roleIds 角色ID集合
+     * @return
+     */
+    private String getKey(String roleIds) {
+        return snapshot.getGeneration() + ":" + roleIds;
+    }
+
+    /**
+     * 加载全部正常显示的菜单及角色菜单关系
+     *
+     * @return
+     */
+    private MenuSnapshot load() {
+        QueryWrapper<Menu> menuQueryWrapper = new QueryWrapper<>();
+        menuQueryWrapper.eq("status", 1);
+        menuQueryWrapper.eq("mark", 1);
+        menuQueryWrapper.orderByAsc("sort");
+        List<Menu> menuList = menuMapper.selectList(menuQueryWrapper);
+        QueryWrapper<RoleMenu> roleMenuQueryWrapper = new QueryWrapper<>();
+        roleMenuQueryWrapper.select("role_id", "menu_id");
+        roleMenuQueryWrapper.eq("mark", 1);
+        List<RoleMenu> roleMenuList = roleMenuMapper.selectList(roleMenuQueryWrapper);
+        return new MenuSnapshot(menuList, roleMenuList);
+    }
+
+    /**
+     * 菜单快照（加载后不可变）
+     */
+    private static final class MenuSnapshot {
+        /**
+         * 全部菜单（按排序号升序）
+         */
+        private final Menu[] menus;
+        /**
+         * 上级ID与子级菜单下标的对应关系
+         */
+        private final Map<Integer, int[]> childrenMap = new HashMap<>();
+        /**
+         * 角色ID与菜单位图（位下标为菜单下标）的对应关系
+         */
+        private final Map<Integer, BitSet> roleBitsMap = new HashMap<>();
+
+        private MenuSnapshot(List<Menu> menuList, List<RoleMenu> roleMenuList) {
+            menus = menuList.toArray(new Menu[0]);
+            Map<Integer, Integer> indexMap = new HashMap<>();
+            Map<Integer, List<Integer>> childrenListMap = new HashMap<>();
+            for (int i = 0; i < menus.length; i++) {
+                indexMap.put(menus[i].getId(), i);
+                childrenListMap.computeIfAbsent(menus[i].getPid(), k -> new ArrayList<>()).add(i);
+            }
+            childrenListMap.forEach((pid, list) -> childrenMap.put(pid, list.stream().mapToInt(Integer::intValue).toArray()));
+            for (RoleMenu roleMenu : roleMenuList) {
+                Integer index = indexMap.get(roleMenu.getMenuId());
+                if (index != null) {
+                    roleBitsMap.computeIfAbsent(roleMenu.getRoleId(), k -> new BitSet(menus.length)).set(index);
+                }
+            }
+        }
+
+        /**
+         * 合并多个角色的菜单位图
+         *
+         * @param roleIds 角色ID集合
+         * @return
+         */
+        private BitSet getRoleBits(Collection<Integer> roleIds) {
+            BitSet bits = new BitSet(menus.length);
+            for (Integer roleId : roleIds) {
+                BitSet roleBits = roleBitsMap.get(roleId);
+                if (roleBits != null) {
+                    bits.or(roleBits);
+                }
+            }
+            return bits;
+        }
+
+        /**
+         * 生成菜单树
+         *
+         * @param bits 菜单位图，为空时返回全部菜单
+         * @return
+         */
+        private List<MenuListVo> build(BitSet bits) {
+            return build(0, bits);
+        }
+
+        private List<MenuListVo> build(Integer pid, BitSet bits) {
+            int[] children = childrenMap.get(pid);
+            if (children == null) {
+                return Collections.emptyList();
+            }
+            List<MenuListVo> menuListVoList = new ArrayList<>();
+            for (int index : children) {
+                if (bits != null && !bits.get(index)) {
+                    continue;
+                }
+                MenuListVo menuListVo = new MenuListVo();
+                // 拷贝属性
+                BeanUtils.copyProperties(menus[index], menuListVo);
+                menuListVo.setChildren(build(menus[index].getId(), bits));
+                menuListVoList.add(menuListVo);
+            }
+            return Collections.unmodifiableList(menuListVoList);
+        }
+    }
+}
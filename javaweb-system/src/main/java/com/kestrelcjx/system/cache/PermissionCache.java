@@ -0,0 +1,294 @@
+package com.kestrelcjx.system.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.utils.LazySnapshot;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.common.utils.TransactionUtils;
+import com.kestrelcjx.system.entity.Menu;
+import com.kestrelcjx.system.entity.Role;
+import com.kestrelcjx.system.entity.RoleMenu;
+import com.kestrelcjx.system.mapper.MenuMapper;
+import com.kestrelcjx.system.mapper.RoleMapper;
+import com.kestrelcjx.system.mapper.RoleMenuMapper;
+import com.kestrelcjx.system.shiro.MenuPermission;
+import org.apache.shiro.authz.permission.WildcardPermission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 权限位图本地缓存
+ * 以菜单ID为位下标，将每个角色拥有的菜单权限编译为位图，权限校验时按位判断
+ * 角色权限变更时只重新编译该角色，菜单变更时整体重新加载，并通过Redis发布/订阅通知其他节点；
+ * 在事务中变更时于提交后处理，加载期间发生失效时加载结果不作为快照保留
+ * 位图只保存在本地：Shiro的Redis授权缓存中只保存人员的角色ID，权限变更时无需失效授权缓存，位图由各节点按通知重新编译
+ */
+@Component
+public class PermissionCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(PermissionCache.class);
+    /**
+     * 重新加载全部权限的消息标识
+     */
+    private static final String EVICT_ALL = "*";
+    /**
+     * 当前实例（供Shiro权限对象静态访问）
+     */
+    private static PermissionCache instance;
+    @Autowired
+    private MenuMapper menuMapper;
+    @Autowired
+    private RoleMapper roleMapper;
+    @Autowired
+    private RoleMenuMapper roleMenuMapper;
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 权限快照（失效后下次访问重新加载）
+     */
+    private final LazySnapshot<Snapshot> snapshot = new LazySnapshot<>(this::load);
+
+    @PostConstruct
+    public void init() {
+        instance = this;
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(RedisConstant.REDIS_CHANNEL_PERMISSION_EVICT));
+    }
+
+    public static PermissionCache me() {
+        return instance;
+    }
+
+    /**
+     * 获取权限快照，不存在时从数据库加载
+     *
+     * @return
+     */
+    public Snapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * 将权限字符串解析为菜单权限
+     *
+     * @param permission 权限字符串
+     * @return
+     */
+    public MenuPermission resolve(String permission) {
+        return getSnapshot().resolve(permission);
+    }
+
+    /**
+     * 重新编译角色权限，并通知其他节点（在事务中调用时于提交后执行）
+     *
+     * @param roleId 角色ID
+     */
+    public void updateRole(Integer roleId) {
+        TransactionUtils.afterCommit(() -> {
+            updateRoleLocal(roleId);
+            publish(String.valueOf(roleId));
+        });
+    }
+
+    /**
+     * 重新加载全部权限，并通知其他节点（在事务中调用时于提交后执行）
+     */
+    public void evictAll() {
+        TransactionUtils.afterCommit(() -> {
+            snapshot.invalidate();
+            publish(EVICT_ALL);
+        });
+    }
+
+    /**
+     * 接收其他节点的权限变更通知
+     *
+     * @param message 消息
+     * @param pattern 频道
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.deserialize(message.getBody());
+        if (body == null || EVICT_ALL.equals(body.toString())) {
+            snapshot.invalidate();
+            return;
+        }
+        updateRoleLocal(Integer.valueOf(body.toString()));
+    }
+
+    /**
+     * 重新编译本节点的角色权限（复制快照后替换该角色位图，与加载互斥，未加载时不处理）
+     *
+     * @param roleId 角色ID
+     */
+    private void updateRoleLocal(Integer roleId) {
+        snapshot.update(current -> {
+            QueryWrapper<RoleMenu> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("menu_id");
+            queryWrapper.eq("role_id", roleId);
+            queryWrapper.eq("mark", 1);
+            BitSet bits = new BitSet();
+            roleMenuMapper.selectList(queryWrapper).forEach(item -> {
+                if (item.getMenuId() != null) {
+                    bits.set(item.getMenuId());
+                }
+            });
+            Map<Integer, BitSet> roleBitsMap = new HashMap<>(current.roleBitsMap);
+            roleBitsMap.put(roleId, bits);
+            return new Snapshot(roleBitsMap, current.exactMap, current.wildcardList, current.resolvedMap);
+        });
+    }
+
+    /**
+     * 加载全部角色、菜单权限及角色菜单关系
+     *
+     * @return
+     */
+    private Snapshot load() {
+        long start = System.currentTimeMillis();
+        // 有效角色
+        QueryWrapper<Role> roleQueryWrapper = new QueryWrapper<>();
+        roleQueryWrapper.select("id");
+        roleQueryWrapper.eq("mark", 1);
+        Map<Integer, BitSet> roleBitsMap = new HashMap<>();
+        roleMapper.selectList(roleQueryWrapper).forEach(item -> roleBitsMap.put(item.getId(), new BitSet()));
+        // 角色菜单位图
+        QueryWrapper<RoleMenu> roleMenuQueryWrapper = new QueryWrapper<>();
+        roleMenuQueryWrapper.select("role_id", "menu_id");
+        roleMenuQueryWrapper.eq("mark", 1);
+        roleMenuMapper.selectList(roleMenuQueryWrapper).forEach(item -> {
+            BitSet bits = roleBitsMap.get(item.getRoleId());
+            if (bits != null && item.getMenuId() != null) {
+                bits.set(item.getMenuId());
+            }
+        });
+        // 菜单权限
+        QueryWrapper<Menu> menuQueryWrapper = new QueryWrapper<>();
+        menuQueryWrapper.select("id", "permission");
+        menuQueryWrapper.eq("mark", 1);
+        Map<String, List<Integer>> permissionMap = new HashMap<>();
+        List<Object[]> wildcardList = new ArrayList<>();
+        for (Menu menu : menuMapper.selectList(menuQueryWrapper)) {
+            String permission = menu.getPermission();
+            if (StringUtils.isEmpty(permission)) {
+                continue;
+            }
+            permission = permission.trim();
+            if (permission.contains(WildcardPermission.WILDCARD_TOKEN) || permission.contains(WildcardPermission.SUBPART_DIVIDER_TOKEN)) {
+                // 通配符权限，解析时逐个匹配
+                wildcardList.add(new Object[]{new WildcardPermission(permission), menu.getId()});
+            } else {
+                permissionMap.computeIfAbsent(permission, k -> new ArrayList<>()).add(menu.getId());
+            }
+        }
+        Map<String, int[]> exactMap = new HashMap<>();
+        permissionMap.forEach((key, value) -> exactMap.put(key, value.stream().mapToInt(Integer::intValue).toArray()));
+        logger.info("加载权限位图完成，角色数：{}，权限数：{}，耗时：{}ms", roleBitsMap.size(),
+                exactMap.size() + wildcardList.size(), System.currentTimeMillis() - start);
+        return new Snapshot(roleBitsMap, exactMap, wildcardList, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * 发布权限变更通知，发布失败不影响本节点
+     *
+     * @param message 消息
+     */
+    private void publish(String message) {
+        try {
+            redisUtils.publish(RedisConstant.REDIS_CHANNEL_PERMISSION_EVICT, message);
+        } catch (Exception e) {
+            logger.error("权限变更通知发布失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 权限快照（创建后不可变）
+     */
+    public static final class Snapshot {
+        /**
+         * 快照版本（随机生成，用于判断已编译的权限是否过期）
+         */
+        private final long version = ThreadLocalRandom.current().nextLong();
+        /**
+         * 角色ID与菜单位图的对应关系
+         */
+        private final Map<Integer, BitSet> roleBitsMap;
+        /**
+         * 权限字符串与菜单ID的对应关系
+         */
+        private final Map<String, int[]> exactMap;
+        /**
+         * 通配符权限及菜单ID
+         */
+        private final List<Object[]> wildcardList;
+        /**
+         * 已解析的权限（菜单未变化时跨快照复用）
+         */
+        private final Map<String, MenuPermission> resolvedMap;
+
+        private Snapshot(Map<Integer, BitSet> roleBitsMap, Map<String, int[]> exactMap, List<Object[]> wildcardList,
+                         Map<String, MenuPermission> resolvedMap) {
+            this.roleBitsMap = roleBitsMap;
+            this.exactMap = exactMap;
+            this.wildcardList = wildcardList;
+            this.resolvedMap = resolvedMap;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * 合并多个角色的菜单位图
+         *
+         * @param roleIds 角色ID
+         * @return
+         */
+        public BitSet compile(int[] roleIds) {
+            BitSet bits = new BitSet();
+            for (int roleId : roleIds) {
+                BitSet roleBits = roleBitsMap.get(roleId);
+                if (roleBits != null) {
+                    bits.or(roleBits);
+                }
+            }
+            return bits;
+        }
+
+        /**
+         * 将权限字符串解析为对应的菜单ID（含通配符权限匹配）
+         *
+         * @param permission 权限字符串
+         * @return
+         */
+        private MenuPermission resolve(String permission) {
+            return resolvedMap.computeIfAbsent(permission, key -> {
+                int[] menuIds = exactMap.getOrDefault(key, new int[0]);
+                if (!wildcardList.isEmpty()) {
+                    WildcardPermission wildcardPermission = new WildcardPermission(key);
+                    for (Object[] item : wildcardList) {
+                        if (((WildcardPermission) item[0]).implies(wildcardPermission)) {
+                            menuIds = Arrays.copyOf(menuIds, menuIds.length + 1);
+                            menuIds[menuIds.length - 1] = (Integer) item[1];
+                        }
+                    }
+                }
+                return new MenuPermission(key, menuIds);
+            });
+        }
+    }
+}
@@ -2,24 +2,65 @@ package com.kestrelcjx.system.common;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.TypeReference;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.kestrelcjx.common.common.BaseEntity;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.common.IBaseService;
 import com.kestrelcjx.common.config.CommonConfig;
+import com.kestrelcjx.common.exception.CustomException;
 import com.kestrelcjx.common.utils.DateUtils;
+import com.kestrelcjx.common.utils.ExcelImporter;
+import com.kestrelcjx.common.utils.ExcelUtils;
 import com.kestrelcjx.common.utils.JsonResult;
+import com.kestrelcjx.common.utils.PageUtils;
+import com.kestrelcjx.common.utils.QueryCursor;
+import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.utils.ShiroUtils;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class BaseServiceImpl<M extends BaseMapper<T>, T extends BaseEntity>
         extends ServiceImpl<M, T> implements IBaseService<T> {
+    private static final Logger logger = LoggerFactory.getLogger(BaseServiceImpl.class);
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+    @Autowired
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    /**
+     * 导入Excel时每批写入的行数
+     */
+    @Value("${excel.import.batchSize:1000}")
+    private int importBatchSize;
+    /**
+     * 导入Excel时并行处理的批次数
+     */
+    @Value("${excel.import.threads:4}")
+    private int importThreads;
+
     /**
      * 根据查询条件获取数据列表
      *
@@ -31,6 +72,19 @@ public class BaseServiceImpl<M extends BaseMapper<T>, T extends BaseEntity>
         return null;
     }
 
+    /**
+     * 分页查询数据
+     * 默认按页码分页；传入afterId/beforeId时按ID游标分页，不统计总数
+     *
+     * @param query        查询条件
+     * @param queryWrapper 查询条件构造器（无需设置ID排序）
+     * @param isAsc        是否按ID升序
+     * @return
+     */
+    protected IPage<T> selectPage(BaseQuery query, QueryWrapper<T> queryWrapper, boolean isAsc) {
+        return PageUtils.selectPage(baseMapper, query, queryWrapper, isAsc);
+    }
+
     /**
      * 根据ID获取记录信息
      *
@@ -204,6 +258,15 @@ public class BaseServiceImpl<M extends BaseMapper<T>, T extends BaseEntity>
         return this.update(entity);
     }
 
+    /**
+     * 批量设置列表数据的添加人、更新人名称
+     *
+     * @param list 列表数据
+     */
+    protected void setUserName(List<?> list) {
+        AdminUtils.setUserName(list);
+    }
+
     /**
      * 导出Excel
      *
@@ -213,4 +276,90 @@ public class BaseServiceImpl<M extends BaseMapper<T>, T extends BaseEntity>
     public List<T> exportExcel() {
         return null;
     }
+
+    /**
+     * 按查询条件流式导出Excel，直接写入响应
+     * 通过数据库流式游标逐行读取并写入SXSSF工作簿，内存占用与导出行数无关
+     *
+     * @param query     查询条件
+     * @param sheetName 工作表名称（同时作为下载文件名）
+     * @param response  网络响应
+     */
+    @Override
+    public void exportExcel(BaseQuery query, String sheetName, HttpServletResponse response) {
+        long begin = System.currentTimeMillis();
+        try (QueryCursor<T> cursor = QueryCursor.open(sqlSessionFactory, sqlStatement(SqlMethod.SELECT_LIST),
+                getExportWrapper(query))) {
+            int count = new ExcelUtils<>(currentModelClass()).exportExcel(cursor.iterator(), sheetName, response);
+            logger.info("导出Excel：{}，{}行，耗时{}ms", sheetName, count, System.currentTimeMillis() - begin);
+        } catch (IOException e) {
+            logger.error("导出Excel异常{}", e.getMessage());
+            throw new CustomException("导出Excel失败，请联系网站管理员！");
+        }
+    }
+
+    /**
+     * 获取导出查询条件，默认导出全部未删除的记录，子类可按查询条件过滤
+     *
+     * @param query 查询条件
+     * @return
+     */
+    protected QueryWrapper<T> getExportWrapper(BaseQuery query) {
+        QueryWrapper<T> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("mark", 1);
+        queryWrapper.orderByDesc("id");
+        return queryWrapper;
+    }
+
+    /**
+     * 流式导入Excel
+     * SAX方式逐行读取，线程池中转换、校验后按批次通过JDBC批处理写入（MySQL连接参数需开启rewriteBatchedStatements），
+     * 每批（含拆分重试的每一半）在独立的新事务中写入，失败时整批回滚，
+     * 失败的批次拆分重试定位出错行，出错行及校验不通过的行记入错误明细
+     *
+     * @param inputStream      输入流
+     * @param progressListener 进度通知（可为null）
+     * @return
+     */
+    @Override
+    public ExcelImporter.Result importExcel(InputStream inputStream, Consumer<ExcelImporter.Progress> progressListener) {
+        // 工作线程中无法获取登录信息，在此先取出
+        Integer adminId = ShiroUtils.getAdminId();
+        Date now = DateUtils.now();
+        ExcelImporter<T> importer = createImporter();
+        // 工作线程中调用saveBatch不经过代理，@Transactional不生效，显式开启新事务
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (progressListener != null) {
+            importer.setProgressListener(progressListener);
+        }
+        return importer.importExcel(inputStream, threadPoolTaskExecutor.getThreadPoolExecutor(), list -> {
+            for (T entity : list) {
+                entity.setCreateUser(adminId);
+                entity.setCreateTime(now);
+                entity.setMark(1);
+                prepareImport(entity);
+            }
+            transactionTemplate.execute(status -> saveBatch(list, list.size()));
+        });
+    }
+
+    /**
+     * 创建Excel导入器，子类可设置行校验
+     *
+     * @return
+     */
+    protected ExcelImporter<T> createImporter() {
+        return new ExcelImporter<>(currentModelClass())
+                .setBatchSize(importBatchSize)
+                .setThreads(importThreads);
+    }
+
+    /**
+     * 导入的记录写入前处理（在工作线程中调用），子类可设置默认值
+     *
+     * @param entity 实体对象
+     */
+    protected void prepareImport(T entity) {
+    }
 }
@@ -0,0 +1,25 @@
+package com.kestrelcjx.system.config;
+
+import com.kestrelcjx.common.codec.CompactRedisSerializer;
+import com.kestrelcjx.system.entity.Admin;
+import com.kestrelcjx.system.entity.Menu;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Redis紧凑编码的类注册（类ID：100-199，一经使用不能更改）
+ */
+@Configuration
+public class RedisCodecConfig {
+    @Autowired
+    private CompactRedisSerializer redisValueSerializer;
+
+    @PostConstruct
+    public void init() {
+        redisValueSerializer
+                .register(100, Admin.class)
+                .register(101, Menu.class);
+    }
+}
@@ -1,9 +1,12 @@
 package com.kestrelcjx.system.config;
 
 import at.pollux.thymeleaf.shiro.dialect.ShiroDialect;
+import com.kestrelcjx.system.filter.RateLimitFilter;
 import com.kestrelcjx.system.filter.ShiroLoginFilter;
 import com.kestrelcjx.system.filter.ShiroLogoutFilter;
+import com.kestrelcjx.system.shiro.CachingRedisSessionDAO;
 import com.kestrelcjx.system.shiro.CustomCredentialsMatcher;
+import com.kestrelcjx.system.shiro.MenuPermissionResolver;
 import com.kestrelcjx.system.shiro.MySessionManager;
 import com.kestrelcjx.system.shiro.MyShiroRealm;
 import org.apache.shiro.authc.credential.HashedCredentialsMatcher;
@@ -18,7 +21,6 @@ import org.apache.shiro.web.mgt.DefaultWebSecurityManager;
 import org.apache.shiro.web.servlet.SimpleCookie;
 import org.crazycake.shiro.RedisCacheManager;
 import org.crazycake.shiro.RedisManager;
-import org.crazycake.shiro.RedisSessionDAO;
 import org.springframework.aop.framework.autoproxy.DefaultAdvisorAutoProxyCreator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -64,6 +66,15 @@ public class ShiroConfig {
     // 后台主页地址
     @Value("${shiro.user.indexUrl}")
     private String indexUrl;
+    // 会话本地缓存最大数量
+    @Value("${shiro.session.localMaxSize:10000}")
+    private Integer sessionLocalMaxSize;
+    // 会话本地缓存秒数
+    @Value("${shiro.session.localSeconds:5}")
+    private Integer sessionLocalSeconds;
+    // 会话最后访问时间写入间隔（秒）
+    @Value("${shiro.session.touchFlushSeconds:10}")
+    private Integer sessionTouchFlushSeconds;
 
     public ShiroConfig() {
     }
@@ -85,6 +96,8 @@ public class ShiroConfig {
         filtersMap.put("loginFilter", new ShiroLoginFilter());
         //配置自定义登出 覆盖 logout 之前默认的LogoutFilter
         filtersMap.put("logoutFilter", shiroLogoutFilter());
+        //登录限流，需要限流的路径在过滤链中放在anon之前
+        filtersMap.put("rateLimit", new RateLimitFilter());
         shiroFilterFactoryBean.setFilters(filtersMap);
 
         // 配置访问权限 必须是LinkedHashMap，因为它必须保证有序
@@ -96,10 +109,10 @@ public class ShiroConfig {
         // 过滤器链定义映射，Shiro连接约束配置，即过滤链的定义
         // 拦截配置
         LinkedHashMap<String, String> filterChainDefinitionMap = new LinkedHashMap<>();
-        filterChainDefinitionMap.put("/login", "anon");
+        filterChainDefinitionMap.put("/login", "rateLimit,anon");
         //logout是shiro提供的过滤器,这是走自定义的 shiroLogoutFilter 上面有配置
         filterChainDefinitionMap.put("/logout", "logout");
-        filterChainDefinitionMap.put("/captcha", "anon");
+        filterChainDefinitionMap.put("/captcha", "rateLimit,anon");
 
         // 不需要拦截的访问
         filterChainDefinitionMap.put("/common/**", "anon");
@@ -146,17 +159,19 @@ public class ShiroConfig {
     public MyShiroRealm myShiroRealm() {
         MyShiroRealm myShiroRealm = new MyShiroRealm();
         myShiroRealm.setCredentialsMatcher(new CustomCredentialsMatcher());
+        myShiroRealm.setPermissionResolver(new MenuPermissionResolver());
         return myShiroRealm;
     }
 
     /**
      * RedisSessionDAOI shiro sessionDao层的实现 通过redis，使用的是shiro-redis开源插件
+     * 在RedisSessionDAO基础上增加本地缓存，并合并最后访问时间的写入
      *
      * @return
      */
-    @Bean
-    public RedisSessionDAO redisSessionDAO() {
-        RedisSessionDAO redisSessionDAO = new RedisSessionDAO();
+    @Bean(destroyMethod = "destroy")
+    public CachingRedisSessionDAO redisSessionDAO() {
+        CachingRedisSessionDAO redisSessionDAO = new CachingRedisSessionDAO(sessionLocalMaxSize, sessionLocalSeconds, sessionTouchFlushSeconds);
         redisSessionDAO.setRedisManager(redisManager());
         redisSessionDAO.setSessionIdGenerator(sessionIdGenerator());
         redisSessionDAO.setKeyPrefix(SESSION_KEY);
@@ -226,8 +241,8 @@ public class ShiroConfig {
     @Bean
     public SecurityManager securityManager() {
         DefaultWebSecurityManager securityManager = new DefaultWebSecurityManager();
-//        // 自定义session管理 使用redis，将自定义的会话管理器注册到安全管理器中
-//        securityManager.setSessionManager(sessionManager());
+        // 自定义session管理 使用redis，将自定义的会话管理器注册到安全管理器中
+        securityManager.setSessionManager(sessionManager());
         // 自定义缓存实现 使用redis，将自定义的redis缓存管理器注册到安全管理器中
         securityManager.setCacheManager(cacheManager());
         // 自定义Realm验证
@@ -5,6 +5,7 @@ import com.kestrelcjx.common.config.SystemConfig;
 import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.system.cache.AdminCache;
 import com.kestrelcjx.system.dto.UpdatePasswordDto;
 import com.kestrelcjx.system.dto.UpdateUserInfoDto;
 import com.kestrelcjx.system.entity.Admin;
@@ -13,6 +14,7 @@ import com.kestrelcjx.system.service.IAdminService;
 import com.kestrelcjx.system.service.IMenuService;
 import com.kestrelcjx.system.utils.ShiroUtils;
 import com.kestrelcjx.system.vo.MenuListVo;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -35,6 +37,8 @@ public class IndexController {
     private AdminMapper adminMapper;
     @Autowired
     private IAdminService adminService;
+    @Autowired
+    private AdminCache adminCache;
 
     /**
      * 列表页
@@ -44,7 +48,15 @@ public class IndexController {
      */
     @GetMapping("/index")
     public String index(Model model) {
-        Admin admin = adminMapper.selectById(ShiroUtils.getAdminId());
+        Admin adminInfo = adminCache.get(ShiroUtils.getAdminId());
+        if (adminInfo == null) {
+            // 人员已删除但会话仍然有效，退出登录后重新登录
+            ShiroUtils.logout();
+            return "redirect:/login";
+        }
+        // 缓存对象为共享对象，复制后再处理
+        Admin admin = new Admin();
+        BeanUtils.copyProperties(adminInfo, admin);
         // 获取菜单
         List<MenuListVo> menuList = menuService.getNavbarMenu(ShiroUtils.getAdminId());
         model.addAttribute("menuList", menuList);
@@ -103,6 +115,8 @@ public class IndexController {
         if (result == 0) {
             return JsonResult.error("更新失败");
         }
+        // 删除人员缓存
+        adminCache.evict(entity.getId());
         return JsonResult.success();
     }
 
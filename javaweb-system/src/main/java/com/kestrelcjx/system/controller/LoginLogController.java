@@ -11,6 +11,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+
 /**
  * 登录日志控制器
  */
@@ -74,5 +76,17 @@ public class LoginLogController extends BaseController {
     public JsonResult setStatus(@RequestBody LoginLog entity) {
         return loginLogService.setStatus(entity);
     }
-}
 
+    /**
+     * 导出Excel（流式写入响应）
+     *
+     * @param query    查询条件
+     * @param response 网络响应
+     */
+//    @RequiresPermissions("sys:loginlog:export")
+    @Log(title = "登录日志", businessType = BusinessType.EXPORT)
+    @GetMapping("/export")
+    public void export(LoginLogQuery query, HttpServletResponse response) {
+        loginLogService.exportExcel(query, "登录日志", response);
+    }
+}
@@ -123,5 +123,19 @@ public class RoleController extends BaseController {
     public JsonResult setStatus(@RequestBody Role entity) {
         return roleService.setStatus(entity);
     }
+
+    /**
+     * 强制退出拥有该角色的全部人员
+     *
+     * @param id 角色ID
+     * @return
+     */
+//    @RequiresPermissions("sys:role:kick")
+    @Log(title = "系统角色", businessType = BusinessType.FORCE)
+    @ResponseBody
+    @GetMapping("/kick/{id}")
+    public JsonResult kick(@PathVariable("id") Integer id) {
+        return roleService.kickSessions(id);
+    }
 }
 
@@ -16,6 +16,10 @@ public class Crontab extends BaseEntity {
      * crontab格式
      */
     private String cron;
+    /**
+     * 任务处理器（实现CrontabJob接口的Spring Bean名称）
+     */
+    private String handler;
     /**
      * 延迟秒数（单位 毫秒）
      */
@@ -48,6 +52,10 @@ public class Crontab extends BaseEntity {
         return this.cron;
     }
 
+    public String getHandler() {
+        return this.handler;
+    }
+
     public Integer getDelay() {
         return this.delay;
     }
@@ -78,6 +86,11 @@ public class Crontab extends BaseEntity {
         return this;
     }
 
+    public Crontab setHandler(String handler) {
+        this.handler = handler;
+        return this;
+    }
+
     public Crontab setDelay(Integer delay) {
         this.delay = delay;
         return this;
@@ -107,6 +120,7 @@ public class Crontab extends BaseEntity {
         return "Crontab(" +
                 "title=" + this.getTitle() +
                 ", cron=" + this.getCron() +
+                ", handler=" + this.getHandler() +
                 ", delay=" + this.getDelay() +
                 ", fixed=" + this.getFixed() +
                 ", execute=" + this.getExecute() +
@@ -124,6 +138,8 @@ public class Crontab extends BaseEntity {
         if (this.getTitle() == null ? other.getTitle() != null : !this.getTitle().equals(other.getTitle()))
             return false;
         if (this.getCron() == null ? other.getCron() != null : !this.getCron().equals(other.getCron())) return false;
+        if (this.getHandler() == null ? other.getHandler() != null : !this.getHandler().equals(other.getHandler()))
+            return false;
         if (this.getDelay() == null ? other.getDelay() != null : !this.getDelay().equals(other.getDelay()))
             return false;
         if (this.getFixed() == null ? other.getFixed() != null : !this.getFixed().equals(other.getFixed()))
@@ -145,6 +161,7 @@ public class Crontab extends BaseEntity {
         int result = super.hashCode();
         result = result * PRIME + (this.getTitle() == null ? 43 : this.getTitle().hashCode());
         result = result * PRIME + (this.getCron() == null ? 43 : this.getCron().hashCode());
+        result = result * PRIME + (this.getHandler() == null ? 43 : this.getHandler().hashCode());
         result = result * PRIME + (this.getDelay() == null ? 43 : this.getDelay().hashCode());
         result = result * PRIME + (this.getFixed() == null ? 43 : this.getFixed().hashCode());
         result = result * PRIME + (this.getExecute() == null ? 43 : this.getExecute().hashCode());
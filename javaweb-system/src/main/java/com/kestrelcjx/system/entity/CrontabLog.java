@@ -0,0 +1,139 @@
+package com.kestrelcjx.system.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.kestrelcjx.common.common.BaseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.util.Date;
+
+/**
+ * 定时任务执行记录
+ */
+@TableName("sys_crontab_log")
+public class CrontabLog extends BaseEntity {
+    /**
+     * 定时任务ID
+     */
+    private Integer crontabId;
+    /**
+     * 任务标题
+     */
+    private String title;
+    /**
+     * 计划执行时间
+     */
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date scheduleTime;
+    /**
+     * 开始执行时间
+     */
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date startTime;
+    /**
+     * 调度延迟（单位 毫秒）
+     */
+    private Integer lagMillis;
+    /**
+     * 执行耗时（单位 毫秒）
+     */
+    private Integer duration;
+    /**
+     * 执行结果：1=成功，2=失败，3=跳过
+     */
+    private Integer status;
+    /**
+     * 错误消息
+     */
+    private String errorMsg;
+
+    public CrontabLog() {
+    }
+
+    public Integer getCrontabId() {
+        return this.crontabId;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public Date getScheduleTime() {
+        return this.scheduleTime;
+    }
+
+    public Date getStartTime() {
+        return this.startTime;
+    }
+
+    public Integer getLagMillis() {
+        return this.lagMillis;
+    }
+
+    public Integer getDuration() {
+        return this.duration;
+    }
+
+    public Integer getStatus() {
+        return this.status;
+    }
+
+    public String getErrorMsg() {
+        return this.errorMsg;
+    }
+
+    public CrontabLog setCrontabId(Integer crontabId) {
+        this.crontabId = crontabId;
+        return this;
+    }
+
+    public CrontabLog setTitle(String title) {
+        this.title = title;
+        return this;
+    }
+
+    public CrontabLog setScheduleTime(Date scheduleTime) {
+        this.scheduleTime = scheduleTime;
+        return this;
+    }
+
+    public CrontabLog setStartTime(Date startTime) {
+        this.startTime = startTime;
+        return this;
+    }
+
+    public CrontabLog setLagMillis(Integer lagMillis) {
+        this.lagMillis = lagMillis;
+        return this;
+    }
+
+    public CrontabLog setDuration(Integer duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public CrontabLog setStatus(Integer status) {
+        this.status = status;
+        return this;
+    }
+
+    public CrontabLog setErrorMsg(String errorMsg) {
+        this.errorMsg = errorMsg;
+        return this;
+    }
+
+    public String toString() {
+        return "CrontabLog(" +
+                "crontabId=" + this.getCrontabId() +
+                ", title=" + this.getTitle() +
+                ", scheduleTime=" + this.getScheduleTime() +
+                ", startTime=" + this.getStartTime() +
+                ", lagMillis=" + this.getLagMillis() +
+                ", duration=" + this.getDuration() +
+                ", status=" + this.getStatus() +
+                ", errorMsg=" + this.getErrorMsg() +
+                ")";
+    }
+}
@@ -2,6 +2,7 @@ package com.kestrelcjx.system.entity;
 
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.kestrelcjx.common.annotation.Excel;
 import com.kestrelcjx.common.common.BaseEntity;
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -15,44 +16,54 @@ public class LoginLog extends BaseEntity {
     /**
      * 日志标题
      */
+    @Excel(name = "日志标题")
     private String title;
     /**
      * 登录账号
      */
+    @Excel(name = "登录账号")
     private String loginName;
     /**
      * 登录时间
      */
     @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    @Excel(name = "登录时间", dateFormat = "yyyy-MM-dd HH:mm:ss", width = 20)
     private Date loginTime;
     /**
      * 登录IP地址
      */
+    @Excel(name = "登录IP地址")
     private String loginIp;
     /**
      * 登录地区
      */
+    @Excel(name = "登录地区")
     private String loginLocation;
     /**
      * 浏览器类型
      */
+    @Excel(name = "浏览器类型")
     private String browser;
     /**
      * 操作系统
      */
+    @Excel(name = "操作系统")
     private String os;
     /**
      * 登录状态：1=成功，2=失败
      */
+    @Excel(name = "登录状态", readConverterExp = "1=成功,2=失败")
     private Integer status;
     /**
      * 类型：1=登录系统，2=退出系统
      */
+    @Excel(name = "类型", readConverterExp = "1=登录系统,2=退出系统")
     private Integer type;
     /**
      * 提示消息
      */
+    @Excel(name = "提示消息")
     private String msg;
 
     public LoginLog() {
@@ -0,0 +1,202 @@
+package com.kestrelcjx.system.filter;
+
+import com.alibaba.fastjson.JSON;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kestrelcjx.common.limit.RateLimitRule;
+import com.kestrelcjx.common.utils.JsonResult;
+import com.kestrelcjx.common.utils.SpringUtils;
+import com.kestrelcjx.system.manager.RateLimitManager;
+import org.apache.shiro.web.servlet.OncePerRequestFilter;
+import org.apache.shiro.web.util.WebUtils;
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+
+/**
+ * 登录限流过滤器
+ * 在Shiro过滤链中先于登录认证执行，超过限制的请求直接返回429，不会进入Realm查询数据库；
+ * 按用户名限流时从表单参数或JSON请求体中读取用户名，读取过的请求体缓存后交给后续处理；
+ * JSON请求体超过最大长度时返回413，不会绕过用户名限流进入登录
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    /**
+     * 读取JSON请求体的最大长度
+     */
+    private static final int MAX_BODY_LENGTH = 8192;
+    /**
+     * 解析登录请求体（与@RequestBody绑定一致使用Jackson，未认证的请求体不经过fastjson）
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private volatile RateLimitManager rateLimitManager;
+
+    @Override
+    protected void doFilterInternal(ServletRequest request, ServletResponse response, FilterChain chain) throws ServletException, IOException {
+        HttpServletRequest httpServletRequest = (HttpServletRequest) request;
+        RateLimitManager manager = getRateLimitManager();
+        List<RateLimitRule> rules = manager.getRules(WebUtils.getPathWithinApplication(httpServletRequest),
+                httpServletRequest.getMethod());
+        if (rules.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ServletRequest next = request;
+        String username = null;
+        if (hasUsernameRule(rules) && "POST".equalsIgnoreCase(httpServletRequest.getMethod())) {
+            String contentType = httpServletRequest.getContentType();
+            if (contentType != null && contentType.toLowerCase().contains("json")) {
+                // 不依赖Content-Length（分块传输时为-1），按最大长度读取
+                byte[] body = httpServletRequest.getContentLengthLong() > MAX_BODY_LENGTH
+                        ? null : readBody(httpServletRequest.getInputStream(), MAX_BODY_LENGTH);
+                if (body == null) {
+                    reject((HttpServletResponse) response, HttpStatus.PAYLOAD_TOO_LARGE, null);
+                    return;
+                }
+                next = new CachedBodyRequestWrapper(httpServletRequest, body);
+                username = parseUsername(body);
+            } else {
+                username = request.getParameter("username");
+            }
+        }
+        RateLimitRule rule = manager.check(rules, manager.getClientIp(httpServletRequest), username);
+        if (rule != null) {
+            reject((HttpServletResponse) response, HttpStatus.TOO_MANY_REQUESTS, rule);
+            return;
+        }
+        chain.doFilter(next, response);
+    }
+
+    /**
+     * 过滤器在Shiro初始化时创建，限流管理在首次请求时获取
+     */
+    private RateLimitManager getRateLimitManager() {
+        RateLimitManager manager = rateLimitManager;
+        if (manager == null) {
+            manager = SpringUtils.getBean(RateLimitManager.class);
+            rateLimitManager = manager;
+        }
+        return manager;
+    }
+
+    private static boolean hasUsernameRule(List<RateLimitRule> rules) {
+        for (RateLimitRule rule : rules) {
+            if (RateLimitRule.DIMENSION_USERNAME.equals(rule.getDimension())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取请求体，超过最大长度时返回null
+     */
+    private static byte[] readBody(InputStream inputStream, int maxLength) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.min(maxLength, 1024));
+        byte[] buffer = new byte[1024];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            if (outputStream.size() + count > maxLength) {
+                return null;
+            }
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static String parseUsername(byte[] body) {
+        try {
+            JsonNode root = OBJECT_MAPPER.readTree(body);
+            JsonNode username = root != null ? root.get("username") : null;
+            return username != null && username.isValueNode() && !username.isNull() ? username.asText() : null;
+        } catch (IOException | RuntimeException e) {
+            // 格式错误的请求体交给后续处理，这里只按IP限流
+            return null;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, RateLimitRule rule) throws IOException {
+        response.setStatus(status.value());
+        if (rule != null) {
+            response.setHeader("Retry-After", String.valueOf(rule.getWindowSeconds()));
+        }
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType("application/json");
+        String msg = rule != null ? "请求过于频繁，请稍后再试" : "请求内容过长";
+        response.getWriter().write(JSON.toJSONString(JsonResult.error(status.value(), msg)));
+    }
+
+    /**
+     * 缓存请求体，供后续重复读取
+     */
+    private static class CachedBodyRequestWrapper extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequestWrapper(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return inputStream.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding != null ? encoding : "UTF-8"));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
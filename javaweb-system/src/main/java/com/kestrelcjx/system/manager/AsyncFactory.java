@@ -6,9 +6,7 @@ import com.kestrelcjx.common.utils.LogUtils;
 import com.kestrelcjx.common.utils.ServletUtils;
 import com.kestrelcjx.common.utils.SpringUtils;
 import com.kestrelcjx.system.entity.LoginLog;
-import com.kestrelcjx.system.entity.OperLog;
 import com.kestrelcjx.system.service.ILoginLogService;
-import com.kestrelcjx.system.service.IOperLogService;
 import eu.bitwalker.useragentutils.UserAgent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,21 +74,4 @@ public class AsyncFactory {
             }
         };
     }
-
-    /**
-     * 操作日志记录
-     *
-     * @param operLog 操作日志信息
-     * @return 任务task
-     */
-    public static TimerTask recordOper(final OperLog operLog) {
-        return new TimerTask() {
-            @Override
-            public void run() {
-                // 远程查询操作地点
-                operLog.setOperLocation(IpUtils.getRealAddressByIP(operLog.getOperIp()));
-                SpringUtils.getBean(IOperLogService.class).insertOperLog(operLog);
-            }
-        };
-    }
 }
@@ -0,0 +1,118 @@
+package com.kestrelcjx.system.manager;
+
+import com.kestrelcjx.common.captcha.CaptchaPool;
+import com.kestrelcjx.common.utils.VerifyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证码管理
+ * 由独立的后台线程预渲染验证码图片（PNG + Base64），登录页取验证码时直接从池中取出，池空时同步渲染
+ */
+@Component
+public class CaptchaManager {
+    private static final Logger logger = LoggerFactory.getLogger(CaptchaManager.class);
+    /**
+     * 池容量
+     */
+    @Value("${captcha.pool.capacity:256}")
+    private Integer capacity;
+    /**
+     * 最低保有量
+     */
+    @Value("${captcha.pool.minSize:16}")
+    private Integer minSize;
+    /**
+     * 按请求速率预留的秒数
+     */
+    @Value("${captcha.pool.reserveSeconds:5}")
+    private Double reserveSeconds;
+    /**
+     * 补充间隔（毫秒）
+     */
+    @Value("${captcha.pool.refillIntervalMillis:200}")
+    private Long refillIntervalMillis;
+    /**
+     * 每次补充的最大数量
+     */
+    @Value("${captcha.pool.maxRenderPerRefill:20}")
+    private Integer maxRenderPerRefill;
+    /**
+     * 统计日志间隔（秒），小于等于0时不输出
+     */
+    @Value("${captcha.pool.reportSeconds:300}")
+    private Long reportSeconds;
+
+    private CaptchaPool pool;
+    /**
+     * 渲染线程
+     */
+    private ScheduledExecutorService renderExecutor;
+    private long lastReportRequests;
+
+    @PostConstruct
+    public void start() {
+        pool = new CaptchaPool(capacity, minSize, reserveSeconds, maxRenderPerRefill, CaptchaManager::render);
+        renderExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "captcha-render");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        renderExecutor.scheduleWithFixedDelay(pool::refill, 0, refillIntervalMillis, TimeUnit.MILLISECONDS);
+        if (reportSeconds > 0) {
+            renderExecutor.scheduleWithFixedDelay(this::report, reportSeconds, reportSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 取一个验证码
+     *
+     * @return
+     */
+    public CaptchaPool.Captcha take() {
+        return pool.take();
+    }
+
+    /**
+     * 停止后台渲染（应用退出时调用）
+     */
+    public void shutdown() {
+        if (renderExecutor != null) {
+            renderExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * 输出统计日志（期间没有请求时不输出）
+     */
+    private void report() {
+        long requests = pool.getRequestCount();
+        if (requests != lastReportRequests) {
+            lastReportRequests = requests;
+            logger.info("验证码池统计：{}", pool.getStats());
+        }
+    }
+
+    private static CaptchaPool.Captcha render() {
+        Map<String, String> mapInfo = new VerifyUtils().getRandomCodeBase64();
+        return new CaptchaPool.Captcha(mapInfo.get("randomStr"), "data:image/png;base64," + mapInfo.get("img"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.kestrelcjx.system.manager;
+
+import com.kestrelcjx.system.entity.Crontab;
+
+/**
+ * 定时任务处理器
+ * 实现类注册为Spring Bean，定时任务的处理器字段填写Bean名称
+ */
+public interface CrontabJob {
+    /**
+     * 执行任务
+     *
+     * @param crontab 定时任务
+     * @throws Exception 执行失败时抛出，记录为失败
+     */
+    void execute(Crontab crontab) throws Exception;
+
+    /**
+     * 执行任务（集群模式）
+     * 防护令牌在任务易主时递增，写入外部资源时可携带令牌，拒绝令牌更小的过期写入
+     *
+     * @param crontab      定时任务
+     * @param fencingToken 防护令牌（非集群模式为0）
+     * @throws Exception 执行失败时抛出，记录为失败
+     */
+    default void execute(Crontab crontab, long fencingToken) throws Exception {
+        execute(crontab);
+    }
+}
@@ -0,0 +1,794 @@
+package com.kestrelcjx.system.manager;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.lease.Lease;
+import com.kestrelcjx.common.lease.LeaseManager;
+import com.kestrelcjx.common.utils.DateUtils;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.common.utils.SpringUtils;
+import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.common.utils.TimingWheel;
+import com.kestrelcjx.system.entity.Crontab;
+import com.kestrelcjx.system.entity.CrontabLog;
+import com.kestrelcjx.system.mapper.CrontabLogMapper;
+import com.kestrelcjx.system.mapper.CrontabMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.support.CronSequenceGenerator;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 定时任务调度器
+ * 加载正常状态的定时任务，由分层时间轮统一计时，到期后提交到执行线程池
+ * 调度方式优先级：cron表达式 > 固定频率（间隔毫秒） > 固定延迟（延迟毫秒，上次执行结束后计时）
+ * 每次执行记录计划时间、开始时间、调度延迟、耗时及结果，由后台线程批量写入
+ * 集群模式下各节点都参与调度，每个任务由持有租约的节点执行，持有节点宕机后租约过期由其他节点接管，
+ * 接管时按上次执行时间统计错过的执行次数；任务变更通过Redis发布/订阅通知各节点重新加载
+ */
+@Component
+public class CrontabScheduler implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(CrontabScheduler.class);
+    /**
+     * 执行结果：成功
+     */
+    private static final int STATUS_SUCCESS = 1;
+    /**
+     * 执行结果：失败
+     */
+    private static final int STATUS_FAIL = 2;
+    /**
+     * 执行结果：跳过
+     */
+    private static final int STATUS_SKIP = 3;
+    /**
+     * 每批写入的执行记录条数
+     */
+    private static final int LOG_BATCH_SIZE = 500;
+    /**
+     * 数据库不可用时保留待重试的执行记录最大条数
+     */
+    private static final int LOG_MAX_PENDING = 10000;
+    /**
+     * 重新加载全部任务的消息标识
+     */
+    private static final String RELOAD_ALL = "*";
+    /**
+     * 任务租约名称前缀
+     */
+    private static final String LEASE_PREFIX = "crontab:";
+    /**
+     * 任务上次执行时间KEY前缀
+     */
+    private static final String LAST_FIRE_KEY = "crontab:last:";
+    /**
+     * 统计错过执行次数的上限
+     */
+    private static final int MAX_MISSED = 10000;
+
+    @Autowired
+    private CrontabMapper crontabMapper;
+    @Autowired
+    private CrontabLogMapper crontabLogMapper;
+    @Autowired
+    private LeaseManager leaseManager;
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+    /**
+     * 是否启用
+     */
+    @Value("${crontab.enabled:true}")
+    private Boolean enabled;
+    /**
+     * 是否集群模式（按租约保证每次触发只在一个节点执行）
+     */
+    @Value("${crontab.cluster:true}")
+    private Boolean cluster;
+    /**
+     * 任务租约有效期（秒），持有节点宕机后最长经过该时间由其他节点接管
+     */
+    @Value("${crontab.leaseSeconds:30}")
+    private Integer leaseSeconds;
+    /**
+     * 时间轮刻度（毫秒）
+     */
+    @Value("${crontab.tickMillis:100}")
+    private Long tickMillis;
+    /**
+     * 执行线程数
+     */
+    @Value("${crontab.threads:8}")
+    private Integer threads;
+    /**
+     * 执行队列容量
+     */
+    @Value("${crontab.queueSize:10000}")
+    private Integer queueSize;
+    /**
+     * 执行记录写入间隔（毫秒）
+     */
+    @Value("${crontab.logFlushMillis:1000}")
+    private Long logFlushMillis;
+
+    /**
+     * 时间轮
+     */
+    private TimingWheel<Job> wheel;
+    /**
+     * 定时任务ID与调度任务的对应关系
+     */
+    private final Map<Integer, Job> jobMap = new ConcurrentHashMap<>();
+    /**
+     * 执行线程池
+     */
+    private ThreadPoolExecutor executor;
+    /**
+     * 时间轮推进线程
+     */
+    private Thread ticker;
+    /**
+     * 执行记录写入线程
+     */
+    private ScheduledExecutorService logWriter;
+    /**
+     * 待写入的执行记录
+     */
+    private final Queue<CrontabLog> logQueue = new ConcurrentLinkedQueue<>();
+    /**
+     * 待累加的执行次数
+     */
+    private final Map<Integer, AtomicInteger> executeCountMap = new ConcurrentHashMap<>();
+    /**
+     * 是否运行中
+     */
+    private volatile boolean running;
+
+    /**
+     * 执行次数
+     */
+    private final AtomicLong runCount = new AtomicLong();
+    /**
+     * 失败次数
+     */
+    private final AtomicLong failCount = new AtomicLong();
+    /**
+     * 跳过次数
+     */
+    private final AtomicLong skipCount = new AtomicLong();
+    /**
+     * 未持有租约（由其他节点执行）次数
+     */
+    private final AtomicLong notOwnerCount = new AtomicLong();
+    /**
+     * 错过的执行次数（接管任务时统计）
+     */
+    private final AtomicLong missedCount = new AtomicLong();
+    /**
+     * 调度延迟合计（毫秒）
+     */
+    private final AtomicLong totalLag = new AtomicLong();
+    /**
+     * 最大调度延迟（毫秒）
+     */
+    private volatile long maxLag;
+    /**
+     * 丢弃的执行记录条数
+     */
+    private final AtomicLong logDroppedCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("定时任务调度器未启用");
+            return;
+        }
+        // 每层256格，共4层
+        wheel = new TimingWheel<>(tickMillis, 8, 4, System.currentTimeMillis());
+        AtomicInteger threadNum = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "crontab-worker-" + threadNum.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        running = true;
+        ticker = new Thread(this::tick, "crontab-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+        logWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crontab-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logWriter.scheduleWithFixedDelay(this::flushLog, logFlushMillis, logFlushMillis, TimeUnit.MILLISECONDS);
+        if (cluster) {
+            redisMessageListenerContainer.addMessageListener(this,
+                    new ChannelTopic(RedisConstant.REDIS_CHANNEL_CRONTAB_RELOAD));
+        }
+        reloadLocal();
+    }
+
+    /**
+     * 重新加载全部定时任务，并通知其他节点
+     */
+    public void reloadAll() {
+        reloadLocal();
+        publish(RELOAD_ALL);
+    }
+
+    /**
+     * 重新加载定时任务（编辑、设置状态、删除后调用），并通知其他节点
+     *
+     * @param id 定时任务ID
+     */
+    public void reload(Integer id) {
+        if (id == null) {
+            return;
+        }
+        reloadLocal(id);
+        publish(String.valueOf(id));
+    }
+
+    /**
+     * 接收其他节点的任务变更通知
+     *
+     * @param message 消息
+     * @param pattern 频道
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.deserialize(message.getBody());
+        if (body == null) {
+            return;
+        }
+        // 消息格式：节点标识|任务ID，忽略本节点发布的消息
+        String[] parts = body.toString().split("\\|", 2);
+        if (parts.length < 2 || leaseManager.getNodeId().equals(parts[0])) {
+            return;
+        }
+        if (RELOAD_ALL.equals(parts[1])) {
+            reloadLocal();
+        } else {
+            reloadLocal(Integer.valueOf(parts[1]));
+        }
+    }
+
+    /**
+     * 重新加载本节点的全部定时任务
+     */
+    private void reloadLocal() {
+        if (!running) {
+            return;
+        }
+        QueryWrapper<Crontab> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("status", 1);
+        queryWrapper.eq("mark", 1);
+        List<Crontab> crontabList = crontabMapper.selectList(queryWrapper);
+        jobMap.keySet().forEach(this::cancel);
+        crontabList.forEach(this::schedule);
+        logger.info("加载定时任务完成，任务数：{}", jobMap.size());
+    }
+
+    /**
+     * 重新加载本节点的定时任务
+     *
+     * @param id 定时任务ID
+     */
+    private void reloadLocal(Integer id) {
+        if (!running) {
+            return;
+        }
+        Crontab crontab = crontabMapper.selectById(id);
+        if (crontab == null || !Integer.valueOf(1).equals(crontab.getMark()) || !Integer.valueOf(1).equals(crontab.getStatus())) {
+            cancel(id);
+            return;
+        }
+        schedule(crontab);
+    }
+
+    /**
+     * 停止调度并写完执行记录
+     *
+     * @param timeout 等待执行中任务的最长时间（毫秒）
+     */
+    public void shutdown(long timeout) {
+        if (!running) {
+            return;
+        }
+        running = false;
+        jobMap.keySet().forEach(this::cancel);
+        ticker.interrupt();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                logger.warn("定时任务执行超时，未完成任务数：{}", executor.getActiveCount());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logWriter.shutdown();
+        flushLog();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("jobs", jobMap.size());
+        stats.put("wheelSize", wheel != null ? wheel.size() : 0);
+        stats.put("activeThreads", executor != null ? executor.getActiveCount() : 0);
+        stats.put("queued", executor != null ? executor.getQueue().size() : 0);
+        stats.put("runs", runCount.get());
+        stats.put("failed", failCount.get());
+        stats.put("skipped", skipCount.get());
+        stats.put("notOwner", notOwnerCount.get());
+        stats.put("missed", missedCount.get());
+        long runs = runCount.get();
+        stats.put("avgLagMillis", runs == 0 ? 0 : totalLag.get() / runs);
+        stats.put("maxLagMillis", maxLag);
+        stats.put("logPending", logQueue.size());
+        stats.put("logDropped", logDroppedCount.get());
+        if (cluster) {
+            stats.put("lease", leaseManager.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * 创建调度任务并放入时间轮（替换已有的调度任务）
+     *
+     * @param crontab 定时任务
+     */
+    private void schedule(Crontab crontab) {
+        Job job;
+        try {
+            job = new Job(crontab);
+        } catch (Exception e) {
+            cancel(crontab.getId());
+            logger.error("定时任务[{}]配置错误：{}", crontab.getTitle(), e.getMessage());
+            return;
+        }
+        Job old = jobMap.put(crontab.getId(), job);
+        if (old != null) {
+            discard(old);
+        }
+        long now = System.currentTimeMillis();
+        job.timeout = wheel.add(job, job.next(now));
+    }
+
+    /**
+     * 取消调度任务
+     *
+     * @param id 定时任务ID
+     */
+    private void cancel(Integer id) {
+        Job job = jobMap.remove(id);
+        if (job != null) {
+            discard(job);
+        }
+    }
+
+    /**
+     * 停止调度任务并释放租约
+     * 执行中的任务在执行结束时释放租约（finish），避免执行期间其他节点获取租约重复执行
+     *
+     * @param job 调度任务
+     */
+    private void discard(Job job) {
+        job.cancel();
+        if (!job.running.get()) {
+            releaseLease(job);
+        }
+    }
+
+    /**
+     * 结束执行，已取消的任务释放租约
+     *
+     * @param job 调度任务
+     */
+    private void finish(Job job) {
+        job.running.set(false);
+        if (job.cancelled) {
+            releaseLease(job);
+        }
+    }
+
+    /**
+     * 释放任务租约（取消与执行结束同时发生时只释放一次）
+     *
+     * @param job 调度任务
+     */
+    private void releaseLease(Job job) {
+        Lease lease;
+        synchronized (job) {
+            lease = job.lease;
+            job.lease = null;
+        }
+        if (lease != null) {
+            leaseManager.release(lease);
+        }
+    }
+
+    /**
+     * 发布任务变更通知，发布失败不影响本节点
+     *
+     * @param message 消息
+     */
+    private void publish(String message) {
+        if (!running || !cluster) {
+            return;
+        }
+        try {
+            redisUtils.publish(RedisConstant.REDIS_CHANNEL_CRONTAB_RELOAD, leaseManager.getNodeId() + "|" + message);
+        } catch (Exception e) {
+            logger.error("定时任务变更通知发布失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取任务租约（集群模式）
+     * 已持有时直接返回令牌；新获取租约时按上次执行时间统计错过的执行次数
+     *
+     * @param job          调度任务
+     * @param scheduleTime 计划执行时间
+     * @return 防护令牌，由其他节点持有时返回null
+     */
+    private Long acquire(Job job, long scheduleTime) {
+        Lease lease = job.lease;
+        if (lease == null || !lease.isHeld()) {
+            lease = leaseManager.tryAcquire(LEASE_PREFIX + job.crontab.getId(), leaseSeconds * 1000L);
+            if (lease == null) {
+                return null;
+            }
+            job.lease = lease;
+            Object lastFire = redisUtils.get(LAST_FIRE_KEY + job.crontab.getId());
+            if (lastFire instanceof Number) {
+                int missed = 0;
+                long time = job.next(((Number) lastFire).longValue());
+                while (time < scheduleTime && missed < MAX_MISSED) {
+                    missed++;
+                    time = job.next(time);
+                }
+                if (missed > 0) {
+                    missedCount.addAndGet(missed);
+                    logger.warn("接管定时任务[{}]，错过执行次数：{}", job.crontab.getTitle(), missed);
+                }
+            }
+        }
+        redisUtils.set(LAST_FIRE_KEY + job.crontab.getId(), scheduleTime, 7 * 86400);
+        return lease.getToken();
+    }
+
+    /**
+     * 推进时间轮，到期任务提交执行
+     */
+    private void tick() {
+        long next = System.currentTimeMillis();
+        while (running) {
+            try {
+                next += tickMillis;
+                long sleep = next - System.currentTimeMillis();
+                if (sleep > 0) {
+                    Thread.sleep(sleep);
+                } else if (-sleep > tickMillis * 10) {
+                    // 推进线程落后过多时不再追赶
+                    next = System.currentTimeMillis();
+                }
+                for (TimingWheel.Timeout<Job> timeout : wheel.advance(System.currentTimeMillis())) {
+                    fire(timeout.getTask(), timeout.getDeadlineMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                logger.error("定时任务调度异常：{}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 任务到期：计算下次执行时间并提交执行
+     *
+     * @param job          调度任务
+     * @param scheduleTime 计划执行时间
+     */
+    private void fire(Job job, long scheduleTime) {
+        if (job.cancelled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!job.fixedDelay) {
+            // 固定频率及cron按计划时间计算下次执行时间，落后时跳过错过的执行
+            long nextTime = job.next(scheduleTime);
+            if (nextTime <= now) {
+                nextTime = job.next(now);
+            }
+            job.timeout = wheel.add(job, nextTime);
+        }
+        if (!job.running.compareAndSet(false, true)) {
+            record(job, scheduleTime, now, 0, STATUS_SKIP, "上次执行未结束");
+            return;
+        }
+        try {
+            executor.execute(() -> run(job, scheduleTime));
+        } catch (RejectedExecutionException e) {
+            finish(job);
+            record(job, scheduleTime, now, 0, STATUS_SKIP, "执行队列已满");
+            if (job.fixedDelay && !job.cancelled) {
+                job.timeout = wheel.add(job, job.next(now));
+            }
+        }
+    }
+
+    /**
+     * 执行任务
+     *
+     * @param job          调度任务
+     * @param scheduleTime 计划执行时间
+     */
+    private void run(Job job, long scheduleTime) {
+        long token = 0;
+        if (cluster) {
+            Long leaseToken;
+            try {
+                leaseToken = acquire(job, scheduleTime);
+            } catch (Exception e) {
+                leaseToken = null;
+                logger.error("获取定时任务[{}]租约失败：{}", job.crontab.getTitle(), e.getMessage());
+            }
+            if (leaseToken == null) {
+                // 由持有租约的节点执行
+                finish(job);
+                notOwnerCount.incrementAndGet();
+                if (job.fixedDelay && !job.cancelled && running) {
+                    job.timeout = wheel.add(job, job.next(System.currentTimeMillis()));
+                }
+                return;
+            }
+            token = leaseToken;
+        }
+        long start = System.currentTimeMillis();
+        int status = STATUS_SUCCESS;
+        String errorMsg = null;
+        try {
+            CrontabJob handler = SpringUtils.getBean(job.crontab.getHandler());
+            handler.execute(job.crontab, token);
+        } catch (Throwable e) {
+            status = STATUS_FAIL;
+            errorMsg = StringUtils.substring(e.toString(), 0, 2000);
+            logger.error("定时任务[{}]执行失败：{}", job.crontab.getTitle(), e.getMessage(), e);
+        } finally {
+            finish(job);
+        }
+        long end = System.currentTimeMillis();
+        record(job, scheduleTime, start, end - start, status, errorMsg);
+        executeCountMap.computeIfAbsent(job.crontab.getId(), k -> new AtomicInteger()).incrementAndGet();
+        if (job.fixedDelay && !job.cancelled && running) {
+            job.timeout = wheel.add(job, job.next(end));
+        }
+    }
+
+    /**
+     * 记录执行结果
+     *
+     * @param job          调度任务
+     * @param scheduleTime 计划执行时间
+     * @param startTime    开始执行时间
+     * @param duration     耗时（毫秒）
+     * @param status       执行结果
+     * @param errorMsg     错误消息
+     */
+    private void record(Job job, long scheduleTime, long startTime, long duration, int status, String errorMsg) {
+        long lag = Math.max(0, startTime - scheduleTime);
+        if (status == STATUS_SKIP) {
+            skipCount.incrementAndGet();
+        } else {
+            runCount.incrementAndGet();
+            totalLag.addAndGet(lag);
+            if (lag > maxLag) {
+                maxLag = lag;
+            }
+            if (status == STATUS_FAIL) {
+                failCount.incrementAndGet();
+            }
+        }
+        CrontabLog crontabLog = new CrontabLog();
+        crontabLog.setCrontabId(job.crontab.getId())
+                .setTitle(job.crontab.getTitle())
+                .setScheduleTime(new Date(scheduleTime))
+                .setStartTime(new Date(startTime))
+                .setLagMillis((int) lag)
+                .setDuration((int) duration)
+                .setStatus(status)
+                .setErrorMsg(errorMsg);
+        crontabLog.setCreateTime(DateUtils.now());
+        logQueue.add(crontabLog);
+    }
+
+    /**
+     * 批量写入执行记录并累加执行次数
+     */
+    private void flushLog() {
+        List<CrontabLog> batch = new ArrayList<>(LOG_BATCH_SIZE);
+        boolean available = true;
+        CrontabLog crontabLog;
+        while (available && (crontabLog = logQueue.poll()) != null) {
+            batch.add(crontabLog);
+            if (batch.size() >= LOG_BATCH_SIZE) {
+                available = insertLog(batch);
+                batch.clear();
+            }
+        }
+        if (available && !batch.isEmpty()) {
+            insertLog(batch);
+        }
+        executeCountMap.forEach((id, count) -> {
+            int value = count.getAndSet(0);
+            if (value > 0) {
+                try {
+                    UpdateWrapper<Crontab> updateWrapper = new UpdateWrapper<>();
+                    updateWrapper.setSql("execute = ifnull(execute, 0) + " + value);
+                    updateWrapper.eq("id", id);
+                    crontabMapper.update(null, updateWrapper);
+                } catch (Exception e) {
+                    // 下次重新累加
+                    count.addAndGet(value);
+                    logger.error("累加定时任务[{}]执行次数失败：{}", id, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * 写入一批执行记录
+     * 整批失败时逐条重试，只丢弃出错的记录；逐条也全部失败时视为数据库不可用，放回队列下次重试
+     *
+     * @param batch 执行记录
+     * @return 数据库是否可用
+     */
+    private boolean insertLog(List<CrontabLog> batch) {
+        try {
+            crontabLogMapper.insertCrontabLogBatch(batch);
+            return true;
+        } catch (Exception e) {
+            logger.warn("批量写入定时任务执行记录失败，逐条重试：{}", e.getMessage());
+        }
+        int failed = 0;
+        String errorMsg = null;
+        for (CrontabLog crontabLog : batch) {
+            try {
+                crontabLogMapper.insertCrontabLogBatch(Collections.singletonList(crontabLog));
+            } catch (Exception e) {
+                failed++;
+                errorMsg = e.getMessage();
+            }
+        }
+        if (failed < batch.size()) {
+            if (failed > 0) {
+                logDroppedCount.addAndGet(failed);
+                logger.error("丢弃{}条无法写入的定时任务执行记录：{}", failed, errorMsg);
+            }
+            return true;
+        }
+        int retained = Math.max(0, Math.min(batch.size(), LOG_MAX_PENDING - logQueue.size()));
+        logQueue.addAll(batch.subList(0, retained));
+        if (retained < batch.size()) {
+            logDroppedCount.addAndGet(batch.size() - retained);
+            logger.error("待写入的定时任务执行记录超过{}条，丢弃{}条", LOG_MAX_PENDING, batch.size() - retained);
+        }
+        logger.error("写入定时任务执行记录失败，{}条下次重试：{}", retained, errorMsg);
+        return false;
+    }
+
+    /**
+     * 调度任务
+     */
+    private static final class Job {
+        /**
+         * 定时任务
+         */
+        private final Crontab crontab;
+        /**
+         * cron表达式
+         */
+        private final CronSequenceGenerator generator;
+        /**
+         * 间隔毫秒
+         */
+        private final long interval;
+        /**
+         * 是否固定延迟（上次执行结束后计时）
+         */
+        private final boolean fixedDelay;
+        /**
+         * 是否执行中
+         */
+        private final AtomicBoolean running = new AtomicBoolean();
+        /**
+         * 是否已取消
+         */
+        private volatile boolean cancelled;
+        /**
+         * 时间轮中的句柄
+         */
+        private volatile TimingWheel.Timeout<Job> timeout;
+        /**
+         * 任务租约（集群模式）
+         */
+        private volatile Lease lease;
+
+        private Job(Crontab crontab) {
+            if (StringUtils.isEmpty(crontab.getHandler())) {
+                throw new IllegalArgumentException("任务处理器不能为空");
+            }
+            this.crontab = crontab;
+            if (StringUtils.isNotEmpty(crontab.getCron())) {
+                String cron = crontab.getCron().trim();
+                // 兼容不含秒的5位crontab格式
+                if (cron.split("\\s+").length == 5) {
+                    cron = "0 " + cron;
+                }
+                this.generator = new CronSequenceGenerator(cron);
+                this.interval = 0;
+                this.fixedDelay = false;
+            } else if (crontab.getFixed() != null && crontab.getFixed() > 0) {
+                this.generator = null;
+                this.interval = crontab.getFixed();
+                this.fixedDelay = false;
+            } else if (crontab.getDelay() != null && crontab.getDelay() > 0) {
+                this.generator = null;
+                this.interval = crontab.getDelay();
+                this.fixedDelay = true;
+            } else {
+                throw new IllegalArgumentException("cron表达式、间隔或延迟至少设置一项");
+            }
+        }
+
+        /**
+         * 计算下次执行时间
+         *
+         * @param from 起始时间（毫秒）
+         * @return
+         */
+        private long next(long from) {
+            if (generator != null) {
+                return generator.next(new Date(from)).getTime();
+            }
+            return from + interval;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            TimingWheel.Timeout<Job> current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.kestrelcjx.system.manager;
+
+import com.kestrelcjx.common.utils.DateUtils;
+import com.kestrelcjx.common.utils.IpUtils;
+import com.kestrelcjx.system.entity.OperLog;
+import com.kestrelcjx.system.service.IOperLogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作日志批量写入器
+ * 操作日志先写入有界环形缓冲队列，由后台线程按条数或时间批量取出，解析操作地点后多行INSERT写入数据库；
+ * 整批写入失败时逐条重试，个别出错的日志不会导致同批其他日志丢失
+ */
+@Component
+public class OperLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger(OperLogWriter.class);
+    /**
+     * 队列满时的处理策略：丢弃最新日志
+     */
+    public static final String POLICY_DROP_NEWEST = "dropNewest";
+    /**
+     * 队列满时的处理策略：丢弃最旧日志
+     */
+    public static final String POLICY_DROP_OLDEST = "dropOldest";
+    /**
+     * 队列满时的处理策略：阻塞等待指定时间，超时后丢弃
+     */
+    public static final String POLICY_BLOCK = "block";
+
+    @Autowired
+    private IOperLogService operLogService;
+    /**
+     * 队列容量
+     */
+    @Value("${operlog.writer.capacity:10000}")
+    private Integer capacity;
+    /**
+     * 每批最大条数
+     */
+    @Value("${operlog.writer.batchSize:200}")
+    private Integer batchSize;
+    /**
+     * 最长刷新间隔（毫秒）
+     */
+    @Value("${operlog.writer.flushIntervalMillis:1000}")
+    private Long flushIntervalMillis;
+    /**
+     * 队列满时的处理策略：dropNewest、dropOldest、block
+     */
+    @Value("${operlog.writer.rejectPolicy:dropNewest}")
+    private String rejectPolicy;
+    /**
+     * 阻塞策略下的最长等待时间（毫秒）
+     */
+    @Value("${operlog.writer.offerTimeoutMillis:50}")
+    private Long offerTimeoutMillis;
+
+    /**
+     * 日志缓冲队列
+     */
+    private ArrayBlockingQueue<OperLog> queue;
+    /**
+     * 后台写入线程
+     */
+    private Thread worker;
+    /**
+     * 是否运行中
+     */
+    private volatile boolean running;
+
+    /**
+     * 已接收条数
+     */
+    private final AtomicLong acceptedCount = new AtomicLong();
+    /**
+     * 已丢弃条数
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+    /**
+     * 已写入条数
+     */
+    private final AtomicLong writtenCount = new AtomicLong();
+    /**
+     * 写入失败条数
+     */
+    private final AtomicLong failedCount = new AtomicLong();
+    /**
+     * 已写入批次数
+     */
+    private final AtomicLong batchCount = new AtomicLong();
+    /**
+     * 最近一批条数
+     */
+    private volatile int lastBatchSize;
+    /**
+     * 最大批条数
+     */
+    private volatile int maxBatchSize;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        worker = new Thread(this::drain, "operlog-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 提交操作日志
+     *
+     * @param operLog 操作日志
+     * @return 是否已进入队列
+     */
+    public boolean offer(OperLog operLog) {
+        if (operLog.getCreateTime() == null) {
+            operLog.setCreateTime(DateUtils.now());
+        }
+        if (!running) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        boolean result = queue.offer(operLog);
+        if (!result) {
+            if (POLICY_DROP_OLDEST.equals(rejectPolicy)) {
+                // 丢弃最旧日志后重试
+                while (!result) {
+                    if (queue.poll() != null) {
+                        droppedCount.incrementAndGet();
+                    }
+                    result = queue.offer(operLog);
+                }
+            } else if (POLICY_BLOCK.equals(rejectPolicy)) {
+                try {
+                    result = queue.offer(operLog, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (!result) {
+                    droppedCount.incrementAndGet();
+                }
+            } else {
+                droppedCount.incrementAndGet();
+            }
+        }
+        if (result) {
+            acceptedCount.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * 后台线程：按条数或时间触发批量写入
+     */
+    private void drain() {
+        List<OperLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OperLog first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remain = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remain <= 0 || !running) {
+                        break;
+                    }
+                    OperLog next = queue.poll(remain, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 等待被中断时写完已取出的日志
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 批量写入数据库，整批失败时逐条重试，只丢弃出错的日志
+     *
+     * @param batch 操作日志
+     */
+    private void write(List<OperLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            // 解析操作地点（同一批次相同IP只解析一次）
+            Map<String, String> locationMap = new HashMap<>();
+            for (OperLog operLog : batch) {
+                if (operLog.getOperLocation() == null && operLog.getOperIp() != null) {
+                    operLog.setOperLocation(locationMap.computeIfAbsent(operLog.getOperIp(), IpUtils::getRealAddressByIP));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("解析操作地点失败：{}", e.getMessage());
+        }
+        try {
+            operLogService.insertOperLogBatch(batch);
+            writtenCount.addAndGet(batch.size());
+        } catch (Exception e) {
+            logger.warn("批量写入操作日志失败，逐条重试，条数：{}，原因：{}", batch.size(), e.getMessage());
+            int failed = 0;
+            String errorMsg = e.getMessage();
+            for (OperLog operLog : batch) {
+                try {
+                    operLogService.insertOperLogBatch(Collections.singletonList(operLog));
+                    writtenCount.incrementAndGet();
+                } catch (Exception ex) {
+                    failed++;
+                    errorMsg = ex.getMessage();
+                }
+            }
+            if (failed > 0) {
+                failedCount.addAndGet(failed);
+                logger.error("丢弃无法写入的操作日志，条数：{}，原因：{}", failed, errorMsg);
+            }
+        }
+        batchCount.incrementAndGet();
+        lastBatchSize = batch.size();
+        if (batch.size() > maxBatchSize) {
+            maxBatchSize = batch.size();
+        }
+    }
+
+    /**
+     * 停止接收并写完队列中的日志
+     *
+     * @param timeout 最长等待时间（毫秒）
+     */
+    public void shutdown(long timeout) {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        try {
+            worker.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("操作日志写入超时，未写入条数：{}", queue.size());
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueSize", queue.size());
+        stats.put("capacity", capacity);
+        stats.put("accepted", acceptedCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("written", writtenCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("batches", batchCount.get());
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("maxBatchSize", maxBatchSize);
+        long batches = batchCount.get();
+        stats.put("avgBatchSize", batches == 0 ? 0 : (writtenCount.get() + failedCount.get()) / batches);
+        return stats;
+    }
+}
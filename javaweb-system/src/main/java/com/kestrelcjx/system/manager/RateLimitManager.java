@@ -0,0 +1,316 @@
+package com.kestrelcjx.system.manager;
+
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.limit.RateLimitRule;
+import com.kestrelcjx.common.limit.SlidingWindowCounter;
+import com.kestrelcjx.common.utils.RedisUtils;
+import org.apache.shiro.util.AntPathMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录限流管理
+ * 按路径配置规则，每条规则按IP或用户名做滑动窗口计数：先查本地分片计数（近似，超限直接拒绝，不访问Redis），
+ * 再由Lua脚本在Redis中做集群计数；Redis不可用时只按本地计数限制；
+ * 全部规则先检查本地计数再依次计数，后面的规则拒绝时撤销前面规则已计入的次数，被拒绝的请求不占用其他规则的次数
+ */
+@Component
+public class RateLimitManager {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitManager.class);
+    /**
+     * 用户名参与KEY的最大长度
+     */
+    private static final int MAX_USERNAME_LENGTH = 64;
+    /**
+     * 滑动窗口计数：上一窗口计数 × 权重 + 当前窗口计数未达到限制时当前窗口加1并返回1，否则返回0
+     * KEYS[1]当前窗口 KEYS[2]上一窗口 ARGV[1]限制次数 ARGV[2]上一窗口权重 ARGV[3]有效期（毫秒）
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('get', KEYS[1]) or '0') " +
+                    "local previous = tonumber(redis.call('get', KEYS[2]) or '0') " +
+                    "if previous * tonumber(ARGV[2]) + current >= tonumber(ARGV[1]) then " +
+                    "  return 0 " +
+                    "end " +
+                    "redis.call('incr', KEYS[1]) " +
+                    "redis.call('pexpire', KEYS[1], ARGV[3]) " +
+                    "return 1", Long.class);
+    /**
+     * 撤销一次计数：KEYS[1]当前窗口
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if tonumber(redis.call('get', KEYS[1]) or '0') > 0 then " +
+                    "  redis.call('decr', KEYS[1]) " +
+                    "end " +
+                    "return 1", Long.class);
+
+    @Autowired
+    private RedisUtils redisUtils;
+    /**
+     * 是否开启限流
+     */
+    @Value("${ratelimit.enabled:true}")
+    private Boolean enabled;
+    /**
+     * 限流规则，格式为“路径:维度:次数:秒数[:请求方法]”，维度为ip或username
+     */
+    @Value("${ratelimit.rules:/login:ip:60:60:POST,/login:username:10:300:POST,/captcha:ip:60:60}")
+    private String rules;
+    /**
+     * 是否启用Redis集群计数（关闭时只按本节点计数）
+     */
+    @Value("${ratelimit.cluster:true}")
+    private Boolean cluster;
+    /**
+     * 本地计数最大KEY数量
+     */
+    @Value("${ratelimit.localMaxKeys:100000}")
+    private Integer localMaxKeys;
+    /**
+     * 可信代理IP（逗号分隔），只有来自可信代理的请求才从X-Forwarded-For、X-Real-IP取客户端IP
+     */
+    @Value("${ratelimit.trustedProxies:}")
+    private String trustedProxies;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private List<RateLimitRule> ruleList = Collections.emptyList();
+    private final Set<String> trustedProxySet = new HashSet<>();
+    /**
+     * 规则统计（规则标识 -> 统计），初始化后只读
+     */
+    private final Map<String, RuleStats> ruleStats = new LinkedHashMap<>();
+    private SlidingWindowCounter counter;
+    /**
+     * Redis计数失败次数
+     */
+    private final AtomicLong redisErrorCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        counter = new SlidingWindowCounter(32, localMaxKeys);
+        if (enabled) {
+            ruleList = RateLimitRule.parse(rules);
+        }
+        for (String proxy : trustedProxies.split(",")) {
+            if (!proxy.trim().isEmpty()) {
+                trustedProxySet.add(proxy.trim());
+            }
+        }
+        for (RateLimitRule rule : ruleList) {
+            ruleStats.put(rule.toString(), new RuleStats());
+        }
+        logger.info("登录限流规则：{}", ruleList);
+    }
+
+    /**
+     * 获取路径和请求方法匹配的规则
+     *
+     * @param path   请求路径
+     * @param method 请求方法
+     * @return
+     */
+    public List<RateLimitRule> getRules(String path, String method) {
+        List<RateLimitRule> list = null;
+        for (RateLimitRule rule : ruleList) {
+            if (rule.matchesMethod(method) && pathMatcher.matches(rule.getPath(), path)) {
+                if (list == null) {
+                    list = new ArrayList<>(2);
+                }
+                list.add(rule);
+            }
+        }
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    /**
+     * 获取限流使用的客户端IP
+     * 转发头可由客户端任意填写，只有直连地址是可信代理时才采用：X-Forwarded-For从右向左取第一个非可信代理的地址，其次取X-Real-IP
+     *
+     * @param request 请求
+     * @return
+     */
+    public String getClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!trustedProxySet.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null) {
+            String[] addresses = forwardedFor.split(",");
+            for (int i = addresses.length - 1; i >= 0; i--) {
+                String address = addresses[i].trim();
+                if (!address.isEmpty() && !trustedProxySet.contains(address)) {
+                    return address;
+                }
+            }
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        return realIp == null || realIp.trim().isEmpty() ? remoteAddr : realIp.trim();
+    }
+
+    /**
+     * 检查请求是否超过限制
+     *
+     * @param rules    路径匹配的规则
+     * @param ip       客户端IP
+     * @param username 用户名（可为空，为空时跳过用户名规则）
+     * @return 超过限制的规则，未超过时返回null
+     */
+    public RateLimitRule check(List<RateLimitRule> rules, String ip, String username) {
+        long now = System.currentTimeMillis();
+        String[] keys = new String[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            String value = RateLimitRule.DIMENSION_IP.equals(rule.getDimension()) ? ip : normalize(username);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            keys[i] = rule.getId() + ":" + value;
+            // 先检查全部规则的本地计数，超限时不计数
+            if (counter.estimate(keys[i], rule.getWindowMillis(), now) >= rule.getLimit()) {
+                ruleStats.get(rule.toString()).rejectedLocal.incrementAndGet();
+                return rule;
+            }
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            RateLimitRule rule = rules.get(i);
+            RuleStats stats = ruleStats.get(rule.toString());
+            if (!counter.tryAcquire(keys[i], rule.getLimit(), rule.getWindowMillis(), now)) {
+                stats.rejectedLocal.incrementAndGet();
+                release(rules, keys, i, now);
+                return rule;
+            }
+            if (cluster && !acquireCluster(keys[i], rule, now)) {
+                stats.rejectedCluster.incrementAndGet();
+                counter.release(keys[i], rule.getWindowMillis(), now);
+                release(rules, keys, i, now);
+                return rule;
+            }
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            if (keys[i] != null) {
+                ruleStats.get(rules.get(i).toString()).passed.incrementAndGet();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 撤销前面规则已计入的次数
+     *
+     * @param rules 规则
+     * @param keys  规则对应的KEY（为空时未计数）
+     * @param end   拒绝请求的规则下标
+     * @param now   计数时的时间（毫秒）
+     */
+    private void release(List<RateLimitRule> rules, String[] keys, int end, long now) {
+        for (int i = 0; i < end; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            RateLimitRule rule = rules.get(i);
+            counter.release(keys[i], rule.getWindowMillis(), now);
+            if (cluster) {
+                releaseCluster(keys[i], rule, now);
+            }
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, RuleStats> entry : ruleStats.entrySet()) {
+            RuleStats value = entry.getValue();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("passed", value.passed.get());
+            item.put("rejectedLocal", value.rejectedLocal.get());
+            item.put("rejectedCluster", value.rejectedCluster.get());
+            stats.put(entry.getKey(), item);
+        }
+        stats.put("localKeys", counter.size());
+        stats.put("redisErrorCount", redisErrorCount.get());
+        return stats;
+    }
+
+    /**
+     * Redis集群计数，当前和上一窗口的KEY使用相同的哈希标签，保证落在同一个槽
+     */
+    private boolean acquireCluster(String key, RateLimitRule rule, long now) {
+        long windowMillis = rule.getWindowMillis();
+        long index = now / windowMillis;
+        double weight = 1 - (double) (now % windowMillis) / windowMillis;
+        String prefix = RedisConstant.REDIS_PREFIX_RATE_LIMIT + "{" + key + "}:";
+        try {
+            Long result = redisUtils.eval(ACQUIRE_SCRIPT, Arrays.asList(prefix + index, prefix + (index - 1)),
+                    String.valueOf(rule.getLimit()), String.valueOf(weight), String.valueOf(windowMillis * 2));
+            return result == null || result != 0;
+        } catch (RuntimeException e) {
+            // Redis不可用时放行（本地计数仍然有效），失败日志每1000次输出一次
+            if (redisErrorCount.incrementAndGet() % 1000 == 1) {
+                logger.warn("限流集群计数失败，只按本地计数限制：{}", e.getMessage());
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 撤销Redis集群计数，失败时忽略（计数在窗口结束后过期）
+     */
+    private void releaseCluster(String key, RateLimitRule rule, long now) {
+        String prefix = RedisConstant.REDIS_PREFIX_RATE_LIMIT + "{" + key + "}:";
+        try {
+            redisUtils.eval(RELEASE_SCRIPT, Collections.singletonList(prefix + now / rule.getWindowMillis()));
+        } catch (RuntimeException e) {
+            redisErrorCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 用户名忽略大小写和首尾空格，并限制长度
+     */
+    private static String normalize(String username) {
+        if (username == null) {
+            return null;
+        }
+        String value = username.trim().toLowerCase();
+        return value.length() > MAX_USERNAME_LENGTH ? value.substring(0, MAX_USERNAME_LENGTH) : value;
+    }
+
+    private static final class RuleStats {
+        /**
+         * 通过次数
+         */
+        private final AtomicLong passed = new AtomicLong();
+        /**
+         * 本地计数拒绝次数
+         */
+        private final AtomicLong rejectedLocal = new AtomicLong();
+        /**
+         * 集群计数拒绝次数
+         */
+        private final AtomicLong rejectedCluster = new AtomicLong();
+    }
+}
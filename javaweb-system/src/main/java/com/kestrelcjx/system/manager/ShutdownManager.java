@@ -1,7 +1,9 @@
 package com.kestrelcjx.system.manager;
 
+import com.kestrelcjx.common.lease.LeaseManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PreDestroy;
@@ -12,12 +14,79 @@ import javax.annotation.PreDestroy;
 @Component
 public class ShutdownManager {
     private static final Logger logger = LoggerFactory.getLogger("sys-admin");
+    @Autowired
+    private CrontabScheduler crontabScheduler;
+    @Autowired
+    private OperLogWriter operLogWriter;
+    @Autowired
+    private LeaseManager leaseManager;
+    @Autowired
+    private CaptchaManager captchaManager;
+    @Autowired
+    private RateLimitManager rateLimitManager;
 
     @PreDestroy
     public void destroy() {
+        shutdownCrontabScheduler();
+        shutdownLeaseManager();
+        shutdownOperLogWriter();
+        shutdownCaptchaManager();
+        logger.info("登录限流统计：{}", rateLimitManager.getStats());
         shutdownAsyncManager();
     }
 
+    /**
+     * 停止定时任务调度并写完执行记录
+     */
+    private void shutdownCrontabScheduler() {
+        try {
+            logger.info("====停止定时任务调度====");
+            crontabScheduler.shutdown(10000);
+            logger.info("定时任务执行统计：{}", crontabScheduler.getStats());
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 释放本节点持有的集群租约，其他节点可立即接管
+     */
+    private void shutdownLeaseManager() {
+        try {
+            logger.info("====释放集群租约====");
+            leaseManager.shutdown();
+            logger.info("集群租约统计：{}", leaseManager.getStats());
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写完缓冲中的操作日志
+     */
+    private void shutdownOperLogWriter() {
+        try {
+            logger.info("====写入缓冲中的操作日志====");
+            operLogWriter.shutdown(10000);
+            logger.info("操作日志写入统计：{}", operLogWriter.getStats());
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 停止验证码后台渲染
+     */
+    private void shutdownCaptchaManager() {
+        try {
+            logger.info("====停止验证码后台渲染====");
+            captchaManager.shutdown();
+            logger.info("验证码池统计：{}", captchaManager.getStats());
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
     /**
      * 停止异步执行任务
      */
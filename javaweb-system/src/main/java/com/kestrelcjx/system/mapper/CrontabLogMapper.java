@@ -0,0 +1,19 @@
+package com.kestrelcjx.system.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kestrelcjx.system.entity.CrontabLog;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 定时任务执行记录Mapper接口
+ */
+public interface CrontabLogMapper extends BaseMapper<CrontabLog> {
+    /**
+     * 批量创建定时任务执行记录
+     *
+     * @param list 执行记录列表
+     */
+    void insertCrontabLogBatch(@Param("list") List<CrontabLog> list);
+}
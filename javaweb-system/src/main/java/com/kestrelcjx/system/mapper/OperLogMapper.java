@@ -2,6 +2,9 @@ package com.kestrelcjx.system.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.kestrelcjx.system.entity.OperLog;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 操作日志Mapper接口
@@ -13,4 +16,11 @@ public interface OperLogMapper extends BaseMapper<OperLog> {
      * @param operLog
      */
     void insertOperLog(OperLog operLog);
+
+    /**
+     * 批量创建系统操作日志
+     *
+     * @param list 操作日志列表
+     */
+    void insertOperLogBatch(@Param("list") List<OperLog> list);
 }
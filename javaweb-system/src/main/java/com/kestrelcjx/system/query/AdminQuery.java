@@ -18,6 +18,10 @@ public class AdminQuery extends BaseQuery {
      * 状态：1=正常，2=禁用
      */
     private Integer status;
+    /**
+     * 所属部门ID（含下级部门）
+     */
+    private Integer deptId;
 
     public AdminQuery() {
     }
@@ -34,6 +38,10 @@ public class AdminQuery extends BaseQuery {
         return this.status;
     }
 
+    public Integer getDeptId() {
+        return this.deptId;
+    }
+
     public void setKeywords(String keywords) {
         this.keywords = keywords;
     }
@@ -46,6 +54,10 @@ public class AdminQuery extends BaseQuery {
         this.status = status;
     }
 
+    public void setDeptId(Integer deptId) {
+        this.deptId = deptId;
+    }
+
     public boolean equals(final Object o) {
         if (o == this) return true;
         if (!(o instanceof AdminQuery)) return false;
@@ -57,6 +69,8 @@ public class AdminQuery extends BaseQuery {
             return false;
         if (this.getStatus() == null ? other.getStatus() != null : !this.getStatus().equals(other.getStatus()))
             return false;
+        if (this.getDeptId() == null ? other.getDeptId() != null : !this.getDeptId().equals(other.getDeptId()))
+            return false;
         return true;
     }
 
@@ -70,6 +84,7 @@ public class AdminQuery extends BaseQuery {
         result = result * PRIME + (this.getKeywords() == null ? 43 : this.getKeywords().hashCode());
         result = result * PRIME + (this.getGender() == null ? 43 : this.getGender().hashCode());
         result = result * PRIME + (this.getStatus() == null ? 43 : this.getStatus().hashCode());
+        result = result * PRIME + (this.getDeptId() == null ? 43 : this.getDeptId().hashCode());
         return result;
     }
 
@@ -78,6 +93,7 @@ public class AdminQuery extends BaseQuery {
                 "keywords=" + this.getKeywords() +
                 ", gender=" + this.getGender() +
                 ", status=" + this.getStatus() +
+                ", deptId=" + this.getDeptId() +
                 ")";
     }
 }
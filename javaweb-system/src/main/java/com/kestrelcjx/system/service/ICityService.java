@@ -24,4 +24,13 @@ public interface ICityService extends IBaseService<City> {
      * @return
      */
     String getCityNameByCityId(Integer cityId, String delimiter);
+
+    /**
+     * 根据城市ID批量获取城市名称
+     *
+     * @param cityIds   城市ID
+     * @param delimiter 拼接字符
+     * @return 与城市ID一一对应，城市不存在时为空字符串
+     */
+    String[] resolvePaths(int[] cityIds, String delimiter);
 }
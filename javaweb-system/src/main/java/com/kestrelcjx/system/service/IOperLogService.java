@@ -3,6 +3,8 @@ package com.kestrelcjx.system.service;
 import com.kestrelcjx.common.common.IBaseService;
 import com.kestrelcjx.system.entity.OperLog;
 
+import java.util.List;
+
 /**
  * 操作日志服务类
  */
@@ -13,4 +15,11 @@ public interface IOperLogService extends IBaseService<OperLog> {
      * @param operLog
      */
     void insertOperLog(OperLog operLog);
+
+    /**
+     * 批量创建系统操作日志
+     *
+     * @param list 操作日志列表
+     */
+    void insertOperLogBatch(List<OperLog> list);
 }
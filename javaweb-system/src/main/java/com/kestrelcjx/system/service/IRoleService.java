@@ -1,6 +1,7 @@
 package com.kestrelcjx.system.service;
 
 import com.kestrelcjx.common.common.IBaseService;
+import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.system.entity.Role;
 
 import java.util.List;
@@ -16,4 +17,12 @@ public interface IRoleService extends IBaseService<Role> {
      * @return
      */
     List<Role> getRoleListByAdminId(Integer adminId);
+
+    /**
+     * 强制退出拥有该角色的全部人员
+     *
+     * @param roleId 角色ID
+     * @return
+     */
+    JsonResult kickSessions(Integer roleId);
 }
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.config.CommonConfig;
 import com.kestrelcjx.common.utils.CommonUtils;
@@ -16,7 +15,6 @@ import com.kestrelcjx.system.mapper.AdMapper;
 import com.kestrelcjx.system.mapper.AdSortMapper;
 import com.kestrelcjx.system.query.AdQuery;
 import com.kestrelcjx.system.service.IAdService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.AdListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -60,10 +58,8 @@ public class AdServiceImpl extends BaseServiceImpl<AdMapper, Ad> implements IAdS
             queryWrapper.eq("status", adQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Ad> page = new Page<>(adQuery.getPage(), adQuery.getLimit());
-        IPage<Ad> data = adMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Ad> data = this.selectPage(adQuery, queryWrapper, false);
         List<Ad> adList = data.getRecords();
         List<AdListVo> adListVoList = new ArrayList<>();
         if (!adList.isEmpty()) {
@@ -88,17 +84,11 @@ public class AdServiceImpl extends BaseServiceImpl<AdMapper, Ad> implements IAdS
                 if (adSort != null) {
                     adListVo.setSortName(String.format("%s=>%s", adSort.getName(), adSort.getLocId()));
                 }
-                // 添加人名称
-                if (adListVo.getCreateUser() > 0) {
-                    adListVo.setCreateUserName(AdminUtils.getName((adListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (adListVo.getUpdateUser() > 0) {
-                    adListVo.setUpdateUserName(AdminUtils.getName((adListVo.getUpdateUser())));
-                }
                 adListVoList.add(adListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(adListVoList);
         return JsonResult.success("操作成功", adListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -15,7 +14,6 @@ import com.kestrelcjx.system.mapper.ItemMapper;
 import com.kestrelcjx.system.query.AdSortQuery;
 import com.kestrelcjx.system.service.IAdSortService;
 import com.kestrelcjx.system.service.IItemCateService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.AdSortListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,10 +56,8 @@ public class AdSortServiceImpl extends BaseServiceImpl<AdSortMapper, AdSort> imp
             queryWrapper.eq("platform", adSortQuery.getPlatform());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<AdSort> page = new Page<>(adSortQuery.getPage(), adSortQuery.getLimit());
-        IPage<AdSort> data = adSortMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<AdSort> data = this.selectPage(adSortQuery, queryWrapper, false);
         List<AdSort> adSortList = data.getRecords();
         List<AdSortListVo> adSortListVoList = new ArrayList<>();
         if (!adSortList.isEmpty()) {
@@ -85,17 +81,11 @@ public class AdSortServiceImpl extends BaseServiceImpl<AdSortMapper, AdSort> imp
                 if (adSortListVo.getPlatform() != null && adSortListVo.getPlatform() > 0) {
                     adSortListVo.setPlatformName(AdSortConstant.ADSORT_PLATFORM_LIST.get(adSortListVo.getPlatform()));
                 }
-                // 添加人名称
-                if (adSortListVo.getCreateUser() > 0) {
-                    adSortListVo.setCreateUserName(AdminUtils.getName((adSortListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (adSortListVo.getUpdateUser() > 0) {
-                    adSortListVo.setUpdateUserName(AdminUtils.getName((adSortListVo.getUpdateUser())));
-                }
                 adSortListVoList.add(adSortListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(adSortListVoList);
         return JsonResult.success("操作成功", adSortListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.system.common.BaseServiceImpl;
@@ -10,7 +9,6 @@ import com.kestrelcjx.system.entity.AdminRole;
 import com.kestrelcjx.system.mapper.AdminRoleMapper;
 import com.kestrelcjx.system.query.AdminRoleQuery;
 import com.kestrelcjx.system.service.IAdminRoleService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.AdminRoleListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,10 +38,8 @@ public class AdminRoleServiceImpl extends BaseServiceImpl<AdminRoleMapper, Admin
         // 查询条件
         QueryWrapper<AdminRole> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<AdminRole> page = new Page<>(adminRoleQuery.getPage(), adminRoleQuery.getLimit());
-        IPage<AdminRole> data = adminRoleMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<AdminRole> data = this.selectPage(adminRoleQuery, queryWrapper, false);
         List<AdminRole> adminRoleList = data.getRecords();
         List<AdminRoleListVo> adminRoleListVoList = new ArrayList<>();
         if (!adminRoleList.isEmpty()) {
@@ -51,17 +47,11 @@ public class AdminRoleServiceImpl extends BaseServiceImpl<AdminRoleMapper, Admin
                 AdminRoleListVo adminRoleListVo = new AdminRoleListVo();
                 // 拷贝属性
                 BeanUtils.copyProperties(item, adminRoleListVo);
-                // 添加人名称
-                if (adminRoleListVo.getCreateUser() > 0) {
-                    adminRoleListVo.setCreateUserName(AdminUtils.getName(adminRoleListVo.getCreateUser()));
-                }
-                // 更新人名称
-                if (adminRoleListVo.getUpdateUser() > 0) {
-                    adminRoleListVo.setUpdateUserName(AdminUtils.getName(adminRoleListVo.getUpdateUser()));
-                }
                 adminRoleListVoList.add(adminRoleListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(adminRoleListVoList);
         return JsonResult.success("操作成功", adminRoleListVoList, data.getTotal());
     }
 
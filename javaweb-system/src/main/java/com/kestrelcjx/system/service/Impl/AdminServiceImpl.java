@@ -5,14 +5,18 @@ import com.alibaba.fastjson.TypeReference;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.config.CommonConfig;
 import com.kestrelcjx.common.utils.CommonUtils;
+import com.kestrelcjx.common.utils.ConvertUtils;
 import com.kestrelcjx.common.utils.DateUtils;
 import com.kestrelcjx.common.utils.JsonResult;
+import com.kestrelcjx.common.utils.PageUtils;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.common.utils.TransactionUtils;
+import com.kestrelcjx.system.cache.AdminCache;
+import com.kestrelcjx.system.cache.DepCache;
 import com.kestrelcjx.system.constant.AdminConstant;
 import com.kestrelcjx.system.entity.Admin;
 import com.kestrelcjx.system.entity.Level;
@@ -52,6 +56,10 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
     private ICityService cityService;
     @Autowired
     private IDepService depService;
+    @Autowired
+    private AdminCache adminCache;
+    @Autowired
+    private DepCache depCache;
 
     /**
      * 获取数据列表
@@ -77,14 +85,21 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
         if (adminQuery.getStatus() != null) {
             queryWrapper.eq("status", adminQuery.getStatus());
         }
+        // 所属部门（含下级部门）
+        if (adminQuery.getDeptId() != null && adminQuery.getDeptId() > 0) {
+            depCache.inSubtree(queryWrapper, "dept_id", adminQuery.getDeptId());
+        }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Admin> page = new Page<>(adminQuery.getPage(), adminQuery.getLimit());
-        IPage<Admin> data = adminMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Admin> data = PageUtils.selectPage(adminMapper, adminQuery, queryWrapper, false);
         List<Admin> adminList = data.getRecords();
         List<AdminListVo> adminListVoList = new ArrayList<>();
         if (!adminList.isEmpty()) {
+            // 批量获取所属部门、城市名称
+            String[] deptNames = depCache.resolvePaths(adminList.stream()
+                    .mapToInt(item -> item.getDeptId() != null ? item.getDeptId() : 0).toArray(), ">>");
+            String[] cityNames = cityService.resolvePaths(adminList.stream()
+                    .mapToInt(item -> item.getDistrictId() != null ? item.getDistrictId() : 0).toArray(), ">>");
             adminList.forEach(item -> {
                 AdminListVo adminListVo = new AdminListVo();
                 // 拷贝属性
@@ -103,8 +118,7 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
                 }
                 // 所属部门
                 if (adminListVo.getDeptId() != null && adminListVo.getDeptId() > 0) {
-                    String deptName = depService.getDepNameByDepId(adminListVo.getDeptId(), ">>");
-                    adminListVo.setDeptName(deptName);
+                    adminListVo.setDeptName(deptNames[adminListVoList.size()]);
                 }
                 // 获取职级
                 Level levelInfo = levelMapper.selectById(item.getLevelId());
@@ -116,20 +130,13 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
                 if (positionInfo != null) {
                     adminListVo.setPositionName(positionInfo.getName());
                 }
-                // 获取所属城市名称
-                String cityName = cityService.getCityNameByCityId(adminListVo.getDistrictId(), ">>");
-                adminListVo.setCityName(cityName);
-                // 添加人名称
-                if (adminListVo.getCreateUser() > 0) {
-                    adminListVo.setCreateUserName(AdminUtils.getName((adminListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (adminListVo.getUpdateUser() > 0) {
-                    adminListVo.setUpdateUserName(AdminUtils.getName((adminListVo.getUpdateUser())));
-                }
+                // 所属城市名称
+                adminListVo.setCityName(cityNames[adminListVoList.size()]);
                 adminListVoList.add(adminListVo);
             });
         }
+        // 添加人、更新人名称
+        AdminUtils.setUserName(adminListVoList);
         return JsonResult.success("操作成功", adminListVoList, data.getTotal());
     }
 
@@ -202,6 +209,15 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
             entity.setUpdateUser(ShiroUtils.getAdminId());
             entity.setUpdateTime(DateUtils.now());
             result = this.updateById(entity);
+            if (result) {
+                Integer adminId = entity.getId();
+                TransactionUtils.afterCommit(() -> {
+                    // 删除人员缓存
+                    adminCache.evict(adminId);
+                    // 删除该人员会话的授权缓存
+                    ShiroUtils.deleteCache(adminId, false);
+                });
+            }
         } else {
             // 新增记录
             entity.setCreateUser(ShiroUtils.getAdminId());
@@ -240,6 +256,10 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
         if (!result) {
             return JsonResult.error();
         }
+        // 删除人员缓存
+        adminCache.evict(id);
+        // 强制退出登录
+        ShiroUtils.deleteCache(id, true);
         return JsonResult.success("删除成功");
     }
 
@@ -267,6 +287,12 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
         if (!result) {
             return JsonResult.error();
         }
+        // 删除人员缓存
+        adminCache.evict(ConvertUtils.toIntArray(ids));
+        // 强制退出登录
+        for (Integer id : ConvertUtils.toIntArray(ids)) {
+            ShiroUtils.deleteCache(id, true);
+        }
         return JsonResult.success("删除成功");
     }
 
@@ -293,6 +319,10 @@ public class AdminServiceImpl extends ServiceImpl<AdminMapper, Admin> implements
         if (!result) {
             return JsonResult.error();
         }
+        // 删除人员缓存
+        adminCache.evict(entity.getId());
+        // 禁用时强制退出登录
+        ShiroUtils.deleteCache(entity.getId(), entity.getStatus() != 1);
         return JsonResult.success();
     }
 
@@ -2,24 +2,24 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.system.cache.CityCache;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.constant.CityConstant;
 import com.kestrelcjx.system.entity.City;
 import com.kestrelcjx.system.mapper.CityMapper;
 import com.kestrelcjx.system.query.CityQuery;
 import com.kestrelcjx.system.service.ICityService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.CityListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.Serializable;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 城市服务实现类
@@ -28,6 +28,8 @@ import java.util.*;
 public class CityServiceImpl extends BaseServiceImpl<CityMapper, City> implements ICityService {
     @Autowired
     private CityMapper cityMapper;
+    @Autowired
+    private CityCache cityCache;
 
     /**
      * 获取数据列表
@@ -50,10 +52,8 @@ public class CityServiceImpl extends BaseServiceImpl<CityMapper, City> implement
             queryWrapper.eq("level", cityQuery.getLevel());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByAsc("id");
-        // 查询数据
-        IPage<City> page = new Page<>(cityQuery.getPage(), cityQuery.getLimit());
-        IPage<City> data = cityMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<City> data = this.selectPage(cityQuery, queryWrapper, true);
         List<City> cityList = data.getRecords();
         List<CityListVo> cityListVoList = new ArrayList<>();
         if (!cityList.isEmpty()) {
@@ -65,17 +65,11 @@ public class CityServiceImpl extends BaseServiceImpl<CityMapper, City> implement
                 if (cityListVo.getLevel() != null && cityListVo.getLevel() > 0) {
                     cityListVo.setLevelName(CityConstant.CITY_LEVEL_LIST.get(cityListVo.getLevel()));
                 }
-                // 添加人名称
-                if (cityListVo.getCreateUser() > 0) {
-                    cityListVo.setCreateUserName(AdminUtils.getName((cityListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (cityListVo.getUpdateUser() > 0) {
-                    cityListVo.setUpdateUserName(AdminUtils.getName((cityListVo.getUpdateUser())));
-                }
                 cityListVoList.add(cityListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(cityListVoList);
         return JsonResult.success("操作成功", cityListVoList, data.getTotal());
     }
 
@@ -99,7 +93,11 @@ public class CityServiceImpl extends BaseServiceImpl<CityMapper, City> implement
      */
     @Override
     public JsonResult edit(City entity) {
-        return super.edit(entity);
+        JsonResult result = super.edit(entity);
+        if (result.getCode() == 0) {
+            cityCache.reload();
+        }
+        return result;
     }
 
     /**
@@ -117,7 +115,26 @@ public class CityServiceImpl extends BaseServiceImpl<CityMapper, City> implement
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        if (result.getCode() == 0) {
+            cityCache.reload();
+        }
+        return result;
+    }
+
+    /**
+     * 批量删除记录
+     *
+     * @param ids 记录ID
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        if (result.getCode() == 0) {
+            cityCache.reload();
+        }
+        return result;
     }
 
     /**
@@ -128,20 +145,7 @@ public class CityServiceImpl extends BaseServiceImpl<CityMapper, City> implement
      */
     @Override
     public JsonResult getCityListByPid(Integer pid) {
-        QueryWrapper<City> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("pid", pid);
-        queryWrapper.eq("mark", 1);
-        List<City> cityList = cityMapper.selectList(queryWrapper);
-        List<Map<String, Object>> mapList = new ArrayList<>();
-        if (!cityList.isEmpty()) {
-            cityList.forEach(item -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("id", item.getId());
-                map.put("name", item.getName());
-                mapList.add(map);
-            });
-        }
-        return JsonResult.success("操作成功", mapList);
+        return JsonResult.success("操作成功", cityCache.getChildren(pid));
     }
 
     /**
@@ -153,18 +157,18 @@ public class CityServiceImpl extends BaseServiceImpl<CityMapper, City> implement
      */
     @Override
     public String getCityNameByCityId(Integer cityId, String delimiter) {
-        List<String> nameList = new ArrayList<>();
-        while (cityId > 1) {
-            City cityInfo = cityMapper.selectById(cityId);
-            if (cityInfo != null) {
-                nameList.add(cityInfo.getName());
-                cityId = cityInfo.getPid();
-            } else {
-                cityId = 1;
-            }
-        }
-        // 使用集合工具实现数组翻转
-        Collections.reverse(nameList);
-        return org.apache.commons.lang3.StringUtils.join(nameList.toArray(), delimiter);
+        return cityCache.getPath(cityId, delimiter);
+    }
+
+    /**
+     * 根据城市ID批量获取城市名称
+     *
+     * @param cityIds   城市ID
+     * @param delimiter 拼接字符
+     * @return
+     */
+    @Override
+    public String[] resolvePaths(int[] cityIds, String delimiter) {
+        return cityCache.resolvePaths(cityIds, delimiter);
     }
 }
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -11,7 +10,6 @@ import com.kestrelcjx.system.entity.ConfigGroup;
 import com.kestrelcjx.system.mapper.ConfigGroupMapper;
 import com.kestrelcjx.system.query.ConfigGroupQuery;
 import com.kestrelcjx.system.service.IConfigGroupService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.ConfigGroupListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,10 +43,8 @@ public class ConfigGroupServiceImpl extends BaseServiceImpl<ConfigGroupMapper, C
             queryWrapper.like("name", configGroupQuery.getName());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<ConfigGroup> page = new Page<>(configGroupQuery.getPage(), configGroupQuery.getLimit());
-        IPage<ConfigGroup> data = configGroupMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<ConfigGroup> data = this.selectPage(configGroupQuery, queryWrapper, false);
         List<ConfigGroup> configGroupList = data.getRecords();
         List<ConfigGroupListVo> configGroupListVoList = new ArrayList<>();
         if (!configGroupList.isEmpty()) {
@@ -56,17 +52,11 @@ public class ConfigGroupServiceImpl extends BaseServiceImpl<ConfigGroupMapper, C
                 ConfigGroupListVo configGroupListVo = new ConfigGroupListVo();
                 // 拷贝属性
                 BeanUtils.copyProperties(item, configGroupListVo);
-                // 添加人名称
-                if (configGroupListVo.getCreateUser() > 0) {
-                    configGroupListVo.setCreateUserName(AdminUtils.getName((configGroupListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (configGroupListVo.getUpdateUser() > 0) {
-                    configGroupListVo.setUpdateUserName(AdminUtils.getName((configGroupListVo.getUpdateUser())));
-                }
                 configGroupListVoList.add(configGroupListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(configGroupListVoList);
         return JsonResult.success("操作成功", configGroupListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
@@ -13,7 +12,6 @@ import com.kestrelcjx.system.entity.Config;
 import com.kestrelcjx.system.mapper.ConfigMapper;
 import com.kestrelcjx.system.query.ConfigQuery;
 import com.kestrelcjx.system.service.IConfigService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.ConfigListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,10 +56,8 @@ public class ConfigServiceImpl extends BaseServiceImpl<ConfigMapper, Config> imp
             queryWrapper.eq("status", configQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Config> page = new Page<>(configQuery.getPage(), configQuery.getLimit());
-        IPage<Config> data = configMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Config> data = this.selectPage(configQuery, queryWrapper, false);
         List<Config> configList = data.getRecords();
         List<ConfigListVo> configListVoList = new ArrayList<>();
         if (!configList.isEmpty()) {
@@ -77,17 +73,11 @@ public class ConfigServiceImpl extends BaseServiceImpl<ConfigMapper, Config> imp
                 if (configListVo.getStatus() != null && configListVo.getStatus() > 0) {
                     configListVo.setStatusName(ConfigConstant.CONFIG_STATUS_LIST.get(configListVo.getStatus()));
                 }
-                // 添加人名称
-                if (configListVo.getCreateUser() > 0) {
-                    configListVo.setCreateUserName(AdminUtils.getName((configListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (configListVo.getUpdateUser() > 0) {
-                    configListVo.setUpdateUserName(AdminUtils.getName((configListVo.getUpdateUser())));
-                }
                 configListVoList.add(configListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(configListVoList);
         return JsonResult.success("操作成功", configListVoList, data.getTotal());
     }
 
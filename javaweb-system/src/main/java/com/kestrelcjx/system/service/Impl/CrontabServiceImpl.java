@@ -2,17 +2,16 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.constant.CrontabConstant;
 import com.kestrelcjx.system.entity.Crontab;
+import com.kestrelcjx.system.manager.CrontabScheduler;
 import com.kestrelcjx.system.mapper.CrontabMapper;
 import com.kestrelcjx.system.query.CrontabQuery;
 import com.kestrelcjx.system.service.ICrontabService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.CrontabListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +28,8 @@ import java.util.List;
 public class CrontabServiceImpl extends BaseServiceImpl<CrontabMapper, Crontab> implements ICrontabService {
     @Autowired
     private CrontabMapper crontabMapper;
+    @Autowired
+    private CrontabScheduler crontabScheduler;
 
     /**
      * 获取数据列表
@@ -50,10 +51,8 @@ public class CrontabServiceImpl extends BaseServiceImpl<CrontabMapper, Crontab>
             queryWrapper.eq("status", crontabQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Crontab> page = new Page<>(crontabQuery.getPage(), crontabQuery.getLimit());
-        IPage<Crontab> data = crontabMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Crontab> data = this.selectPage(crontabQuery, queryWrapper, false);
         List<Crontab> crontabList = data.getRecords();
         List<CrontabListVo> crontabListVoList = new ArrayList<>();
         if (!crontabList.isEmpty()) {
@@ -64,17 +63,11 @@ public class CrontabServiceImpl extends BaseServiceImpl<CrontabMapper, Crontab>
                 // 状态描述
                 if (crontabListVo.getStatus() != null && crontabListVo.getStatus() > 0)
                     crontabListVo.setStatusName(CrontabConstant.CRONTAB_STATUS_LIST.get(crontabListVo.getStatus()));
-                // 添加人名称
-                if (crontabListVo.getCreateUser() > 0) {
-                    crontabListVo.setCreateUserName(AdminUtils.getName((crontabListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (crontabListVo.getUpdateUser() > 0) {
-                    crontabListVo.setUpdateUserName(AdminUtils.getName((crontabListVo.getUpdateUser())));
-                }
                 crontabListVoList.add(crontabListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(crontabListVoList);
         return JsonResult.success("操作成功", crontabListVoList, data.getTotal());
     }
 
@@ -98,7 +91,10 @@ public class CrontabServiceImpl extends BaseServiceImpl<CrontabMapper, Crontab>
      */
     @Override
     public JsonResult edit(Crontab entity) {
-        return super.edit(entity);
+        JsonResult result = super.edit(entity);
+        // 重新加载定时任务
+        crontabScheduler.reload(entity.getId());
+        return result;
     }
 
     /**
@@ -116,7 +112,28 @@ public class CrontabServiceImpl extends BaseServiceImpl<CrontabMapper, Crontab>
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        // 取消定时任务
+        crontabScheduler.reload(id);
+        return result;
+    }
+
+    /**
+     * 批量删除记录
+     *
+     * @param ids 记录ID
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        // 取消定时任务
+        if (!StringUtils.isEmpty(ids)) {
+            for (String id : ids.split(",")) {
+                crontabScheduler.reload(Integer.valueOf(id.trim()));
+            }
+        }
+        return result;
     }
 
     /**
@@ -133,6 +150,9 @@ public class CrontabServiceImpl extends BaseServiceImpl<CrontabMapper, Crontab>
         if (entity.getStatus() == null) {
             return JsonResult.error("记录状态不能为空");
         }
-        return super.setStatus(entity);
+        JsonResult result = super.setStatus(entity);
+        // 重新加载定时任务
+        crontabScheduler.reload(entity.getId());
+        return result;
     }
 }
@@ -2,17 +2,16 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.system.cache.DepCache;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.constant.DepConstant;
 import com.kestrelcjx.system.entity.Dep;
 import com.kestrelcjx.system.mapper.DepMapper;
 import com.kestrelcjx.system.query.DepQuery;
 import com.kestrelcjx.system.service.IDepService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.DepListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +19,6 @@ import org.springframework.stereotype.Service;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -30,6 +28,8 @@ import java.util.List;
 public class DepServiceImpl extends BaseServiceImpl<DepMapper, Dep> implements IDepService {
     @Autowired
     private DepMapper depMapper;
+    @Autowired
+    private DepCache depCache;
 
     /**
      * 获取数据列表
@@ -55,10 +55,8 @@ public class DepServiceImpl extends BaseServiceImpl<DepMapper, Dep> implements I
             queryWrapper.eq("has_child", depQuery.getHasChild());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Dep> page = new Page<>(depQuery.getPage(), depQuery.getLimit());
-        IPage<Dep> data = depMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Dep> data = this.selectPage(depQuery, queryWrapper, false);
         List<Dep> depList = data.getRecords();
         List<DepListVo> depListVoList = new ArrayList<>();
         if (!depList.isEmpty()) {
@@ -74,17 +72,11 @@ public class DepServiceImpl extends BaseServiceImpl<DepMapper, Dep> implements I
                 if (depListVo.getHasChild() != null && depListVo.getHasChild() > 0) {
                     depListVo.setHasChildName(DepConstant.DEP_HASCHILD_LIST.get(depListVo.getHasChild()));
                 }
-                // 添加人名称
-                if (depListVo.getCreateUser() > 0) {
-                    depListVo.setCreateUserName(AdminUtils.getName((depListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (depListVo.getUpdateUser() > 0) {
-                    depListVo.setUpdateUserName(AdminUtils.getName((depListVo.getUpdateUser())));
-                }
                 depListVoList.add(depListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(depListVoList);
         return JsonResult.success("操作成功", depListVoList, data.getTotal());
     }
 
@@ -108,7 +100,11 @@ public class DepServiceImpl extends BaseServiceImpl<DepMapper, Dep> implements I
      */
     @Override
     public JsonResult edit(Dep entity) {
-        return super.edit(entity);
+        JsonResult result = super.edit(entity);
+        if (result.getCode() == 0) {
+            depCache.evictAll();
+        }
+        return result;
     }
 
     /**
@@ -126,7 +122,26 @@ public class DepServiceImpl extends BaseServiceImpl<DepMapper, Dep> implements I
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        if (result.getCode() == 0) {
+            depCache.evictAll();
+        }
+        return result;
+    }
+
+    /**
+     * 批量删除记录
+     *
+     * @param ids 记录ID
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        if (result.getCode() == 0) {
+            depCache.evictAll();
+        }
+        return result;
     }
 
     /**
@@ -138,18 +153,6 @@ public class DepServiceImpl extends BaseServiceImpl<DepMapper, Dep> implements I
      */
     @Override
     public String getDepNameByDepId(Integer depId, String delimiter) {
-        List<String> nameList = new ArrayList<>();
-        while (depId > 0) {
-            Dep depInfo = depMapper.selectById(depId);
-            if (depInfo != null) {
-                nameList.add(depInfo.getName());
-                depId = depInfo.getPid();
-            } else {
-                depId = 1;
-            }
-        }
-        // 使用集合工具实现数组翻转
-        Collections.reverse(nameList);
-        return org.apache.commons.lang3.StringUtils.join(nameList.toArray(), delimiter);
+        return depCache.getPath(depId, delimiter);
     }
 }
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -12,7 +11,6 @@ import com.kestrelcjx.system.entity.Dic;
 import com.kestrelcjx.system.mapper.DicMapper;
 import com.kestrelcjx.system.query.DicQuery;
 import com.kestrelcjx.system.service.IDicService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.DicListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,10 +48,8 @@ public class DicServiceImpl extends BaseServiceImpl<DicMapper, Dic> implements I
             queryWrapper.eq("status", dicQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Dic> page = new Page<>(dicQuery.getPage(), dicQuery.getLimit());
-        IPage<Dic> data = dicMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Dic> data = this.selectPage(dicQuery, queryWrapper, false);
         List<Dic> dicList = data.getRecords();
         List<DicListVo> dicListVoList = new ArrayList<>();
         if (!dicList.isEmpty()) {
@@ -65,17 +61,11 @@ public class DicServiceImpl extends BaseServiceImpl<DicMapper, Dic> implements I
                 if (dicListVo.getStatus() != null && dicListVo.getStatus() > 0) {
                     dicListVo.setStatusName(DicConstant.DIC_STATUS_LIST.get(dicListVo.getStatus()));
                 }
-                // 添加人名称
-                if (dicListVo.getCreateUser() > 0) {
-                    dicListVo.setCreateUserName(AdminUtils.getName((dicListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (dicListVo.getUpdateUser() > 0) {
-                    dicListVo.setUpdateUserName(AdminUtils.getName((dicListVo.getUpdateUser())));
-                }
                 dicListVoList.add(dicListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(dicListVoList);
         return JsonResult.success("操作成功", dicListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -11,7 +10,6 @@ import com.kestrelcjx.system.entity.DicType;
 import com.kestrelcjx.system.mapper.DicTypeMapper;
 import com.kestrelcjx.system.query.DicTypeQuery;
 import com.kestrelcjx.system.service.IDicTypeService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.DicTypeListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,10 +43,8 @@ public class DicTypeServiceImpl extends BaseServiceImpl<DicTypeMapper, DicType>
             queryWrapper.like("name", dicTypeQuery.getName());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<DicType> page = new Page<>(dicTypeQuery.getPage(), dicTypeQuery.getLimit());
-        IPage<DicType> data = dicTypeMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<DicType> data = this.selectPage(dicTypeQuery, queryWrapper, false);
         List<DicType> dicTypeList = data.getRecords();
         List<DicTypeListVo> dicTypeListVoList = new ArrayList<>();
         if (!dicTypeList.isEmpty()) {
@@ -56,17 +52,11 @@ public class DicTypeServiceImpl extends BaseServiceImpl<DicTypeMapper, DicType>
                 DicTypeListVo dicTypeListVo = new DicTypeListVo();
                 // 拷贝属性
                 BeanUtils.copyProperties(item, dicTypeListVo);
-                // 添加人名称
-                if (dicTypeListVo.getCreateUser() > 0) {
-                    dicTypeListVo.setCreateUserName(AdminUtils.getName((dicTypeListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (dicTypeListVo.getUpdateUser() > 0) {
-                    dicTypeListVo.setUpdateUserName(AdminUtils.getName((dicTypeListVo.getUpdateUser())));
-                }
                 dicTypeListVoList.add(dicTypeListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(dicTypeListVoList);
         return JsonResult.success("操作成功", dicTypeListVoList, data.getTotal());
     }
 
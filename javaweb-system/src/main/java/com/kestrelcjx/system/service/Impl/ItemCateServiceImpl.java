@@ -2,12 +2,12 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.config.CommonConfig;
 import com.kestrelcjx.common.utils.CommonUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.system.cache.ItemCateCache;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.constant.ItemCateConstant;
 import com.kestrelcjx.system.entity.Item;
@@ -16,7 +16,6 @@ import com.kestrelcjx.system.mapper.ItemCateMapper;
 import com.kestrelcjx.system.mapper.ItemMapper;
 import com.kestrelcjx.system.query.ItemCateQuery;
 import com.kestrelcjx.system.service.IItemCateService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.ItemCateListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +33,8 @@ public class ItemCateServiceImpl extends BaseServiceImpl<ItemCateMapper, ItemCat
     private ItemCateMapper itemCateMapper;
     @Autowired
     private ItemMapper itemMapper;
+    @Autowired
+    private ItemCateCache itemCateCache;
 
     /**
      * 获取数据列表
@@ -59,23 +60,32 @@ public class ItemCateServiceImpl extends BaseServiceImpl<ItemCateMapper, ItemCat
             queryWrapper.eq("status", itemCateQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<ItemCate> page = new Page<>(itemCateQuery.getPage(), itemCateQuery.getLimit());
-        IPage<ItemCate> data = itemCateMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<ItemCate> data = this.selectPage(itemCateQuery, queryWrapper, false);
         List<ItemCate> itemCateList = data.getRecords();
         List<ItemCateListVo> itemCateListVoList = new ArrayList<>();
         if (!itemCateList.isEmpty()) {
+            // 批量获取所属站点
+            Set<Integer> itemIdSet = new HashSet<>();
+            itemCateList.forEach(item -> {
+                if (item.getItemId() != null && item.getItemId() > 0) {
+                    itemIdSet.add(item.getItemId());
+                }
+            });
+            Map<Integer, String> itemNameMap = new HashMap<>();
+            if (!itemIdSet.isEmpty()) {
+                QueryWrapper<Item> itemQueryWrapper = new QueryWrapper<>();
+                itemQueryWrapper.select("id", "name");
+                itemQueryWrapper.in("id", itemIdSet);
+                itemMapper.selectList(itemQueryWrapper).forEach(itemInfo -> itemNameMap.put(itemInfo.getId(), itemInfo.getName()));
+            }
             itemCateList.forEach(item -> {
                 ItemCateListVo itemCateListVo = new ItemCateListVo();
                 // 拷贝属性
                 BeanUtils.copyProperties(item, itemCateListVo);
                 // 所属站点
                 if (itemCateListVo.getItemId() != null && itemCateListVo.getItemId() > 0) {
-                    Item itemInfo = itemMapper.selectById(itemCateListVo.getItemId());
-                    if (itemInfo != null) {
-                        itemCateListVo.setItemName(itemInfo.getName());
-                    }
+                    itemCateListVo.setItemName(itemNameMap.get(itemCateListVo.getItemId()));
                 }
                 // 有无封面描述
                 if (itemCateListVo.getIsCover() != null && itemCateListVo.getIsCover() > 0) {
@@ -89,17 +99,11 @@ public class ItemCateServiceImpl extends BaseServiceImpl<ItemCateMapper, ItemCat
                 if (itemCateListVo.getStatus() != null && itemCateListVo.getStatus() > 0) {
                     itemCateListVo.setStatusName(ItemCateConstant.ITEMCATE_STATUS_LIST.get(itemCateListVo.getStatus()));
                 }
-                // 添加人名称
-                if (itemCateListVo.getCreateUser() > 0) {
-                    itemCateListVo.setCreateUserName(AdminUtils.getName((itemCateListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (itemCateListVo.getUpdateUser() > 0) {
-                    itemCateListVo.setUpdateUserName(AdminUtils.getName((itemCateListVo.getUpdateUser())));
-                }
                 itemCateListVoList.add(itemCateListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(itemCateListVoList);
         return JsonResult.success("操作成功", itemCateListVoList, data.getTotal());
     }
 
@@ -131,7 +135,11 @@ public class ItemCateServiceImpl extends BaseServiceImpl<ItemCateMapper, ItemCat
         if (entity.getCover().contains(CommonConfig.imageURL)) {
             entity.setCover(entity.getCover().replaceAll(CommonConfig.imageURL, ""));
         }
-        return super.edit(entity);
+        JsonResult result = super.edit(entity);
+        if (result.getCode() == 0) {
+            itemCateCache.evictAll();
+        }
+        return result;
     }
 
     /**
@@ -149,7 +157,26 @@ public class ItemCateServiceImpl extends BaseServiceImpl<ItemCateMapper, ItemCat
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        if (result.getCode() == 0) {
+            itemCateCache.evictAll();
+        }
+        return result;
+    }
+
+    /**
+     * 批量删除记录
+     *
+     * @param ids 记录ID
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        if (result.getCode() == 0) {
+            itemCateCache.evictAll();
+        }
+        return result;
     }
 
     /**
@@ -178,19 +205,7 @@ public class ItemCateServiceImpl extends BaseServiceImpl<ItemCateMapper, ItemCat
      */
     @Override
     public String getCateNameByCateId(Integer cateId, String delimiter) {
-        List<String> nameList = new ArrayList<>();
-        while (cateId > 0) {
-            ItemCate cateInfo = itemCateMapper.selectById(cateId);
-            if (cateInfo != null) {
-                nameList.add(cateInfo.getName());
-                cateId = cateInfo.getPid();
-            } else {
-                cateId = 0;
-            }
-        }
-        // 使用集合工具实现数组翻转
-        Collections.reverse(nameList);
-        return org.apache.commons.lang3.StringUtils.join(nameList.toArray(), delimiter);
+        return itemCateCache.getPath(cateId, delimiter);
     }
 
     /**
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.config.CommonConfig;
 import com.kestrelcjx.common.utils.CommonUtils;
@@ -14,7 +13,6 @@ import com.kestrelcjx.system.entity.Item;
 import com.kestrelcjx.system.mapper.ItemMapper;
 import com.kestrelcjx.system.query.ItemQuery;
 import com.kestrelcjx.system.service.IItemService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.ItemListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,10 +54,8 @@ public class ItemServiceImpl extends BaseServiceImpl<ItemMapper, Item> implement
             queryWrapper.eq("status", itemQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Item> page = new Page<>(itemQuery.getPage(), itemQuery.getLimit());
-        IPage<Item> data = itemMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Item> data = this.selectPage(itemQuery, queryWrapper, false);
         List<Item> itemList = data.getRecords();
         List<ItemListVo> itemListVoList = new ArrayList<>();
         if (!itemList.isEmpty()) {
@@ -83,17 +79,11 @@ public class ItemServiceImpl extends BaseServiceImpl<ItemMapper, Item> implement
                 if (itemListVo.getStatus() != null && itemListVo.getStatus() > 0) {
                     itemListVo.setStatusName(ItemConstant.ITEM_STATUS_LIST.get(itemListVo.getStatus()));
                 }
-                // 添加人名称
-                if (itemListVo.getCreateUser() > 0) {
-                    itemListVo.setCreateUserName(AdminUtils.getName((itemListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (itemListVo.getUpdateUser() > 0) {
-                    itemListVo.setUpdateUserName(AdminUtils.getName((itemListVo.getUpdateUser())));
-                }
                 itemListVoList.add(itemListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(itemListVoList);
         return JsonResult.success("操作成功", itemListVoList, data.getTotal());
     }
 
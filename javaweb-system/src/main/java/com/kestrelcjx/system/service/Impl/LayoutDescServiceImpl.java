@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -13,7 +12,6 @@ import com.kestrelcjx.system.mapper.ItemMapper;
 import com.kestrelcjx.system.mapper.LayoutDescMapper;
 import com.kestrelcjx.system.query.LayoutDescQuery;
 import com.kestrelcjx.system.service.ILayoutDescService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.LayoutDescListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,10 +47,8 @@ public class LayoutDescServiceImpl extends BaseServiceImpl<LayoutDescMapper, Lay
             queryWrapper.like("name", layoutDescQuery.getName());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<LayoutDesc> page = new Page<>(layoutDescQuery.getPage(), layoutDescQuery.getLimit());
-        IPage<LayoutDesc> data = layoutDescMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<LayoutDesc> data = this.selectPage(layoutDescQuery, queryWrapper, false);
         List<LayoutDesc> layoutDescList = data.getRecords();
         List<LayoutDescListVo> layoutDescListVoList = new ArrayList<>();
         if (!layoutDescList.isEmpty()) {
@@ -67,17 +63,11 @@ public class LayoutDescServiceImpl extends BaseServiceImpl<LayoutDescMapper, Lay
                         layoutDescListVo.setItemName(itemInfo.getName());
                     }
                 }
-                // 添加人名称
-                if (layoutDescListVo.getCreateUser() > 0) {
-                    layoutDescListVo.setCreateUserName(AdminUtils.getName((layoutDescListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (layoutDescListVo.getUpdateUser() > 0) {
-                    layoutDescListVo.setUpdateUserName(AdminUtils.getName((layoutDescListVo.getUpdateUser())));
-                }
                 layoutDescListVoList.add(layoutDescListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(layoutDescListVoList);
         return JsonResult.success("操作成功", layoutDescListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.config.CommonConfig;
 import com.kestrelcjx.common.utils.CommonUtils;
@@ -18,7 +17,6 @@ import com.kestrelcjx.system.mapper.LayoutMapper;
 import com.kestrelcjx.system.query.LayoutQuery;
 import com.kestrelcjx.system.service.ILayoutDescService;
 import com.kestrelcjx.system.service.ILayoutService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.LayoutListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,10 +54,8 @@ public class LayoutServiceImpl extends BaseServiceImpl<LayoutMapper, Layout> imp
             queryWrapper.eq("type", layoutQuery.getType());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Layout> page = new Page<>(layoutQuery.getPage(), layoutQuery.getLimit());
-        IPage<Layout> data = layoutMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Layout> data = this.selectPage(layoutQuery, queryWrapper, false);
         List<Layout> layoutList = data.getRecords();
         List<LayoutListVo> layoutListVoList = new ArrayList<>();
         if (!layoutList.isEmpty()) {
@@ -87,17 +83,11 @@ public class LayoutServiceImpl extends BaseServiceImpl<LayoutMapper, Layout> imp
                 if (layoutDescInfo != null) {
                     layoutListVo.setLocDesc(String.format("%s=>%s", layoutDescInfo.getLocDesc(), layoutDescInfo.getLocId()));
                 }
-                // 添加人名称
-                if (layoutListVo.getCreateUser() > 0) {
-                    layoutListVo.setCreateUserName(AdminUtils.getName((layoutListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (layoutListVo.getUpdateUser() > 0) {
-                    layoutListVo.setUpdateUserName(AdminUtils.getName((layoutListVo.getUpdateUser())));
-                }
                 layoutListVoList.add(layoutListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(layoutListVoList);
         return JsonResult.success("操作成功", layoutListVoList, data.getTotal());
     }
 
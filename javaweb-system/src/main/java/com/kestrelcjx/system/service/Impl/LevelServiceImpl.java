@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -13,7 +12,6 @@ import com.kestrelcjx.system.entity.Level;
 import com.kestrelcjx.system.mapper.LevelMapper;
 import com.kestrelcjx.system.query.LevelQuery;
 import com.kestrelcjx.system.service.ILevelService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.LevelListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,10 +49,8 @@ public class LevelServiceImpl extends BaseServiceImpl<LevelMapper, Level> implem
             queryWrapper.eq("status", levelQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Level> page = new Page<>(levelQuery.getPage(), levelQuery.getLimit());
-        IPage<Level> data = levelMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Level> data = this.selectPage(levelQuery, queryWrapper, false);
         List<Level> levelList = data.getRecords();
         List<LevelListVo> levelListVoList = new ArrayList<>();
         if (!levelList.isEmpty()) {
@@ -66,17 +62,11 @@ public class LevelServiceImpl extends BaseServiceImpl<LevelMapper, Level> implem
                 if (levelListVo.getStatus() != null && levelListVo.getStatus() > 0) {
                     levelListVo.setStatusName(LevelConstant.LEVEL_STATUS_LIST.get(levelListVo.getStatus()));
                 }
-                // 添加人名称
-                if (levelListVo.getCreateUser() > 0) {
-                    levelListVo.setCreateUserName(AdminUtils.getName((levelListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (levelListVo.getUpdateUser() > 0) {
-                    levelListVo.setUpdateUserName(AdminUtils.getName((levelListVo.getUpdateUser())));
-                }
                 levelListVoList.add(levelListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(levelListVoList);
         return JsonResult.success("操作成功", levelListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.config.CommonConfig;
 import com.kestrelcjx.common.utils.CommonUtils;
@@ -17,7 +16,6 @@ import com.kestrelcjx.system.mapper.LinkMapper;
 import com.kestrelcjx.system.query.LinkQuery;
 import com.kestrelcjx.system.service.IItemCateService;
 import com.kestrelcjx.system.service.ILinkService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.LinkListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -71,10 +69,8 @@ public class LinkServiceImpl extends BaseServiceImpl<LinkMapper, Link> implement
             queryWrapper.eq("status", linkQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Link> page = new Page<>(linkQuery.getPage(), linkQuery.getLimit());
-        IPage<Link> data = linkMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Link> data = this.selectPage(linkQuery, queryWrapper, false);
         List<Link> linkList = data.getRecords();
         List<LinkListVo> linkListVoList = new ArrayList<>();
         if (!linkList.isEmpty()) {
@@ -112,17 +108,11 @@ public class LinkServiceImpl extends BaseServiceImpl<LinkMapper, Link> implement
                 // 栏目
                 String cateName = itemCateService.getCateNameByCateId(linkListVo.getCateId(), ">>");
                 linkListVo.setCateName(cateName);
-                // 添加人名称
-                if (linkListVo.getCreateUser() > 0) {
-                    linkListVo.setCreateUserName(AdminUtils.getName((linkListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (linkListVo.getUpdateUser() > 0) {
-                    linkListVo.setUpdateUserName(AdminUtils.getName((linkListVo.getUpdateUser())));
-                }
                 linkListVoList.add(linkListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(linkListVoList);
         return JsonResult.success("操作成功", linkListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -12,7 +11,6 @@ import com.kestrelcjx.system.entity.LoginLog;
 import com.kestrelcjx.system.mapper.LoginLogMapper;
 import com.kestrelcjx.system.query.LoginLogQuery;
 import com.kestrelcjx.system.service.ILoginLogService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.LoginLogListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,24 +37,9 @@ public class LoginLogServiceImpl extends BaseServiceImpl<LoginLogMapper, LoginLo
     public JsonResult getList(BaseQuery query) {
         LoginLogQuery loginLogQuery = (LoginLogQuery) query;
         // 查询条件
-        QueryWrapper<LoginLog> queryWrapper = new QueryWrapper<>();
-        // 日志标题
-        if (!StringUtils.isEmpty(loginLogQuery.getTitle())) {
-            queryWrapper.like("title", loginLogQuery.getTitle());
-        }
-        // 登录状态：1成功 2失败
-        if (loginLogQuery.getStatus() != null && loginLogQuery.getStatus() > 0) {
-            queryWrapper.eq("status", loginLogQuery.getStatus());
-        }
-        // 类型：1登录系统 2退出系统
-        if (loginLogQuery.getType() != null && loginLogQuery.getType() > 0) {
-            queryWrapper.eq("type", loginLogQuery.getType());
-        }
-        queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<LoginLog> page = new Page<>(loginLogQuery.getPage(), loginLogQuery.getLimit());
-        IPage<LoginLog> data = loginLogMapper.selectPage(page, queryWrapper);
+        QueryWrapper<LoginLog> queryWrapper = getQueryWrapper(loginLogQuery);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<LoginLog> data = this.selectPage(loginLogQuery, queryWrapper, false);
         List<LoginLog> loginLogList = data.getRecords();
         List<LoginLogListVo> loginLogListVoList = new ArrayList<>();
         if (!loginLogList.isEmpty()) {
@@ -72,20 +55,51 @@ public class LoginLogServiceImpl extends BaseServiceImpl<LoginLogMapper, LoginLo
                 if (loginLogListVo.getType() != null && loginLogListVo.getType() > 0) {
                     loginLogListVo.setTypeName(LoginLogConstant.LOGINLOG_TYPE_LIST.get(loginLogListVo.getType()));
                 }
-                // 添加人名称
-                if (loginLogListVo.getCreateUser() > 0) {
-                    loginLogListVo.setCreateUserName(AdminUtils.getName((loginLogListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (loginLogListVo.getUpdateUser() > 0) {
-                    loginLogListVo.setUpdateUserName(AdminUtils.getName((loginLogListVo.getUpdateUser())));
-                }
                 loginLogListVoList.add(loginLogListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(loginLogListVoList);
         return JsonResult.success("操作成功", loginLogListVoList, data.getTotal());
     }
 
+    /**
+     * 获取导出查询条件（与列表查询条件一致）
+     *
+     * @param query 查询条件
+     * @return
+     */
+    @Override
+    protected QueryWrapper<LoginLog> getExportWrapper(BaseQuery query) {
+        QueryWrapper<LoginLog> queryWrapper = getQueryWrapper((LoginLogQuery) query);
+        queryWrapper.orderByDesc("id");
+        return queryWrapper;
+    }
+
+    /**
+     * 根据查询条件生成查询条件构造器
+     *
+     * @param loginLogQuery 查询条件
+     * @return
+     */
+    private QueryWrapper<LoginLog> getQueryWrapper(LoginLogQuery loginLogQuery) {
+        QueryWrapper<LoginLog> queryWrapper = new QueryWrapper<>();
+        // 日志标题
+        if (!StringUtils.isEmpty(loginLogQuery.getTitle())) {
+            queryWrapper.like("title", loginLogQuery.getTitle());
+        }
+        // 登录状态：1成功 2失败
+        if (loginLogQuery.getStatus() != null && loginLogQuery.getStatus() > 0) {
+            queryWrapper.eq("status", loginLogQuery.getStatus());
+        }
+        // 类型：1登录系统 2退出系统
+        if (loginLogQuery.getType() != null && loginLogQuery.getType() > 0) {
+            queryWrapper.eq("type", loginLogQuery.getType());
+        }
+        queryWrapper.eq("mark", 1);
+        return queryWrapper;
+    }
+
     /**
      * 删除记录
      *
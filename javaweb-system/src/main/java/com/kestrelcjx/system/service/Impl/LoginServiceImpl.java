@@ -1,5 +1,6 @@
 package com.kestrelcjx.system.service.Impl;
 
+import com.kestrelcjx.common.captcha.CaptchaPool;
 import com.kestrelcjx.common.enums.Constants;
 import com.kestrelcjx.common.exception.user.CaptchaException;
 import com.kestrelcjx.common.exception.user.UserNotExistsException;
@@ -8,6 +9,7 @@ import com.kestrelcjx.system.dto.LoginDto;
 import com.kestrelcjx.system.entity.Admin;
 import com.kestrelcjx.system.manager.AsyncFactory;
 import com.kestrelcjx.system.manager.AsyncManager;
+import com.kestrelcjx.system.manager.CaptchaManager;
 import com.kestrelcjx.system.service.IAdminService;
 import com.kestrelcjx.system.service.ILoginService;
 import com.kestrelcjx.system.utils.ShiroUtils;
@@ -33,16 +35,17 @@ public class LoginServiceImpl implements ILoginService {
     private IAdminService adminService;
     @Autowired
     private RedisUtils redisUtils;
+    @Autowired
+    private CaptchaManager captchaManager;
 
     /**
-     * 获取验证码
+     * 获取验证码（从预渲染池中取出）
      *
      * @param response 请求响应
      * @return
      */
     @Override
     public JsonResult captcha(HttpServletResponse response) {
-        VerifyUtils verifyUtil = new VerifyUtils();
         Map<String, String> result = new HashMap<>();
         try {
             String key = UUID.randomUUID().toString();
@@ -52,10 +55,9 @@ public class LoginServiceImpl implements ILoginService {
             response.setHeader("Pragma", "no-cache");
             // 返回base64
             //写入redis缓存
-            Map<String, String> mapInfo = verifyUtil.getRandomCodeBase64();
-            String randomStr = mapInfo.get("randomStr");
-            redisUtils.set(key, randomStr, 60 * 5);
-            result.put("url", "data:image/png;base64," + mapInfo.get("img"));
+            CaptchaPool.Captcha captcha = captchaManager.take();
+            redisUtils.set(key, captcha.getAnswer(), 60 * 5);
+            result.put("url", captcha.getUrl());
             result.put("key", key);
         } catch (Exception e) {
             return JsonResult.error(e.getMessage());
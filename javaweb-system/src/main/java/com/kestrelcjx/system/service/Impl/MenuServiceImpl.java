@@ -6,15 +6,16 @@ import com.kestrelcjx.common.config.CommonConfig;
 import com.kestrelcjx.common.utils.DateUtils;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.system.cache.AdminCache;
+import com.kestrelcjx.system.cache.MenuCache;
+import com.kestrelcjx.system.cache.PermissionCache;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.constant.MenuConstant;
 import com.kestrelcjx.system.entity.Admin;
 import com.kestrelcjx.system.entity.Menu;
-import com.kestrelcjx.system.mapper.AdminMapper;
 import com.kestrelcjx.system.mapper.MenuMapper;
 import com.kestrelcjx.system.query.MenuQuery;
 import com.kestrelcjx.system.service.IMenuService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.utils.ShiroUtils;
 import com.kestrelcjx.system.vo.MenuListVo;
 import org.springframework.beans.BeanUtils;
@@ -33,7 +34,11 @@ public class MenuServiceImpl extends BaseServiceImpl<MenuMapper, Menu> implement
     @Autowired
     private MenuMapper menuMapper;
     @Autowired
-    private AdminMapper adminMapper;
+    private AdminCache adminCache;
+    @Autowired
+    private MenuCache menuCache;
+    @Autowired
+    private PermissionCache permissionCache;
 
     /**
      * 获取数据列表
@@ -84,14 +89,6 @@ public class MenuServiceImpl extends BaseServiceImpl<MenuMapper, Menu> implement
                 if (menuListVo.getIsPublic() != null && menuListVo.getIsPublic() > 0) {
                     menuListVo.setIsPublicName(MenuConstant.MENU_ISPUBLIC_LIST.get(menuListVo.getIsPublic()));
                 }
-                // 创建人名称
-                if (menuListVo.getCreateUser() != null && menuListVo.getCreateUser() > 0) {
-                    menuListVo.setCreateUserName(AdminUtils.getName((menuListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (menuListVo.getUpdateUser() != null && menuListVo.getUpdateUser() > 0) {
-                    menuListVo.setUpdateUserName(AdminUtils.getName((menuListVo.getUpdateUser())));
-                }
                 // 默认展开
                 if (menuListVo.getType() <= 2) {
                     menuListVo.setOpen(true);
@@ -101,6 +98,8 @@ public class MenuServiceImpl extends BaseServiceImpl<MenuMapper, Menu> implement
                 menuListVoList.add(menuListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(menuListVoList);
         return JsonResult.success("操作成功", menuListVoList);
     }
 
@@ -195,6 +194,9 @@ public class MenuServiceImpl extends BaseServiceImpl<MenuMapper, Menu> implement
                 }
             }
         }
+        // 清空导航菜单及权限缓存
+        menuCache.evictAll();
+        permissionCache.evictAll();
         return JsonResult.success("操作成功");
     }
 
@@ -213,7 +215,26 @@ public class MenuServiceImpl extends BaseServiceImpl<MenuMapper, Menu> implement
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        // 清空导航菜单及权限缓存
+        menuCache.evictAll();
+        permissionCache.evictAll();
+        return result;
+    }
+
+    /**
+     * 批量删除记录
+     *
+     * @param ids 记录ID
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        // 清空导航菜单及权限缓存
+        menuCache.evictAll();
+        permissionCache.evictAll();
+        return result;
     }
 
     /**
@@ -230,11 +251,16 @@ public class MenuServiceImpl extends BaseServiceImpl<MenuMapper, Menu> implement
         if (entity.getStatus() == null) {
             return JsonResult.error("记录状态不能为空");
         }
-        return super.setStatus(entity);
+        JsonResult result = super.setStatus(entity);
+        // 清空导航菜单及权限缓存
+        menuCache.evictAll();
+        permissionCache.evictAll();
+        return result;
     }
 
     /**
      * 获取导航菜单
+     * 返回的菜单树为缓存共享对象，调用方不得修改
      *
      * @param adminId 人员ID
      * @return
@@ -243,65 +269,14 @@ public class MenuServiceImpl extends BaseServiceImpl<MenuMapper, Menu> implement
     public List<MenuListVo> getNavbarMenu(Integer adminId) {
         if (adminId.equals(1)) {
             // 管理员(管理员拥有全部权限)
-            List<MenuListVo> menuListVoList = getAllMenuList(0);
-            return menuListVoList;
-        } else {
-            // 非管理员
-            // 获取当前人员拥有的角色ID几个(逗号分隔)
-            Admin admin = adminMapper.selectById(ShiroUtils.getAdminId());
-            String roleIds = admin.getRoleIds();
-            // 顶部导航
-            List<MenuListVo> menuListVoList = menuMapper.getNavbarMenu(roleIds, 0);
-            if (!menuListVoList.isEmpty()) {
-                menuListVoList.forEach(item -> {
-                    // 模块
-                    List<MenuListVo> menuListVoList1 = menuMapper.getNavbarMenu(roleIds, item.getId());
-                    if (!menuListVoList1.isEmpty()) {
-                        menuListVoList1.forEach(subItem -> {
-                            // 菜单
-                            List<MenuListVo> menuListVoList2 = menuMapper.getNavbarMenu(roleIds, subItem.getId());
-                            if (!menuListVoList2.isEmpty()) {
-                                menuListVoList2.forEach(menu -> {
-                                    // 节点
-                                    List<MenuListVo> menuListVoList3 = menuMapper.getNavbarMenu(roleIds, menu.getId());
-                                    menu.setChildren(menuListVoList3);
-                                });
-                            }
-                            subItem.setChildren(menuListVoList2);
-                        });
-                        item.setChildren(menuListVoList1);
-                    }
-                });
-            }
-            return menuListVoList;
+            return menuCache.getAllMenu();
         }
-    }
-
-    /**
-     * 根据父级ID获取子级菜单
-     *
-     * @param pid 上级ID
-     * @return
-     */
-    public List<MenuListVo> getAllMenuList(Integer pid) {
-        QueryWrapper<Menu> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("pid", pid);
-        queryWrapper.eq("status", 1);
-        queryWrapper.eq("mark", 1);
-        queryWrapper.orderByAsc("sort");
-        List<Menu> menuList = list(queryWrapper);
-        List<MenuListVo> menuListVoList = new ArrayList<>();
-        if (!menuList.isEmpty()) {
-            menuList.forEach(item -> {
-                MenuListVo menuListVo = new MenuListVo();
-                // 拷贝属性
-                BeanUtils.copyProperties(item, menuListVo);
-                List<MenuListVo> childrenList = getAllMenuList(item.getId());
-                menuListVo.setChildren(childrenList);
-                menuListVoList.add(menuListVo);
-            });
+        // 非管理员，按人员拥有的角色ID集合(逗号分隔)过滤
+        Admin admin = adminCache.get(adminId);
+        if (admin == null) {
+            return new ArrayList<>();
         }
-        return menuListVoList;
+        return menuCache.getNavbarMenu(admin.getRoleIds());
     }
 
     /**
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -12,7 +11,6 @@ import com.kestrelcjx.system.entity.Message;
 import com.kestrelcjx.system.mapper.MessageMapper;
 import com.kestrelcjx.system.query.MessageQuery;
 import com.kestrelcjx.system.service.IMessageService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.MessageListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,10 +51,8 @@ public class MessageServiceImpl extends BaseServiceImpl<MessageMapper, Message>
             queryWrapper.eq("send_status", messageQuery.getSendStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Message> page = new Page<>(messageQuery.getPage(), messageQuery.getLimit());
-        IPage<Message> data = messageMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Message> data = this.selectPage(messageQuery, queryWrapper, false);
         List<Message> messageList = data.getRecords();
         List<MessageListVo> messageListVoList = new ArrayList<>();
         if (!messageList.isEmpty()) {
@@ -72,17 +68,11 @@ public class MessageServiceImpl extends BaseServiceImpl<MessageMapper, Message>
                 if (messageListVo.getSendStatus() != null && messageListVo.getSendStatus() > 0) {
                     messageListVo.setSendStatusName(MessageConstant.MESSAGE_SENDSTATUS_LIST.get(messageListVo.getSendStatus()));
                 }
-                // 添加人名称
-                if (messageListVo.getCreateUser() > 0) {
-                    messageListVo.setCreateUserName(AdminUtils.getName((messageListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (messageListVo.getUpdateUser() > 0) {
-                    messageListVo.setUpdateUserName(AdminUtils.getName((messageListVo.getUpdateUser())));
-                }
                 messageListVoList.add(messageListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(messageListVoList);
         return JsonResult.success("操作成功", messageListVoList, data.getTotal());
     }
 
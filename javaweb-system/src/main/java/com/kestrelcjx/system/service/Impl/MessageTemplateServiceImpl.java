@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -12,7 +11,6 @@ import com.kestrelcjx.system.entity.MessageTemplate;
 import com.kestrelcjx.system.mapper.MessageTemplateMapper;
 import com.kestrelcjx.system.query.MessageTemplateQuery;
 import com.kestrelcjx.system.service.IMessageTemplateService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.MessageTemplateListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,10 +51,8 @@ public class MessageTemplateServiceImpl extends BaseServiceImpl<MessageTemplateM
             queryWrapper.eq("status", messageTemplateQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<MessageTemplate> page = new Page<>(messageTemplateQuery.getPage(), messageTemplateQuery.getLimit());
-        IPage<MessageTemplate> data = messageTemplateMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<MessageTemplate> data = this.selectPage(messageTemplateQuery, queryWrapper, false);
         List<MessageTemplate> messageTemplateList = data.getRecords();
         List<MessageTemplateListVo> messageTemplateListVoList = new ArrayList<>();
         if (!messageTemplateList.isEmpty()) {
@@ -72,17 +68,11 @@ public class MessageTemplateServiceImpl extends BaseServiceImpl<MessageTemplateM
                 if (messageTemplateListVo.getStatus() != null && messageTemplateListVo.getStatus() > 0) {
                     messageTemplateListVo.setStatusName(MessageTemplateConstant.MESSAGETEMPLATE_STATUS_LIST.get(messageTemplateListVo.getStatus()));
                 }
-                // 添加人名称
-                if (messageTemplateListVo.getCreateUser() > 0) {
-                    messageTemplateListVo.setCreateUserName(AdminUtils.getName((messageTemplateListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (messageTemplateListVo.getUpdateUser() > 0) {
-                    messageTemplateListVo.setUpdateUserName(AdminUtils.getName((messageTemplateListVo.getUpdateUser())));
-                }
                 messageTemplateListVoList.add(messageTemplateListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(messageTemplateListVoList);
         return JsonResult.success("操作成功", messageTemplateListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -12,7 +11,6 @@ import com.kestrelcjx.system.entity.Notice;
 import com.kestrelcjx.system.mapper.NoticeMapper;
 import com.kestrelcjx.system.query.NoticeQuery;
 import com.kestrelcjx.system.service.INoticeService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.NoticeListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -62,10 +60,8 @@ public class NoticeServiceImpl extends BaseServiceImpl<NoticeMapper, Notice> imp
             queryWrapper.eq("is_send", noticeQuery.getIsSend());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Notice> page = new Page<>(noticeQuery.getPage(), noticeQuery.getLimit());
-        IPage<Notice> data = noticeMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Notice> data = this.selectPage(noticeQuery, queryWrapper, false);
         List<Notice> noticeList = data.getRecords();
         List<NoticeListVo> noticeListVoList = new ArrayList<>();
         if (!noticeList.isEmpty()) {
@@ -89,17 +85,11 @@ public class NoticeServiceImpl extends BaseServiceImpl<NoticeMapper, Notice> imp
                 if (noticeListVo.getIsSend() != null && noticeListVo.getIsSend() > 0) {
                     noticeListVo.setIsSendName(NoticeConstant.NOTICE_ISSEND_LIST.get(noticeListVo.getIsSend()));
                 }
-                // 添加人名称
-                if (noticeListVo.getCreateUser() > 0) {
-                    noticeListVo.setCreateUserName(AdminUtils.getName((noticeListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (noticeListVo.getUpdateUser() > 0) {
-                    noticeListVo.setUpdateUserName(AdminUtils.getName((noticeListVo.getUpdateUser())));
-                }
                 noticeListVoList.add(noticeListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(noticeListVoList);
         return JsonResult.success("操作成功", noticeListVoList, data.getTotal());
     }
 
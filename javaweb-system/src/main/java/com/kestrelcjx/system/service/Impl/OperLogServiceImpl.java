@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -56,10 +55,8 @@ public class OperLogServiceImpl extends BaseServiceImpl<OperLogMapper, OperLog>
             queryWrapper.eq("status", operLogQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<OperLog> page = new Page<>(operLogQuery.getPage(), operLogQuery.getLimit());
-        IPage<OperLog> data = operLogMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<OperLog> data = this.selectPage(operLogQuery, queryWrapper, false);
         List<OperLog> operLogList = data.getRecords();
         List<OperLogListVo> operLogListVoList = new ArrayList<>();
         if (!operLogList.isEmpty()) {
@@ -113,4 +110,17 @@ public class OperLogServiceImpl extends BaseServiceImpl<OperLogMapper, OperLog>
         operLogMapper.insertOperLog(operLog);
     }
 
+    /**
+     * 批量创建系统操作日志
+     *
+     * @param list 操作日志列表
+     */
+    @Override
+    public void insertOperLogBatch(List<OperLog> list) {
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        operLogMapper.insertOperLogBatch(list);
+    }
+
 }
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -12,7 +11,6 @@ import com.kestrelcjx.system.entity.Position;
 import com.kestrelcjx.system.mapper.PositionMapper;
 import com.kestrelcjx.system.query.PositionQuery;
 import com.kestrelcjx.system.service.IPositionService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.PositionListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,10 +48,8 @@ public class PositionServiceImpl extends BaseServiceImpl<PositionMapper, Positio
             queryWrapper.eq("status", positionQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Position> page = new Page<>(positionQuery.getPage(), positionQuery.getLimit());
-        IPage<Position> data = positionMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Position> data = this.selectPage(positionQuery, queryWrapper, false);
         List<Position> positionList = data.getRecords();
         List<PositionListVo> positionListVoList = new ArrayList<>();
         if (!positionList.isEmpty()) {
@@ -65,17 +61,11 @@ public class PositionServiceImpl extends BaseServiceImpl<PositionMapper, Positio
                 if (positionListVo.getStatus() != null && positionListVo.getStatus() > 0) {
                     positionListVo.setStatusName(PositionConstant.POSITION_STATUS_LIST.get(positionListVo.getStatus()));
                 }
-                // 添加人名称
-                if (positionListVo.getCreateUser() > 0) {
-                    positionListVo.setCreateUserName(AdminUtils.getName((positionListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (positionListVo.getUpdateUser() > 0) {
-                    positionListVo.setUpdateUserName(AdminUtils.getName((positionListVo.getUpdateUser())));
-                }
                 positionListVoList.add(positionListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(positionListVoList);
         return JsonResult.success("操作成功", positionListVoList, data.getTotal());
     }
 
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.system.common.BaseServiceImpl;
@@ -10,7 +9,6 @@ import com.kestrelcjx.system.entity.RoleDept;
 import com.kestrelcjx.system.mapper.RoleDeptMapper;
 import com.kestrelcjx.system.query.RoleDeptQuery;
 import com.kestrelcjx.system.service.IRoleDeptService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.RoleDeptListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,10 +38,8 @@ public class RoleDeptServiceImpl extends BaseServiceImpl<RoleDeptMapper, RoleDep
         // 查询条件
         QueryWrapper<RoleDept> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<RoleDept> page = new Page<>(roleDeptQuery.getPage(), roleDeptQuery.getLimit());
-        IPage<RoleDept> data = roleDeptMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<RoleDept> data = this.selectPage(roleDeptQuery, queryWrapper, false);
         List<RoleDept> roleDeptList = data.getRecords();
         List<RoleDeptListVo> roleDeptListVoList = new ArrayList<>();
         if (!roleDeptList.isEmpty()) {
@@ -51,17 +47,11 @@ public class RoleDeptServiceImpl extends BaseServiceImpl<RoleDeptMapper, RoleDep
                 RoleDeptListVo roleDeptListVo = new RoleDeptListVo();
                 // 拷贝属性
                 BeanUtils.copyProperties(item, roleDeptListVo);
-                // 添加人名称
-                if (roleDeptListVo.getCreateUser() > 0) {
-                    roleDeptListVo.setCreateUserName(AdminUtils.getName((roleDeptListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (roleDeptListVo.getUpdateUser() > 0) {
-                    roleDeptListVo.setUpdateUserName(AdminUtils.getName((roleDeptListVo.getUpdateUser())));
-                }
                 roleDeptListVoList.add(roleDeptListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(roleDeptListVoList);
         return JsonResult.success("操作成功", roleDeptListVoList, data.getTotal());
     }
 
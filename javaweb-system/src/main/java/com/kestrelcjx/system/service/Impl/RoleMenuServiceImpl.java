@@ -2,10 +2,11 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.system.cache.MenuCache;
+import com.kestrelcjx.system.cache.PermissionCache;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.dto.RolePermissionDto;
 import com.kestrelcjx.system.entity.Menu;
@@ -14,7 +15,6 @@ import com.kestrelcjx.system.mapper.MenuMapper;
 import com.kestrelcjx.system.mapper.RoleMenuMapper;
 import com.kestrelcjx.system.query.RoleMenuQuery;
 import com.kestrelcjx.system.service.IRoleMenuService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.RoleMenuListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +33,10 @@ public class RoleMenuServiceImpl extends BaseServiceImpl<RoleMenuMapper, RoleMen
     private RoleMenuMapper roleMenuMapper;
     @Autowired
     private MenuMapper menuMapper;
+    @Autowired
+    private MenuCache menuCache;
+    @Autowired
+    private PermissionCache permissionCache;
 
     /**
      * 获取数据列表
@@ -46,10 +50,8 @@ public class RoleMenuServiceImpl extends BaseServiceImpl<RoleMenuMapper, RoleMen
         // 查询条件
         QueryWrapper<RoleMenu> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<RoleMenu> page = new Page<>(roleMenuQuery.getPage(), roleMenuQuery.getLimit());
-        IPage<RoleMenu> data = roleMenuMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<RoleMenu> data = this.selectPage(roleMenuQuery, queryWrapper, false);
         List<RoleMenu> roleMenuList = data.getRecords();
         List<RoleMenuListVo> roleMenuListVoList = new ArrayList<>();
         if (!roleMenuList.isEmpty()) {
@@ -57,17 +59,11 @@ public class RoleMenuServiceImpl extends BaseServiceImpl<RoleMenuMapper, RoleMen
                 RoleMenuListVo roleMenuListVo = new RoleMenuListVo();
                 // 拷贝属性
                 BeanUtils.copyProperties(item, roleMenuListVo);
-                // 添加人名称
-                if (roleMenuListVo.getCreateUser() != null && roleMenuListVo.getCreateUser() > 0) {
-                    roleMenuListVo.setCreateUserName(AdminUtils.getName((roleMenuListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (roleMenuListVo.getUpdateUser() != null && roleMenuListVo.getUpdateUser() > 0) {
-                    roleMenuListVo.setUpdateUserName(AdminUtils.getName((roleMenuListVo.getUpdateUser())));
-                }
                 roleMenuListVoList.add(roleMenuListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(roleMenuListVoList);
         return JsonResult.success("操作成功", roleMenuListVoList, data.getTotal());
     }
 
@@ -196,6 +192,10 @@ public class RoleMenuServiceImpl extends BaseServiceImpl<RoleMenuMapper, RoleMen
             roleMenu.setMenuId(Integer.valueOf(s));
             roleMenuMapper.insert(roleMenu);
         }
+        // 清空导航菜单缓存
+        menuCache.evictAll();
+        // 重新编译角色权限位图
+        permissionCache.updateRole(rolePermissionDto.getRoleId());
         return JsonResult.success("操作成功");
     }
 }
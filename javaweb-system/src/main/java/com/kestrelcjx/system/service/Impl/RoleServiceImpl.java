@@ -2,17 +2,17 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
+import com.kestrelcjx.system.cache.PermissionCache;
 import com.kestrelcjx.system.common.BaseServiceImpl;
 import com.kestrelcjx.system.constant.RoleConstant;
 import com.kestrelcjx.system.entity.Role;
 import com.kestrelcjx.system.mapper.RoleMapper;
 import com.kestrelcjx.system.query.RoleQuery;
 import com.kestrelcjx.system.service.IRoleService;
-import com.kestrelcjx.system.utils.AdminUtils;
+import com.kestrelcjx.system.utils.ShiroUtils;
 import com.kestrelcjx.system.vo.RoleListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +29,8 @@ import java.util.List;
 public class RoleServiceImpl extends BaseServiceImpl<RoleMapper, Role> implements IRoleService {
     @Autowired
     private RoleMapper roleMapper;
+    @Autowired
+    private PermissionCache permissionCache;
 
     /**
      * 获取数据列表
@@ -50,10 +52,8 @@ public class RoleServiceImpl extends BaseServiceImpl<RoleMapper, Role> implement
             queryWrapper.eq("status", roleQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<Role> page = new Page<>(roleQuery.getPage(), roleQuery.getLimit());
-        IPage<Role> data = roleMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<Role> data = this.selectPage(roleQuery, queryWrapper, false);
         List<Role> roleList = data.getRecords();
         List<RoleListVo> roleListVoList = new ArrayList<>();
         if (!roleList.isEmpty()) {
@@ -65,17 +65,11 @@ public class RoleServiceImpl extends BaseServiceImpl<RoleMapper, Role> implement
                 if (roleListVo.getStatus() != null && roleListVo.getStatus() > 0) {
                     roleListVo.setStatusName(RoleConstant.ROLE_STATUS_LIST.get(roleListVo.getStatus()));
                 }
-                // 添加人名称
-                if (roleListVo.getCreateUser() > 0) {
-                    roleListVo.setCreateUserName(AdminUtils.getName((roleListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (roleListVo.getUpdateUser() > 0) {
-                    roleListVo.setUpdateUserName(AdminUtils.getName((roleListVo.getUpdateUser())));
-                }
                 roleListVoList.add(roleListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(roleListVoList);
         return JsonResult.success("操作成功", roleListVoList, data.getTotal());
     }
 
@@ -117,7 +111,24 @@ public class RoleServiceImpl extends BaseServiceImpl<RoleMapper, Role> implement
         if (entity == null) {
             return JsonResult.error("记录不存在");
         }
-        return super.delete(entity);
+        JsonResult result = super.delete(entity);
+        // 重新加载权限位图
+        permissionCache.evictAll();
+        return result;
+    }
+
+    /**
+     * 批量删除
+     *
+     * @param ids 记录ID（多个使用逗号分隔）
+     * @return
+     */
+    @Override
+    public JsonResult deleteByIds(String ids) {
+        JsonResult result = super.deleteByIds(ids);
+        // 重新加载权限位图
+        permissionCache.evictAll();
+        return result;
     }
 
     /**
@@ -147,4 +158,19 @@ public class RoleServiceImpl extends BaseServiceImpl<RoleMapper, Role> implement
     public List<Role> getRoleListByAdminId(Integer adminId) {
         return roleMapper.getRoleListByAdminId(adminId);
     }
+
+    /**
+     * 强制退出拥有该角色的全部人员
+     *
+     * @param roleId 角色ID
+     * @return
+     */
+    @Override
+    public JsonResult kickSessions(Integer roleId) {
+        if (roleId == null || roleId <= 0) {
+            return JsonResult.error("记录ID不能为空");
+        }
+        int count = ShiroUtils.kickRole(roleId);
+        return JsonResult.success(String.format("已退出%d个会话", count));
+    }
 }
@@ -2,7 +2,6 @@ package com.kestrelcjx.system.service.Impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kestrelcjx.common.common.BaseQuery;
 import com.kestrelcjx.common.utils.JsonResult;
 import com.kestrelcjx.common.utils.StringUtils;
@@ -12,7 +11,6 @@ import com.kestrelcjx.system.entity.SmsLog;
 import com.kestrelcjx.system.mapper.SmsLogMapper;
 import com.kestrelcjx.system.query.SmsLogQuery;
 import com.kestrelcjx.system.service.ISmsLogService;
-import com.kestrelcjx.system.utils.AdminUtils;
 import com.kestrelcjx.system.vo.SmsLogListVo;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,10 +51,8 @@ public class SmsLogServiceImpl extends BaseServiceImpl<SmsLogMapper, SmsLog> imp
             queryWrapper.eq("status", smsLogQuery.getStatus());
         }
         queryWrapper.eq("mark", 1);
-        queryWrapper.orderByDesc("id");
-        // 查询数据
-        IPage<SmsLog> page = new Page<>(smsLogQuery.getPage(), smsLogQuery.getLimit());
-        IPage<SmsLog> data = smsLogMapper.selectPage(page, queryWrapper);
+        // 查询数据（传入afterId/beforeId时按ID游标分页）
+        IPage<SmsLog> data = this.selectPage(smsLogQuery, queryWrapper, false);
         List<SmsLog> smsLogList = data.getRecords();
         List<SmsLogListVo> smsLogListVoList = new ArrayList<>();
         if (!smsLogList.isEmpty()) {
@@ -72,17 +68,11 @@ public class SmsLogServiceImpl extends BaseServiceImpl<SmsLogMapper, SmsLog> imp
                 if (smsLogListVo.getStatus() != null && smsLogListVo.getStatus() > 0) {
                     smsLogListVo.setStatusName(SmsLogConstant.SMSLOG_STATUS_LIST.get(smsLogListVo.getStatus()));
                 }
-                // 添加人名称
-                if (smsLogListVo.getCreateUser() > 0) {
-                    smsLogListVo.setCreateUserName(AdminUtils.getName((smsLogListVo.getCreateUser())));
-                }
-                // 更新人名称
-                if (smsLogListVo.getUpdateUser() > 0) {
-                    smsLogListVo.setUpdateUserName(AdminUtils.getName((smsLogListVo.getUpdateUser())));
-                }
                 smsLogListVoList.add(smsLogListVo);
             });
         }
+        // 添加人、更新人名称
+        this.setUserName(smsLogListVoList);
         return JsonResult.success("操作成功", smsLogListVoList, data.getTotal());
     }
 
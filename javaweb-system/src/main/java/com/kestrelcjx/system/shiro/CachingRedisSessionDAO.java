@@ -0,0 +1,429 @@
+package com.kestrelcjx.system.shiro;
+
+import com.kestrelcjx.common.utils.LocalCache;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.common.utils.SpringUtils;
+import org.apache.shiro.session.Session;
+import org.apache.shiro.session.UnknownSessionException;
+import org.apache.shiro.session.mgt.SimpleSession;
+import org.apache.shiro.session.mgt.ValidatingSession;
+import org.crazycake.shiro.RedisSessionDAO;
+import org.crazycake.shiro.exception.SerializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 两级会话DAO（本地 + Redis）
+ * 1、读取的会话在本地缓存指定秒数，期间同一会话不再读取Redis
+ * 2、更新时若只有最后访问时间变化，不立即写入Redis，由后台线程定时批量写入；
+ *    是否只有访问时间变化按会话字段及属性（值按引用）与上次写入时比较，不序列化会话，
+ *    属性对象原地修改后重新setAttribute时由会话管理器标记为已修改（markDirty）；
+ *    定时写入按Redis中的值比较后设置（Lua），值已被其他节点修改或删除时放弃写入并清除本地缓存，
+ *    不会覆盖其他节点的修改，也不会重建已退出登录的会话
+ * 3、其他节点退出登录或会话过期时，通过Redis键空间通知（SessionKeyspaceListener）清除本地缓存
+ */
+public class CachingRedisSessionDAO extends RedisSessionDAO {
+    private static final Logger logger = LoggerFactory.getLogger(CachingRedisSessionDAO.class);
+    /**
+     * 使用会话超时时间作为Redis过期时间
+     */
+    private static final int DEFAULT_EXPIRE = -2;
+    /**
+     * Redis中的值与上次写入或读取的值相同时才设置：KEYS[1]会话KEY ARGV[1]上次的值 ARGV[2]新值 ARGV[3]过期秒数
+     */
+    private static final String COMPARE_AND_SET_SCRIPT =
+            "if redis.call('get', KEYS[1]) ~= ARGV[1] then " +
+                    "  return 0 " +
+                    "end " +
+                    "if tonumber(ARGV[3]) > 0 then " +
+                    "  redis.call('set', KEYS[1], ARGV[2], 'EX', ARGV[3]) " +
+                    "else " +
+                    "  redis.call('set', KEYS[1], ARGV[2]) " +
+                    "end " +
+                    "return 1";
+    /**
+     * 本地缓存
+     */
+    private final LocalCache<Serializable, CachedSession> localCache;
+    /**
+     * 待写入最后访问时间的会话
+     */
+    private final Map<Serializable, CachedSession> touchedMap = new ConcurrentHashMap<>();
+    /**
+     * 已标记修改的会话（下次更新时写入）
+     */
+    private final Set<Serializable> dirtySet = ConcurrentHashMap.newKeySet();
+    /**
+     * 定时写入线程
+     */
+    private final ScheduledExecutorService flushExecutor;
+
+    /**
+     * Redis读取次数
+     */
+    private final AtomicLong readCount = new AtomicLong();
+    /**
+     * Redis写入次数
+     */
+    private final AtomicLong writeCount = new AtomicLong();
+    /**
+     * 合并的访问时间更新次数
+     */
+    private final AtomicLong touchCount = new AtomicLong();
+    /**
+     * 定时写入时Redis中的值已变化而放弃的次数
+     */
+    private final AtomicLong touchConflictCount = new AtomicLong();
+    private volatile RedisUtils redisUtils;
+
+    /**
+     * 构造函数
+     *
+     * @param localMaxSize      本地缓存最大会话数
+     * @param localSeconds      本地缓存秒数
+     * @param touchFlushSeconds 最后访问时间写入间隔（秒）
+     */
+    public CachingRedisSessionDAO(int localMaxSize, long localSeconds, long touchFlushSeconds) {
+        this.localCache = new LocalCache<>(localMaxSize, localSeconds, TimeUnit.SECONDS);
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shiro-session-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushExecutor.scheduleWithFixedDelay(this::flushTouched, touchFlushSeconds, touchFlushSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected Serializable doCreate(Session session) {
+        Serializable sessionId = super.doCreate(session);
+        localCache.put(sessionId, new CachedSession(session, serialize(session)));
+        return sessionId;
+    }
+
+    @Override
+    protected Session doReadSession(Serializable sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        CachedSession cached = localCache.get(sessionId);
+        if (cached != null) {
+            return cached.session;
+        }
+        readCount.incrementAndGet();
+        byte[] value = getRedisManager().get(getSessionKey(sessionId));
+        if (value == null) {
+            return null;
+        }
+        Session session;
+        try {
+            session = (Session) getValueSerializer().deserialize(value);
+        } catch (SerializationException e) {
+            logger.error("read session error. sessionId={}", sessionId);
+            return null;
+        }
+        localCache.put(sessionId, new CachedSession(session, value));
+        return session;
+    }
+
+    @Override
+    public void update(Session session) throws UnknownSessionException {
+        if (session == null || session.getId() == null) {
+            logger.error("session or session id is null");
+            throw new UnknownSessionException("session or session id is null");
+        }
+        boolean dirty = dirtySet.remove(session.getId());
+        CachedSession cached = localCache.get(session.getId());
+        if (!dirty && cached != null && cached.session == session && session instanceof SimpleSession) {
+            synchronized (cached) {
+                // 字段及属性与上次写入时相同，则只有最后访问时间变化
+                if (cached.isUnchanged((SimpleSession) session)) {
+                    touchedMap.put(session.getId(), cached);
+                    touchCount.incrementAndGet();
+                    return;
+                }
+            }
+        }
+        write(session);
+    }
+
+    @Override
+    public void delete(Session session) {
+        if (session == null || session.getId() == null) {
+            logger.error("session or session id is null");
+            return;
+        }
+        evictLocal(session.getId());
+        getRedisManager().del(getSessionKey(session.getId()));
+    }
+
+    /**
+     * 清除本地缓存的会话（不删除Redis中的会话）
+     *
+     * @param sessionId 会话ID
+     */
+    public void evictLocal(Serializable sessionId) {
+        localCache.remove(sessionId);
+        touchedMap.remove(sessionId);
+        dirtySet.remove(sessionId);
+    }
+
+    /**
+     * 标记会话已修改，下次更新时写入Redis
+     * 会话管理器在设置属性前调用，属性对象原地修改后重新设置同一对象时按引用比较无法发现
+     *
+     * @param sessionId 会话ID
+     */
+    public void markDirty(Serializable sessionId) {
+        if (sessionId != null) {
+            dirtySet.add(sessionId);
+        }
+    }
+
+    /**
+     * 写入待更新的最后访问时间
+     * Redis中的值与本节点上次写入或读取的值相同时才写入，否则说明其他节点已修改或删除会话，放弃写入并清除本地缓存
+     */
+    public void flushTouched() {
+        Iterator<Map.Entry<Serializable, CachedSession>> iterator = touchedMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            CachedSession cached = iterator.next().getValue();
+            iterator.remove();
+            Session session = cached.session;
+            // 已停止或过期的会话不再写回
+            if (session instanceof ValidatingSession && !((ValidatingSession) session).isValid()) {
+                continue;
+            }
+            try {
+                byte[] expected;
+                synchronized (cached) {
+                    expected = cached.value;
+                }
+                byte[] value = serialize(session);
+                Long result = getRedisUtils().eval(COMPARE_AND_SET_SCRIPT, getSessionKey(session.getId()),
+                        expected, value, String.valueOf(getExpireSeconds(session)).getBytes(StandardCharsets.UTF_8));
+                if (result != null && result == 1) {
+                    writeCount.incrementAndGet();
+                    synchronized (cached) {
+                        cached.value = value;
+                    }
+                } else {
+                    touchConflictCount.incrementAndGet();
+                    if (localCache.get(session.getId()) == cached) {
+                        localCache.remove(session.getId());
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("写入会话[{}]最后访问时间失败：{}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 写入未更新的访问时间并停止定时线程
+     */
+    public void destroy() {
+        flushExecutor.shutdown();
+        flushTouched();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localSize", localCache.size());
+        stats.put("localHitRate", localCache.getHitRate());
+        stats.put("redisRead", readCount.get());
+        stats.put("redisWrite", writeCount.get());
+        stats.put("touchMerged", touchCount.get());
+        stats.put("touchPending", touchedMap.size());
+        stats.put("touchConflict", touchConflictCount.get());
+        return stats;
+    }
+
+    /**
+     * 写入Redis并更新本地缓存
+     *
+     * @param session 会话
+     */
+    private void write(Session session) {
+        CachedSession cached = localCache.get(session.getId());
+        if (cached == null || cached.session != session) {
+            cached = new CachedSession(session, null);
+            localCache.put(session.getId(), cached);
+        }
+        // 先记录状态再序列化，期间发生的修改在下次更新时比较不一致，会再次写入
+        synchronized (cached) {
+            cached.capture(session);
+        }
+        byte[] value = serialize(session);
+        getRedisManager().set(getSessionKey(session.getId()), value, getExpireSeconds(session));
+        writeCount.incrementAndGet();
+        touchedMap.remove(session.getId());
+        synchronized (cached) {
+            cached.value = value;
+        }
+    }
+
+    /**
+     * 获取会话在Redis中的过期秒数
+     *
+     * @param session 会话
+     * @return
+     */
+    private int getExpireSeconds(Session session) {
+        int expire = getExpire();
+        if (expire == DEFAULT_EXPIRE) {
+            expire = (int) (session.getTimeout() / 1000);
+        }
+        return expire;
+    }
+
+    /**
+     * DAO在Shiro配置中创建，Redis工具在首次定时写入时获取
+     */
+    private RedisUtils getRedisUtils() {
+        RedisUtils utils = redisUtils;
+        if (utils == null) {
+            utils = SpringUtils.getBean(RedisUtils.class);
+            redisUtils = utils;
+        }
+        return utils;
+    }
+
+    /**
+     * 序列化会话
+     *
+     * @param session 会话
+     * @return
+     */
+    private byte[] serialize(Session session) {
+        try {
+            return getValueSerializer().serialize(session);
+        } catch (SerializationException e) {
+            logger.error("serialize session error. session id={}", session.getId());
+            throw new UnknownSessionException(e);
+        }
+    }
+
+    /**
+     * 获取会话KEY
+     *
+     * @param sessionId 会话ID
+     * @return
+     */
+    private byte[] getSessionKey(Serializable sessionId) {
+        try {
+            return getKeySerializer().serialize(getKeyPrefix() + sessionId);
+        } catch (SerializationException e) {
+            throw new UnknownSessionException(e);
+        }
+    }
+
+    /**
+     * 本地缓存的会话
+     */
+    private static final class CachedSession {
+        /**
+         * 会话
+         */
+        private final Session session;
+        /**
+         * 最近一次写入或读取的序列化值（定时写入时与Redis中的值比较）
+         */
+        private byte[] value;
+        /**
+         * 最近一次写入或读取时的字段（最后访问时间除外）
+         */
+        private Date stopTimestamp;
+        private long timeout;
+        private boolean expired;
+        private String host;
+        /**
+         * 最近一次写入或读取时的属性（浅复制，值按引用比较）
+         */
+        private Map<Object, Object> attributes;
+        /**
+         * 状态是否记录成功
+         */
+        private boolean captured;
+
+        private CachedSession(Session session, byte[] value) {
+            this.session = session;
+            this.value = value;
+            capture(session);
+        }
+
+        /**
+         * 记录当前状态
+         *
+         * @param current 会话
+         */
+        private void capture(Session current) {
+            if (!(current instanceof SimpleSession)) {
+                return;
+            }
+            SimpleSession simpleSession = (SimpleSession) current;
+            stopTimestamp = simpleSession.getStopTimestamp();
+            timeout = simpleSession.getTimeout();
+            expired = simpleSession.isExpired();
+            host = simpleSession.getHost();
+            try {
+                Map<Object, Object> currentAttributes = simpleSession.getAttributes();
+                attributes = currentAttributes != null ? new HashMap<>(currentAttributes) : null;
+                captured = true;
+            } catch (ConcurrentModificationException e) {
+                // 属性正在被修改，下次更新时按已修改处理
+                captured = false;
+            }
+        }
+
+        /**
+         * 与记录的状态相比是否只有最后访问时间变化
+         *
+         * @param current 会话
+         * @return
+         */
+        private boolean isUnchanged(SimpleSession current) {
+            if (!captured || !Objects.equals(stopTimestamp, current.getStopTimestamp()) || timeout != current.getTimeout()
+                    || expired != current.isExpired() || !Objects.equals(host, current.getHost())) {
+                return false;
+            }
+            Map<Object, Object> currentAttributes = current.getAttributes();
+            if (currentAttributes == null || currentAttributes.isEmpty()) {
+                return attributes == null || attributes.isEmpty();
+            }
+            if (attributes == null || attributes.size() != currentAttributes.size()) {
+                return false;
+            }
+            try {
+                for (Map.Entry<Object, Object> entry : currentAttributes.entrySet()) {
+                    if (attributes.get(entry.getKey()) != entry.getValue()) {
+                        return false;
+                    }
+                }
+            } catch (ConcurrentModificationException e) {
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kestrelcjx.system.shiro;
+
+import org.apache.shiro.authz.Permission;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * 菜单权限
+ * 由权限字符串解析得到，记录拥有该权限标识的菜单ID，任一菜单位被授予即拥有该权限
+ */
+public class MenuPermission implements Permission, Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * 权限字符串
+     */
+    private final String name;
+    /**
+     * 菜单ID
+     */
+    private final int[] menuIds;
+
+    public MenuPermission(String name, int[] menuIds) {
+        this.name = name;
+        this.menuIds = menuIds;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 菜单位图中是否授予该权限
+     *
+     * @param bits 菜单位图（位下标为菜单ID）
+     * @return
+     */
+    public boolean isGranted(BitSet bits) {
+        for (int menuId : menuIds) {
+            if (bits.get(menuId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 权限之间的包含判断（仅同名权限相互包含）
+     *
+     * @param p 权限
+     * @return
+     */
+    @Override
+    public boolean implies(Permission p) {
+        return p instanceof MenuPermission && name.equals(((MenuPermission) p).name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,17 @@
+package com.kestrelcjx.system.shiro;
+
+import com.kestrelcjx.system.cache.PermissionCache;
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.authz.permission.PermissionResolver;
+
+/**
+ * 菜单权限解析器
+ * 将注解中的权限字符串解析为菜单权限（解析结果缓存在权限快照中）
+ */
+public class MenuPermissionResolver implements PermissionResolver {
+
+    @Override
+    public Permission resolvePermission(String permissionString) {
+        return PermissionCache.me().resolve(permissionString);
+    }
+}
@@ -1,6 +1,9 @@
 package com.kestrelcjx.system.shiro;
 
 import com.kestrelcjx.common.utils.StringUtils;
+import org.apache.shiro.session.InvalidSessionException;
+import org.apache.shiro.session.mgt.SessionKey;
+import org.apache.shiro.session.mgt.eis.SessionDAO;
 import org.apache.shiro.web.servlet.ShiroHttpServletRequest;
 import org.apache.shiro.web.session.mgt.DefaultWebSessionManager;
 import org.apache.shiro.web.util.WebUtils;
@@ -13,7 +16,8 @@ import java.io.Serializable;
  * 自定义session管理
  * 传统结构项目中，shiro从cookie中读取sessionId以此来维持会话，在前后端分离的项目中（也可在移动APP项目使用），
  * 我们选择在ajax的请求头中传递sessionId，因此需要重写shiro获取sessionId的方式。
- * 自定义MySessionManager类继承DefaultWebSessionManager类，重写getSessionId方法
+ * 自定义MySessionManager类继承DefaultWebSessionManager类，重写getSessionId方法；
+ * 设置属性时标记会话已修改，CachingRedisSessionDAO据此写入原地修改后重新设置的属性对象
  */
 public class MySessionManager extends DefaultWebSessionManager {
     private static final String AUTHORIZATION = "Authorization";
@@ -33,5 +37,20 @@ public class MySessionManager extends DefaultWebSessionManager {
             return super.getSessionId(request, response);
         }
     }
-}
 
+    @Override
+    public void setAttribute(SessionKey sessionKey, Object attributeKey, Object value) throws InvalidSessionException {
+        markDirty(sessionKey);
+        super.setAttribute(sessionKey, attributeKey, value);
+    }
+
+    /**
+     * 标记会话已修改（会话ID未确定时由DAO按属性引用比较）
+     */
+    private void markDirty(SessionKey sessionKey) {
+        SessionDAO sessionDAO = getSessionDAO();
+        if (sessionDAO instanceof CachingRedisSessionDAO) {
+            ((CachingRedisSessionDAO) sessionDAO).markDirty(sessionKey.getSessionId());
+        }
+    }
+}
@@ -2,16 +2,14 @@ package com.kestrelcjx.system.shiro;
 
 import com.kestrelcjx.common.exception.user.CaptchaException;
 import com.kestrelcjx.common.exception.user.UserNotExistsException;
-import com.kestrelcjx.common.utils.StringUtils;
 import com.kestrelcjx.system.entity.Admin;
-import com.kestrelcjx.system.entity.Menu;
 import com.kestrelcjx.system.entity.Role;
 import com.kestrelcjx.system.service.ILoginService;
-import com.kestrelcjx.system.service.IMenuService;
 import com.kestrelcjx.system.service.IRoleService;
 import org.apache.shiro.authc.*;
 import org.apache.shiro.authz.AuthorizationInfo;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.authz.permission.AllPermission;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.util.ByteSource;
@@ -29,8 +27,6 @@ public class MyShiroRealm extends AuthorizingRealm {
     private ILoginService loginService;
     @Autowired
     private IRoleService roleService;
-    @Autowired
-    private IMenuService menuService;
 
     /**
      * 授权权限
@@ -47,7 +43,7 @@ public class MyShiroRealm extends AuthorizingRealm {
         // 权限设置
         if (admin.getId().equals(1)) {
             // 超级管理员
-            simpleAuthorizationInfo.addStringPermission("*:*:*");
+            simpleAuthorizationInfo.addObjectPermission(new AllPermission());
         } else {
             // 普通管理员及其他
 
@@ -59,17 +55,9 @@ public class MyShiroRealm extends AuthorizingRealm {
             });
             simpleAuthorizationInfo.addRoles(roles);
 
-            // 设置菜单权限
-            List<Menu> menuList = menuService.getMenuListByAdminId(admin.getId());
-            Set<String> permissions = new HashSet<>();
-            for (Menu menu : menuList) {
-                if (StringUtils.isEmpty(menu.getPermission())) {
-                    continue;
-                }
-                permissions.add(menu.getPermission());
-                System.out.println("菜单权限：" + menu.getPermission());
-            }
-            simpleAuthorizationInfo.addStringPermissions(permissions);
+            // 设置菜单权限（按角色菜单位图校验，权限字符串由MenuPermissionResolver解析）
+            int[] roleIds = roleList.stream().mapToInt(Role::getId).toArray();
+            simpleAuthorizationInfo.addObjectPermission(new RoleBitPermission(roleIds));
         }
         return simpleAuthorizationInfo;
     }
@@ -0,0 +1,82 @@
+package com.kestrelcjx.system.shiro;
+
+import com.kestrelcjx.system.cache.PermissionCache;
+import org.apache.shiro.authz.Permission;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 角色位图权限
+ * 授权信息中只保存角色ID，校验时将角色菜单位图合并后按位判断，权限快照版本变化时重新合并
+ */
+public class RoleBitPermission implements Permission, Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * 角色ID
+     */
+    private final int[] roleIds;
+    /**
+     * 已合并的菜单位图
+     */
+    private volatile Compiled compiled;
+
+    public RoleBitPermission(int[] roleIds) {
+        this.roleIds = roleIds;
+    }
+
+    /**
+     * 是否拥有权限
+     *
+     * @param p 权限（由MenuPermissionResolver解析得到）
+     * @return
+     */
+    @Override
+    public boolean implies(Permission p) {
+        if (!(p instanceof MenuPermission)) {
+            return false;
+        }
+        return ((MenuPermission) p).isGranted(getBits());
+    }
+
+    /**
+     * 获取合并后的菜单位图
+     *
+     * @return
+     */
+    private BitSet getBits() {
+        PermissionCache.Snapshot snapshot = PermissionCache.me().getSnapshot();
+        Compiled current = compiled;
+        if (current == null || current.version != snapshot.getVersion()) {
+            current = new Compiled(snapshot.getVersion(), snapshot.compile(roleIds));
+            compiled = current;
+        }
+        return current.bits;
+    }
+
+    @Override
+    public String toString() {
+        return "roles" + Arrays.toString(roleIds);
+    }
+
+    /**
+     * 合并结果（创建后不可变）
+     */
+    private static final class Compiled implements Serializable {
+        private static final long serialVersionUID = 1L;
+        /**
+         * 权限快照版本
+         */
+        private final long version;
+        /**
+         * 菜单位图
+         */
+        private final BitSet bits;
+
+        private Compiled(long version, BitSet bits) {
+            this.version = version;
+            this.bits = bits;
+        }
+    }
+}
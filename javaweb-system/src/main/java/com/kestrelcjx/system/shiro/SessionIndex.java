@@ -0,0 +1,164 @@
+package com.kestrelcjx.system.shiro;
+
+import com.kestrelcjx.common.constant.RedisConstant;
+import com.kestrelcjx.common.utils.RedisUtils;
+import com.kestrelcjx.system.entity.Admin;
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.authc.AuthenticationException;
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationListener;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authc.pam.ModularRealmAuthenticator;
+import org.apache.shiro.mgt.SecurityManager;
+import org.apache.shiro.session.Session;
+import org.apache.shiro.session.SessionListenerAdapter;
+import org.apache.shiro.session.mgt.DefaultSessionManager;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.support.DefaultSubjectContext;
+import org.apache.shiro.web.mgt.DefaultWebSecurityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 人员会话索引
+ * 每个人员一个Redis集合保存其会话ID，登录成功时加入，退出登录或会话过期时移除；
+ * 按人员查找会话只需读取该集合，无需遍历全部会话。会话KEY在Redis中直接过期时集合中会残留会话ID，读取会话时再清除
+ */
+@Component
+public class SessionIndex extends SessionListenerAdapter implements AuthenticationListener {
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private SecurityManager securityManager;
+    /**
+     * 索引过期时间（秒），每次登录时重新计时，默认与会话KEY的过期时间一致
+     */
+    @Value("${shiro.session.indexSeconds:604800}")
+    private long indexSeconds;
+
+    @PostConstruct
+    public void init() {
+        DefaultWebSecurityManager webSecurityManager = (DefaultWebSecurityManager) securityManager;
+        ((ModularRealmAuthenticator) webSecurityManager.getAuthenticator()).getAuthenticationListeners().add(this);
+        ((DefaultSessionManager) webSecurityManager.getSessionManager()).getSessionListeners().add(this);
+    }
+
+    /**
+     * 添加会话
+     *
+     * @param adminId   人员ID
+     * @param sessionId 会话ID
+     */
+    public void add(Integer adminId, Serializable sessionId) {
+        if (adminId == null || sessionId == null) {
+            return;
+        }
+        redisUtils.sSetAndTime(getKey(adminId), indexSeconds, sessionId.toString());
+    }
+
+    /**
+     * 移除会话
+     *
+     * @param adminId   人员ID
+     * @param sessionId 会话ID
+     */
+    public void remove(Integer adminId, Serializable sessionId) {
+        if (adminId == null || sessionId == null) {
+            return;
+        }
+        redisUtils.setRemove(getKey(adminId), sessionId.toString());
+    }
+
+    /**
+     * 获取人员的全部会话ID（可能包含已过期的会话）
+     *
+     * @param adminId 人员ID
+     * @return
+     */
+    public List<String> getSessionIds(Integer adminId) {
+        if (adminId == null) {
+            return Collections.emptyList();
+        }
+        Set<Object> members = redisUtils.sGet(getKey(adminId));
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> sessionIds = new ArrayList<>(members.size());
+        for (Object member : members) {
+            sessionIds.add(member.toString());
+        }
+        return sessionIds;
+    }
+
+    /**
+     * 登录成功（登录前后使用同一会话）
+     *
+     * @param token 登录凭证
+     * @param info  认证信息
+     */
+    @Override
+    public void onSuccess(AuthenticationToken token, AuthenticationInfo info) {
+        Object principal = info.getPrincipals().getPrimaryPrincipal();
+        if (principal instanceof Admin) {
+            add(((Admin) principal).getId(), SecurityUtils.getSubject().getSession().getId());
+        }
+    }
+
+    @Override
+    public void onFailure(AuthenticationToken token, AuthenticationException ae) {
+    }
+
+    /**
+     * 退出登录（会话停止前，当前线程为退出登录的用户）
+     *
+     * @param principals 登录信息
+     */
+    @Override
+    public void onLogout(PrincipalCollection principals) {
+        Object principal = principals.getPrimaryPrincipal();
+        Session session = SecurityUtils.getSubject().getSession(false);
+        // 只处理当前会话本人的登出，清除其他人员缓存时传入的登录信息不属于当前会话
+        if (principal instanceof Admin && session != null
+                && Objects.equals(getAdminId(session), ((Admin) principal).getId())) {
+            remove(((Admin) principal).getId(), session.getId());
+        }
+    }
+
+    /**
+     * 会话过期（由会话管理器校验时发现）
+     *
+     * @param session 会话
+     */
+    @Override
+    public void onExpiration(Session session) {
+        remove(getAdminId(session), session.getId());
+    }
+
+    /**
+     * 获取会话中登录人员的ID
+     *
+     * @param session 会话
+     * @return 未登录时返回null
+     */
+    public static Integer getAdminId(Session session) {
+        Object attribute = session.getAttribute(DefaultSubjectContext.PRINCIPALS_SESSION_KEY);
+        if (!(attribute instanceof PrincipalCollection)) {
+            return null;
+        }
+        Object principal = ((PrincipalCollection) attribute).getPrimaryPrincipal();
+        return principal instanceof Admin ? ((Admin) principal).getId() : null;
+    }
+
+    private String getKey(Integer adminId) {
+        return String.format(RedisConstant.REDIS_PREFIX_SESSION_INDEX, adminId);
+    }
+}
@@ -0,0 +1,104 @@
+package com.kestrelcjx.system.shiro;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * 会话键空间通知监听
+ * 会话KEY被删除（退出登录、踢出）或过期时，清除本节点缓存的会话
+ */
+@Component
+public class SessionKeyspaceListener implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(SessionKeyspaceListener.class);
+    /**
+     * 键空间通知配置项
+     */
+    private static final String NOTIFY_KEYSPACE_EVENTS = "notify-keyspace-events";
+    /**
+     * 是否自动开启Redis键空间通知（K：键空间通知，g：删除等通用命令，x：过期）
+     */
+    @Value("${shiro.session.notifyKeyspaceEvents:true}")
+    private boolean notifyKeyspaceEvents;
+    @Autowired
+    private CachingRedisSessionDAO redisSessionDAO;
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * 会话KEY前缀
+     */
+    private String sessionKeyPrefix;
+
+    @PostConstruct
+    public void init() {
+        sessionKeyPrefix = redisSessionDAO.getKeyPrefix();
+        if (notifyKeyspaceEvents) {
+            enableKeyspaceEvents();
+        }
+        redisMessageListenerContainer.addMessageListener(this,
+                new PatternTopic("__keyspace@*__:" + sessionKeyPrefix + "*"));
+    }
+
+    /**
+     * 接收会话KEY的键空间通知
+     *
+     * @param message 消息（频道为KEY，内容为事件名称）
+     * @param pattern 订阅的频道模式
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String event = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!"del".equals(event) && !"expired".equals(event) && !"evicted".equals(event)) {
+            return;
+        }
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        int index = channel.indexOf(sessionKeyPrefix);
+        if (index < 0) {
+            return;
+        }
+        redisSessionDAO.evictLocal(channel.substring(index + sessionKeyPrefix.length()));
+    }
+
+    /**
+     * 开启Redis键空间通知（保留已有配置，无CONFIG权限时需在Redis配置文件中开启）
+     */
+    private void enableKeyspaceEvents() {
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            Properties properties = connection.getConfig(NOTIFY_KEYSPACE_EVENTS);
+            String value = properties.getProperty(NOTIFY_KEYSPACE_EVENTS, "");
+            String events = value;
+            if (!events.contains("K")) {
+                events += "K";
+            }
+            if (!events.contains("A")) {
+                if (!events.contains("g")) {
+                    events += "g";
+                }
+                if (!events.contains("x")) {
+                    events += "x";
+                }
+            }
+            if (!events.equals(value)) {
+                connection.setConfig(NOTIFY_KEYSPACE_EVENTS, events);
+                logger.info("已开启Redis键空间通知：{}", events);
+            }
+        } catch (Exception e) {
+            logger.warn("开启Redis键空间通知失败，其他节点退出登录时将在本地缓存过期后生效：{}", e.getMessage());
+        }
+    }
+}
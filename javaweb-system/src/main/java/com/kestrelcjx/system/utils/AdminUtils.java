@@ -1,8 +1,11 @@
 package com.kestrelcjx.system.utils;
 
+import com.kestrelcjx.common.utils.ReflectUtils;
 import com.kestrelcjx.common.utils.SpringUtils;
+import com.kestrelcjx.system.cache.AdminCache;
 import com.kestrelcjx.system.entity.Admin;
-import com.kestrelcjx.system.mapper.AdminMapper;
+
+import java.util.*;
 
 public class AdminUtils {
     /**
@@ -12,8 +15,62 @@ public class AdminUtils {
      * @return
      */
     public static String getName(Integer id) {
-        AdminMapper adminMapper = SpringUtils.getBean(AdminMapper.class);
-        Admin admin = adminMapper.selectById(id);
-        return admin.getRealname();
+        Admin admin = SpringUtils.getBean(AdminCache.class).get(id);
+        return admin != null ? admin.getRealname() : null;
+    }
+
+    /**
+     * 根据ID集合批量获取人员名称
+     *
+     * @param ids 人员ID集合
+     * @return 人员ID与名称的对应关系
+     */
+    public static Map<Integer, String> getNameMap(Collection<Integer> ids) {
+        Map<Integer, String> nameMap = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return nameMap;
+        }
+        Map<Integer, Admin> adminMap = SpringUtils.getBean(AdminCache.class).getBatch(ids);
+        adminMap.forEach((id, admin) -> nameMap.put(id, admin.getRealname()));
+        return nameMap;
+    }
+
+    /**
+     * 批量设置列表数据的添加人、更新人名称
+     * 先收集整页数据涉及的人员ID，从人员缓存批量获取（未命中的一次IN查询加载）后再统一回填
+     *
+     * @param list 列表数据（需包含createUser、updateUser属性）
+     */
+    public static void setUserName(List<?> list) {
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        // 收集人员ID
+        Set<Integer> ids = new HashSet<>();
+        for (Object item : list) {
+            Integer createUser = ReflectUtils.getFieldValue(item, "createUser");
+            if (createUser != null && createUser > 0) {
+                ids.add(createUser);
+            }
+            Integer updateUser = ReflectUtils.getFieldValue(item, "updateUser");
+            if (updateUser != null && updateUser > 0) {
+                ids.add(updateUser);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> nameMap = getNameMap(ids);
+        // 回填人员名称
+        for (Object item : list) {
+            Integer createUser = ReflectUtils.getFieldValue(item, "createUser");
+            if (createUser != null && nameMap.containsKey(createUser)) {
+                ReflectUtils.invokeSetter(item, "createUserName", nameMap.get(createUser));
+            }
+            Integer updateUser = ReflectUtils.getFieldValue(item, "updateUser");
+            if (updateUser != null && nameMap.containsKey(updateUser)) {
+                ReflectUtils.invokeSetter(item, "updateUserName", nameMap.get(updateUser));
+            }
+        }
     }
 }
@@ -1,17 +1,22 @@
 package com.kestrelcjx.system.utils;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.kestrelcjx.common.utils.SpringUtils;
 import com.kestrelcjx.system.entity.Admin;
+import com.kestrelcjx.system.entity.AdminRole;
+import com.kestrelcjx.system.mapper.AdminRoleMapper;
+import com.kestrelcjx.system.service.IAdminService;
+import com.kestrelcjx.system.shiro.SessionIndex;
 import org.apache.shiro.SecurityUtils;
-import org.apache.shiro.authc.Authenticator;
 import org.apache.shiro.authc.LogoutAware;
+import org.apache.shiro.realm.Realm;
 import org.apache.shiro.session.Session;
-import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.apache.shiro.session.UnknownSessionException;
+import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.subject.support.DefaultSubjectContext;
 import org.apache.shiro.web.mgt.DefaultWebSecurityManager;
 import org.crazycake.shiro.RedisSessionDAO;
 
-import java.util.Collection;
 import java.util.Objects;
 
 /**
@@ -24,6 +29,8 @@ public class ShiroUtils {
 
     private static RedisSessionDAO redisSessionDAO = SpringUtils.getBean(RedisSessionDAO.class);
 
+    private static SessionIndex sessionIndex = SpringUtils.getBean(SessionIndex.class);
+
     /**
      * 获取当前用户Session
      *
@@ -66,36 +73,75 @@ public class ShiroUtils {
      * @param isRemoveSession 是否删除Session
      */
     public static void deleteCache(String username, boolean isRemoveSession) {
-        // 从缓存中获取Session
-        Session session = null;
-        Collection<Session> sessions = redisSessionDAO.getActiveSessions();
-        Admin admin;
-        Object attribute = null;
-        for (Session sessionInfo : sessions) {
-            // 遍历Session，找到该用户名称对应的Session
-            attribute = sessionInfo.getAttribute(DefaultSubjectContext.PRINCIPALS_SESSION_KEY);
-            if (null == attribute) {
+        Admin admin = SpringUtils.getBean(IAdminService.class).getAdminByUsername(username);
+        if (null == admin) {
+            return;
+        }
+        deleteCache(admin.getId(), isRemoveSession);
+    }
+
+    /**
+     * 删除用户缓存信息
+     * 通过人员会话索引找到该人员的会话，不遍历全部会话
+     *
+     * @param adminId         人员ID
+     * @param isRemoveSession 是否删除Session（强制退出登录）
+     * @return 找到的会话数
+     */
+    public static int deleteCache(Integer adminId, boolean isRemoveSession) {
+        PrincipalCollection principals = null;
+        int count = 0;
+        for (String sessionId : sessionIndex.getSessionIds(adminId)) {
+            Session session;
+            try {
+                session = redisSessionDAO.readSession(sessionId);
+            } catch (UnknownSessionException e) {
+                // 会话已过期，清除索引
+                sessionIndex.remove(adminId, sessionId);
                 continue;
             }
-            admin = (Admin) ((SimplePrincipalCollection) attribute).getPrimaryPrincipal();
-            if (null == admin) {
+            Object attribute = session.getAttribute(DefaultSubjectContext.PRINCIPALS_SESSION_KEY);
+            if (!Objects.equals(SessionIndex.getAdminId(session), adminId)) {
+                // 会话已退出登录或被其他人员使用
+                sessionIndex.remove(adminId, sessionId);
                 continue;
             }
-            if (Objects.equals(admin.getUsername(), username)) {
-                session = sessionInfo;
-                break;
+            principals = (PrincipalCollection) attribute;
+            count++;
+            // 删除Session
+            if (isRemoveSession) {
+                redisSessionDAO.delete(session);
+                sessionIndex.remove(adminId, sessionId);
             }
         }
-        if (null == session || null == attribute) {
-            return;
-        }
-        // 删除Session
-        if (isRemoveSession) {
-            redisSessionDAO.delete(session);
+        if (null == principals) {
+            return count;
         }
         // 删除Cache，在访问受限接口时会重新授权
+        // 直接清除Realm缓存，不经过认证器的登出监听（监听按当前会话处理，会误删当前人员的会话索引）
         DefaultWebSecurityManager securityManager = (DefaultWebSecurityManager) SecurityUtils.getSecurityManager();
-        Authenticator authenticator = securityManager.getAuthenticator();
-        ((LogoutAware) authenticator).onLogout((SimplePrincipalCollection) attribute);
+        for (Realm realm : securityManager.getRealms()) {
+            if (realm instanceof LogoutAware) {
+                ((LogoutAware) realm).onLogout(principals);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 强制退出拥有指定角色的全部人员
+     *
+     * @param roleId 角色ID
+     * @return 退出的会话数
+     */
+    public static int kickRole(Integer roleId) {
+        QueryWrapper<AdminRole> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("admin_id");
+        queryWrapper.eq("role_id", roleId);
+        int count = 0;
+        for (AdminRole adminRole : SpringUtils.getBean(AdminRoleMapper.class).selectList(queryWrapper)) {
+            count += deleteCache(adminRole.getAdminId(), true);
+        }
+        return count;
     }
 }
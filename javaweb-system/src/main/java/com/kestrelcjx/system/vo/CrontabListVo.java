@@ -21,6 +21,10 @@ public class CrontabListVo {
      * crontab格式
      */
     private String cron;
+    /**
+     * 任务处理器
+     */
+    private String handler;
     /**
      * 延迟秒数(单位 毫秒)
      */
@@ -89,6 +93,10 @@ public class CrontabListVo {
         return this.cron;
     }
 
+    public String getHandler() {
+        return this.handler;
+    }
+
     public Integer getDelay() {
         return this.delay;
     }
@@ -149,6 +157,10 @@ public class CrontabListVo {
         this.cron = cron;
     }
 
+    public void setHandler(String handler) {
+        this.handler = handler;
+    }
+
     public void setDelay(Integer delay) {
         this.delay = delay;
     }
@@ -206,6 +218,8 @@ public class CrontabListVo {
         if (this.getTitle() == null ? other.getTitle() != null : !this.getTitle().equals(other.getTitle()))
             return false;
         if (this.getCron() == null ? other.getCron() != null : !this.getCron().equals(other.getCron())) return false;
+        if (this.getHandler() == null ? other.getHandler() != null : !this.getHandler().equals(other.getHandler()))
+            return false;
         if (this.getDelay() == null ? other.getDelay() != null : !this.getDelay().equals(other.getDelay()))
             return false;
         if (this.getFixed() == null ? other.getFixed() != null : !this.getFixed().equals(other.getFixed()))
@@ -249,6 +263,7 @@ public class CrontabListVo {
         result = result * PRIME + (this.getId() == null ? 43 : this.getId().hashCode());
         result = result * PRIME + (this.getTitle() == null ? 43 : this.getTitle().hashCode());
         result = result * PRIME + (this.getCron() == null ? 43 : this.getCron().hashCode());
+        result = result * PRIME + (this.getHandler() == null ? 43 : this.getHandler().hashCode());
         result = result * PRIME + (this.getDelay() == null ? 43 : this.getDelay().hashCode());
         result = result * PRIME + (this.getFixed() == null ? 43 : this.getFixed().hashCode());
         result = result * PRIME + (this.getExecute() == null ? 43 : this.getExecute().hashCode());
@@ -269,6 +284,7 @@ public class CrontabListVo {
                 "id=" + this.getId() +
                 ", title=" + this.getTitle() +
                 ", cron=" + this.getCron() +
+                ", handler=" + this.getHandler() +
                 ", delay=" + this.getDelay() +
                 ", fixed=" + this.getFixed() +
                 ", execute=" + this.getExecute() +